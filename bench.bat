@@ -0,0 +1,23 @@
+@echo off
+REM Script des benchmarks JMH pour Windows
+REM Les jars de JMH (jmh-core, jmh-generator-annprocess, jopt-simple, commons-math3)
+REM doivent etre presents dans lib\ (voir bench.sh pour les versions).
+
+echo Compilation des benchmarks...
+if not exist classes-bench mkdir classes-bench
+dir /s /B src\*.java bench\src\*.java > sources-bench.txt
+REM Le chemin des processeurs d annotations n accepte pas les jokers
+setlocal enabledelayedexpansion
+set LIB_CP=
+for %%j in (lib\*.jar) do set LIB_CP=!LIB_CP!;%%j
+javac -encoding UTF-8 -cp "!LIB_CP!" -processorpath "!LIB_CP!" -d classes-bench @sources-bench.txt
+
+if %ERRORLEVEL% NEQ 0 (
+    echo Erreur de compilation.
+    del sources-bench.txt
+    exit /b 1
+)
+del sources-bench.txt
+
+REM Debit (ops/temps) et taux d allocation (profileur gc)
+java -cp "classes-bench!LIB_CP!" org.openjdk.jmh.Main -prof gc %*
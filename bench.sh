@@ -0,0 +1,39 @@
+#!/bin/bash
+# Script des benchmarks JMH pour Linux/Mac
+#
+# Les jars de JMH sont attendus dans lib/ (telecharges au premier lancement).
+# Les options sont transmises a JMH, par exemple :
+#   ./bench.sh ScoringBenchmark
+#   ./bench.sh -p players=4 EngineBenchmark.fullGame
+
+JMH_VERSION=1.37
+MAVEN=https://repo1.maven.org/maven2
+JARS="org/openjdk/jmh/jmh-core/$JMH_VERSION/jmh-core-$JMH_VERSION.jar
+org/openjdk/jmh/jmh-generator-annprocess/$JMH_VERSION/jmh-generator-annprocess-$JMH_VERSION.jar
+net/sf/jopt-simple/jopt-simple/5.0.4/jopt-simple-5.0.4.jar
+org/apache/commons/commons-math3/3.6.1/commons-math3-3.6.1.jar"
+
+mkdir -p lib
+for jar in $JARS; do
+    if [ ! -f "lib/$(basename "$jar")" ]; then
+        echo "Telechargement de $(basename "$jar")..."
+        curl -sSfL -o "lib/$(basename "$jar")" "$MAVEN/$jar" || { echo "Echec du telechargement."; exit 1; }
+    fi
+done
+
+echo "Compilation des benchmarks..."
+rm -rf classes-bench
+mkdir -p classes-bench
+find src bench/src -name "*.java" > sources-bench.txt
+# Le chemin des processeurs d annotations n accepte pas les jokers
+LIB_CP=$(ls lib/*.jar | tr '\n' ':')
+javac -encoding UTF-8 -cp "$LIB_CP" -processorpath "$LIB_CP" -d classes-bench @sources-bench.txt
+status=$?
+rm sources-bench.txt
+if [ $status -ne 0 ]; then
+    echo "Erreur de compilation."
+    exit 1
+fi
+
+# Debit (ops/temps) et taux d allocation (profileur gc)
+java -cp "classes-bench:$LIB_CP" org.openjdk.jmh.Main -prof gc "$@"
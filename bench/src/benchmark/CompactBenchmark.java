@@ -0,0 +1,65 @@
+package benchmark;
+
+import model.*;
+import model.compact.CompactGame;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks du modele compact utilise par les IA de recherche.
+ * 
+ * <p>Compare deux facons d explorer une fin de partie aleatoire depuis
+ * le debut d une partie : copier la position puis la jouer
+ * ({@link CompactGame#copyFrom(CompactGame)}), ou la jouer sur place
+ * puis tout annuler ({@link CompactGame#undo()}).</p>
+ * 
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactBenchmark {
+
+    /** Nombre de joueurs. */
+    @Param({"3", "4"})
+    public int players;
+
+    /** Deck de 33 cartes ou non. */
+    @Param({"false", "true"})
+    public boolean extension;
+
+    private CompactGame root;
+    private CompactGame work;
+    private GameRandom random;
+
+    @Setup
+    public void setup() {
+        root = new CompactGame();
+        root.load(Fixtures.startedGame(players, extension, Fixtures.SEED));
+        work = new CompactGame();
+        work.copyFrom(root);
+        random = new GameRandom(Fixtures.SEED);
+    }
+
+    @Benchmark
+    public int copyAndPlayout() {
+        work.copyFrom(root);
+        work.playRandom(random);
+        return work.winner();
+    }
+
+    @Benchmark
+    public int playoutAndUndo() {
+        work.playRandom(random);
+        int winner = work.winner();
+        while (work.getDepth() > 0) {
+            work.undo();
+        }
+        return winner;
+    }
+}
@@ -0,0 +1,141 @@
+package benchmark;
+
+import controller.GameEngine;
+import controller.SimulationRunner;
+import model.*;
+import model.rules.Rule1;
+import observer.GameJournal;
+import observer.JournalObserver;
+import strategy.Strategy;
+import strategy.Strategy1;
+import strategy.Strategy2;
+import org.openjdk.jmh.annotations.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks du deroulement d une partie.
+ * 
+ * <p>Mesure l ordre de jeu ({@link GameEngine#determineTurnOrder(List)}),
+ * l initialisation et le melange du deck, une partie complete entre
+ * IA a 3 et 4 joueurs, avec et sans l extension 5-8, et la copie d une
+ * partie ({@link Game#copy()} face a un aller-retour par serialisation).
+ * La meme partie enregistree dans un journal ({@link JournalObserver})
+ * donne le surcout de la journalisation.</p>
+ * 
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    /** Nombre de joueurs. */
+    @Param({"3", "4"})
+    public int players;
+
+    /** Deck de 33 cartes ou non. */
+    @Param({"false", "true"})
+    public boolean extension;
+
+    private List<Offer> offers;
+    private Game game;
+    private Deck deck;
+    private GameRandom random;
+    private long gameIndex;
+    private Path journalFile;
+    private GameJournal journal;
+    private JournalObserver journalObserver;
+
+    @Setup
+    public void setup() throws IOException {
+        game = Fixtures.finishedGame(players, extension, Fixtures.SEED);
+        Deck source = new Deck();
+        source.initialize(extension);
+        source.shuffle(new GameRandom(Fixtures.SEED));
+
+        offers = new ArrayList<>();
+        for (Player p : game.getPlayers()) {
+            Offer offer = new Offer(p);
+            offer.setFaceUp(source.draw());
+            offer.setFaceDown(source.draw());
+            offers.add(offer);
+        }
+
+        deck = new Deck();
+        random = new GameRandom(Fixtures.SEED);
+
+        journalFile = Files.createTempFile("jest-bench", ".journal");
+        journal = GameJournal.open(journalFile);
+        journalObserver = new JournalObserver(journal);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journalObserver.flush();
+        journal.close();
+        Files.deleteIfExists(journalFile);
+    }
+
+    @Benchmark
+    public List<Player> turnOrder() {
+        return GameEngine.determineTurnOrder(offers);
+    }
+
+    @Benchmark
+    public Deck initializeAndShuffle() {
+        deck.initialize(extension);
+        deck.shuffle(random);
+        return deck;
+    }
+
+    @Benchmark
+    public Player fullGame() {
+        List<Strategy> strategies = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            strategies.add(i % 2 == 0 ? new Strategy1() : new Strategy2());
+        }
+        long seed = GameRandom.streamSeed(Fixtures.SEED, gameIndex++);
+        return SimulationRunner.playHeadless(strategies, new Rule1(), extension, seed).getWinner();
+    }
+
+    @Benchmark
+    public Player journaledGame() {
+        List<Strategy> strategies = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            strategies.add(i % 2 == 0 ? new Strategy1() : new Strategy2());
+        }
+        long seed = GameRandom.streamSeed(Fixtures.SEED, gameIndex++);
+        return SimulationRunner.playHeadless(strategies, new Rule1(), extension, false, seed, journalObserver)
+                .getWinner();
+    }
+
+    @Benchmark
+    public Game copyGame() {
+        return game.copy();
+    }
+
+    @Benchmark
+    public Object serializeGame() throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(game);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return in.readObject();
+        }
+    }
+}
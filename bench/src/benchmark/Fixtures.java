@@ -0,0 +1,133 @@
+package benchmark;
+
+import controller.GameEngine;
+import model.*;
+import model.rules.Rule1;
+import model.trophy.TrophyFactory;
+import strategy.Strategy1;
+import java.util.List;
+
+/**
+ * Positions de test partagees par les benchmarks.
+ * 
+ * <p>Toutes les positions sont construites a partir d une graine fixe
+ * pour que deux executions mesurent exactement le meme travail.</p>
+ * 
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ */
+final class Fixtures {
+
+    /** Graine commune des positions de test. */
+    static final long SEED = 20260106L;
+
+    private Fixtures() {}
+
+    /**
+     * Construit un Jest de fin de partie (cartes melangees tirees du deck).
+     * 
+     * @param size             le nombre de cartes
+     * @param includeExtension true pour piocher dans le deck de 33 cartes
+     * @param seed             la graine du melange
+     * @return le Jest
+     */
+    static Jest jest(int size, boolean includeExtension, long seed) {
+        Deck deck = new Deck();
+        deck.initialize(includeExtension);
+        deck.shuffle(new GameRandom(seed));
+        Jest jest = new Jest();
+        for (int i = 0; i < size; i++) {
+            jest.addCard(deck.draw());
+        }
+        return jest;
+    }
+
+    /**
+     * Construit une partie qui vient de demarrer (trophees tires, rien de distribue).
+     * 
+     * @param players          le nombre de joueurs
+     * @param includeExtension true pour les cartes 5-8
+     * @param seed             la graine de la partie
+     * @return la partie au debut du premier tour
+     */
+    static Game startedGame(int players, boolean includeExtension, long seed) {
+        Game game = new Game();
+        game.setSeed(seed);
+        for (int i = 0; i < players; i++) {
+            game.addPlayer(new Player("IA " + (i + 1), new Strategy1()));
+        }
+        game.setRuleSet(new Rule1());
+        game.setExtensionCards(includeExtension);
+        game.getDeck().initialize(includeExtension);
+        game.start();
+        return game;
+    }
+
+    /**
+     * Construit une partie au debut des prises du premier tour.
+     * 
+     * <p>Les offres sont faites par {@link Strategy1} et publiees comme le
+     * ferait le moteur ; le premier joueur de l ordre de prise doit jouer.</p>
+     * 
+     * @param players          le nombre de joueurs
+     * @param includeExtension true pour les cartes 5-8
+     * @param seed             la graine de la partie
+     * @return la partie en attente de la premiere prise
+     */
+    static Game takingGame(int players, boolean includeExtension, long seed) {
+        Game game = startedGame(players, includeExtension, seed);
+        game.dealRound();
+        List<Offer> offers = game.getCurrentOffers();
+        for (Player player : game.getPlayers()) {
+            offers.add(player.makeOffer(game));
+        }
+        game.setTurnOrder(GameEngine.determineTurnOrder(offers));
+        return game;
+    }
+
+    /**
+     * Construit une partie terminee dont les Jests sont remplis mais pas encore scores.
+     * 
+     * <p>Les trophees sont tires comme dans {@link Game#start()} et le deck
+     * restant est reparti entre les joueurs a raison de 5 cartes chacun.</p>
+     * 
+     * @param players          le nombre de joueurs
+     * @param includeExtension true pour les cartes 5-8
+     * @param seed             la graine de la partie
+     * @return la partie prete pour {@link Game#winner()}
+     */
+    static Game finishedGame(int players, boolean includeExtension, long seed) {
+        Game game = new Game();
+        game.setSeed(seed);
+        for (int i = 0; i < players; i++) {
+            game.addPlayer(new Player("IA " + (i + 1), new Strategy1()));
+        }
+        game.setRuleSet(new Rule1());
+        game.setExtensionCards(includeExtension);
+        game.getDeck().initialize(includeExtension);
+        game.start();
+
+        List<Player> list = game.getPlayers();
+        for (int c = 0; c < 5 * players && !game.getDeck().isEmpty(); c++) {
+            list.get(c % players).getJest().addCard(game.getDeck().draw());
+        }
+        return game;
+    }
+
+    /**
+     * Retourne un exemplaire de chaque type de trophee.
+     * 
+     * @return les trophees, dans l ordre Highest, Lowest, Majority, Joker, Best Jest, Best Jest No Joke
+     */
+    static TrophyCard[] allTrophies() {
+        return new TrophyCard[]{
+                TrophyFactory.createHighestTrophy(Suits.SPADES),
+                TrophyFactory.createLowestTrophy(Suits.DIAMONDS),
+                TrophyFactory.createMajorityTrophy(Suits.HEARTS),
+                TrophyFactory.createJokerTrophy(),
+                TrophyFactory.createBestJestTrophy(),
+                TrophyFactory.createBestJestNoJokeTrophy()
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package benchmark;
+
+import model.*;
+import strategy.MctsStrategy;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la recherche MCTS parallele.
+ * 
+ * <p>Mesure le debit de parties simulees (playouts) d une decision de
+ * prise ({@link MctsStrategy#chooseTake}) selon le nombre de threads et
+ * le mode de parallelisation. Un resultat en operations par seconde est
+ * un nombre de playouts par seconde ; le rapport avec la ligne a un
+ * thread donne l acceleration obtenue.</p>
+ * 
+ * <p>Chaque operation part d une copie de la meme position
+ * ({@link Game#copy(CopyContext)}) : toutes les decisions mesurent le
+ * meme travail. L acceleration est bornee par le nombre de coeurs de la
+ * machine.</p>
+ * 
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MctsBenchmark {
+
+    /** Nombre d iterations par decision. */
+    private static final int ITERATIONS = 4000;
+
+    /** Nombre de threads de recherche. */
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int threads;
+
+    /** Mode de parallelisation. */
+    @Param({"ROOT", "TREE"})
+    public MctsStrategy.Parallelism parallelism;
+
+    private Game game;
+    private Player taker;
+    private MctsStrategy strategy;
+
+    @Setup
+    public void setup() {
+        game = Fixtures.takingGame(4, false, Fixtures.SEED);
+        taker = game.getTurnOrder().get(0);
+        strategy = new MctsStrategy(ITERATIONS, 0, threads, parallelism);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public Card chooseTake() {
+        CopyContext ctx = new CopyContext();
+        Game copy = game.copy(ctx);
+        return strategy.chooseTake(ctx.player(taker), copy.getCurrentOffers(), copy);
+    }
+}
@@ -0,0 +1,68 @@
+package benchmark;
+
+import model.*;
+import model.compact.MaskScorer;
+import model.rules.Rule1;
+import model.rules.Rule3;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks du calcul de score d un Jest.
+ * 
+ * <p>Compare les visiteurs {@link Rule1} et {@link Rule3} avec leur
+ * equivalent sur masque de bits ({@link MaskScorer}).</p>
+ * 
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringBenchmark {
+
+    /** Nombre de cartes du Jest evalue. */
+    @Param({"5", "8"})
+    public int jestSize;
+
+    /** Deck de 33 cartes ou non. */
+    @Param({"false", "true"})
+    public boolean extension;
+
+    private Jest jest;
+    private long mask;
+    private ScoreVisitor rule1;
+    private ScoreVisitor rule3;
+
+    @Setup
+    public void setup() {
+        jest = Fixtures.jest(jestSize, extension, Fixtures.SEED);
+        mask = jest.getCardMask();
+        rule1 = new Rule1().scoreVisitor();
+        rule3 = new Rule3().scoreVisitor();
+    }
+
+    @Benchmark
+    public int rule1Visitor() {
+        return rule1.score(jest);
+    }
+
+    @Benchmark
+    public int rule3Visitor() {
+        return rule3.score(jest);
+    }
+
+    @Benchmark
+    public int rule1Mask() {
+        return MaskScorer.RULE1.score(mask);
+    }
+
+    @Benchmark
+    public int rule3Mask() {
+        return MaskScorer.RULE3.score(mask);
+    }
+}
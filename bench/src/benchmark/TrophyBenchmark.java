@@ -0,0 +1,66 @@
+package benchmark;
+
+import model.*;
+import model.trophy.TrophyResolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de l attribution des trophees.
+ * 
+ * <p>Mesure chaque condition de {@link model.trophy.TrophyFactory}
+ * evaluee pour tous les joueurs et la resolution equivalente par
+ * {@link TrophyResolver}. {@link Game#winner()} complet est mesure par
+ * {@link WinnerBenchmark}.</p>
+ * 
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrophyBenchmark {
+
+    /** Indice du trophee dans {@link Fixtures#allTrophies()}. */
+    @Param({"0", "1", "2", "3", "4", "5"})
+    public int trophyIndex;
+
+    /** Nombre de joueurs. */
+    @Param({"3", "4"})
+    public int players;
+
+    private Game game;
+    private TrophyCard trophy;
+    private TrophyResolver resolver;
+
+    @Setup
+    public void setup() {
+        game = Fixtures.finishedGame(players, false, Fixtures.SEED);
+        ScoreVisitor visitor = game.getRuleSet().scoreVisitor();
+        for (Player p : game.getPlayers()) {
+            p.setBaseScore(visitor.score(p.getJest()));
+        }
+        trophy = Fixtures.allTrophies()[trophyIndex];
+        resolver = new TrophyResolver();
+    }
+
+    @Benchmark
+    public void condition(Blackhole bh) {
+        List<Player> list = game.getPlayers();
+        for (int i = 0; i < list.size(); i++) {
+            bh.consume(trophy.isWonBy(list.get(i), game));
+        }
+    }
+
+    @Benchmark
+    public int resolver() {
+        resolver.load(game.getPlayers());
+        return resolver.winnerOf(trophy);
+    }
+}
@@ -0,0 +1,49 @@
+package benchmark;
+
+import model.*;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de {@link Game#winner()} complet.
+ *
+ * <p>{@link Game#winner()} ajoute les trophees aux Jests : une partie ne
+ * sert qu une fois. Les {@link #POOL} parties d une iteration sont donc
+ * preparees avant la mesure, et chaque iteration les joue toutes en un
+ * lot ; le score est la duree du lot entier.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, batchSize = WinnerBenchmark.POOL)
+@Measurement(iterations = 20, batchSize = WinnerBenchmark.POOL)
+@Fork(1)
+public class WinnerBenchmark {
+
+    /** Nombre de parties jouees par iteration. */
+    static final int POOL = 1000;
+
+    /** Nombre de joueurs. */
+    @Param({"3", "4"})
+    public int players;
+
+    private final Game[] games = new Game[POOL];
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        for (int i = 0; i < POOL; i++) {
+            games[i] = Fixtures.finishedGame(players, false, Fixtures.SEED + i);
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public Player winner() {
+        return games[next++].winner();
+    }
+}
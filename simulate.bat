@@ -0,0 +1,5 @@
+@echo off
+REM Script de simulation IA contre IA pour Windows
+
+echo Simulation de parties Jest...
+java -cp classes controller.SimulationRunner %*
\ No newline at end of file
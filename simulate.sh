@@ -0,0 +1,5 @@
+#!/bin/bash
+# Script de simulation IA contre IA pour Linux/Mac
+
+echo "Simulation de parties Jest..."
+java -cp classes controller.SimulationRunner "$@"
@@ -0,0 +1,239 @@
+package controller;
+
+import model.Game;
+import model.SaveCodec;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sauvegarde automatique de la partie a chaque tour.
+ *
+ * <p>Le thread de jeu ne fait que coder la partie ({@link SaveCodec},
+ * quelques microsecondes) et deposer le resultat ; un thread dedie
+ * l ecrit sur le disque. Un tour ne depend donc jamais de la latence
+ * du disque.</p>
+ *
+ * <h2>Ecriture :</h2>
+ * <ul>
+ *   <li>Seul le dernier point de sauvegarde depose compte : les points
+ *       deposes pendant une ecriture en cours sont fusionnes</li>
+ *   <li>Chaque point est ecrit dans un fichier temporaire, force sur le
+ *       disque puis renomme atomiquement a la place du precedent : le
+ *       fichier contient toujours un point complet, meme apres un arret
+ *       brutal</li>
+ *   <li>{@link #clear()} supprime le point a la fin de la partie</li>
+ * </ul>
+ *
+ * <p>Au demarrage, {@link #latest(Path)} retourne la partie a reprendre,
+ * ou null s il n y en a pas ou si le fichier est illisible.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see GameEngine#setAutosave(AutosaveService)
+ */
+public final class AutosaveService implements Closeable {
+
+    /** Fichier de sauvegarde automatique par defaut, dans le repertoire courant. */
+    public static final String DEFAULT_FILE = "autosave.jest";
+
+    /** Point en attente signifiant "supprimer la sauvegarde". */
+    private static final byte[] CLEAR = new byte[0];
+
+    private final Path file;
+    private final Path temp;
+    private final AtomicReference<byte[]> pending = new AtomicReference<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile IOException lastError;
+    private volatile long checkpoints;
+    private volatile long writes;
+
+    /**
+     * Cree le service et demarre son thread d ecriture.
+     *
+     * @param file le fichier de sauvegarde
+     */
+    public AutosaveService(Path file) {
+        this.file = file.toAbsolutePath();
+        this.temp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        this.writer = new Thread(this::run, "jest-autosave");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Retourne la partie sauvegardee automatiquement, si elle est lisible.
+     *
+     * @param file le fichier de sauvegarde
+     * @return la partie, ou null si aucune sauvegarde valide n existe
+     */
+    public static Game latest(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return SaveCodec.load(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Depose un point de sauvegarde de la partie, sans attendre son ecriture.
+     *
+     * <p>A appeler depuis le thread de jeu, entre deux tours. Une partie
+     * qui ne peut etre codee (strategie non enregistree, etat incoherent)
+     * est ignoree et l erreur est conservee ({@link #getLastError()}) :
+     * la sauvegarde n interrompt jamais la partie.</p>
+     *
+     * @param game la partie
+     */
+    public void checkpoint(Game game) {
+        byte[] data;
+        try {
+            data = SaveCodec.encode(game);
+        } catch (RuntimeException e) {
+            lastError = new IOException("Partie non sauvegardable : " + e, e);
+            return;
+        }
+        checkpoints++;
+        pending.set(data);
+        LockSupport.unpark(writer);
+    }
+
+    /**
+     * Supprime la sauvegarde automatique, apres les ecritures en attente.
+     */
+    public void clear() {
+        pending.set(CLEAR);
+        LockSupport.unpark(writer);
+    }
+
+    /**
+     * Termine les ecritures en attente et arrete le thread d ecriture.
+     *
+     * @throws IOException si la derniere ecriture a echoue
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        IOException error = lastError;
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Retourne le fichier de sauvegarde.
+     *
+     * @return le fichier
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Retourne le nombre de points deposes.
+     *
+     * @return le nombre de points
+     */
+    public long getCheckpoints() {
+        return checkpoints;
+    }
+
+    /**
+     * Retourne le nombre de points effectivement ecrits sur le disque.
+     *
+     * @return le nombre d ecritures, au plus {@link #getCheckpoints()}
+     */
+    public long getWrites() {
+        return writes;
+    }
+
+    /**
+     * Retourne la derniere erreur rencontree.
+     *
+     * @return l erreur, ou null
+     */
+    public IOException getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Boucle du thread d ecriture.
+     */
+    private void run() {
+        while (true) {
+            byte[] data = pending.getAndSet(null);
+            if (data == null) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                if (data == CLEAR) {
+                    Files.deleteIfExists(file);
+                } else {
+                    write(data);
+                    writes++;
+                }
+                lastError = null;
+            } catch (IOException e) {
+                lastError = e;
+            }
+        }
+    }
+
+    /**
+     * Ecrit un point : fichier temporaire, synchronisation, renommage.
+     */
+    private void write(byte[] data) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory();
+    }
+
+    /**
+     * Force l ecriture du renommage, la ou le systeme le permet.
+     */
+    private void syncDirectory() {
+        Path dir = file.getParent();
+        if (dir == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Repertoires non synchronisables (Windows) : le renommage reste atomique
+        }
+    }
+}
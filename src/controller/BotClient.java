@@ -0,0 +1,187 @@
+package controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client de test de charge pour {@link GameServer}.
+ *
+ * <p>Chaque bot se connecte, joue une partie en choisissant au hasard
+ * parmi les actions proposees ({@link ServerProtocol#ASK}), puis se
+ * reconnecte pour la suivante. Les bots tournent sur un thread chacun
+ * (virtuel lorsque la JVM le permet).</p>
+ *
+ * <h2>Utilisation :</h2>
+ * <pre>
+ * java -cp classes controller.BotClient --host localhost --port 4242 --bots 20000 --games 5
+ * </pre>
+ *
+ * <p>Avec des tables H,H,1, 20 000 bots occupent 10 000 tables a la fois.
+ * Le rapport donne le nombre de parties terminees, le debit et le temps
+ * moyen entre une reponse et la question suivante.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see GameServer
+ */
+public final class BotClient {
+
+    private final String host;
+    private final int port;
+    private final AtomicLong games = new AtomicLong();
+    private final AtomicLong decisions = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Cree un client.
+     *
+     * @param host l hote du serveur
+     * @param port le port du serveur
+     */
+    public BotClient(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Lance des bots et attend qu ils aient joue toutes leurs parties.
+     *
+     * @param bots         le nombre de bots connectes en meme temps
+     * @param gamesPerBot  le nombre de parties jouees par chaque bot
+     * @throws InterruptedException si l attente est interrompue
+     */
+    public void run(int bots, int gamesPerBot) throws InterruptedException {
+        ExecutorService threads = GameServer.newPerTaskExecutor("jest-bot-");
+        CountDownLatch done = new CountDownLatch(bots);
+        for (int b = 0; b < bots; b++) {
+            String name = "bot-" + b;
+            threads.execute(() -> {
+                try {
+                    for (int g = 0; g < gamesPerBot; g++) {
+                        play(name);
+                    }
+                } catch (IOException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        threads.shutdown();
+    }
+
+    /**
+     * Retourne le nombre de parties terminees.
+     *
+     * @return le nombre de parties
+     */
+    public long getGames() {
+        return games.get();
+    }
+
+    /**
+     * Retourne le nombre de decisions envoyees.
+     *
+     * @return le nombre de decisions
+     */
+    public long getDecisions() {
+        return decisions.get();
+    }
+
+    /**
+     * Retourne le temps moyen entre une reponse et la question suivante.
+     *
+     * @return le temps moyen en microsecondes
+     */
+    public double getMeanWaitMicros() {
+        long count = decisions.get();
+        return count == 0 ? 0 : waitNanos.get() / 1e3 / count;
+    }
+
+    /**
+     * Retourne le nombre de bots arretes par une erreur reseau.
+     *
+     * @return le nombre d echecs
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Joue une partie complete sur une nouvelle connexion.
+     */
+    private void play(String name) throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            OutputStream out = socket.getOutputStream();
+            out.write((ServerProtocol.HELLO + " " + name + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            long answered = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith(ServerProtocol.ASK)) {
+                    if (answered != 0) {
+                        waitNanos.addAndGet(System.nanoTime() - answered);
+                    }
+                    int[] actions = ServerProtocol.arguments(line);
+                    int action = actions[ThreadLocalRandom.current().nextInt(actions.length)];
+                    out.write((action + "\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    decisions.incrementAndGet();
+                    answered = System.nanoTime();
+                } else if (line.startsWith(ServerProtocol.END)) {
+                    games.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Point d entree du client de charge.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        String host = "localhost";
+        int port = GameServer.DEFAULT_PORT;
+        int bots = 100;
+        int gamesPerBot = 10;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--host": host = args[++i]; break;
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                case "--bots": bots = Integer.parseInt(args[++i]); break;
+                case "--games": gamesPerBot = Integer.parseInt(args[++i]); break;
+                default:
+                    System.out.println("Option inconnue : " + args[i]);
+                    return;
+            }
+        }
+
+        BotClient client = new BotClient(host, port);
+        long start = System.nanoTime();
+        client.run(bots, gamesPerBot);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("==== CHARGE ====");
+        System.out.printf("Bots : %d, parties jouees : %d en %.1f s (%.0f parties de bot/s)%n",
+                bots, client.getGames(), seconds, client.getGames() / seconds);
+        System.out.printf("Decisions : %d, attente moyenne entre deux questions : %.0f us%n",
+                client.getDecisions(), client.getMeanWaitMicros());
+        if (client.getFailures() > 0) {
+            System.out.println("Bots en echec : " + client.getFailures());
+        }
+    }
+}
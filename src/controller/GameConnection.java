@@ -0,0 +1,221 @@
+package controller;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Connexion d un joueur distant a {@link GameServer}.
+ *
+ * <p>Chaque connexion a son propre thread (virtuel lorsque la JVM le
+ * permet) : il ecrit les messages de la table puis, apres chaque
+ * {@link ServerProtocol#ASK}, lit la reponse et la transmet au
+ * {@link TableScheduler}. La table elle-meme ne bloque jamais.</p>
+ *
+ * <h2>Clients defaillants :</h2>
+ * <ul>
+ *   <li>Sans HELLO dans les {@link #HELLO_TIMEOUT_MILLIS} ms, la connexion est fermee</li>
+ *   <li>En salle d attente, le thread surveille la socket : un joueur parti
+ *       avant d etre place est retire de la salle</li>
+ *   <li>Sans reponse a ASK dans les {@link #ANSWER_TIMEOUT_MILLIS} ms, le
+ *       joueur est considere comme deconnecte</li>
+ *   <li>Au-dela de {@link #OUTBOX_CAPACITY} messages en attente (client qui
+ *       ne lit plus), la connexion est coupee</li>
+ * </ul>
+ *
+ * <p>Un joueur deconnecte voit la premiere action proposee jouee a sa
+ * place jusqu a la fin de la partie.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ */
+final class GameConnection implements Runnable {
+
+    /** Delai d annonce du nom apres la connexion. */
+    static final int HELLO_TIMEOUT_MILLIS = 10_000;
+
+    /** Delai de reponse a une question. */
+    static final int ANSWER_TIMEOUT_MILLIS = 120_000;
+
+    /** Nombre maximal de messages en attente d envoi. */
+    static final int OUTBOX_CAPACITY = 1024;
+
+    /** Periode de surveillance de la socket en salle d attente. */
+    private static final int LOBBY_POLL_MILLIS = 200;
+
+    /** Fin de la file des messages : le thread ferme la connexion. */
+    private static final String CLOSE = new String("CLOSE");
+
+    private final Socket socket;
+    private final GameServer server;
+    private final BlockingQueue<String> outbox = new LinkedBlockingQueue<>(OUTBOX_CAPACITY);
+
+    /** Table dont une decision est attendue de ce joueur. */
+    private final AtomicReference<GameStateMachine> asked = new AtomicReference<>();
+    private volatile int defaultAction;
+    private volatile boolean closed;
+    private String name = "Joueur";
+
+    GameConnection(Socket socket, GameServer server) {
+        this.socket = socket;
+        this.server = server;
+    }
+
+    /**
+     * Retourne le nom annonce par le joueur.
+     *
+     * @return le nom
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Envoie un message, sans bloquer.
+     *
+     * @param message la ligne
+     */
+    void send(String message) {
+        if (!closed && !outbox.offer(message)) {
+            close();
+        }
+    }
+
+    /**
+     * Demande une decision au joueur, sans bloquer.
+     *
+     * @param table   la table en attente
+     * @param actions les decisions possibles
+     * @param count   leur nombre
+     */
+    void ask(GameStateMachine table, int[] actions, int count) {
+        defaultAction = actions[0];
+        asked.set(table);
+        if (closed || !outbox.offer(ServerProtocol.ask(actions, count))) {
+            close();
+            playDefault();
+        }
+    }
+
+    /**
+     * Ferme la connexion apres l envoi des messages en attente.
+     */
+    void finish() {
+        if (!outbox.offer(CLOSE)) {
+            close();
+        }
+    }
+
+    /**
+     * Coupe la connexion sans attendre : le thread du joueur s arrete.
+     */
+    void close() {
+        closed = true;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Deja fermee
+        }
+    }
+
+    @Override
+    public void run() {
+        try (Socket s = socket) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            Writer out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8));
+            s.setSoTimeout(HELLO_TIMEOUT_MILLIS);
+            String hello = in.readLine();
+            if (hello == null || !hello.startsWith(ServerProtocol.HELLO)) {
+                return;
+            }
+            String announced = hello.substring(ServerProtocol.HELLO.length()).trim();
+            if (!announced.isEmpty()) {
+                name = announced;
+            }
+            server.join(this);
+            awaitSeat(in);
+
+            s.setSoTimeout(ANSWER_TIMEOUT_MILLIS);
+            while (true) {
+                String message = outbox.take();
+                if (message == CLOSE) {
+                    out.flush();
+                    return;
+                }
+                out.write(message);
+                out.write('\n');
+                boolean question = message.startsWith(ServerProtocol.ASK);
+                if (question || outbox.isEmpty()) {
+                    out.flush();
+                }
+                if (question) {
+                    // Un delai depasse leve SocketTimeoutException : meme issue qu une deconnexion
+                    String answer = in.readLine();
+                    if (answer == null) {
+                        throw new EOFException();
+                    }
+                    GameStateMachine table = asked.getAndSet(null);
+                    if (table != null) {
+                        server.submit(table, parse(answer));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Deconnexion : la partie continue sans ce joueur
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closed = true;
+            playDefault();
+            server.disconnected(this);
+        }
+    }
+
+    /**
+     * Attend le premier message de la table en surveillant la socket : le
+     * client n envoie rien avant d etre place, une fin de flux est donc un
+     * depart.
+     */
+    private void awaitSeat(BufferedReader in) throws IOException {
+        socket.setSoTimeout(LOBBY_POLL_MILLIS);
+        while (outbox.isEmpty()) {
+            try {
+                if (in.read() < 0) {
+                    throw new EOFException();
+                }
+            } catch (SocketTimeoutException e) {
+                // Toujours en attente
+            }
+        }
+    }
+
+    /**
+     * Joue la premiere action proposee si une decision est encore attendue.
+     */
+    private void playDefault() {
+        GameStateMachine table = asked.getAndSet(null);
+        if (table != null) {
+            server.submit(table, defaultAction);
+        }
+    }
+
+    private static int parse(String answer) {
+        try {
+            return Integer.parseInt(answer.trim());
+        } catch (NumberFormatException e) {
+            // Refusee par la table, qui repose la question
+            return Integer.MIN_VALUE;
+        }
+    }
+}
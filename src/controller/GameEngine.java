@@ -1,16 +1,19 @@
 package controller;
 
 import model.*;
+import model.compact.CompactAction;
+import model.compact.LegalMoves;
 import model.extension.BMCard;
+import observer.AsyncEventBus;
+import observer.GameEvent;
 import observer.GameObserver;
 import view.ConsoleView;
 import view.gui.JestGUI;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 
@@ -38,23 +41,103 @@ import java.util.List;
  */
 public class GameEngine {
 
+    private static final GameObserver[] NO_OBSERVERS = new GameObserver[0];
+
     private Game game;
     private ConsoleView consoleView;
     private JestGUI guiView;
-    private List<Offer> currentOffers;
-    private List<GameObserver> observers;
+    /** Observateurs, recopies a chaque ajout : les notifications parcourent un simple tableau. */
+    private GameObserver[] observers = NO_OBSERVERS;
     private boolean useGui;
+    private Player winner;
+    private AutosaveService autosave;
+    private AsyncEventBus eventBus;
+    private final int[] legalTakes = new int[CompactAction.MAX_ACTIONS];
 
     /**
      * Constructeur du moteur de jeu.
      */
     public GameEngine() {
         this.consoleView = new ConsoleView();
-        this.currentOffers = new ArrayList<>();
-        this.observers = new ArrayList<>();
         this.useGui = false;
         
-        observers.add(consoleView);
+        addObserver(consoleView);
+    }
+
+    /**
+     * Constructeur interne d un moteur sans vue.
+     *
+     * @param game la partie deja configuree
+     */
+    private GameEngine(Game game) {
+        this.game = game;
+        this.useGui = false;
+    }
+
+    /**
+     * Cree un moteur sans aucune vue pour une partie deja configuree.
+     *
+     * <p>Ce mode est destine aux simulations IA contre IA : aucun affichage,
+     * aucune saisie. Tous les joueurs doivent donc utiliser une strategie IA.
+     * La partie doit avoir ses joueurs, ses regles et son deck initialises,
+     * et {@link Game#start()} doit deja avoir ete appele.</p>
+     *
+     * @param game la partie a jouer
+     * @return un moteur sans vue
+     * @see SimulationRunner
+     */
+    public static GameEngine headless(Game game) {
+        return new GameEngine(game);
+    }
+
+    /**
+     * Ajoute un observateur des evenements de la partie.
+     *
+     * <p>Permet notamment de journaliser une partie jouee sans vue
+     * ({@link observer.JournalObserver}).</p>
+     *
+     * @param observer l observateur a ajouter
+     */
+    public void addObserver(GameObserver observer) {
+        GameObserver[] added = Arrays.copyOf(observers, observers.length + 1);
+        added[observers.length] = observer;
+        observers = added;
+    }
+
+    /**
+     * Retire un observateur.
+     *
+     * @param observer l observateur a retirer
+     */
+    public void removeObserver(GameObserver observer) {
+        List<GameObserver> kept = new ArrayList<>(Arrays.asList(observers));
+        if (kept.remove(observer)) {
+            observers = kept.toArray(NO_OBSERVERS);
+        }
+    }
+
+    /**
+     * Diffuse aussi les evenements de la partie sur un bus asynchrone.
+     *
+     * <p>Les observateurs abonnes au bus recoivent des evenements figes
+     * ({@link GameEvent}) sans bloquer la boucle de jeu. Le moteur attend
+     * que le bus soit vide avant de solliciter un joueur humain.</p>
+     *
+     * @param eventBus le bus demarre, ou null pour le retirer
+     */
+    public void setEventBus(AsyncEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Active la sauvegarde automatique a chaque debut de tour.
+     *
+     * <p>La sauvegarde est supprimee a la fin de la partie.</p>
+     *
+     * @param autosave le service de sauvegarde, ou null pour la desactiver
+     */
+    public void setAutosave(AutosaveService autosave) {
+        this.autosave = autosave;
     }
 
     /**
@@ -63,7 +146,7 @@ public class GameEngine {
     public void enableGUI() {
         this.guiView = new JestGUI();
         this.useGui = true;
-        observers.add(guiView);
+        addObserver(guiView);
 
         // Connecte la vue console a la GUI pour des prompts synchronises
         consoleView.setGuiHelper(guiView);
@@ -133,15 +216,42 @@ public class GameEngine {
         endGame();
     }
 
+    /**
+     * Joue les tours jusqu au debut d un tour donne, sans terminer la partie.
+     *
+     * <p>Permet de rejouer une partie par etapes ({@link ReplayEngine}) :
+     * {@link #playGame()} reprend ensuite la partie la ou elle s est arretee.</p>
+     *
+     * @param round le numero du tour a atteindre (avant sa distribution)
+     * @return true si le tour est atteint, false si la partie s est terminee avant
+     */
+    public boolean playUntil(int round) {
+        while (game.getCurrentRound() < round) {
+            if (game.isGameOver()) {
+                return false;
+            }
+            playRound();
+        }
+        return true;
+    }
+
     /**
      * Joue un tour.
      */
     private void playRound() {
+        if (autosave != null) {
+            autosave.checkpoint(game);
+        }
         notifyRoundStart(game.getCurrentRound());
-        
-        game.dealRound();
 
+        // Les offres sont publiees dans la partie pour que les strategies voient
+        // celles des joueurs precedents
+        List<Offer> currentOffers = game.getCurrentOffers();
         currentOffers.clear();
+        game.getTurnOrder().clear();
+
+        game.dealRound();
+
         for (Player player : game.getPlayers()) {
             Offer offer = createOffer(player);
             currentOffers.add(offer);
@@ -149,7 +259,8 @@ public class GameEngine {
 
         notifyOffersCreated(currentOffers);
 
-        List<Player> turnOrder = determineTurnOrder();
+        List<Player> turnOrder = determineTurnOrder(currentOffers);
+        game.setTurnOrder(turnOrder);
 
         for (Player player : turnOrder) {
             Card chosenCard = playerChooseCard(player);
@@ -171,10 +282,11 @@ public class GameEngine {
         Offer offer = player.makeOffer(game);
         
         if (offer == null) {
+            awaitEvents();
             if (useGui && guiView != null) {
                 return guiView.askHumanOffer(player);
             }
-            return consoleView.askHumanOffer(player);
+            return requireConsole().askHumanOffer(player);
         }
         
         return offer;
@@ -184,32 +296,35 @@ public class GameEngine {
      * Gere le choix de carte d un joueur.
      */
     private Card playerChooseCard(Player player) {
-        List<Offer> availableOffers = currentOffers.stream()
-                .filter(Offer::isComplete)
-                .filter(o -> o.getOwner() != player)
-                .toList();
-
-        if (availableOffers.isEmpty()) {
-            Offer ownOffer = currentOffers.stream()
-                    .filter(o -> o.getOwner() == player)
-                    .findFirst()
-                    .orElse(null);
+        // Prises legales : offres completes des autres joueurs, sinon sa propre offre
+        int count = LegalMoves.takes(game, player, legalTakes);
+        List<Offer> availableOffers = new ArrayList<>(count / 2);
+        for (int i = 0; i < count; i += 2) {
+            availableOffers.add(LegalMoves.offerOf(game, legalTakes[i]));
+        }
 
-            if (ownOffer != null && ownOffer.isComplete()) {
-                if (player.isHuman() && useGui && guiView != null) {
-                    return guiView.askTakeFromOwnOffer(player, ownOffer, game);
-                }
-                return consoleView.askTakeFromOwnOffer(player, ownOffer, game);
+        if (count > 0 && game.getPlayers().get(CompactAction.owner(legalTakes[0])) == player) {
+            Offer ownOffer = availableOffers.get(0);
+            if (player.isHuman() && useGui && guiView != null) {
+                awaitEvents();
+                return guiView.askTakeFromOwnOffer(player, ownOffer, game);
+            }
+            if (consoleView == null) {
+                // Sans vue, la strategie choisit elle-meme dans sa propre offre
+                return player.chooseFrom(availableOffers, game);
             }
+            awaitEvents();
+            return consoleView.askTakeFromOwnOffer(player, ownOffer, game);
         }
 
         Card chosen = player.chooseFrom(availableOffers, game);
         
         if (chosen == null) {
+            awaitEvents();
             if (useGui && guiView != null) {
                 return guiView.askHumanTake(player, availableOffers, game);
             }
-            return consoleView.askHumanTake(player, availableOffers, game);
+            return requireConsole().askHumanTake(player, availableOffers, game);
         }
         
         return chosen;
@@ -217,15 +332,18 @@ public class GameEngine {
 
     /**
      * Determine l ordre de jeu selon les cartes visibles.
+     * 
+     * @param offers les offres du tour
+     * @return les proprietaires des offres, de la carte visible la plus forte a la plus faible
      */
-    private List<Player> determineTurnOrder() {
+    public static List<Player> determineTurnOrder(List<Offer> offers) {
         List<Player> order = new ArrayList<>();
-        List<Offer> remaining = new ArrayList<>(currentOffers);
+        List<Offer> remaining = new ArrayList<>(offers);
 
         while (!remaining.isEmpty()) {
             Offer highest = remaining.stream()
                     .filter(Offer::isComplete)
-                    .max(Comparator.comparingInt(this::getOfferPriority))
+                    .max(Comparator.comparingInt(GameEngine::getOfferPriority))
                     .orElse(remaining.get(0));
 
             order.add(highest.getOwner());
@@ -238,7 +356,7 @@ public class GameEngine {
     /**
      * Calcule la priorite d une offre.
      */
-    private int getOfferPriority(Offer offer) {
+    private static int getOfferPriority(Offer offer) {
         Card faceUp = offer.getFaceUp();
         int value = faceUp.getRank().getValue() * 10;
 
@@ -255,8 +373,35 @@ public class GameEngine {
      * Termine la partie.
      */
     private void endGame() {
+        collectRemainingOffers(game);
+
+        if (game.isExtensionBM()) {
+            prepareBmExtension();
+        }
+
+        winner = game.winner();
+
+        if (game.isExtensionBM()) {
+            announceBmExtension();
+        }
+
+        if (consoleView != null) {
+            consoleView.displayGameEnd(game, winner);
+        }
+        notifyGameEnd(winner);
+        if (autosave != null) {
+            autosave.clear();
+        }
+    }
+
+    /**
+     * Ajoute au Jest de chaque joueur les cartes restees dans son offre.
+     *
+     * @param game la partie terminee
+     */
+    static void collectRemainingOffers(Game game) {
         for (Player player : game.getPlayers()) {
-            Offer offer = currentOffers.stream()
+            Offer offer = game.getCurrentOffers().stream()
                     .filter(o -> o.getOwner() == player)
                     .findFirst()
                     .orElse(null);
@@ -266,19 +411,16 @@ public class GameEngine {
                 if (offer.getFaceDown() != null) player.getJest().addCard(offer.getFaceDown());
             }
         }
+    }
 
-        if (game.isExtensionBM()) {
-            prepareBmExtension();
-        }
-
-        Player winner = game.winner();
-
-        if (game.isExtensionBM()) {
-            announceBmExtension();
+    /**
+     * Retourne la vue console, ou echoue si le moteur est sans vue.
+     */
+    private ConsoleView requireConsole() {
+        if (consoleView == null) {
+            throw new IllegalStateException("Un joueur humain ne peut pas jouer sans vue");
         }
-
-        consoleView.displayGameEnd(game, winner);
-        notifyGameEnd(winner);
+        return consoleView;
     }
 
     /**
@@ -293,11 +435,12 @@ public class GameEngine {
                 .orElse(null);
         
         // Si aucun joueur ou si le plus petit Jest appartient a une IA, on ignore l'extension BM
-        if (smallestJestPlayer == null || !smallestJestPlayer.isHuman()) {
+        if (smallestJestPlayer == null || !smallestJestPlayer.isHuman() || consoleView == null) {
             return;
         }
         
         // Demande au joueur humain de choisir la carte BM et le destinataire
+        awaitEvents();
         BMCard card = (useGui && guiView != null)
                 ? guiView.askBmCard(smallestJestPlayer, game.getPlayers())
                 : consoleView.askBmCard(smallestJestPlayer, game.getPlayers());
@@ -309,11 +452,14 @@ public class GameEngine {
      * Informe les vues de l effet de la carte BM.
      */
     private void announceBmExtension() {
+        awaitEvents();
         Player target = game.getLastBmTarget();
         BMCard card = game.getLastAppliedBmCard();
         int delta = game.getLastBmDelta();
 
-        consoleView.displayBmApplication(target, card, delta);
+        if (consoleView != null) {
+            consoleView.displayBmApplication(target, card, delta);
+        }
         if (useGui && guiView != null) {
             guiView.displayBmApplication(target, card, delta);
         }
@@ -324,58 +470,101 @@ public class GameEngine {
         }
     }
 
+    /**
+     * Retourne la partie geree par ce moteur.
+     *
+     * @return la partie, ou null si aucune partie n est initialisee
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Retourne le gagnant de la derniere partie terminee.
+     *
+     * @return le gagnant, ou null si aucune partie n est terminee
+     */
+    public Player getWinner() {
+        return winner;
+    }
+
     // Notifications aux observateurs
     
     private void notifyRoundStart(int round) {
         for (GameObserver obs : observers) {
             obs.onRoundStart(round);
         }
+        if (eventBus != null) {
+            eventBus.publish(GameEvent.roundStart(round));
+        }
     }
 
     private void notifyOffersCreated(List<Offer> offers) {
         for (GameObserver obs : observers) {
             obs.onOffersCreated(offers);
         }
+        if (eventBus != null) {
+            eventBus.publish(GameEvent.offersCreated(game, offers));
+        }
     }
 
     private void notifyCardTaken(Player player, Card card) {
         for (GameObserver obs : observers) {
             obs.onCardTaken(player, card);
         }
+        if (eventBus != null) {
+            eventBus.publish(GameEvent.cardTaken(game, player, card));
+        }
     }
 
     private void notifyGameEnd(Player winner) {
         for (GameObserver obs : observers) {
             obs.onGameEnd(winner);
         }
+        if (eventBus != null) {
+            eventBus.publish(GameEvent.gameEnd(game, winner));
+        }
     }
 
     private void notifyMessage(String message) {
         for (GameObserver obs : observers) {
             obs.onMessage(message);
         }
+        if (eventBus != null) {
+            eventBus.publish(GameEvent.message(message));
+        }
+    }
+
+    /**
+     * Attend que les vues asynchrones aient traite les evenements publies,
+     * avant une interaction avec un joueur humain.
+     */
+    private void awaitEvents() {
+        if (eventBus != null) {
+            eventBus.awaitDelivered();
+        }
     }
 
     /**
-     * Sauvegarde la partie.
+     * Sauvegarde la partie au format binaire ({@link SaveCodec}).
      */
     public void saveGame(String filename) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filename))) {
-            oos.writeObject(game);
+        try {
+            SaveCodec.save(game, Paths.get(filename));
             consoleView.displayMessage("Partie sauvegardee !");
-        } catch (IOException e) {
+        } catch (IOException | IllegalArgumentException e) {
             consoleView.displayMessage("Erreur sauvegarde : " + e.getMessage());
         }
     }
 
     /**
-     * Charge une partie.
+     * Charge une partie, au format binaire ou dans l ancien format serialise.
      */
     public void loadGame(String filename) {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(filename))) {
-            game = (Game) ois.readObject();
+        try {
+            game = SaveCodec.load(Paths.get(filename));
             consoleView.displayMessage("Partie chargee !");
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             consoleView.displayMessage("Erreur chargement : " + e.getMessage());
         }
     }
@@ -390,10 +579,24 @@ public class GameEngine {
         engine.enableGUI();
         engine.guiView.display();
 
-        // Afficher le dialogue de demarrage
-        int choice = engine.guiView.showStartupDialog();
-
-        if (choice == 2) {
+        // La GUI recoit les evenements sur son propre thread
+        AsyncEventBus events = new AsyncEventBus(AsyncEventBus.DEFAULT_CAPACITY, 16);
+        engine.removeObserver(engine.guiView);
+        events.subscribe(engine.guiView);
+        events.start();
+        engine.setEventBus(events);
+
+        // Proposer de reprendre la derniere partie interrompue
+        Path autosaveFile = Paths.get(AutosaveService.DEFAULT_FILE);
+        Game interrupted = AutosaveService.latest(autosaveFile);
+        int choice = interrupted != null && engine.guiView.askResumeGame(interrupted.getCurrentRound())
+                ? 3
+                : engine.guiView.showStartupDialog();
+
+        if (choice == 3) {
+            engine.game = interrupted;
+            engine.guiView.setGame(interrupted);
+        } else if (choice == 2) {
             String filename = engine.guiView.askLoadFilename();
             if (!filename.isEmpty()) {
                 engine.loadGame(filename);
@@ -402,6 +605,7 @@ public class GameEngine {
                 }
             } else {
                 // Si l'utilisateur annule, relancer le dialogue
+                events.close();
                 main(args);
                 return;
             }
@@ -409,7 +613,18 @@ public class GameEngine {
             engine.initializeGame();
         }
 
-        engine.playGame();
+        AutosaveService autosave = new AutosaveService(autosaveFile);
+        engine.setAutosave(autosave);
+        try {
+            engine.playGame();
+        } finally {
+            events.close();
+            try {
+                autosave.close();
+            } catch (IOException e) {
+                engine.consoleView.displayMessage("Erreur sauvegarde automatique : " + e.getMessage());
+            }
+        }
 
         String save = ConsoleView.SafeInput.readChoice("Sauvegarder ? (o/n) : ", "o", "n");
 
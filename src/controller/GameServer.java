@@ -0,0 +1,429 @@
+package controller;
+
+import model.*;
+import model.compact.CardCodec;
+import observer.GameObserver;
+import strategy.HumanStrategy;
+import strategy.Strategy;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Serveur TCP local hebergeant de nombreuses tables humains et IA.
+ *
+ * <p>Les joueurs se connectent et annoncent leur nom
+ * ({@link ServerProtocol}) ; des qu assez de joueurs attendent, une table
+ * est formee, les sieges restants sont tenus par des IA. Les tables sont
+ * des {@link GameStateMachine} menees par un seul {@link TableScheduler} :
+ * une table qui attend un joueur n occupe aucun thread.</p>
+ *
+ * <h2>Threads :</h2>
+ * <ul>
+ *   <li>Un thread accepte les connexions</li>
+ *   <li>Un thread par joueur connecte ({@link GameConnection}) : virtuel a
+ *       partir de Java 21, sinon thread systeme a pile reduite</li>
+ *   <li>Un thread fait avancer toutes les tables ; les IA y decident</li>
+ * </ul>
+ *
+ * <h2>Utilisation :</h2>
+ * <pre>
+ * java -cp classes controller.GameServer --port 4242 --seats H,H,1 --rules 1
+ * java -cp classes controller.BotClient --port 4242 --bots 20000 --games 5
+ * </pre>
+ *
+ * <h2>Options :</h2>
+ * <ul>
+ *   <li><b>--port P</b> : port d ecoute (defaut {@value #DEFAULT_PORT}, 0 = libre)</li>
+ *   <li><b>--seats a,b,c[,d]</b> : sieges d une table, H = joueur connecte,
+ *       1 a 4 = strategie IA comme {@link SimulationRunner} (defaut H,H,1)</li>
+ *   <li><b>--rules 1|2|3</b> : regles utilisees (defaut 1)</li>
+ *   <li><b>--seed S</b> : graine maitre ; la table numero i en derive sa graine</li>
+ * </ul>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see ServerProtocol
+ * @see BotClient
+ */
+public final class GameServer implements Closeable {
+
+    /** Port d ecoute par defaut. */
+    public static final int DEFAULT_PORT = 4242;
+
+    /** Code d un siege tenu par un joueur connecte. */
+    public static final String HUMAN_SEAT = "H";
+
+    /** Pile des threads de joueurs lorsque les threads virtuels sont absents. */
+    private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+
+    private final ServerSocket serverSocket;
+    private final List<Supplier<Strategy>> seats = new ArrayList<>();
+    private final int humans;
+    private final Supplier<RuleSet> rules;
+    private final long masterSeed;
+    private final ExecutorService playerThreads;
+    private final TableScheduler scheduler;
+    private final List<GameConnection> lobby = new ArrayList<>();
+    private final Set<GameConnection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong tables = new AtomicLong();
+    private final AtomicLong connected = new AtomicLong();
+    private final Thread acceptor;
+
+    /**
+     * Cree le serveur et commence a accepter les joueurs.
+     *
+     * @param port       le port d ecoute (0 pour un port libre)
+     * @param seatCodes  le code de chaque siege : {@link #HUMAN_SEAT} ou une strategie IA
+     * @param rules      la fabrique de regles
+     * @param masterSeed la graine dont derivent les graines des tables
+     * @throws IOException              si le port ne peut pas etre ouvert
+     * @throws IllegalArgumentException si les sieges ne sont pas 3 ou 4, ou sans joueur connecte
+     */
+    public GameServer(int port, List<String> seatCodes, Supplier<RuleSet> rules, long masterSeed) throws IOException {
+        if (seatCodes.size() < 3 || seatCodes.size() > 4) {
+            throw new IllegalArgumentException("Une table compte 3 ou 4 sieges : " + seatCodes);
+        }
+        int count = 0;
+        for (String code : seatCodes) {
+            if (code.trim().equalsIgnoreCase(HUMAN_SEAT)) {
+                seats.add(null);
+                count++;
+            } else {
+                seats.add(SimulationRunner.strategyFor(code));
+            }
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("Aucun siege pour un joueur connecte : " + seatCodes);
+        }
+        this.humans = count;
+        this.rules = rules;
+        this.masterSeed = masterSeed;
+        this.serverSocket = new ServerSocket(port, 4096);
+        // Crees une fois le port ouvert : un echec ne laisse aucun thread
+        this.playerThreads = newPerTaskExecutor("jest-player-");
+        this.scheduler = new TableScheduler(new Dealer());
+        this.acceptor = new Thread(this::accept, "jest-server-accept");
+        acceptor.start();
+    }
+
+    /**
+     * Retourne le port d ecoute.
+     *
+     * @return le port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Retourne le nombre de tables formees.
+     *
+     * @return le nombre de tables
+     */
+    public long getTablesStarted() {
+        return tables.get();
+    }
+
+    /**
+     * Retourne le nombre de parties terminees.
+     *
+     * @return le nombre de parties
+     */
+    public long getTablesFinished() {
+        return scheduler.getFinished();
+    }
+
+    /**
+     * Retourne le nombre de parties abandonnees sur une erreur.
+     *
+     * @return le nombre de parties
+     */
+    public long getTablesFailed() {
+        return scheduler.getFailed();
+    }
+
+    /**
+     * Retourne le nombre de joueurs connectes.
+     *
+     * @return le nombre de connexions ouvertes
+     */
+    public long getConnected() {
+        return connected.get();
+    }
+
+    /**
+     * Arrete le serveur ; les parties en cours sont abandonnees.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler.close();
+        // Debloque les threads arretes dans une lecture, que shutdownNow n interrompt pas
+        for (GameConnection connection : connections) {
+            connection.close();
+        }
+        playerThreads.shutdownNow();
+    }
+
+    /**
+     * Cree un executeur a un thread par tache : threads virtuels si la JVM
+     * les fournit (Java 21), threads systeme demons a pile reduite sinon.
+     *
+     * @param prefix le prefixe du nom des threads systeme
+     * @return l executeur
+     */
+    static ExecutorService newPerTaskExecutor(String prefix) {
+        try {
+            // Par reflexion : le projet compile aussi pour Java 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            AtomicLong count = new AtomicLong();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(null, task, prefix + count.incrementAndGet(), PLATFORM_STACK_SIZE);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Place un joueur dans la salle d attente et forme une table si possible.
+     */
+    void join(GameConnection connection) {
+        List<GameConnection> group;
+        synchronized (lobby) {
+            lobby.add(connection);
+            if (lobby.size() < humans) {
+                return;
+            }
+            group = new ArrayList<>(lobby.subList(0, humans));
+            lobby.subList(0, humans).clear();
+        }
+        startTable(group);
+    }
+
+    /**
+     * Retire un joueur deconnecte.
+     */
+    void disconnected(GameConnection connection) {
+        synchronized (lobby) {
+            lobby.remove(connection);
+        }
+        connections.remove(connection);
+        connected.decrementAndGet();
+    }
+
+    /**
+     * Transmet la decision d un joueur a sa table.
+     */
+    void submit(GameStateMachine table, int action) {
+        scheduler.submit(table, action);
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                GameConnection connection = new GameConnection(socket, this);
+                connections.add(connection);
+                connected.incrementAndGet();
+                playerThreads.execute(connection);
+            } catch (IOException e) {
+                // Fermeture du serveur, ou connexion avortee
+            }
+        }
+    }
+
+    private void startTable(List<GameConnection> group) {
+        Game game = new Game();
+        game.setSeed(GameRandom.streamSeed(masterSeed, tables.getAndIncrement()));
+        int next = 0;
+        for (int i = 0; i < seats.size(); i++) {
+            Supplier<Strategy> ai = seats.get(i);
+            if (ai == null) {
+                GameConnection connection = group.get(next++);
+                game.addPlayer(new Player(connection.getName(), new RemoteStrategy(connection)));
+            } else {
+                game.addPlayer(new Player("IA " + (i + 1), ai.get()));
+            }
+        }
+        game.setRuleSet(rules.get());
+        game.getDeck().initialize(false);
+        game.start();
+
+        GameStateMachine table = new GameStateMachine(game);
+        table.addObserver(new TableObserver(game.getPlayers(), group));
+        List<Player> players = game.getPlayers();
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i).getStrategy() instanceof RemoteStrategy) {
+                ((RemoteStrategy) players.get(i).getStrategy()).connection
+                        .send(ServerProtocol.SEAT + " " + i + " " + players.size());
+            }
+        }
+        scheduler.add(table);
+    }
+
+    /**
+     * Strategie d un joueur connecte : comme {@link HumanStrategy}, elle
+     * laisse la table en attente ; la decision arrive par la connexion.
+     */
+    private static final class RemoteStrategy extends HumanStrategy {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient GameConnection connection;
+
+        /** Dernier tour dont la main a ete envoyee. */
+        private transient int handRound;
+
+        private RemoteStrategy(GameConnection connection) {
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * Transmet les demandes de decision aux joueurs et ferme les
+     * connexions en fin de partie ou si la table echoue (thread du
+     * planificateur).
+     */
+    private static final class Dealer implements TableScheduler.DecisionHandler {
+
+        @Override
+        public void onDecision(GameStateMachine table, Player player, int[] actions, int count) {
+            Game game = table.getGame();
+            if (table.getState() == GameStateMachine.State.OFFERS) {
+                // Premiere decision du tour : la distribution est faite et aucun
+                // joueur connecte n a encore offert, toutes les mains sont completes
+                for (Player seated : game.getPlayers()) {
+                    if (seated.getStrategy() instanceof RemoteStrategy) {
+                        RemoteStrategy remote = (RemoteStrategy) seated.getStrategy();
+                        if (remote.handRound != game.getCurrentRound()) {
+                            remote.handRound = game.getCurrentRound();
+                            remote.connection.send(ServerProtocol.hand(seated.getHand()));
+                        }
+                    }
+                }
+            }
+            ((RemoteStrategy) player.getStrategy()).connection.ask(table, actions, count);
+        }
+
+        @Override
+        public void onFinished(GameStateMachine table) {
+            for (Player player : table.getGame().getPlayers()) {
+                if (player.getStrategy() instanceof RemoteStrategy) {
+                    ((RemoteStrategy) player.getStrategy()).connection.finish();
+                }
+            }
+        }
+
+        @Override
+        public void onFailed(GameStateMachine table, RuntimeException error) {
+            for (Player player : table.getGame().getPlayers()) {
+                if (player.getStrategy() instanceof RemoteStrategy) {
+                    GameConnection connection = ((RemoteStrategy) player.getStrategy()).connection;
+                    connection.send(ServerProtocol.ABORT);
+                    connection.finish();
+                }
+            }
+        }
+    }
+
+    /**
+     * Diffuse le deroulement d une table a ses joueurs connectes.
+     */
+    private static final class TableObserver implements GameObserver {
+
+        private final List<Player> players;
+        private final List<GameConnection> connections;
+
+        private TableObserver(List<Player> players, List<GameConnection> connections) {
+            this.players = players;
+            this.connections = connections;
+        }
+
+        private void broadcast(String message) {
+            for (GameConnection connection : connections) {
+                connection.send(message);
+            }
+        }
+
+        @Override
+        public void onRoundStart(int roundNumber) {
+            broadcast(ServerProtocol.ROUND + " " + roundNumber);
+        }
+
+        @Override
+        public void onOffersCreated(List<Offer> offers) {
+            broadcast(ServerProtocol.offers(players, offers));
+        }
+
+        @Override
+        public void onCardTaken(Player player, Card card) {
+            broadcast(ServerProtocol.taken(players, player, card));
+            if (player.getStrategy() instanceof RemoteStrategy) {
+                ((RemoteStrategy) player.getStrategy()).connection
+                        .send(ServerProtocol.GOT + " " + CardCodec.idOf(card));
+            }
+        }
+
+        @Override
+        public void onGameEnd(Player winner) {
+            broadcast(ServerProtocol.end(players, winner));
+        }
+
+        @Override
+        public void onMessage(String message) {
+        }
+    }
+
+    /**
+     * Point d entree du serveur.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = DEFAULT_PORT;
+        String seatCodes = "H,H,1";
+        String rules = "1";
+        long seed = System.nanoTime();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                case "--seats": seatCodes = args[++i]; break;
+                case "--rules": rules = args[++i]; break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                default:
+                    System.out.println("Option inconnue : " + args[i]);
+                    return;
+            }
+        }
+
+        GameServer server = new GameServer(port, Arrays.asList(seatCodes.split(",")),
+                SimulationRunner.rulesFor(rules), seed);
+        System.out.printf("Serveur Jest sur le port %d (sieges %s, graine %d)%n", server.getPort(), seatCodes, seed);
+        while (true) {
+            TimeUnit.SECONDS.sleep(10);
+            System.out.printf("Joueurs connectes : %d, tables : %d, parties terminees : %d, abandonnees : %d%n",
+                    server.getConnected(), server.getTablesStarted(), server.getTablesFinished(),
+                    server.getTablesFailed());
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package controller;
+
+import model.*;
+import model.compact.CompactAction;
+import model.compact.LegalMoves;
+import observer.GameObserver;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deroulement d une partie sous forme de machine a etats, sans blocage.
+ *
+ * <p>{@link GameEngine#playGame()} est une boucle qui bloque tant qu un
+ * joueur humain n a pas repondu : chaque partie occupe un thread. Ici,
+ * {@link #advance()} joue la partie jusqu a la prochaine decision
+ * humaine puis rend la main ; la decision est fournie plus tard par
+ * {@link #submit(int)}, depuis n importe quelle source (reseau, file de
+ * messages). Un seul thread peut ainsi mener de nombreuses tables
+ * ({@link TableScheduler}).</p>
+ *
+ * <h2>Etats :</h2>
+ * <pre>
+ * DEAL -&gt; OFFERS -&gt; TAKES -&gt; NEXT_ROUND -&gt; DEAL ... -&gt; END -&gt; FINISHED
+ * </pre>
+ * <ul>
+ *   <li><b>DEAL</b> : debut du tour et distribution, ou fin de partie</li>
+ *   <li><b>OFFERS</b> : chaque joueur, dans l ordre, cree son offre</li>
+ *   <li><b>TAKES</b> : chaque joueur, dans l ordre de jeu, prend une carte</li>
+ *   <li><b>NEXT_ROUND</b> : les mains sont videes, le tour suivant commence</li>
+ *   <li><b>END</b> : les offres restantes rejoignent les Jest, calcul du gagnant</li>
+ * </ul>
+ *
+ * <h2>Decisions :</h2>
+ * <p>Les joueurs IA decident pendant {@link #advance()}. Un joueur humain
+ * (strategie qui retourne null) met la machine en attente dans l etat
+ * OFFERS ou TAKES : {@link #getWaitingPlayer()} le designe et
+ * {@link #getLegalActions(int[])} ecrit les decisions possibles, codees
+ * comme {@link CompactAction} (offre : carte cachee ; prise : proprietaire
+ * et carte visible ou cachee). Les regles sont celles de {@link GameEngine} :
+ * a graine egale et sans humain, la partie jouee est la meme.</p>
+ *
+ * <p>La machine n est pas synchronisee : un seul thread a la fois l utilise.
+ * L extension BM n est pas proposee, comme pour un moteur sans vue
+ * ({@link GameEngine#headless(Game)}).</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see TableScheduler
+ * @see LegalMoves
+ */
+public final class GameStateMachine {
+
+    /**
+     * Etats de la machine.
+     */
+    public enum State {
+        /** Debut de tour : distribution, ou fin de partie. */
+        DEAL,
+        /** Creation des offres. */
+        OFFERS,
+        /** Prises des cartes. */
+        TAKES,
+        /** Fin du tour. */
+        NEXT_ROUND,
+        /** Calcul des scores. */
+        END,
+        /** Partie terminee. */
+        FINISHED
+    }
+
+    private final Game game;
+    private final List<GameObserver> observers = new ArrayList<>();
+    private State state = State.DEAL;
+
+    /** Indice du prochain joueur a offrir (OFFERS) ou a prendre (TAKES). */
+    private int next;
+
+    /** Joueur dont la decision est attendue, ou null. */
+    private Player waiting;
+    private final int[] legal = new int[CompactAction.MAX_ACTIONS];
+    private int legalCount;
+    private Player winner;
+
+    /**
+     * Cree la machine d une partie deja configuree.
+     *
+     * <p>Comme pour {@link GameEngine#headless(Game)}, la partie doit avoir
+     * ses joueurs, ses regles et son deck, et {@link Game#start()} doit
+     * deja avoir ete appele.</p>
+     *
+     * @param game la partie a jouer
+     */
+    public GameStateMachine(Game game) {
+        this.game = game;
+    }
+
+    /**
+     * Ajoute un observateur, notifie depuis le thread qui fait avancer la machine.
+     *
+     * @param observer l observateur
+     */
+    public void addObserver(GameObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * Fait avancer la partie jusqu a la prochaine decision humaine ou jusqu a la fin.
+     *
+     * @return l etat atteint
+     */
+    public State advance() {
+        while (waiting == null && state != State.FINISHED) {
+            step();
+        }
+        return state;
+    }
+
+    /**
+     * Applique la decision du joueur attendu.
+     *
+     * <p>La partie ne reprend qu au prochain appel de {@link #advance()}.</p>
+     *
+     * @param action une action parmi {@link #getLegalActions(int[])}
+     * @throws IllegalStateException    si aucune decision n est attendue
+     * @throws IllegalArgumentException si l action n est pas legale
+     */
+    public void submit(int action) {
+        if (waiting == null) {
+            throw new IllegalStateException("Aucune decision attendue");
+        }
+        if (!LegalMoves.contains(action, legal, legalCount)) {
+            throw new IllegalArgumentException("Action illegale : " + CompactAction.toString(action));
+        }
+        Player player = waiting;
+        waiting = null;
+        if (state == State.OFFERS) {
+            addOffer(LegalMoves.toOffer(player, player.getHand(), action));
+        } else {
+            takeCard(player, LegalMoves.take(game, game.getCurrentOffers(), action));
+        }
+    }
+
+    /**
+     * Retourne l etat courant.
+     *
+     * @return l etat
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Indique si la machine attend une decision.
+     *
+     * @return true si un joueur doit decider
+     */
+    public boolean isWaiting() {
+        return waiting != null;
+    }
+
+    /**
+     * Retourne le joueur dont la decision est attendue.
+     *
+     * @return le joueur, ou null
+     */
+    public Player getWaitingPlayer() {
+        return waiting;
+    }
+
+    /**
+     * Ecrit les decisions possibles du joueur attendu.
+     *
+     * @param out tableau recevant les actions (au moins {@link CompactAction#MAX_ACTIONS} cases)
+     * @return le nombre d actions, 0 si aucune decision n est attendue
+     */
+    public int getLegalActions(int[] out) {
+        if (waiting == null) {
+            return 0;
+        }
+        System.arraycopy(legal, 0, out, 0, legalCount);
+        return legalCount;
+    }
+
+    /**
+     * Retourne la partie jouee.
+     *
+     * @return la partie
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Retourne le gagnant.
+     *
+     * @return le gagnant, ou null si la partie n est pas terminee
+     */
+    public Player getWinner() {
+        return winner;
+    }
+
+    /**
+     * Execute une transition, ou s arrete sur une decision humaine.
+     */
+    private void step() {
+        switch (state) {
+            case DEAL:
+                if (game.isGameOver()) {
+                    state = State.END;
+                    return;
+                }
+                for (GameObserver obs : observers) {
+                    obs.onRoundStart(game.getCurrentRound());
+                }
+                game.getCurrentOffers().clear();
+                game.getTurnOrder().clear();
+                game.dealRound();
+                next = 0;
+                state = State.OFFERS;
+                return;
+
+            case OFFERS:
+                if (next < game.getPlayers().size()) {
+                    Player player = game.getPlayers().get(next);
+                    Offer offer = player.makeOffer(game);
+                    if (offer == null) {
+                        waiting = player;
+                        legalCount = LegalMoves.offers(player.getHand(), legal);
+                    } else {
+                        addOffer(offer);
+                    }
+                    return;
+                }
+                for (GameObserver obs : observers) {
+                    obs.onOffersCreated(game.getCurrentOffers());
+                }
+                game.setTurnOrder(GameEngine.determineTurnOrder(game.getCurrentOffers()));
+                next = 0;
+                state = State.TAKES;
+                return;
+
+            case TAKES:
+                if (next < game.getTurnOrder().size()) {
+                    Player player = game.getTurnOrder().get(next);
+                    legalCount = LegalMoves.takes(game, player, legal);
+                    List<Offer> available = new ArrayList<>(legalCount / 2);
+                    for (int i = 0; i < legalCount; i += 2) {
+                        available.add(LegalMoves.offerOf(game, legal[i]));
+                    }
+                    Card chosen = player.chooseFrom(available, game);
+                    if (chosen == null) {
+                        waiting = player;
+                    } else {
+                        takeCard(player, chosen);
+                    }
+                    return;
+                }
+                state = State.NEXT_ROUND;
+                return;
+
+            case NEXT_ROUND:
+                for (Player player : game.getPlayers()) {
+                    player.clearHand();
+                }
+                game.endTurn();
+                state = State.DEAL;
+                return;
+
+            case END:
+                GameEngine.collectRemainingOffers(game);
+                winner = game.winner();
+                for (GameObserver obs : observers) {
+                    obs.onGameEnd(winner);
+                }
+                state = State.FINISHED;
+                return;
+
+            default:
+                throw new IllegalStateException("Partie terminee");
+        }
+    }
+
+    private void addOffer(Offer offer) {
+        game.getCurrentOffers().add(offer);
+        next++;
+    }
+
+    private void takeCard(Player player, Card card) {
+        player.getJest().addCard(card);
+        for (GameObserver obs : observers) {
+            obs.onCardTaken(player, card);
+        }
+        next++;
+    }
+}
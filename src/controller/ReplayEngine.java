@@ -0,0 +1,515 @@
+package controller;
+
+import model.*;
+import model.compact.CardCodec;
+import model.extension.BMCard;
+import observer.GameObserver;
+import observer.JournalReader;
+import observer.RecordedGame;
+import strategy.Strategy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Rejeu deterministe d une partie enregistree dans un journal.
+ *
+ * <p>La partie est reconstruite a partir de sa graine, puis jouee par
+ * {@link GameEngine} avec, a chaque siege, une strategie qui reproduit les
+ * offres et les prises enregistrees : aucune strategie IA n est executee.
+ * Chaque prise est comparee a l enregistrement ; une partie dont une
+ * decision n est plus possible ou dont les scores finaux different de ceux
+ * enregistres est divergente.</p>
+ *
+ * <h2>Acces a un tour :</h2>
+ * <p>{@link #seek(int)} retourne l etat de la partie au debut d un tour.
+ * Une copie de la partie ({@link Game#copy()}) est conservee tous les
+ * {@code keyframeInterval} tours lors du premier passage : un acces suivant
+ * repart de la copie la plus proche au lieu de rejouer depuis le debut.</p>
+ *
+ * <h2>Validation d un journal :</h2>
+ * <pre>
+ * java -cp classes controller.ReplayEngine parties.jnl --threads 8
+ * java -cp classes controller.ReplayEngine parties.jnl --game 12 --round 3
+ * </pre>
+ * <p>{@link #validate(Path, int)} rejoue toutes les parties
+ * sur plusieurs threads, le journal etant lu par le thread appelant.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see observer.JournalObserver
+ * @see JournalReader
+ */
+public class ReplayEngine {
+
+    /** Intervalle par defaut entre deux copies de la partie (en tours). */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 2;
+
+    /** Nombre de parties rejouees par tache de validation. */
+    private static final int BATCH_SIZE = 2048;
+
+    /** Nombre maximal de divergences detaillees dans un rapport. */
+    private static final int MAX_REPORTED = 10;
+
+    private final RecordedGame record;
+    private final int keyframeInterval;
+
+    /** Copies de la partie au debut des tours 1, 1 + intervalle, 1 + 2 intervalles... */
+    private final List<Game> keyframes = new ArrayList<>();
+
+    /**
+     * Constructeur avec l intervalle de copies par defaut.
+     *
+     * @param record la partie enregistree
+     * @throws IllegalArgumentException si les regles de la partie sont inconnues
+     */
+    public ReplayEngine(RecordedGame record) {
+        this(record, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Constructeur.
+     *
+     * @param record           la partie enregistree
+     * @param keyframeInterval le nombre de tours entre deux copies (0 = aucune copie)
+     * @throws IllegalArgumentException si les regles de la partie sont inconnues
+     */
+    public ReplayEngine(RecordedGame record, int keyframeInterval) {
+        if (record.getRules() < 1 || record.getRules() > 3) {
+            throw new IllegalArgumentException("Regles inconnues pour la " + record);
+        }
+        this.record = record;
+        this.keyframeInterval = Math.max(0, keyframeInterval);
+    }
+
+    /**
+     * Retourne l etat de la partie au debut d un tour, avant la distribution.
+     *
+     * <p>Le tour {@code getRoundCount() + 1} correspond a la partie dont tous
+     * les tours ont ete joues, avant le calcul des scores. La partie retournee
+     * est independante : elle peut etre modifiee ou jouee par un autre moteur.</p>
+     *
+     * @param round le numero du tour, de 1 a {@code getRoundCount() + 1}
+     * @return la partie au debut du tour
+     * @throws IllegalArgumentException si le tour n existe pas
+     * @throws IllegalStateException    si la partie diverge de l enregistrement
+     */
+    public Game seek(int round) {
+        if (round < 1 || round > record.getRoundCount() + 1) {
+            throw new IllegalArgumentException("Tour " + round + " hors de la " + record);
+        }
+
+        Game game;
+        if (keyframeInterval == 0) {
+            game = newGame();
+        } else {
+            if (keyframes.isEmpty()) {
+                keyframes.add(newGame());
+            }
+            int index = Math.min((round - 1) / keyframeInterval, keyframes.size() - 1);
+            game = keyframes.get(index).copy();
+        }
+
+        GameEngine engine = engine(game);
+        while (game.getCurrentRound() < round) {
+            int next = game.getCurrentRound() + 1;
+            if (!engine.playUntil(next)) {
+                throw divergence("partie terminee avant le tour " + next);
+            }
+            if (keyframeInterval > 0 && (next - 1) % keyframeInterval == 0
+                    && keyframes.size() == (next - 1) / keyframeInterval) {
+                keyframes.add(game.copy());
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Rejoue la partie jusqu a la fin et calcule les scores.
+     *
+     * @return le moteur ayant rejoue la partie (partie et gagnant accessibles)
+     * @throws IllegalStateException si la partie diverge de l enregistrement
+     */
+    public GameEngine replay() {
+        Game game = seek(record.getRoundCount() + 1);
+        if (!game.isGameOver()) {
+            throw divergence("partie non terminee apres " + record.getRoundCount() + " tours");
+        }
+        GameEngine engine = engine(game);
+        engine.playGame();
+        return engine;
+    }
+
+    /**
+     * Rejoue la partie et compare son resultat a l enregistrement.
+     *
+     * @return null si la partie est conforme, sinon la description de la divergence
+     */
+    public String findDivergence() {
+        GameEngine engine;
+        try {
+            engine = replay();
+        } catch (IllegalStateException e) {
+            return e.getMessage();
+        }
+
+        List<Player> players = engine.getGame().getPlayers();
+        for (int seat = 0; seat < players.size(); seat++) {
+            int score = players.get(seat).getFinalScore();
+            if (score != record.getScore(seat)) {
+                return record + " : score " + score + " au siege " + seat
+                        + " au lieu de " + record.getScore(seat);
+            }
+        }
+        int winner = players.indexOf(engine.getWinner());
+        if (winner != record.getWinner()) {
+            return record + " : gagnant au siege " + winner + " au lieu de " + record.getWinner();
+        }
+        return null;
+    }
+
+    /**
+     * Retourne la partie enregistree.
+     *
+     * @return l enregistrement rejoue
+     */
+    public RecordedGame getRecord() {
+        return record;
+    }
+
+    /**
+     * Cree la partie enregistree, prete a jouer son premier tour.
+     */
+    private Game newGame() {
+        Game game = new Game();
+        game.setSeed(record.getSeed());
+        game.setExtensionBM(record.isExtensionBM());
+        for (int seat = 0; seat < record.getPlayerCount(); seat++) {
+            game.addPlayer(new Player(record.getName(seat), new ReplayStrategy(record, seat)));
+        }
+        game.setRuleSet(SimulationRunner.rulesFor(Integer.toString(record.getRules())).get());
+        game.setExtensionCards(record.isExtensionCards());
+        game.getDeck().initialize(record.isExtensionCards());
+        game.start();
+
+        if (record.getBmTarget() >= 0) {
+            BMCard card = new BMCard(BMCard.BMType.values()[record.getBmType()], record.getBmValue());
+            card.setTarget(game.getPlayers().get(record.getBmTarget()));
+            game.setPendingBmCard(card);
+        }
+        return game;
+    }
+
+    /**
+     * Cree un moteur sans vue qui controle chaque prise.
+     */
+    private GameEngine engine(Game game) {
+        GameEngine engine = GameEngine.headless(game);
+        engine.addObserver(new TakeChecker(game));
+        return engine;
+    }
+
+    private IllegalStateException divergence(String reason) {
+        return new IllegalStateException(record + " : " + reason);
+    }
+
+    /**
+     * Rejoue toutes les parties d un journal en parallele.
+     *
+     * <p>Le journal est lu par le thread appelant et reparti par lots ; le
+     * nombre de lots en attente est borne, la memoire utilisee ne depend donc
+     * pas de la taille du journal. Les divergences sont rapportees dans
+     * l ordre du journal.</p>
+     *
+     * @param file    le fichier du journal
+     * @param threads le nombre de threads de rejeu
+     * @return le rapport de validation
+     * @throws IOException          si le journal ne peut etre lu
+     * @throws InterruptedException si le thread appelant est interrompu
+     */
+    public static Validation validate(Path file, int threads) throws IOException, InterruptedException {
+        int workers = Math.max(1, threads);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        Validation total = new Validation();
+        long begin = System.nanoTime();
+        try (JournalReader reader = JournalReader.open(file)) {
+            Deque<Future<Validation>> pending = new ArrayDeque<>();
+            List<RecordedGame> batch = new ArrayList<>(BATCH_SIZE);
+            for (RecordedGame game = reader.next(); game != null; game = reader.next()) {
+                batch.add(game);
+                if (batch.size() == BATCH_SIZE) {
+                    List<RecordedGame> games = batch;
+                    pending.add(pool.submit(() -> validateBatch(games)));
+                    batch = new ArrayList<>(BATCH_SIZE);
+                    if (pending.size() > 2 * workers) {
+                        total.merge(await(pending.poll()));
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                List<RecordedGame> games = batch;
+                pending.add(pool.submit(() -> validateBatch(games)));
+            }
+            while (!pending.isEmpty()) {
+                total.merge(await(pending.poll()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        total.elapsedNanos = System.nanoTime() - begin;
+        return total;
+    }
+
+    /**
+     * Rejoue un lot de parties dans le thread courant, sans copie intermediaire.
+     */
+    private static Validation validateBatch(List<RecordedGame> games) {
+        Validation result = new Validation();
+        for (RecordedGame game : games) {
+            String divergence;
+            try {
+                divergence = new ReplayEngine(game, 0).findDivergence();
+            } catch (RuntimeException e) {
+                // Une partie incoherente ne doit pas interrompre la validation des autres
+                divergence = game + " : " + e;
+            }
+            result.record(divergence);
+        }
+        return result;
+    }
+
+    private static Validation await(Future<Validation> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Echec d une validation", e.getCause());
+        }
+    }
+
+    /**
+     * Strategie rejouant les decisions enregistrees d un siege.
+     */
+    private static final class ReplayStrategy implements Strategy {
+        private static final long serialVersionUID = 1L;
+
+        private final RecordedGame record;
+        private final int seat;
+
+        ReplayStrategy(RecordedGame record, int seat) {
+            this.record = record;
+            this.seat = seat;
+        }
+
+        @Override
+        public Offer chooseOffer(Player player, List<Card> hand, Game game) {
+            int round = recordedRound(game);
+            int hiddenId = record.getHiddenCard(round, seat);
+            for (int i = 0; i < hand.size(); i++) {
+                if (CardCodec.idOf(hand.get(i)) == hiddenId) {
+                    Offer offer = new Offer(player);
+                    offer.setFaceDown(hand.get(i));
+                    offer.setFaceUp(hand.get(1 - i));
+                    return offer;
+                }
+            }
+            throw new IllegalStateException(record + " : tour " + round + ", carte cachee "
+                    + CardCodec.toString(hiddenId) + " absente de la main du siege " + seat);
+        }
+
+        @Override
+        public Card chooseTake(Player player, List<Offer> offers, Game game) {
+            int round = recordedRound(game);
+            int id = record.getCardTakenBy(round, seat);
+            for (Offer offer : offers) {
+                boolean up = CardCodec.idOf(offer.getFaceUp()) == id;
+                if (up || CardCodec.idOf(offer.getFaceDown()) == id) {
+                    Card chosen = up ? offer.getFaceUp() : offer.getFaceDown();
+                    Card unchosen = offer.getUnchosen(chosen);
+                    Card result = up ? offer.takeFaceUp() : offer.takeFaceDown();
+                    game.addCarryOverCard(unchosen);
+                    return result;
+                }
+            }
+            throw new IllegalStateException(record + " : tour " + round + ", prise "
+                    + (id < 0 ? "absente" : CardCodec.toString(id)) + " impossible pour le siege " + seat);
+        }
+
+        @Override
+        public boolean isHuman() {
+            return false;
+        }
+
+        private int recordedRound(Game game) {
+            int round = game.getCurrentRound();
+            if (round > record.getRoundCount()) {
+                throw new IllegalStateException(record + " : tour " + round + " absent du journal");
+            }
+            return round;
+        }
+    }
+
+    /**
+     * Observateur comparant chaque prise, dans l ordre, a l enregistrement.
+     */
+    private final class TakeChecker implements GameObserver {
+        private final Game game;
+        private int round;
+        private int take;
+
+        TakeChecker(Game game) {
+            this.game = game;
+        }
+
+        @Override
+        public void onRoundStart(int roundNumber) {
+            round = roundNumber;
+            take = 0;
+        }
+
+        @Override
+        public void onOffersCreated(List<Offer> offers) {
+        }
+
+        @Override
+        public void onCardTaken(Player player, Card card) {
+            int seat = game.getPlayers().indexOf(player);
+            if (seat != record.getTakeSeat(round, take) || CardCodec.idOf(card) != record.getTakeCard(round, take)) {
+                throw divergence("tour " + round + ", prise " + (take + 1) + " du siege " + seat
+                        + " au lieu du siege " + record.getTakeSeat(round, take));
+            }
+            take++;
+        }
+
+        @Override
+        public void onGameEnd(Player winner) {
+        }
+
+        @Override
+        public void onMessage(String message) {
+        }
+    }
+
+    /**
+     * Rapport de validation d un journal.
+     */
+    public static class Validation {
+        private final List<String> divergences = new ArrayList<>();
+        private long games;
+        private long divergent;
+        private long elapsedNanos;
+
+        void record(String divergence) {
+            games++;
+            if (divergence != null) {
+                divergent++;
+                if (divergences.size() < MAX_REPORTED) divergences.add(divergence);
+            }
+        }
+
+        void merge(Validation other) {
+            games += other.games;
+            divergent += other.divergent;
+            for (String divergence : other.divergences) {
+                if (divergences.size() < MAX_REPORTED) divergences.add(divergence);
+            }
+        }
+
+        /**
+         * Retourne le nombre de parties rejouees.
+         *
+         * @return le nombre de parties
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * Retourne le nombre de parties divergentes.
+         *
+         * @return le nombre de parties dont le rejeu differe de l enregistrement
+         */
+        public long getDivergent() {
+            return divergent;
+        }
+
+        /**
+         * Retourne le detail des premieres divergences, dans l ordre du journal.
+         *
+         * @return au plus dix descriptions
+         */
+        public List<String> getDivergences() {
+            return divergences;
+        }
+
+        /**
+         * Retourne le debit mesure.
+         *
+         * @return le nombre de parties rejouees par seconde
+         */
+        public double getGamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+        }
+    }
+
+    /**
+     * Point d entree : validation d un journal ou affichage d un tour.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.out.println("Usage : ReplayEngine journal [--threads T] [--game I --round R]");
+            return;
+        }
+        String file = args[0];
+        int threads = Runtime.getRuntime().availableProcessors();
+        long gameIndex = -1;
+        int round = 1;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--game": gameIndex = Long.parseLong(args[++i]); break;
+                case "--round": round = Integer.parseInt(args[++i]); break;
+                default:
+                    System.out.println("Option inconnue : " + args[i]);
+                    return;
+            }
+        }
+
+        if (gameIndex < 0) {
+            Validation validation = validate(Paths.get(file), threads);
+            System.out.println("==== VALIDATION ====");
+            System.out.printf("Parties : %d sur %d threads (%.0f parties/s)%n",
+                    validation.getGames(), threads, validation.getGamesPerSecond());
+            System.out.printf("Divergentes : %d%n", validation.getDivergent());
+            for (String divergence : validation.getDivergences()) {
+                System.out.println("  " + divergence);
+            }
+            return;
+        }
+
+        try (JournalReader reader = JournalReader.open(Paths.get(file))) {
+            RecordedGame record = reader.next();
+            while (record != null && record.getIndex() < gameIndex) {
+                record = reader.next();
+            }
+            if (record == null) {
+                System.out.println("Partie #" + gameIndex + " absente du journal");
+                return;
+            }
+            Game game = new ReplayEngine(record).seek(round);
+            System.out.println(record + ", debut du tour " + round + " :");
+            for (Player player : game.getPlayers()) {
+                System.out.println("  " + player.getName() + " : " + player.getJest().getCards());
+            }
+            System.out.println("  Cartes reportees : " + game.getCarryOverCards());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package controller;
+
+import model.Card;
+import model.Offer;
+import model.Player;
+import model.compact.CardCodec;
+import java.util.List;
+
+/**
+ * Protocole texte entre {@link GameServer} et ses clients.
+ *
+ * <p>Un message par ligne (UTF-8), mot-cle puis entiers separes par des
+ * espaces. Les cartes sont codees par {@link CardCodec}, les decisions
+ * par {@link model.compact.CompactAction} : le client renvoie simplement
+ * l une des actions proposees.</p>
+ *
+ * <p>Une carte cachee n est revelee qu a son detenteur : HAND a la
+ * distribution, GOT a celui qui la prend.</p>
+ *
+ * <h2>Messages :</h2>
+ * <pre>
+ * client  HELLO &lt;nom&gt;                        connexion
+ * serveur SEAT &lt;siege&gt; &lt;joueurs&gt;              place a une table
+ * serveur ROUND &lt;tour&gt;                       debut de tour
+ * serveur HAND &lt;carte&gt; &lt;carte&gt;               main distribuee (a ce joueur seul)
+ * serveur OFFERS &lt;siege&gt;:&lt;carte visible&gt; ...  offres du tour
+ * serveur TAKEN &lt;siege&gt; &lt;offre&gt; &lt;carte&gt;      le siege a pris dans l offre du siege
+ *                                            &lt;offre&gt; la carte visible, ou -1 la cachee
+ * serveur GOT &lt;carte&gt;                        carte prise (au preneur seul)
+ * serveur ASK &lt;action&gt; ...                   decision attendue
+ * client  &lt;action&gt;                           reponse a ASK
+ * serveur END &lt;gagnant&gt; &lt;score&gt; ...           fin de partie (un score par siege)
+ * serveur ABORT                              partie abandonnee sur une erreur du serveur
+ * </pre>
+ *
+ * <p>Une reponse illegale ou illisible est ignoree : la meme question est
+ * reposee. Apres END ou ABORT, le serveur ferme la connexion.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see GameServer
+ * @see BotClient
+ */
+public final class ServerProtocol {
+
+    /** Connexion d un joueur. */
+    public static final String HELLO = "HELLO";
+
+    /** Place attribuee a une table. */
+    public static final String SEAT = "SEAT";
+
+    /** Debut de tour. */
+    public static final String ROUND = "ROUND";
+
+    /** Offres du tour. */
+    public static final String OFFERS = "OFFERS";
+
+    /** Main distribuee, envoyee au seul detenteur. */
+    public static final String HAND = "HAND";
+
+    /** Prise d une carte. */
+    public static final String TAKEN = "TAKEN";
+
+    /** Carte prise, envoyee au seul preneur. */
+    public static final String GOT = "GOT";
+
+    /** Decision attendue. */
+    public static final String ASK = "ASK";
+
+    /** Fin de partie. */
+    public static final String END = "END";
+
+    /** Partie abandonnee. */
+    public static final String ABORT = "ABORT";
+
+    private ServerProtocol() {
+    }
+
+    /**
+     * Ecrit une demande de decision.
+     *
+     * @param actions les actions proposees
+     * @param count   leur nombre
+     * @return la ligne
+     */
+    public static String ask(int[] actions, int count) {
+        StringBuilder line = new StringBuilder(ASK);
+        for (int i = 0; i < count; i++) {
+            line.append(' ').append(actions[i]);
+        }
+        return line.toString();
+    }
+
+    /**
+     * Ecrit les offres du tour.
+     *
+     * @param players les joueurs de la table, dans l ordre des sieges
+     * @param offers  les offres
+     * @return la ligne
+     */
+    public static String offers(List<Player> players, List<Offer> offers) {
+        StringBuilder line = new StringBuilder(OFFERS);
+        for (Offer offer : offers) {
+            line.append(' ').append(players.indexOf(offer.getOwner()))
+                .append(':').append(CardCodec.idOf(offer.getFaceUp()));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Ecrit la main distribuee a un joueur.
+     *
+     * @param hand les cartes de la main
+     * @return la ligne
+     */
+    public static String hand(List<Card> hand) {
+        StringBuilder line = new StringBuilder(HAND);
+        for (Card card : hand) {
+            line.append(' ').append(CardCodec.idOf(card));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Ecrit une prise, telle que la voient tous les joueurs : la carte
+     * n est donnee que si elle etait visible.
+     *
+     * @param players les joueurs de la table, dans l ordre des sieges
+     * @param player  le preneur
+     * @param card    la carte prise, marquee par son offre
+     * @return la ligne
+     */
+    public static String taken(List<Player> players, Player player, Card card) {
+        int visible = card.wasTakenHidden() ? CardCodec.NONE : CardCodec.idOf(card);
+        return TAKEN + " " + players.indexOf(player) + " " + players.indexOf(card.getLastOfferOwner())
+                + " " + visible;
+    }
+
+    /**
+     * Ecrit la fin de partie.
+     *
+     * @param players les joueurs de la table, dans l ordre des sieges
+     * @param winner  le gagnant
+     * @return la ligne
+     */
+    public static String end(List<Player> players, Player winner) {
+        StringBuilder line = new StringBuilder(END).append(' ').append(players.indexOf(winner));
+        for (Player player : players) {
+            line.append(' ').append(player.getFinalScore());
+        }
+        return line.toString();
+    }
+
+    /**
+     * Lit les entiers qui suivent le mot-cle d une ligne.
+     *
+     * @param line la ligne recue
+     * @return les entiers
+     * @throws NumberFormatException si la ligne est mal formee
+     */
+    public static int[] arguments(String line) {
+        String[] parts = line.trim().split(" +");
+        int[] values = new int[parts.length - 1];
+        for (int i = 1; i < parts.length; i++) {
+            values[i - 1] = Integer.parseInt(parts[i]);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,374 @@
+package controller;
+
+import model.*;
+import model.rules.*;
+import observer.GameJournal;
+import observer.JournalObserver;
+import strategy.*;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Lanceur de simulations sans interface (IA contre IA).
+ *
+ * <p>Cette classe joue un grand nombre de parties en parallele sur tous
+ * les coeurs disponibles, sans console ni GUI, en reutilisant la logique
+ * de {@link GameEngine} (tours, prises, fin de partie) via
+ * {@link GameEngine#headless(Game)}.</p>
+ *
+ * <h2>Utilisation :</h2>
+ * <pre>
+ * java -cp classes controller.SimulationRunner --games 1000000 --strategies 1,2,1 --rules 1 --extension
+ * </pre>
+ *
+ * <h2>Options :</h2>
+ * <ul>
+ *   <li><b>--games N</b> : nombre de parties (defaut 100000)</li>
+ *   <li><b>--strategies a,b,c[,d]</b> : strategie de chaque siege, 1 = conservatrice, 2 = bluff, 3 = MCTS, 4 = MCTS + solveur de fin de partie (defaut 1,2,1)</li>
+ *   <li><b>--rules 1|2|3</b> : regles utilisees (defaut 1)</li>
+ *   <li><b>--extension</b> : active les cartes 5-8</li>
+ *   <li><b>--threads T</b> : nombre de threads (defaut : nombre de coeurs)</li>
+ *   <li><b>--seed S</b> : graine maitre (defaut : aleatoire)</li>
+ *   <li><b>--journal F</b> : ajoute chaque partie au journal binaire F ({@link GameJournal})</li>
+ * </ul>
+ *
+ * <p>La graine de la partie numero i est derivee de la graine maitre
+ * ({@link GameRandom#streamSeed(long, long)}) : une meme graine maitre
+ * donne les memes resultats quel que soit le nombre de threads.</p>
+ *
+ * <p>Le rapport affiche le debit (parties/seconde), le taux de victoire
+ * et le score final moyen de chaque siege.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see GameEngine
+ */
+public class SimulationRunner {
+
+    /** Nombre de parties jouees par tache soumise au pool. */
+    private static final int CHUNK_SIZE = 2048;
+
+    private final int games;
+    private final List<Supplier<Strategy>> seats;
+    private final Supplier<RuleSet> rules;
+    private final boolean extensionCards;
+    private final int threads;
+    private final long masterSeed;
+    private GameJournal journal;
+
+    /**
+     * Constructeur du lanceur.
+     *
+     * @param games          le nombre de parties a jouer
+     * @param seats          une fabrique de strategie par siege (3 ou 4)
+     * @param rules          la fabrique de regles
+     * @param extensionCards true pour jouer avec les cartes 5-8
+     * @param threads        le nombre de threads de calcul
+     * @param masterSeed     la graine dont derivent les graines des parties
+     * @throws IllegalArgumentException si le nombre de sieges n est pas 3 ou 4
+     */
+    public SimulationRunner(int games, List<Supplier<Strategy>> seats, Supplier<RuleSet> rules,
+                            boolean extensionCards, int threads, long masterSeed) {
+        if (seats.size() < 3 || seats.size() > 4) {
+            throw new IllegalArgumentException("Une partie se joue a 3 ou 4 joueurs");
+        }
+        this.games = games;
+        this.seats = new ArrayList<>(seats);
+        this.rules = rules;
+        this.extensionCards = extensionCards;
+        this.threads = Math.max(1, threads);
+        this.masterSeed = masterSeed;
+    }
+
+    /**
+     * Cree et joue une partie complete sans vue.
+     *
+     * @param strategies     la strategie de chaque joueur, dans l ordre des sieges
+     * @param ruleSet        les regles de la partie
+     * @param extensionCards true pour jouer avec les cartes 5-8
+     * @param seed           la graine de la partie
+     * @return le moteur ayant joue la partie (partie et gagnant accessibles)
+     */
+    public static GameEngine playHeadless(List<Strategy> strategies, RuleSet ruleSet, boolean extensionCards,
+                                          long seed) {
+        return playHeadless(strategies, ruleSet, extensionCards, false, seed);
+    }
+
+    /**
+     * Cree et joue une partie complete sans vue, extension BM comprise.
+     *
+     * <p>Sans joueur humain, la carte BM n est jamais attribuee : le drapeau
+     * est simplement reporte sur la partie.</p>
+     *
+     * @param strategies     la strategie de chaque joueur, dans l ordre des sieges
+     * @param ruleSet        les regles de la partie
+     * @param extensionCards true pour jouer avec les cartes 5-8
+     * @param extensionBM    true pour activer l extension BM
+     * @param seed           la graine de la partie
+     * @return le moteur ayant joue la partie (partie et gagnant accessibles)
+     */
+    public static GameEngine playHeadless(List<Strategy> strategies, RuleSet ruleSet, boolean extensionCards,
+                                          boolean extensionBM, long seed) {
+        return playHeadless(strategies, ruleSet, extensionCards, extensionBM, seed, null);
+    }
+
+    /**
+     * Cree et joue une partie complete sans vue en la journalisant.
+     *
+     * @param strategies     la strategie de chaque joueur, dans l ordre des sieges
+     * @param ruleSet        les regles de la partie
+     * @param extensionCards true pour jouer avec les cartes 5-8
+     * @param extensionBM    true pour activer l extension BM
+     * @param seed           la graine de la partie
+     * @param journal        l observateur qui enregistre la partie, ou null
+     * @return le moteur ayant joue la partie (partie et gagnant accessibles)
+     */
+    public static GameEngine playHeadless(List<Strategy> strategies, RuleSet ruleSet, boolean extensionCards,
+                                          boolean extensionBM, long seed, JournalObserver journal) {
+        Game game = new Game();
+        game.setSeed(seed);
+        game.setExtensionBM(extensionBM);
+        for (int i = 0; i < strategies.size(); i++) {
+            game.addPlayer(new Player("IA " + (i + 1), strategies.get(i)));
+        }
+        game.setRuleSet(ruleSet);
+        game.setExtensionCards(extensionCards);
+        game.getDeck().initialize(extensionCards);
+        game.start();
+
+        GameEngine engine = GameEngine.headless(game);
+        if (journal != null) {
+            journal.startGame(game);
+            engine.addObserver(journal);
+        }
+        engine.playGame();
+        return engine;
+    }
+
+    /**
+     * Enregistre toutes les parties jouees dans un journal.
+     *
+     * <p>Chaque thread code ses parties dans son propre tampon ; le journal
+     * n est pas ferme par le lanceur.</p>
+     *
+     * @param journal le journal, ou null pour ne rien enregistrer
+     */
+    public void setJournal(GameJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Joue toutes les parties et agrege les resultats.
+     *
+     * @return les statistiques agregees
+     * @throws InterruptedException si le thread appelant est interrompu
+     */
+    public Stats run() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            // Les lots commencent des leur soumission : le chrono part avant
+            long begin = System.nanoTime();
+            List<Future<Stats>> futures = new ArrayList<>();
+            for (int start = 0; start < games; start += CHUNK_SIZE) {
+                int first = start;
+                int count = Math.min(CHUNK_SIZE, games - start);
+                futures.add(pool.submit(() -> playChunk(first, count)));
+            }
+
+            Stats total = new Stats(seats.size());
+            for (Future<Stats> future : futures) {
+                try {
+                    total.merge(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Echec d une simulation", e.getCause());
+                }
+            }
+            total.elapsedNanos = System.nanoTime() - begin;
+            return total;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Joue un lot de parties dans le thread courant.
+     */
+    private Stats playChunk(int first, int count) {
+        Stats stats = new Stats(seats.size());
+        List<Strategy> strategies = new ArrayList<>(seats.size());
+        JournalObserver observer = journal != null ? new JournalObserver(journal) : null;
+        for (int g = 0; g < count; g++) {
+            strategies.clear();
+            for (Supplier<Strategy> seat : seats) {
+                strategies.add(seat.get());
+            }
+
+            long seed = GameRandom.streamSeed(masterSeed, first + g);
+            GameEngine engine = playHeadless(strategies, rules.get(), extensionCards, false, seed, observer);
+            stats.record(engine.getGame().getPlayers(), engine.getWinner());
+        }
+        if (observer != null) {
+            observer.flush();
+        }
+        return stats;
+    }
+
+    /**
+     * Statistiques agregees par siege.
+     */
+    public static class Stats {
+        private final long[] wins;
+        private final long[] scoreSums;
+        private long games;
+        private long elapsedNanos;
+
+        Stats(int seats) {
+            this.wins = new long[seats];
+            this.scoreSums = new long[seats];
+        }
+
+        void record(List<Player> players, Player winner) {
+            for (int i = 0; i < players.size(); i++) {
+                Player p = players.get(i);
+                scoreSums[i] += p.getFinalScore();
+                if (p == winner) wins[i]++;
+            }
+            games++;
+        }
+
+        void merge(Stats other) {
+            for (int i = 0; i < wins.length; i++) {
+                wins[i] += other.wins[i];
+                scoreSums[i] += other.scoreSums[i];
+            }
+            games += other.games;
+        }
+
+        /**
+         * Retourne le nombre de parties jouees.
+         *
+         * @return le nombre de parties
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * Retourne le nombre de victoires d un siege.
+         *
+         * @param seat l indice du siege
+         * @return le nombre de victoires
+         */
+        public long getWins(int seat) {
+            return wins[seat];
+        }
+
+        /**
+         * Retourne le score final moyen d un siege.
+         *
+         * @param seat l indice du siege
+         * @return le score moyen
+         */
+        public double getMeanScore(int seat) {
+            return games == 0 ? 0 : (double) scoreSums[seat] / games;
+        }
+
+        /**
+         * Retourne le debit mesure.
+         *
+         * @return le nombre de parties par seconde
+         */
+        public double getGamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+        }
+    }
+
+    /**
+     * Retourne la fabrique de strategie associee a un code.
+     */
+    static Supplier<Strategy> strategyFor(String code) {
+        switch (code.trim()) {
+            case "1": return Strategy1::new;
+            case "2": return Strategy2::new;
+            case "3": return MctsStrategy::new;
+            case "4": return () -> new EndgameStrategy(new MctsStrategy());
+            default:
+                throw new IllegalArgumentException("Strategie inconnue : " + code);
+        }
+    }
+
+    /**
+     * Retourne la fabrique de regles associee a un code.
+     */
+    static Supplier<RuleSet> rulesFor(String code) {
+        switch (code.trim()) {
+            case "1": return Rule1::new;
+            case "2": return Rule2::new;
+            case "3": return Rule3::new;
+            default:
+                throw new IllegalArgumentException("Regles inconnues : " + code);
+        }
+    }
+
+    /**
+     * Point d entree du mode simulation.
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int games = 100_000;
+        String strategies = "1,2,1";
+        String rules = "1";
+        boolean extension = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        String journalFile = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games": games = Integer.parseInt(args[++i]); break;
+                case "--strategies": strategies = args[++i]; break;
+                case "--rules": rules = args[++i]; break;
+                case "--extension": extension = true; break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--journal": journalFile = args[++i]; break;
+                default:
+                    System.out.println("Option inconnue : " + args[i]);
+                    return;
+            }
+        }
+
+        List<Supplier<Strategy>> seats = new ArrayList<>();
+        for (String code : strategies.split(",")) {
+            seats.add(strategyFor(code));
+        }
+
+        SimulationRunner runner = new SimulationRunner(games, seats, rulesFor(rules), extension, threads, seed);
+        Stats stats;
+        if (journalFile != null) {
+            try (GameJournal journal = GameJournal.open(Paths.get(journalFile))) {
+                runner.setJournal(journal);
+                stats = runner.run();
+            }
+        } else {
+            stats = runner.run();
+        }
+
+        System.out.println("==== SIMULATION ====");
+        System.out.printf("Parties : %d sur %d threads (graine %d)%n", stats.getGames(), threads, seed);
+        System.out.printf("Debit : %.0f parties/s (%.0f parties/min)%n",
+                stats.getGamesPerSecond(), stats.getGamesPerSecond() * 60);
+        String[] codes = strategies.split(",");
+        for (int i = 0; i < seats.size(); i++) {
+            System.out.printf("  Siege %d (strategie %s) : victoires %.2f%%, score moyen %.3f%n",
+                    i + 1, codes[i].trim(), 100.0 * stats.getWins(i) / stats.getGames(), stats.getMeanScore(i));
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package controller;
+
+import model.Player;
+import model.compact.CompactAction;
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Un seul thread pour mener de nombreuses parties ({@link GameStateMachine}).
+ *
+ * <p>Le thread fait avancer chaque table jusqu a sa prochaine decision
+ * humaine, previent le {@link DecisionHandler}, puis passe a la suivante.
+ * Une table en attente ne coute rien : elle reprend lorsque sa decision
+ * arrive par {@link #submit(GameStateMachine, int)}.</p>
+ *
+ * <h2>Threads :</h2>
+ * <ul>
+ *   <li>{@link #add(GameStateMachine)} et {@link #submit(GameStateMachine, int)}
+ *       peuvent etre appeles depuis n importe quel thread et ne bloquent pas</li>
+ *   <li>Les machines et le {@link DecisionHandler} ne sont utilises que
+ *       depuis le thread du planificateur : le handler ne doit pas bloquer</li>
+ *   <li>Les decisions d une table sont appliquees dans l ordre de soumission</li>
+ * </ul>
+ *
+ * <p>Une exception levee par une table ou par le handler abandonne cette
+ * table seule : elle est comptee ({@link #getFailed()}) et signalee par
+ * {@link DecisionHandler#onFailed(GameStateMachine, RuntimeException)}.</p>
+ *
+ * <p>Les joueurs IA decident sur le thread du planificateur : une IA
+ * couteuse (MCTS avec budget de temps) retarde donc les autres tables.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see GameStateMachine
+ */
+public final class TableScheduler implements Closeable {
+
+    /**
+     * Recoit les demandes de decision et les fins de partie.
+     */
+    public interface DecisionHandler {
+
+        /**
+         * Une table attend la decision d un joueur.
+         *
+         * @param table   la table
+         * @param player  le joueur attendu
+         * @param actions les decisions possibles (tableau reutilise : a copier si conserve)
+         * @param count   le nombre de decisions
+         */
+        void onDecision(GameStateMachine table, Player player, int[] actions, int count);
+
+        /**
+         * Une partie est terminee.
+         *
+         * @param table la table
+         */
+        default void onFinished(GameStateMachine table) {
+        }
+
+        /**
+         * Une table a leve une exception : elle est abandonnee et ne sera
+         * plus avancee.
+         *
+         * @param table la table
+         * @param error l exception levee par la table ou par le handler
+         */
+        default void onFailed(GameStateMachine table, RuntimeException error) {
+        }
+    }
+
+    /** Une decision en attente d application, ou une nouvelle table (action NONE). */
+    private static final class Input {
+        private final GameStateMachine table;
+        private final int action;
+
+        private Input(GameStateMachine table, int action) {
+            this.table = table;
+            this.action = action;
+        }
+    }
+
+    private final DecisionHandler handler;
+    private final ConcurrentLinkedQueue<Input> inputs = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<GameStateMachine> runnable = new ArrayDeque<>();
+
+    /** Tables abandonnees : les decisions qui arrivent encore sont ignorees. */
+    private final Set<GameStateMachine> abandoned = Collections.newSetFromMap(new WeakHashMap<>());
+    private final int[] actions = new int[CompactAction.MAX_ACTIONS];
+    private final Thread thread;
+    private final AtomicLong finished = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile RuntimeException lastFailure;
+    private volatile boolean running = true;
+
+    /**
+     * Cree et demarre le planificateur.
+     *
+     * @param handler le destinataire des demandes de decision
+     */
+    public TableScheduler(DecisionHandler handler) {
+        this.handler = handler;
+        this.thread = new Thread(this::run, "jest-tables");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Ajoute une table, jouee des que possible.
+     *
+     * @param table la machine d une partie demarree
+     */
+    public void add(GameStateMachine table) {
+        offer(new Input(table, CompactAction.NONE));
+    }
+
+    /**
+     * Transmet la decision attendue par une table.
+     *
+     * <p>Une decision illegale est comptee ({@link #getRejected()}) et la
+     * decision est redemandee au handler.</p>
+     *
+     * @param table  la table
+     * @param action la decision, parmi celles proposees au handler
+     */
+    public void submit(GameStateMachine table, int action) {
+        offer(new Input(table, action));
+    }
+
+    /**
+     * Retourne le nombre de parties terminees.
+     *
+     * @return le nombre de parties
+     */
+    public long getFinished() {
+        return finished.get();
+    }
+
+    /**
+     * Retourne le nombre de decisions refusees.
+     *
+     * @return le nombre de decisions illegales
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Retourne le nombre de tables abandonnees sur une exception.
+     *
+     * @return le nombre de tables
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Retourne la derniere exception levee par une table ou par le handler.
+     *
+     * @return l exception, ou null
+     */
+    public RuntimeException getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Arrete le thread ; les tables en cours sont abandonnees.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void offer(Input input) {
+        inputs.add(input);
+        LockSupport.unpark(thread);
+    }
+
+    private void run() {
+        while (running) {
+            Input input;
+            while ((input = inputs.poll()) != null) {
+                if (abandoned.contains(input.table)) {
+                    continue;
+                }
+                if (input.action == CompactAction.NONE) {
+                    runnable.add(input.table);
+                    continue;
+                }
+                try {
+                    input.table.submit(input.action);
+                    runnable.add(input.table);
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    rejected.incrementAndGet();
+                    if (input.table.isWaiting()) {
+                        runnable.add(input.table);
+                    }
+                } catch (RuntimeException e) {
+                    fail(input.table, e);
+                }
+            }
+            GameStateMachine table = runnable.poll();
+            if (table == null) {
+                // Un unpark anterieur rend le park immediat : aucune entree n est manquee
+                if (inputs.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+                continue;
+            }
+            try {
+                if (table.advance() == GameStateMachine.State.FINISHED) {
+                    finished.incrementAndGet();
+                    handler.onFinished(table);
+                } else {
+                    int count = table.getLegalActions(actions);
+                    handler.onDecision(table, table.getWaitingPlayer(), actions, count);
+                }
+            } catch (RuntimeException e) {
+                fail(table, e);
+            }
+        }
+    }
+
+    /**
+     * Abandonne une table : seul le handler peut encore liberer ses joueurs.
+     */
+    private void fail(GameStateMachine table, RuntimeException e) {
+        failed.incrementAndGet();
+        abandoned.add(table);
+        lastFailure = e;
+        try {
+            handler.onFailed(table, e);
+        } catch (RuntimeException again) {
+            lastFailure = again;
+        }
+    }
+}
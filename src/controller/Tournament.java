@@ -0,0 +1,441 @@
+package controller;
+
+import model.*;
+import strategy.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Tournoi toutes rondes entre strategies IA.
+ *
+ * <p>Pour chaque rencontre (ensemble de strategies assises a une meme
+ * table, au moins deux strategies differentes), toutes les permutations
+ * des sieges sont jouees afin d annuler l avantage de position. Les
+ * parties sont reparties sur un {@link ForkJoinPool} et les resultats
+ * de chaque rencontre sont transmis des qu ils sont disponibles.</p>
+ *
+ * <h2>Statistiques par strategie et par rencontre :</h2>
+ * <ul>
+ *   <li>taux de victoire avec intervalle de confiance a 95 % (approximation normale)</li>
+ *   <li>score final moyen avec intervalle de confiance a 95 %</li>
+ * </ul>
+ *
+ * <p>Les parties-sieges ne sont pas independantes : toutes les
+ * permutations d un meme numero de partie jouent la meme donne, et deux
+ * sieges d une meme strategie a une table partagent la partie. Les
+ * intervalles sont donc calcules sur les moyennes par numero de partie
+ * (une observation par donne, n = nombre de donnes).</p>
+ *
+ * <h2>Determinisme :</h2>
+ * <p>La partie numero g de chaque permutation utilise la graine
+ * {@code GameRandom.streamSeed(graineMaitre, g)} : toutes les permutations
+ * d une rencontre jouent les memes donnes, ce qui reduit la variance.
+ * Les statistiques sont des sommes entieres fusionnees de facon
+ * associative : le resultat ne depend pas du nombre de threads.</p>
+ *
+ * <h2>Utilisation :</h2>
+ * <pre>
+ * java -cp classes controller.Tournament --strategies 1,2 --seats 3 --games 10000 --rules 1
+ * </pre>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see SimulationRunner
+ */
+public class Tournament {
+
+    /** Quantile de la loi normale pour un intervalle a 95 %. */
+    private static final double Z_95 = 1.959963984540054;
+
+    /** Nombre de parties en dessous duquel une tache n est plus decoupee. */
+    private static final int SPLIT_THRESHOLD = 256;
+
+    private final List<String> names;
+    private final List<Supplier<Strategy>> strategies;
+    private final Supplier<RuleSet> rules;
+    private final boolean extensionCards;
+    private final boolean extensionBM;
+    private final int seats;
+    private final int gamesPerLineup;
+    private final long masterSeed;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructeur du tournoi.
+     *
+     * @param names          le nom de chaque strategie
+     * @param strategies     une fabrique par strategie (une instance par siege et par partie)
+     * @param rules          la fabrique de regles
+     * @param extensionCards true pour jouer avec les cartes 5-8
+     * @param extensionBM    true pour activer l extension BM
+     * @param seats          le nombre de joueurs par table (3 ou 4)
+     * @param gamesPerLineup le nombre de parties par permutation des sieges
+     * @param masterSeed     la graine maitre
+     * @param pool           le pool de calcul
+     * @throws IllegalArgumentException si les parametres sont incoherents
+     */
+    public Tournament(List<String> names, List<Supplier<Strategy>> strategies, Supplier<RuleSet> rules,
+                      boolean extensionCards, boolean extensionBM, int seats, int gamesPerLineup,
+                      long masterSeed, ForkJoinPool pool) {
+        if (names.size() != strategies.size() || strategies.size() < 2) {
+            throw new IllegalArgumentException("Il faut au moins deux strategies nommees");
+        }
+        if (seats < 3 || seats > 4) {
+            throw new IllegalArgumentException("Une partie se joue a 3 ou 4 joueurs");
+        }
+        this.names = new ArrayList<>(names);
+        this.strategies = new ArrayList<>(strategies);
+        this.rules = rules;
+        this.extensionCards = extensionCards;
+        this.extensionBM = extensionBM;
+        this.seats = seats;
+        this.gamesPerLineup = gamesPerLineup;
+        this.masterSeed = masterSeed;
+        this.pool = pool;
+    }
+
+    /**
+     * Joue toutes les rencontres.
+     *
+     * @param listener recoit le resultat de chaque rencontre des qu elle est terminee
+     * @return les resultats de toutes les rencontres, dans l ordre de jeu
+     */
+    public List<MatchupResult> run(Consumer<MatchupResult> listener) {
+        List<MatchupResult> results = new ArrayList<>();
+        for (int[] matchup : matchups()) {
+            List<int[]> lineups = permutations(matchup);
+            Tally tally = pool.invoke(new GamesTask(lineups, 0, gamesPerLineup));
+            MatchupResult result = new MatchupResult(matchup, tally);
+            results.add(result);
+            listener.accept(result);
+        }
+        return results;
+    }
+
+    /**
+     * Enumere les rencontres : multi-ensembles tries de strategies
+     * contenant au moins deux strategies differentes.
+     */
+    private List<int[]> matchups() {
+        List<int[]> result = new ArrayList<>();
+        collectMatchups(new int[seats], 0, 0, result);
+        return result;
+    }
+
+    private void collectMatchups(int[] current, int position, int min, List<int[]> out) {
+        if (position == seats) {
+            if (current[0] != current[seats - 1]) {
+                out.add(current.clone());
+            }
+            return;
+        }
+        for (int s = min; s < strategies.size(); s++) {
+            current[position] = s;
+            collectMatchups(current, position + 1, s, out);
+        }
+    }
+
+    /**
+     * Enumere les permutations distinctes d une rencontre (ordre lexicographique).
+     */
+    private static List<int[]> permutations(int[] sorted) {
+        List<int[]> result = new ArrayList<>();
+        int[] p = sorted.clone();
+        while (true) {
+            result.add(p.clone());
+            int i = p.length - 2;
+            while (i >= 0 && p[i] >= p[i + 1]) i--;
+            if (i < 0) return result;
+            int j = p.length - 1;
+            while (p[j] <= p[i]) j--;
+            int tmp = p[i]; p[i] = p[j]; p[j] = tmp;
+            for (int a = i + 1, b = p.length - 1; a < b; a++, b--) {
+                tmp = p[a]; p[a] = p[b]; p[b] = tmp;
+            }
+        }
+    }
+
+    /**
+     * Tache jouant un intervalle de numeros de partie, chacun dans toutes
+     * les permutations de la rencontre.
+     */
+    private class GamesTask extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<int[]> lineups;
+        private final int from;
+        private final int to;
+
+        GamesTask(List<int[]> lineups, int from, int to) {
+            this.lineups = lineups;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from > 1 && (long) (to - from) * lineups.size() > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                GamesTask left = new GamesTask(lineups, from, mid);
+                left.fork();
+                Tally right = new GamesTask(lineups, mid, to).compute();
+                return left.join().merge(right);
+            }
+
+            Tally tally = new Tally(strategies.size());
+            List<Strategy> table = new ArrayList<>(seats);
+            for (int gameNumber = from; gameNumber < to; gameNumber++) {
+                long seed = GameRandom.streamSeed(masterSeed, gameNumber);
+                for (int[] lineup : lineups) {
+                    table.clear();
+                    for (int seat : lineup) {
+                        table.add(strategies.get(seat).get());
+                    }
+                    GameEngine engine = SimulationRunner.playHeadless(table, rules.get(), extensionCards, extensionBM, seed);
+
+                    List<Player> players = engine.getGame().getPlayers();
+                    for (int seat = 0; seat < lineup.length; seat++) {
+                        Player p = players.get(seat);
+                        tally.record(lineup[seat], p.getFinalScore(), p == engine.getWinner());
+                    }
+                }
+                tally.endDeal();
+            }
+            return tally;
+        }
+    }
+
+    /**
+     * Sommes entieres par strategie (fusion associative et deterministe).
+     *
+     * <p>Les carres sont ceux des totaux par donne (toutes permutations
+     * confondues) : chaque donne compte pour une observation.</p>
+     */
+    private static class Tally {
+        long deals;
+        final long[] seatGames;
+        final long[] wins;
+        final long[] scoreSums;
+        final long[] winSquares;
+        final long[] scoreSquares;
+
+        /** Totaux de la donne en cours. */
+        private final long[] dealWins;
+        private final long[] dealScores;
+
+        Tally(int strategies) {
+            seatGames = new long[strategies];
+            wins = new long[strategies];
+            scoreSums = new long[strategies];
+            winSquares = new long[strategies];
+            scoreSquares = new long[strategies];
+            dealWins = new long[strategies];
+            dealScores = new long[strategies];
+        }
+
+        void record(int strategy, int score, boolean won) {
+            seatGames[strategy]++;
+            dealScores[strategy] += score;
+            if (won) dealWins[strategy]++;
+        }
+
+        /**
+         * Cloture la donne en cours : ses totaux deviennent une observation.
+         */
+        void endDeal() {
+            deals++;
+            for (int i = 0; i < wins.length; i++) {
+                wins[i] += dealWins[i];
+                scoreSums[i] += dealScores[i];
+                winSquares[i] += dealWins[i] * dealWins[i];
+                scoreSquares[i] += dealScores[i] * dealScores[i];
+                dealWins[i] = 0;
+                dealScores[i] = 0;
+            }
+        }
+
+        Tally merge(Tally other) {
+            deals += other.deals;
+            for (int i = 0; i < wins.length; i++) {
+                seatGames[i] += other.seatGames[i];
+                wins[i] += other.wins[i];
+                scoreSums[i] += other.scoreSums[i];
+                winSquares[i] += other.winSquares[i];
+                scoreSquares[i] += other.scoreSquares[i];
+            }
+            return this;
+        }
+
+        /**
+         * Demi-largeur de l intervalle a 95 % d une moyenne par siege, a
+         * partir des totaux par donne (chaque donne : seatGames / deals sieges).
+         */
+        double margin(long n, long sum, long squares) {
+            if (deals < 2 || n == 0) return 0;
+            double perDeal = (double) n / deals;
+            double mean = (double) sum / deals;
+            double variance = (squares - deals * mean * mean) / (deals - 1);
+            return Z_95 * Math.sqrt(Math.max(0, variance) / deals) / perDeal;
+        }
+    }
+
+    /**
+     * Resultat d une rencontre.
+     */
+    public class MatchupResult {
+        private final int[] matchup;
+        private final Tally tally;
+
+        MatchupResult(int[] matchup, Tally tally) {
+            this.matchup = matchup;
+            this.tally = tally;
+        }
+
+        /**
+         * Retourne les indices des strategies de la rencontre (tries, avec repetitions).
+         *
+         * @return la composition de la table
+         */
+        public int[] getMatchup() {
+            return matchup.clone();
+        }
+
+        /**
+         * Retourne le nombre de donnes jouees, chacune dans toutes les permutations.
+         *
+         * @return le nombre d observations independantes
+         */
+        public long getDeals() {
+            return tally.deals;
+        }
+
+        /**
+         * Retourne le nombre de parties-sieges jouees par une strategie.
+         *
+         * @param strategy l indice de la strategie
+         * @return le nombre d observations
+         */
+        public long getSeatGames(int strategy) {
+            return tally.seatGames[strategy];
+        }
+
+        /**
+         * Retourne le taux de victoire d une strategie.
+         *
+         * @param strategy l indice de la strategie
+         * @return la proportion de parties-sieges gagnees
+         */
+        public double getWinRate(int strategy) {
+            long n = tally.seatGames[strategy];
+            return n == 0 ? 0 : (double) tally.wins[strategy] / n;
+        }
+
+        /**
+         * Retourne la demi-largeur de l intervalle de confiance a 95 % du taux de victoire,
+         * estimee sur les totaux par donne.
+         *
+         * @param strategy l indice de la strategie
+         * @return la demi-largeur de l intervalle
+         */
+        public double getWinRateMargin(int strategy) {
+            return tally.margin(tally.seatGames[strategy], tally.wins[strategy], tally.winSquares[strategy]);
+        }
+
+        /**
+         * Retourne le score final moyen d une strategie.
+         *
+         * @param strategy l indice de la strategie
+         * @return le score moyen
+         */
+        public double getMeanScore(int strategy) {
+            long n = tally.seatGames[strategy];
+            return n == 0 ? 0 : (double) tally.scoreSums[strategy] / n;
+        }
+
+        /**
+         * Retourne la demi-largeur de l intervalle de confiance a 95 % du score moyen,
+         * estimee sur les totaux par donne.
+         *
+         * @param strategy l indice de la strategie
+         * @return la demi-largeur de l intervalle
+         */
+        public double getMeanScoreMargin(int strategy) {
+            return tally.margin(tally.seatGames[strategy], tally.scoreSums[strategy], tally.scoreSquares[strategy]);
+        }
+
+        /**
+         * Retourne une representation textuelle de la rencontre.
+         *
+         * @return une ligne par strategie presente
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            String[] table = new String[matchup.length];
+            for (int i = 0; i < matchup.length; i++) {
+                table[i] = names.get(matchup[i]);
+            }
+            sb.append(String.join(" vs ", table)).append(System.lineSeparator());
+            for (int s = 0; s < names.size(); s++) {
+                if (tally.seatGames[s] == 0) continue;
+                sb.append(String.format("  %-12s victoires %6.2f%% +/- %.2f  score moyen %7.3f +/- %.3f  (%d sieges, n=%d donnes)%n",
+                        names.get(s), 100 * getWinRate(s), 100 * getWinRateMargin(s),
+                        getMeanScore(s), getMeanScoreMargin(s), tally.seatGames[s], tally.deals));
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Point d entree du tournoi.
+     */
+    public static void main(String[] args) {
+        String codes = "1,2";
+        String rules = "1";
+        int seats = 3;
+        int games = 10_000;
+        boolean extension = false;
+        boolean bm = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--strategies": codes = args[++i]; break;
+                case "--rules": rules = args[++i]; break;
+                case "--seats": seats = Integer.parseInt(args[++i]); break;
+                case "--games": games = Integer.parseInt(args[++i]); break;
+                case "--extension": extension = true; break;
+                case "--bm": bm = true; break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                default:
+                    System.out.println("Option inconnue : " + args[i]);
+                    return;
+            }
+        }
+
+        List<String> names = new ArrayList<>();
+        List<Supplier<Strategy>> factories = new ArrayList<>();
+        for (String code : codes.split(",")) {
+            factories.add(SimulationRunner.strategyFor(code));
+            names.add("Strategie" + code.trim());
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            Tournament tournament = new Tournament(names, factories, SimulationRunner.rulesFor(rules),
+                    extension, bm, seats, games, seed, pool);
+            System.out.println("==== TOURNOI " + Arrays.toString(codes.split(",")) + " (graine " + seed + ") ====");
+            tournament.run(result -> System.out.println(result));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package model;
+
+import model.compact.CardCodec;
+import model.compact.CardTable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Correspondance entre les objets d une partie et ceux de sa copie.
+ *
+ * <p>Une copie profonde doit conserver l identite des objets :
+ * {@link Offer#contains(Card)} et {@link Offer#getUnchosen(Card)}
+ * comparent les cartes avec {@code ==}, et une meme carte peut etre
+ * referencee a la fois par une offre et par la liste des cartes
+ * reportees. Ce contexte garantit qu un objet original a toujours une
+ * seule copie, quel que soit le chemin par lequel on l atteint.</p>
+ *
+ * <h2>Regles de copie :</h2>
+ * <ul>
+ *   <li>Cartes classiques et Joker : nouvelle carte, marque de prise
+ *       ({@link Card#getLastOfferOwner()}) reportee sur le joueur copie</li>
+ *   <li>Trophees : partages (immuables)</li>
+ *   <li>Carte BM en attente : recreee pour le joueur copie</li>
+ *   <li>Joueurs : copies (Jest, main, scores), strategie partagee</li>
+ * </ul>
+ *
+ * <p>Les cartes du jeu sont indexees par leur identifiant
+ * ({@link CardCodec}, {@link CardTable}) : la copie d une partie ne
+ * passe par aucune table de hachage dans le cas courant. Apres la copie, le contexte permet de
+ * retrouver l equivalent d une reference de la partie d origine.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see Game#copy(CopyContext)
+ */
+public final class CopyContext {
+
+    private final CardTable originals = new CardTable();
+    private final CardTable copies = new CardTable();
+    private final List<Player> originalPlayers = new ArrayList<>(4);
+    private final List<Player> copiedPlayers = new ArrayList<>(4);
+    private Map<Card, Card> others;
+
+    /**
+     * Constructeur d un contexte vide.
+     */
+    public CopyContext() {
+    }
+
+    /**
+     * Retourne la copie d une carte, en la creant si necessaire.
+     *
+     * @param original la carte d origine (peut etre null)
+     * @return sa copie unique, ou null
+     */
+    public Card card(Card original) {
+        if (original == null) {
+            return null;
+        }
+
+        int id = CardCodec.idOf(original);
+        if (id == CardCodec.NONE) {
+            // Trophees et cartes d extension : pas d etat propre a la partie
+            return original;
+        }
+        Card known = originals.find(id);
+        if (known == null) {
+            originals.register(original);
+            copies.register(duplicate(original));
+            return copies.find(id);
+        }
+        if (known == original) {
+            return copies.find(id);
+        }
+
+        // Deux cartes identiques dans la meme partie (parties construites a la main)
+        if (others == null) {
+            others = new IdentityHashMap<>();
+        }
+        Card copy = others.get(original);
+        if (copy == null) {
+            copy = duplicate(original);
+            others.put(original, copy);
+        }
+        return copy;
+    }
+
+    /**
+     * Retourne la copie d un joueur, en la creant si necessaire.
+     *
+     * @param original le joueur d origine (peut etre null)
+     * @return sa copie unique, ou null
+     */
+    public Player player(Player original) {
+        if (original == null) {
+            return null;
+        }
+        for (int i = 0; i < originalPlayers.size(); i++) {
+            if (originalPlayers.get(i) == original) {
+                return copiedPlayers.get(i);
+            }
+        }
+        return original.copy(this);
+    }
+
+    /**
+     * Retourne les copies d une liste de cartes.
+     *
+     * @param cards les cartes d origine
+     * @return une nouvelle liste de copies, dans le meme ordre
+     */
+    public List<Card> cards(List<Card> cards) {
+        List<Card> result = new ArrayList<>(cards.size());
+        for (Card c : cards) {
+            result.add(card(c));
+        }
+        return result;
+    }
+
+    /**
+     * Enregistre la copie d un joueur avant de copier son contenu.
+     *
+     * <p>Les marques de prise des cartes peuvent designer le joueur en
+     * cours de copie : il doit etre connu du contexte avant son Jest.</p>
+     */
+    void register(Player original, Player copy) {
+        originalPlayers.add(original);
+        copiedPlayers.add(copy);
+    }
+
+    /**
+     * Cree la copie d une carte.
+     */
+    private Card duplicate(Card original) {
+        Card copy = original instanceof JokerCard
+                ? new JokerCard()
+                : new SuitCard(original.getSuit(), original.getRank());
+
+        Player owner = original.getLastOfferOwner();
+        if (owner != null) {
+            copy.markTakenFromOffer(player(owner), original.wasTakenHidden());
+        }
+        return copy;
+    }
+}
@@ -2,8 +2,9 @@ package model;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Classe representant le paquet de cartes du jeu Jest.
@@ -23,6 +24,13 @@ import java.util.List;
  *   <li>1 Joker</li>
  * </ul>
  * 
+ * <h2>Pioche :</h2>
+ * <p>La pioche avance un curseur sur la liste au lieu de retirer la
+ * premiere carte (ce qui decalait tout le tableau a chaque tirage).
+ * Le melange utilise un generateur enfichable : celui de la partie
+ * ({@link Game#getRandom()}) pour pouvoir rejouer une partie a
+ * l identique a partir de sa graine.</p>
+ * 
  * @author Projet LO02 - UTT
  * @version 2.0
  * @since 1.0
@@ -35,6 +43,12 @@ public class Deck implements Serializable {
     private List<Card> cards;
     private boolean extendedDeck;
 
+    /** Indice de la prochaine carte a piocher dans la liste. */
+    private int cursor;
+
+    /** Generateur utilise par {@link #shuffle()} (null = generateur du thread). */
+    private transient RandomGenerator random;
+
     /**
      * Constructeur du deck.
      */
@@ -50,6 +64,7 @@ public class Deck implements Serializable {
      */
     public void initialize(boolean includeExtension) {
         cards.clear();
+        cursor = 0;
         this.extendedDeck = includeExtension;
 
         Rank[] ranks;
@@ -70,10 +85,28 @@ public class Deck implements Serializable {
     }
 
     /**
-     * Melange le deck.
+     * Definit le generateur utilise par {@link #shuffle()}.
+     * 
+     * @param random le generateur (null pour le generateur du thread courant)
+     */
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Melange les cartes restantes du deck.
      */
     public void shuffle() {
-        Collections.shuffle(cards);
+        shuffle(random != null ? random : ThreadLocalRandom.current());
+    }
+
+    /**
+     * Melange les cartes restantes du deck avec un generateur donne.
+     * 
+     * @param rng le generateur
+     */
+    public void shuffle(RandomGenerator rng) {
+        GameRandom.shuffle(cards, cursor, cards.size(), rng);
     }
 
     /**
@@ -82,28 +115,60 @@ public class Deck implements Serializable {
      * @return la carte piochee, ou null si le deck est vide
      */
     public Card draw() {
-        if (cards.isEmpty()) {
+        if (cursor >= cards.size()) {
             return null;
         }
-        return cards.remove(0);
+        return cards.get(cursor++);
+    }
+
+    /**
+     * Copie le deck dans un contexte de copie.
+     * 
+     * <p>Seules les cartes restant a piocher sont copiees, dans le meme ordre.</p>
+     * 
+     * @param ctx le contexte de copie
+     * @return la copie du deck
+     */
+    Deck copy(CopyContext ctx) {
+        Deck copy = new Deck();
+        copy.cards = ctx.cards(cards.subList(cursor, cards.size()));
+        copy.extendedDeck = extendedDeck;
+        return copy;
+    }
+
+    /**
+     * Remplace le contenu du deck, lors du chargement d une sauvegarde.
+     * 
+     * @param remaining les cartes restant a piocher, dans l ordre
+     * @param extended  true si le deck contient les cartes 5-8
+     */
+    void restore(List<Card> remaining, boolean extended) {
+        cards = new ArrayList<>(remaining);
+        cursor = 0;
+        extendedDeck = extended;
     }
 
     public boolean isEmpty() {
-        return cards.isEmpty();
+        return cursor >= cards.size();
     }
 
     public int size() {
-        return cards.size();
+        return cards.size() - cursor;
     }
 
     public void addCards(List<Card> cardsToAdd) {
+        if (cursor > 0) {
+            // Libere les cartes deja piochees avant d agrandir la liste
+            cards.subList(0, cursor).clear();
+            cursor = 0;
+        }
         for (Card c : cardsToAdd) {
             if (c != null) cards.add(c);
         }
     }
 
     public List<Card> getCards() {
-        return new ArrayList<>(cards);
+        return new ArrayList<>(cards.subList(cursor, cards.size()));
     }
     
     public boolean isExtended() {
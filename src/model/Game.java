@@ -2,12 +2,12 @@ package model;
 
 import model.extension.BMCard;
 import model.trophy.TrophyFactory;
+import model.trophy.TrophyResolver;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Classe principale representant une partie de Jest.
@@ -35,6 +35,14 @@ import java.util.stream.Collectors;
  * <p>Les trophees sont tires au debut de la partie. La carte tiree
  * determine le type de trophee selon la bande orange sur la carte.</p>
  * 
+ * <h2>Graine et reproductibilite :</h2>
+ * <p>Chaque partie possede une graine ({@link #setSeed(long)}) dont
+ * derivent deux flux aleatoires independants : {@link #getRandom()}
+ * pour le melange du deck et des distributions, et
+ * {@link #getStrategyRandom()} pour les decisions aleatoires des IA.
+ * Une meme graine avec les memes decisions rejoue la partie a
+ * l identique, quel que soit le thread qui l execute.</p>
+ * 
  * @author Projet LO02 - UTT
  * @version 2.0
  * @since 1.0
@@ -45,6 +53,9 @@ import java.util.stream.Collectors;
 public class Game implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    /** Sel des graines par defaut, pour distinguer les parties creees au meme instant. */
+    private static final AtomicLong SEED_SALT = new AtomicLong(0x5DEECE66DL);
+
     /** Liste des joueurs de la partie. */
     private List<Player> players;
     
@@ -63,12 +74,27 @@ public class Game implements Serializable {
     /** Cartes non choisies pour le tour suivant. */
     private List<Card> carryOverCards;
     
+    /** Offres du tour en cours, dans l ordre des sieges. */
+    private List<Offer> currentOffers;
+
+    /** Ordre de prise du tour en cours. */
+    private List<Player> turnOrder;
+    
     /** Extension BM activee. */
     private boolean extensionBM;
     
     /** Extension cartes supplementaires activee. */
     private boolean extensionCards;
 
+    /** Graine de la partie. */
+    private long seed;
+
+    /** Flux aleatoire du deck et des distributions. */
+    private GameRandom random;
+
+    /** Flux aleatoire reserve aux decisions des strategies IA. */
+    private GameRandom strategyRandom;
+
     /** Carte BM en attente d application a la fin de partie. */
     private transient BMCard pendingBmCard;
 
@@ -81,6 +107,9 @@ public class Game implements Serializable {
     /** Variation de score causee par la derniere carte BM. */
     private transient int lastBmDelta;
 
+    /** Moteur de resolution des trophees, reutilise d un appel a l autre. */
+    private transient TrophyResolver trophyResolver;
+
     /**
      * Constructeur d une nouvelle partie.
      */
@@ -90,12 +119,121 @@ public class Game implements Serializable {
         this.trophies = new ArrayList<>();
         this.currentRound = 0;
         this.carryOverCards = new ArrayList<>();
+        this.currentOffers = new ArrayList<>();
+        this.turnOrder = new ArrayList<>();
         this.extensionBM = false;
         this.extensionCards = false;
         this.pendingBmCard = null;
         this.lastBmTarget = null;
         this.lastAppliedBmCard = null;
         this.lastBmDelta = 0;
+        setSeed(GameRandom.mix(System.nanoTime() ^ SEED_SALT.getAndAdd(0x9E3779B97F4A7C15L)));
+    }
+
+    /**
+     * Definit la graine de la partie et reinitialise ses flux aleatoires.
+     * 
+     * <p>A appeler avant {@link #start()} pour rejouer une partie.</p>
+     * 
+     * @param seed la graine
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.random = new GameRandom(GameRandom.streamSeed(seed, 0));
+        this.strategyRandom = new GameRandom(GameRandom.streamSeed(seed, 1));
+    }
+
+    /**
+     * Retourne la graine de la partie.
+     * 
+     * @return la graine
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retourne le flux aleatoire du deck et des distributions.
+     * 
+     * @return le generateur de la partie
+     */
+    public GameRandom getRandom() {
+        if (random == null) {
+            // Partie chargee depuis une ancienne sauvegarde
+            random = new GameRandom(GameRandom.streamSeed(seed, 0));
+        }
+        return random;
+    }
+
+    /**
+     * Retourne le flux aleatoire reserve aux strategies IA.
+     * 
+     * <p>Ce flux est distinct de celui du deck : les decisions des IA ne
+     * modifient donc pas les distributions suivantes.</p>
+     * 
+     * @return le generateur des strategies
+     */
+    public GameRandom getStrategyRandom() {
+        if (strategyRandom == null) {
+            strategyRandom = new GameRandom(GameRandom.streamSeed(seed, 1));
+        }
+        return strategyRandom;
+    }
+
+    /**
+     * Retourne une copie profonde et independante de la partie.
+     * 
+     * @return la copie
+     * @see #copy(CopyContext)
+     */
+    public Game copy() {
+        return copy(new CopyContext());
+    }
+
+    /**
+     * Retourne une copie profonde et independante de la partie.
+     * 
+     * <p>Joueurs, Jests, mains, deck, offres du tour, ordre de prise et
+     * cartes reportees sont copies en conservant l identite des cartes :
+     * une carte presente a la fois dans une offre et dans les cartes
+     * reportees est la meme carte dans la copie. Les flux aleatoires
+     * sont copies dans leur etat courant : la copie rejoue la meme suite
+     * de distributions. Les regles, strategies et trophees sont partages.</p>
+     * 
+     * <p>Le contexte permet ensuite de retrouver l equivalent d une carte
+     * ou d un joueur de la partie d origine ({@link CopyContext#card(Card)},
+     * {@link CopyContext#player(Player)}).</p>
+     * 
+     * @param ctx le contexte de copie (vide)
+     * @return la copie
+     */
+    public Game copy(CopyContext ctx) {
+        Game copy = new Game();
+        for (Player p : players) {
+            copy.players.add(ctx.player(p));
+        }
+        copy.deck = deck.copy(ctx);
+        copy.ruleSet = ruleSet;
+        copy.currentRound = currentRound;
+        copy.trophies.addAll(trophies);
+        copy.carryOverCards = ctx.cards(carryOverCards);
+        for (Offer offer : getCurrentOffers()) {
+            copy.currentOffers.add(offer.copy(ctx));
+        }
+        for (Player p : getTurnOrder()) {
+            copy.turnOrder.add(ctx.player(p));
+        }
+        copy.extensionBM = extensionBM;
+        copy.extensionCards = extensionCards;
+        copy.seed = seed;
+        copy.random = getRandom().copy();
+        copy.strategyRandom = getStrategyRandom().copy();
+        if (pendingBmCard != null) {
+            BMCard bm = new BMCard(pendingBmCard.getType(), pendingBmCard.getValue());
+            bm.setTarget(ctx.player(pendingBmCard.getTarget()));
+            copy.pendingBmCard = bm;
+        }
+        return copy;
     }
 
     /**
@@ -103,7 +241,7 @@ public class Game implements Serializable {
      * <p>Melange le deck et tire les trophees.</p>
      */
     public void start() {
-        deck.shuffle();
+        deck.shuffle(getRandom());
         dealInitialTrophies();
         currentRound = 1;
     }
@@ -145,7 +283,7 @@ public class Game implements Serializable {
 
         if (pool.size() < needed) return;
 
-        Collections.shuffle(pool);
+        GameRandom.shuffle(pool, getRandom());
 
         for (Player player : players) {
             List<Card> hand = new ArrayList<>();
@@ -164,6 +302,55 @@ public class Game implements Serializable {
         if (card != null) carryOverCards.add(card);
     }
 
+    /**
+     * Retourne les offres du tour en cours.
+     * 
+     * <p>La liste est remplie par le moteur au fur et a mesure que les
+     * joueurs font leur offre : pendant la phase d offre, elle contient
+     * les offres des joueurs precedents ; pendant la phase de prise,
+     * toutes les offres du tour.</p>
+     * 
+     * @return la liste modifiable des offres du tour
+     */
+    public List<Offer> getCurrentOffers() {
+        if (currentOffers == null) {
+            // Partie chargee depuis une ancienne sauvegarde
+            currentOffers = new ArrayList<>();
+        }
+        return currentOffers;
+    }
+
+    /**
+     * Retourne l ordre de prise du tour en cours.
+     * 
+     * @return les joueurs, de la carte visible la plus forte a la plus faible
+     */
+    public List<Player> getTurnOrder() {
+        if (turnOrder == null) {
+            turnOrder = new ArrayList<>();
+        }
+        return turnOrder;
+    }
+
+    /**
+     * Definit l ordre de prise du tour en cours.
+     * 
+     * @param order les joueurs dans l ordre de prise
+     */
+    public void setTurnOrder(List<Player> order) {
+        getTurnOrder().clear();
+        turnOrder.addAll(order);
+    }
+
+    /**
+     * Retourne les cartes non choisies en attente du prochain tour.
+     * 
+     * @return la liste des cartes reportees
+     */
+    public List<Card> getCarryOverCards() {
+        return carryOverCards;
+    }
+
     /**
      * Verifie si la partie est terminee.
      * 
@@ -192,9 +379,22 @@ public class Game implements Serializable {
             p.setBaseScore(base);
         }
 
-        // 2) Attribution des trophees
+        // 2) Attribution des trophees (table des joueurs calculee une seule fois,
+        //    les effets des trophees ne modifiant pas les Jests)
+        boolean resolverLoaded = false;
         for (TrophyCard trophy : trophies) {
-            Player winner = determineTrophyWinner(trophy);
+            Player winner;
+            if (TrophyResolver.supports(trophy)) {
+                if (!resolverLoaded) {
+                    if (trophyResolver == null) trophyResolver = new TrophyResolver();
+                    trophyResolver.load(players);
+                    resolverLoaded = true;
+                }
+                int index = trophyResolver.winnerOf(trophy);
+                winner = index >= 0 ? players.get(index) : null;
+            } else {
+                winner = determineTrophyWinner(trophy);
+            }
             if (winner != null) {
                 winner.getJest().addTrophy(trophy);
                 trophy.applyTo(winner, this);
@@ -212,15 +412,13 @@ public class Game implements Serializable {
     }
 
     /**
-     * Determine le gagnant d un trophee.
+     * Determine le gagnant d un trophee non type en evaluant sa condition.
      */
     private Player determineTrophyWinner(TrophyCard trophy) {
-        List<Player> candidates = players.stream()
-                .filter(p -> trophy.isWonBy(p, this))
-                .collect(Collectors.toList());
-
-        if (candidates.isEmpty()) return null;
-        return candidates.get(0);
+        for (Player p : players) {
+            if (trophy.isWonBy(p, this)) return p;
+        }
+        return null;
     }
 
     /**
@@ -276,6 +474,7 @@ public class Game implements Serializable {
     public Deck getDeck() { return deck; }
     public int getCurrentRound() { return currentRound; }
     public void endTurn() { currentRound++; }
+    void setCurrentRound(int round) { this.currentRound = round; }
     public RuleSet getRuleSet() { return ruleSet; }
     public void setRuleSet(RuleSet ruleSet) { this.ruleSet = ruleSet; }
     public List<TrophyCard> getTrophies() { return trophies; }
@@ -0,0 +1,210 @@
+package model;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generateur pseudo-aleatoire d une partie (xoroshiro128++).
+ *
+ * <p>Chaque partie possede son propre generateur initialise a partir
+ * d une graine. Une meme graine redonne exactement le meme melange du
+ * deck et les memes distributions, ce qui permet de rejouer une partie
+ * et de repartir des flux independants entre plusieurs threads sans
+ * contention sur un generateur global.</p>
+ *
+ * <h2>Derivation des graines :</h2>
+ * <p>{@link #streamSeed(long, long)} derive la graine du flux numero
+ * {@code index} a partir d une graine maitre (SplitMix64). Les flux
+ * obtenus sont independants et ne dependent pas de l ordre dans lequel
+ * les threads les consomment.</p>
+ *
+ * <p>L etat (deux longs) est serialise avec la partie : une partie
+ * sauvegardee reprend la meme suite aleatoire.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see Game#setSeed(long)
+ */
+public class GameRandom implements RandomGenerator, Serializable {
+
+    /** Numero de version pour la serialisation. */
+    private static final long serialVersionUID = 1L;
+
+    /** Increment de SplitMix64 (nombre d or). */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long s0;
+    private long s1;
+
+    /**
+     * Constructeur a partir d une graine.
+     *
+     * @param seed la graine
+     */
+    public GameRandom(long seed) {
+        setSeed(seed);
+    }
+
+    /**
+     * Constructeur a partir d un etat complet.
+     *
+     * @param s0 premier mot d etat
+     * @param s1 second mot d etat
+     */
+    public GameRandom(long s0, long s1) {
+        setState(s0, s1);
+    }
+
+    /**
+     * Reinitialise le generateur a partir d une graine.
+     *
+     * @param seed la graine
+     */
+    public final void setSeed(long seed) {
+        long x = seed;
+        s0 = mix(x += GOLDEN_GAMMA);
+        s1 = mix(x + GOLDEN_GAMMA);
+        if ((s0 | s1) == 0) {
+            s1 = GOLDEN_GAMMA;
+        }
+    }
+
+    /**
+     * Remplace l etat du generateur.
+     *
+     * @param s0 premier mot d etat
+     * @param s1 second mot d etat
+     */
+    public final void setState(long s0, long s1) {
+        this.s0 = s0;
+        this.s1 = (s0 | s1) == 0 ? GOLDEN_GAMMA : s1;
+    }
+
+    /**
+     * Retourne le premier mot d etat.
+     *
+     * @return l etat s0
+     */
+    public long getState0() {
+        return s0;
+    }
+
+    /**
+     * Retourne le second mot d etat.
+     *
+     * @return l etat s1
+     */
+    public long getState1() {
+        return s1;
+    }
+
+    /**
+     * Retourne le prochain entier 64 bits.
+     *
+     * @return un long pseudo-aleatoire
+     */
+    @Override
+    public long nextLong() {
+        long a = s0;
+        long b = s1;
+        long result = Long.rotateLeft(a + b, 17) + a;
+        b ^= a;
+        s0 = Long.rotateLeft(a, 49) ^ b ^ (b << 21);
+        s1 = Long.rotateLeft(b, 28);
+        return result;
+    }
+
+    /**
+     * Retourne un entier dans [0, bound).
+     *
+     * @param bound la borne exclusive (strictement positive)
+     * @return un entier pseudo-aleatoire
+     */
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("La borne doit etre positive");
+        }
+        // Methode de Lemire : multiplication 32x32 -> 64 bits avec rejet
+        long m = (nextLong() >>> 32) * bound;
+        long low = m & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                m = (nextLong() >>> 32) * bound;
+                low = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    /**
+     * Cree un generateur independant a partir de celui-ci.
+     *
+     * @return un nouveau generateur
+     */
+    public GameRandom split() {
+        return new GameRandom(nextLong());
+    }
+
+    /**
+     * Retourne une copie de ce generateur (meme etat).
+     *
+     * @return la copie
+     */
+    public GameRandom copy() {
+        return new GameRandom(s0, s1);
+    }
+
+    /**
+     * Melange une liste (Fisher-Yates).
+     *
+     * @param list la liste a melanger
+     * @param rng  le generateur
+     */
+    public static void shuffle(List<?> list, RandomGenerator rng) {
+        shuffle(list, 0, list.size(), rng);
+    }
+
+    /**
+     * Melange une portion de liste (Fisher-Yates).
+     *
+     * @param list la liste
+     * @param from premier indice inclus
+     * @param to   dernier indice exclu
+     * @param rng  le generateur
+     */
+    @SuppressWarnings("unchecked")
+    public static void shuffle(List<?> list, int from, int to, RandomGenerator rng) {
+        List<Object> l = (List<Object>) list;
+        for (int i = to - 1; i > from; i--) {
+            int j = from + rng.nextInt(i - from + 1);
+            l.set(i, l.set(j, l.get(i)));
+        }
+    }
+
+    /**
+     * Derive la graine d un flux independant.
+     *
+     * @param masterSeed la graine maitre
+     * @param index      le numero du flux
+     * @return la graine du flux
+     */
+    public static long streamSeed(long masterSeed, long index) {
+        return mix(masterSeed + mix(index * GOLDEN_GAMMA + GOLDEN_GAMMA));
+    }
+
+    /**
+     * Fonction de melange de SplitMix64.
+     *
+     * @param z la valeur a melanger
+     * @return la valeur melangee
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
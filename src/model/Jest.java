@@ -1,5 +1,8 @@
 package model;
 
+import model.compact.CardCodec;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -24,6 +27,13 @@ import java.util.List;
  *   <li>{@link #hasJoker()} - Verifie la presence du Joker</li>
  * </ul>
  * 
+ * <h2>Agregats incrementaux :</h2>
+ * <p>Les comptages par couleur et par rang, les sommes de valeurs, la
+ * presence du Joker, le masque des cartes et la priorite maximale sont
+ * mis a jour a chaque ajout. Les methodes de comptage repondent donc en
+ * temps constant, sans parcourir ni copier la liste des cartes. Ces
+ * agregats ne sont pas serialises : ils sont recalcules au chargement.</p>
+ * 
  * @author Projet LO02 - UTT
  * @version 2.0
  * @since 1.0
@@ -38,6 +48,24 @@ public class Jest implements Serializable {
     /** Liste des cartes dans le Jest. */
     private List<Card> cards = new ArrayList<>();
 
+    /** Nombre de cartes par couleur (indice = ordinal de Suits, hors trophees). */
+    private transient int[] suitCounts = new int[Suits.values().length];
+
+    /** Somme des valeurs par couleur (indice = ordinal de Suits, hors trophees). */
+    private transient int[] suitValues = new int[Suits.values().length];
+
+    /** Nombre de cartes par rang (indice = ordinal de Rank, hors trophees). */
+    private transient int[] rankCounts = new int[Rank.values().length];
+
+    /** Nombre de Jokers presents. */
+    private transient int jokers;
+
+    /** Masque des cartes du jeu presentes (voir CardCodec). */
+    private transient long cardMask;
+
+    /** Priorite maximale des cartes (valeur * 10 + priorite de couleur). */
+    private transient int maxCardPriority;
+
     /**
      * Ajoute une carte au Jest.
      * 
@@ -45,6 +73,7 @@ public class Jest implements Serializable {
      */
     public void addCard(Card card) { 
         cards.add(card); 
+        aggregate(card);
     }
     
     /**
@@ -56,6 +85,60 @@ public class Jest implements Serializable {
         cards.add(trophy); 
     }
 
+    /**
+     * Copie le Jest dans un contexte de copie.
+     * 
+     * <p>Les agregats sont recopies tels quels, sans reparcourir les cartes.</p>
+     * 
+     * @param ctx le contexte de copie
+     * @return la copie du Jest
+     */
+    Jest copy(CopyContext ctx) {
+        Jest copy = new Jest();
+        copy.cards = ctx.cards(cards);
+        System.arraycopy(suitCounts, 0, copy.suitCounts, 0, suitCounts.length);
+        System.arraycopy(suitValues, 0, copy.suitValues, 0, suitValues.length);
+        System.arraycopy(rankCounts, 0, copy.rankCounts, 0, rankCounts.length);
+        copy.jokers = jokers;
+        copy.cardMask = cardMask;
+        copy.maxCardPriority = maxCardPriority;
+        return copy;
+    }
+
+    /**
+     * Met a jour les agregats avec une carte ajoutee.
+     */
+    private void aggregate(Card card) {
+        if (card == null || card instanceof TrophyCard) {
+            return;
+        }
+        suitCounts[card.getSuit().ordinal()]++;
+        suitValues[card.getSuit().ordinal()] += card.getRank().getValue();
+        rankCounts[card.getRank().ordinal()]++;
+        if (card.isJoker()) {
+            jokers++;
+        }
+
+        int id = CardCodec.idOf(card);
+        if (id != CardCodec.NONE) {
+            cardMask |= 1L << id;
+            maxCardPriority = Math.max(maxCardPriority, CardCodec.priority(id));
+        }
+    }
+
+    /**
+     * Recalcule les agregats apres deserialisation.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        suitCounts = new int[Suits.values().length];
+        suitValues = new int[Suits.values().length];
+        rankCounts = new int[Rank.values().length];
+        for (Card card : cards) {
+            aggregate(card);
+        }
+    }
+
     /**
      * Retourne une copie de la liste des cartes.
      * 
@@ -82,10 +165,7 @@ public class Jest implements Serializable {
      * @return le nombre de cartes de cette couleur (hors trophees)
      */
     public int countSuit(Suits s) {
-        return (int) cards.stream()
-                .filter(c -> !(c instanceof TrophyCard))
-                .filter(c -> c.getSuit() == s)
-                .count();
+        return suitCounts[s.ordinal()];
     }
 
     /**
@@ -95,10 +175,7 @@ public class Jest implements Serializable {
      * @return le nombre de cartes de ce rang (hors trophees)
      */
     public int countRank(Rank r) {
-        return (int) cards.stream()
-                .filter(c -> !(c instanceof TrophyCard))
-                .filter(c -> c.getRank() == r)
-                .count();
+        return rankCounts[r.ordinal()];
     }
 
     /**
@@ -107,7 +184,7 @@ public class Jest implements Serializable {
      * @return true si le Joker est present, false sinon
      */
     public boolean hasJoker() {
-        return cards.stream().anyMatch(Card::isJoker);
+        return jokers > 0;
     }
     
     /**
@@ -117,11 +194,43 @@ public class Jest implements Serializable {
      * @return la somme des valeurs faciales
      */
     public int getSuitValue(Suits suit) {
-        return cards.stream()
-                .filter(c -> !(c instanceof TrophyCard))
-                .filter(c -> c.getSuit() == suit)
-                .mapToInt(c -> c.getRank().getValue())
-                .sum();
+        return suitValues[suit.ordinal()];
+    }
+
+    /**
+     * Retourne le masque des cartes du jeu presentes dans le Jest.
+     * 
+     * <p>Un bit par identifiant {@link CardCodec} ; les trophees et
+     * cartes BM n y figurent pas.</p>
+     * 
+     * @return le masque des cartes
+     */
+    public long getCardMask() {
+        return cardMask;
+    }
+
+    /**
+     * Retourne le masque des paires noires.
+     * 
+     * <p>Le bit r est positionne si le Jest contient le Pique et le
+     * Trefle de valeur r + 1.</p>
+     * 
+     * @return le masque des rangs formant une paire noire
+     */
+    public int getBlackPairMask() {
+        return (int) (cardMask & (cardMask >>> 8)) & 0xFF;
+    }
+
+    /**
+     * Retourne la priorite maximale des cartes du Jest.
+     * 
+     * <p>Utilisee pour departager les trophees : valeur * 10 + priorite
+     * de couleur (Piques 4, Trefles 3, Carreaux 2, Coeurs 1).</p>
+     * 
+     * @return la priorite maximale, ou 0 si le Jest ne contient aucune carte classique
+     */
+    public int getMaxCardPriority() {
+        return maxCardPriority;
     }
 
     /**
@@ -48,6 +48,19 @@ public class Offer implements Serializable {
         this.owner = owner;
     }
 
+    /**
+     * Copie l offre dans un contexte de copie.
+     * 
+     * @param ctx le contexte de copie
+     * @return une offre equivalente dont les cartes sont celles de la copie
+     */
+    Offer copy(CopyContext ctx) {
+        Offer copy = new Offer(ctx.player(owner));
+        copy.faceUp = ctx.card(faceUp);
+        copy.faceDown = ctx.card(faceDown);
+        return copy;
+    }
+
     /**
      * Retourne le proprietaire de l offre.
      * 
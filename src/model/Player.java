@@ -70,6 +70,24 @@ public class Player implements Serializable {
         this.trophyBonus = 0;
     }
 
+    /**
+     * Copie profonde du joueur dans un contexte de copie.
+     * 
+     * <p>La strategie est partagee ; le Jest et la main sont copies.</p>
+     * 
+     * @param ctx le contexte de copie
+     * @return la copie du joueur
+     */
+    Player copy(CopyContext ctx) {
+        Player copy = new Player(name, strategy);
+        ctx.register(this, copy);
+        copy.jest = jest.copy(ctx);
+        copy.hand = ctx.cards(hand);
+        copy.baseScore = baseScore;
+        copy.trophyBonus = trophyBonus;
+        return copy;
+    }
+
     /**
      * Recoit des cartes dans la main.
      * 
@@ -1,5 +1,6 @@
 package model;
 
+import model.compact.MaskScorer;
 import java.io.Serializable;
 import java.util.List;
 
@@ -43,4 +44,13 @@ public interface RuleSet extends Serializable {
      * @return le nombre de trophees (1 pour 4 joueurs, 2 sinon)
      */
     int numberOfTrophies(int playerCount);
+
+    /**
+     * Retourne le calcul de score sur masque de bits equivalent au visiteur.
+     * 
+     * @return le MaskScorer de ces regles, ou null si les regles n en ont pas
+     */
+    default MaskScorer maskScorer() {
+        return null;
+    }
 }
\ No newline at end of file
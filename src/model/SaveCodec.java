@@ -0,0 +1,376 @@
+package model;
+
+import model.compact.CardCodec;
+import model.compact.CardTable;
+import model.rules.Rule1;
+import model.rules.Rule2;
+import model.rules.Rule3;
+import model.trophy.TrophyFactory;
+import strategy.Strategy;
+import strategy.StrategyRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Format binaire des sauvegardes de partie.
+ *
+ * <p>Remplace la serialisation Java : une partie en cours tient en
+ * quelques centaines d octets et se code ou se decode en quelques
+ * microsecondes. Les cartes sont ecrites par leur identifiant compact
+ * ({@link CardCodec}), les strategies par leur numero
+ * ({@link StrategyRegistry}) et les trophees par la carte dont ils sont
+ * issus ({@link TrophyFactory#createFromCard(Card)}).</p>
+ *
+ * <h2>Format :</h2>
+ * <ul>
+ *   <li>En-tete : {@link #MAGIC}, {@link #VERSION}, drapeaux (cartes 5-8,
+ *       extension BM, deck etendu), regles (1 a 3, 0 si aucune), nombre de joueurs</li>
+ *   <li>Graine et etat des deux flux aleatoires, numero du tour</li>
+ *   <li>Deck restant, cartes d origine des trophees, cartes reportees</li>
+ *   <li>Pour chaque joueur : nom en UTF-8, strategie, scores, main et Jest.
+ *       Une entree du Jest est l identifiant de la carte, ou {@link #TROPHY}
+ *       plus le rang du trophee ; {@link #MARKED} indique qu un octet suit :
+ *       siege du proprietaire de l offre d origine, plus {@link #MARKED} si la
+ *       carte etait cachee</li>
+ *   <li>Offres du tour (siege, carte visible, carte cachee) et ordre de prise</li>
+ * </ul>
+ *
+ * <p>Une meme carte presente a deux endroits (une offre et les cartes
+ * reportees) redevient un seul objet au chargement. Les etats transitoires
+ * de la partie (carte BM en attente, resultat de la derniere carte BM)
+ * ne sont pas sauvegardes, comme avec la serialisation Java.</p>
+ *
+ * <p>{@link #load(Path)} reconnait aussi les anciennes sauvegardes
+ * serialisees.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see StrategyRegistry
+ */
+public final class SaveCodec {
+
+    /** Signature du fichier ("JEST"). */
+    public static final int MAGIC = 0x4A455354;
+
+    /** Version du format. */
+    public static final byte VERSION = 1;
+
+    /** Entree du Jest : trophee (rang dans les trophees de la partie). */
+    static final int TROPHY = 0x40;
+
+    /** Entree du Jest : un octet de provenance suit. */
+    static final int MARKED = 0x80;
+
+    private static final int FLAG_CARDS = 1;
+    private static final int FLAG_BM = 2;
+    private static final int FLAG_EXTENDED_DECK = 4;
+
+    /** Debut d un flux de serialisation Java (ancien format). */
+    private static final short SERIAL_MAGIC = (short) 0xACED;
+
+    /** Taille de l en-tete, des flux aleatoires et des listes de cartes. */
+    private static final int FIXED_SIZE = 64 + 4 * CardCodec.CARD_COUNT;
+
+    /** Taille maximale d un joueur, hors nom. */
+    private static final int PLAYER_SIZE = 128 + 4 * CardCodec.CARD_COUNT;
+
+    private SaveCodec() {
+    }
+
+    /**
+     * Code une partie.
+     *
+     * @param game la partie
+     * @return la sauvegarde
+     * @throws IllegalArgumentException si une strategie, des regles ou un
+     *         trophee ne peuvent etre codes
+     */
+    public static byte[] encode(Game game) {
+        List<Player> players = game.getPlayers();
+        byte[][] names = new byte[players.size()][];
+        int capacity = FIXED_SIZE;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = players.get(i).getName().getBytes(StandardCharsets.UTF_8);
+            capacity += PLAYER_SIZE + names[i].length;
+        }
+        ByteBuffer out = ByteBuffer.allocate(capacity);
+
+        Deck deck = game.getDeck();
+        out.putInt(MAGIC).put(VERSION);
+        out.put((byte) ((game.isExtensionCards() ? FLAG_CARDS : 0)
+                | (game.isExtensionBM() ? FLAG_BM : 0)
+                | (deck.isExtended() ? FLAG_EXTENDED_DECK : 0)));
+        out.put((byte) rulesCode(game.getRuleSet()));
+        out.put((byte) players.size());
+
+        out.putLong(game.getSeed());
+        GameRandom random = game.getRandom();
+        out.putLong(random.getState0()).putLong(random.getState1());
+        random = game.getStrategyRandom();
+        out.putLong(random.getState0()).putLong(random.getState1());
+        out.put((byte) game.getCurrentRound());
+
+        putCards(out, deck.getCards());
+        List<TrophyCard> trophies = game.getTrophies();
+        out.put((byte) trophies.size());
+        for (TrophyCard trophy : trophies) {
+            if (trophy.getOriginalCard() == null) {
+                throw new IllegalArgumentException("Trophee sans carte d origine : " + trophy.getName());
+            }
+            out.put((byte) cardId(trophy.getOriginalCard()));
+        }
+        putCards(out, game.getCarryOverCards());
+
+        for (int i = 0; i < names.length; i++) {
+            Player player = players.get(i);
+            out.putShort((short) names[i].length).put(names[i]);
+            StrategyRegistry.write(player.getStrategy(), out);
+            out.putInt(player.getBaseScore()).putInt(player.getTrophyBonus());
+            putCards(out, player.getHand());
+            List<Card> jest = player.getJest().getCards();
+            out.put((byte) jest.size());
+            for (Card card : jest) {
+                int entry = card instanceof TrophyCard
+                        ? TROPHY | trophies.indexOf(card)
+                        : cardId(card);
+                Player owner = card.getLastOfferOwner();
+                if (owner == null) {
+                    out.put((byte) entry);
+                } else {
+                    out.put((byte) (entry | MARKED));
+                    out.put((byte) (players.indexOf(owner) | (card.wasTakenHidden() ? MARKED : 0)));
+                }
+            }
+        }
+
+        List<Offer> offers = game.getCurrentOffers();
+        out.put((byte) offers.size());
+        for (Offer offer : offers) {
+            out.put((byte) players.indexOf(offer.getOwner()));
+            out.put((byte) cardIdOrNone(offer.getFaceUp()));
+            out.put((byte) cardIdOrNone(offer.getFaceDown()));
+        }
+        List<Player> turnOrder = game.getTurnOrder();
+        out.put((byte) turnOrder.size());
+        for (Player player : turnOrder) {
+            out.put((byte) players.indexOf(player));
+        }
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    /**
+     * Decode une partie codee par {@link #encode(Game)}.
+     *
+     * @param data la sauvegarde
+     * @return la partie
+     * @throws IOException si la sauvegarde est tronquee, mal formee ou d une autre version
+     */
+    public static Game decode(byte[] data) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        if (data.length < 5 || in.getInt() != MAGIC) {
+            throw new IOException("Fichier non reconnu comme sauvegarde");
+        }
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IOException("Version de sauvegarde non supportee : " + version);
+        }
+        try {
+            return read(in);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Sauvegarde tronquee");
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Sauvegarde mal formee : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Decode le corps d une sauvegarde, apres l en-tete.
+     */
+    private static Game read(ByteBuffer in) {
+        int flags = in.get();
+        int rules = in.get();
+        int playerCount = in.get();
+
+        Game game = new Game();
+        game.setExtensionCards((flags & FLAG_CARDS) != 0);
+        game.setExtensionBM((flags & FLAG_BM) != 0);
+        game.setRuleSet(rulesOf(rules));
+        game.setSeed(in.getLong());
+        game.getRandom().setState(in.getLong(), in.getLong());
+        game.getStrategyRandom().setState(in.getLong(), in.getLong());
+        game.setCurrentRound(in.get() & 0xFF);
+
+        CardTable table = new CardTable();
+        game.getDeck().restore(getCards(in, table), (flags & FLAG_EXTENDED_DECK) != 0);
+        int trophyCount = in.get();
+        List<TrophyCard> trophies = game.getTrophies();
+        for (int i = 0; i < trophyCount; i++) {
+            trophies.add(TrophyFactory.createFromCard(card(table, in.get())));
+        }
+        game.getCarryOverCards().addAll(getCards(in, table));
+
+        // Les provenances designent des sieges : elles sont resolues une fois tous les joueurs crees
+        List<Card> marked = new ArrayList<>();
+        List<Integer> marks = new ArrayList<>();
+        for (int i = 0; i < playerCount; i++) {
+            byte[] name = new byte[in.getShort() & 0xFFFF];
+            in.get(name);
+            Strategy strategy = StrategyRegistry.read(in);
+            Player player = new Player(new String(name, StandardCharsets.UTF_8), strategy);
+            player.setBaseScore(in.getInt());
+            player.addTrophyBonus(in.getInt());
+            player.receiveCards(getCards(in, table));
+            int jestSize = in.get();
+            Jest jest = player.getJest();
+            for (int j = 0; j < jestSize; j++) {
+                int entry = in.get() & 0xFF;
+                Card card;
+                if ((entry & TROPHY) != 0) {
+                    TrophyCard trophy = trophies.get(entry & (TROPHY - 1));
+                    jest.addTrophy(trophy);
+                    card = trophy;
+                } else {
+                    card = card(table, entry & (TROPHY - 1));
+                    jest.addCard(card);
+                }
+                if ((entry & MARKED) != 0) {
+                    marked.add(card);
+                    marks.add(in.get() & 0xFF);
+                }
+            }
+            game.addPlayer(player);
+        }
+        List<Player> players = game.getPlayers();
+        for (int i = 0; i < marked.size(); i++) {
+            int mark = marks.get(i);
+            marked.get(i).markTakenFromOffer(players.get(mark & ~MARKED), (mark & MARKED) != 0);
+        }
+
+        int offerCount = in.get();
+        List<Offer> offers = game.getCurrentOffers();
+        for (int i = 0; i < offerCount; i++) {
+            Offer offer = new Offer(players.get(in.get()));
+            offer.setFaceUp(cardOrNull(table, in.get()));
+            offer.setFaceDown(cardOrNull(table, in.get()));
+            offers.add(offer);
+        }
+        int turnCount = in.get();
+        List<Player> turnOrder = game.getTurnOrder();
+        for (int i = 0; i < turnCount; i++) {
+            turnOrder.add(players.get(in.get()));
+        }
+        if (in.hasRemaining()) {
+            throw new IllegalArgumentException(in.remaining() + " octets en trop");
+        }
+        return game;
+    }
+
+    /**
+     * Sauvegarde une partie dans un fichier.
+     *
+     * @param game la partie
+     * @param file le fichier
+     * @throws IOException en cas d erreur d ecriture
+     */
+    public static void save(Game game, Path file) throws IOException {
+        Files.write(file, encode(game));
+    }
+
+    /**
+     * Charge une partie depuis un fichier, au format binaire ou dans
+     * l ancien format serialise.
+     *
+     * @param file le fichier
+     * @return la partie
+     * @throws IOException si le fichier ne peut etre lu ou n est pas une sauvegarde
+     */
+    public static Game load(Path file) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        if (data.length >= 2 && ByteBuffer.wrap(data).getShort() == SERIAL_MAGIC) {
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
+                return (Game) ois.readObject();
+            } catch (ClassNotFoundException | ClassCastException e) {
+                throw new IOException("Ancienne sauvegarde illisible : " + e.getMessage(), e);
+            }
+        }
+        return decode(data);
+    }
+
+    /**
+     * Retourne le code d un jeu de regles.
+     *
+     * @param ruleSet les regles
+     * @return 1, 2 ou 3, 0 si aucune regle n est definie
+     * @throws IllegalArgumentException si les regles ne sont pas l une des trois variantes
+     */
+    public static int rulesCode(RuleSet ruleSet) {
+        if (ruleSet == null) return 0;
+        if (ruleSet instanceof Rule1) return 1;
+        if (ruleSet instanceof Rule2) return 2;
+        if (ruleSet instanceof Rule3) return 3;
+        throw new IllegalArgumentException("Regles inconnues : " + ruleSet.getClass().getName());
+    }
+
+    private static RuleSet rulesOf(int code) {
+        switch (code) {
+            case 0: return null;
+            case 1: return new Rule1();
+            case 2: return new Rule2();
+            case 3: return new Rule3();
+            default:
+                throw new IllegalArgumentException("Regles inconnues : " + code);
+        }
+    }
+
+    private static int cardId(Card card) {
+        int id = CardCodec.idOf(card);
+        if (id == CardCodec.NONE) {
+            throw new IllegalArgumentException("Carte sans identifiant : " + card);
+        }
+        return id;
+    }
+
+    private static int cardIdOrNone(Card card) {
+        return card == null ? CardCodec.NONE : cardId(card);
+    }
+
+    private static void putCards(ByteBuffer out, List<Card> cards) {
+        out.put((byte) cards.size());
+        for (Card card : cards) {
+            out.put((byte) cardId(card));
+        }
+    }
+
+    private static List<Card> getCards(ByteBuffer in, CardTable table) {
+        int count = in.get();
+        List<Card> cards = new ArrayList<>(Math.max(count, 0));
+        for (int i = 0; i < count; i++) {
+            cards.add(card(table, in.get()));
+        }
+        return cards;
+    }
+
+    /**
+     * Retourne la carte d un identifiant, creee a sa premiere occurrence.
+     */
+    private static Card card(CardTable table, int id) {
+        if (id == CardCodec.NONE) {
+            throw new IllegalArgumentException("Identifiant de carte invalide : " + id);
+        }
+        return table.card(id);
+    }
+
+    private static Card cardOrNull(CardTable table, int id) {
+        return table.card(id);
+    }
+}
@@ -51,6 +51,12 @@ public class TrophyCard extends Card implements Serializable {
     /** Carte originale ayant determine le trophee (optionnel). */
     private Card originalCard;
 
+    /** Type du trophee (null pour un trophee a condition libre). */
+    private TrophyType type;
+
+    /** Couleur concernee par le trophee (null si non applicable). */
+    private Suits trophySuit;
+
     /**
      * Constructeur d une carte trophee.
      * 
@@ -82,6 +88,26 @@ public class TrophyCard extends Card implements Serializable {
         this.originalCard = originalCard;
     }
 
+    /**
+     * Constructeur d une carte trophee typee.
+     * 
+     * <p>Le type et la couleur permettent a {@link model.trophy.TrophyResolver}
+     * de resoudre le trophee sans evaluer la condition joueur par joueur.
+     * La condition doit rester equivalente a ce type.</p>
+     * 
+     * @param name       le nom du trophee
+     * @param type       le type du trophee
+     * @param trophySuit la couleur concernee (null si non applicable)
+     * @param condition  la condition d obtention
+     * @param effect     l effet applique au gagnant
+     */
+    public TrophyCard(String name, TrophyType type, Suits trophySuit,
+                      TrophyCondition condition, TrophyEffect effect) {
+        this(name, condition, effect);
+        this.type = type;
+        this.trophySuit = trophySuit;
+    }
+
     /**
      * Verifie si un joueur remplit la condition pour gagner ce trophee.
      * 
@@ -112,6 +138,24 @@ public class TrophyCard extends Card implements Serializable {
         return name; 
     }
     
+    /**
+     * Retourne le type du trophee.
+     * 
+     * @return le type, ou null pour un trophee a condition libre
+     */
+    public TrophyType getType() {
+        return type;
+    }
+
+    /**
+     * Retourne la couleur concernee par le trophee.
+     * 
+     * @return la couleur, ou null si non applicable
+     */
+    public Suits getTrophySuit() {
+        return trophySuit;
+    }
+
     /**
      * Retourne la carte originale ayant determine le trophee.
      * 
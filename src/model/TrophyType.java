@@ -0,0 +1,33 @@
+package model;
+
+/**
+ * Enumeration des types de trophees du jeu Jest.
+ * 
+ * <p>Le type permet de resoudre un trophee sans evaluer sa condition
+ * joueur par joueur (voir {@link model.trophy.TrophyResolver}).</p>
+ * 
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see TrophyCard
+ */
+public enum TrophyType {
+
+    /** Plus haute valeur totale d une couleur. */
+    HIGHEST,
+
+    /** Plus basse valeur totale d une couleur. */
+    LOWEST,
+
+    /** Plus grand nombre de cartes d une couleur. */
+    MAJORITY,
+
+    /** Possession du Joker. */
+    JOKER,
+
+    /** Meilleur score de base. */
+    BEST_JEST,
+
+    /** Meilleur score de base parmi les Jests sans Joker. */
+    BEST_JEST_NO_JOKE
+}
@@ -0,0 +1,248 @@
+package model.compact;
+
+import model.Jest;
+import model.Suits;
+
+/**
+ * Jest represente par un masque de 64 bits (un bit par carte).
+ * 
+ * <p>Le bit numero {@code id} est positionne si la carte d identifiant
+ * {@code id} (voir {@link CardCodec}) est dans le Jest. Chaque couleur
+ * occupe un octet du masque, ce qui permet de calculer les comptages
+ * avec {@link Long#bitCount(long)} et les bonus avec de simples
+ * operations de masque :</p>
+ * <ul>
+ *   <li>Nombre de cartes d une couleur : bitCount(octet de la couleur)</li>
+ *   <li>Paires noires : bitCount(octet Piques &amp; octet Trefles)</li>
+ *   <li>As isole : octet de la couleur egal a 1</li>
+ *   <li>Joker : bit 32</li>
+ * </ul>
+ *
+ * <p>C est la representation compacte du Jest : l ordre des cartes d un
+ * Jest ne compte pas, le masque remplace donc un tableau d identifiants
+ * et sert a la fois au stockage et au score.</p>
+ * 
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see MaskScorer
+ */
+public class BitJest {
+
+    /** Somme des valeurs faciales pour chaque octet de couleur possible. */
+    private static final int[] BYTE_VALUE = new int[256];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            int sum = 0;
+            for (int r = 0; r < 8; r++) {
+                if ((b & (1 << r)) != 0) sum += r + 1;
+            }
+            BYTE_VALUE[b] = sum;
+        }
+    }
+
+    private long mask;
+
+    /**
+     * Constructeur d un Jest vide.
+     */
+    public BitJest() {
+    }
+
+    /**
+     * Constructeur a partir d un masque.
+     * 
+     * @param mask le masque des cartes
+     */
+    public BitJest(long mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * Construit le masque d un Jest du modele (trophees ignores).
+     * 
+     * @param jest le Jest du modele
+     * @return le Jest en representation binaire
+     */
+    public static BitJest of(Jest jest) {
+        BitJest bits = new BitJest();
+        for (model.Card c : jest.getCards()) {
+            int id = CardCodec.idOf(c);
+            if (id != CardCodec.NONE) bits.add(id);
+        }
+        return bits;
+    }
+
+    /**
+     * Ajoute une carte.
+     * 
+     * @param id l identifiant de la carte
+     */
+    public void add(int id) {
+        mask |= 1L << id;
+    }
+
+    /**
+     * Retire une carte.
+     * 
+     * @param id l identifiant de la carte
+     */
+    public void remove(int id) {
+        mask &= ~(1L << id);
+    }
+
+    /**
+     * Verifie la presence d une carte.
+     * 
+     * @param id l identifiant de la carte
+     * @return true si la carte est presente
+     */
+    public boolean contains(int id) {
+        return (mask & (1L << id)) != 0;
+    }
+
+    /**
+     * Retourne le masque complet.
+     * 
+     * @return le masque
+     */
+    public long getMask() {
+        return mask;
+    }
+
+    /**
+     * Remplace le masque.
+     * 
+     * @param mask le nouveau masque
+     */
+    public void setMask(long mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * Vide le Jest.
+     */
+    public void clear() {
+        mask = 0L;
+    }
+
+    /**
+     * Retourne le nombre de cartes.
+     * 
+     * @return le nombre de bits positionnes
+     */
+    public int size() {
+        return Long.bitCount(mask);
+    }
+
+    /**
+     * Compte les cartes d une couleur.
+     * 
+     * @param suit la couleur
+     * @return le nombre de cartes
+     */
+    public int countSuit(Suits suit) {
+        return Long.bitCount(suitBits(mask, suit.ordinal()));
+    }
+
+    /**
+     * Calcule la somme des valeurs faciales d une couleur.
+     * 
+     * @param suit la couleur
+     * @return la somme des valeurs
+     */
+    public int getSuitValue(Suits suit) {
+        return suit == Suits.JOKER ? 0 : suitValue(mask, suit.ordinal());
+    }
+
+    /**
+     * Verifie la presence du Joker.
+     * 
+     * @return true si le Joker est present
+     */
+    public boolean hasJoker() {
+        return hasJoker(mask);
+    }
+
+    /**
+     * Retourne l octet d une couleur dans un masque.
+     * 
+     * @param mask      le masque
+     * @param suitIndex l indice de couleur (0 = Piques .. 3 = Coeurs, 4 = Joker)
+     * @return les bits de la couleur (bit r = carte de valeur r + 1)
+     */
+    public static int suitBits(long mask, int suitIndex) {
+        return (int) (mask >>> (suitIndex << 3)) & 0xFF;
+    }
+
+    /**
+     * Somme des valeurs faciales d une couleur dans un masque.
+     * 
+     * @param mask      le masque
+     * @param suitIndex l indice de couleur (0 a 3)
+     * @return la somme des valeurs
+     */
+    public static int suitValue(long mask, int suitIndex) {
+        return BYTE_VALUE[suitBits(mask, suitIndex)];
+    }
+
+    /**
+     * Somme des valeurs faciales d un octet de couleur.
+     * 
+     * @param bits l octet de couleur
+     * @return la somme des valeurs
+     */
+    public static int byteValue(int bits) {
+        return BYTE_VALUE[bits & 0xFF];
+    }
+
+    /**
+     * Verifie la presence du Joker dans un masque.
+     * 
+     * @param mask le masque
+     * @return true si le bit du Joker est positionne
+     */
+    public static boolean hasJoker(long mask) {
+        return (mask & (1L << CardCodec.JOKER)) != 0;
+    }
+
+    /**
+     * Retourne la priorite maximale des cartes d un masque.
+     * 
+     * <p>Meme resultat que le departage de {@link model.trophy.TrophyFactory} :
+     * la carte de plus haute valeur, puis de couleur la plus forte.</p>
+     * 
+     * @param mask le masque
+     * @return la priorite maximale, ou 0 si aucune carte classique
+     */
+    public static int maxPriority(long mask) {
+        int best = 0;
+        for (int s = 0; s < CardCodec.SUIT_COUNT; s++) {
+            int bits = suitBits(mask, s);
+            if (bits != 0) {
+                int top = 31 - Integer.numberOfLeadingZeros(bits);
+                best = Math.max(best, CardCodec.priority(s * 8 + top));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Retourne une representation textuelle du Jest.
+     * 
+     * @return les cartes entre crochets
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        long m = mask;
+        while (m != 0) {
+            int id = Long.numberOfTrailingZeros(m);
+            m &= m - 1;
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(CardCodec.toString(id));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,190 @@
+package model.compact;
+
+import model.*;
+
+/**
+ * Encodage primitif des cartes du jeu Jest sur un octet.
+ * 
+ * <p>Chaque carte des decks de 17 et 33 cartes recoit un identifiant
+ * compris entre 0 et 32. Cet identifiant permet de representer l etat
+ * d une partie avec des tableaux de bytes ou des masques de bits, sans
+ * allouer d objets {@link Card}.</p>
+ * 
+ * <h2>Disposition des identifiants :</h2>
+ * <pre>
+ * id = indiceCouleur * 8 + (valeur - 1)
+ * 
+ *   Piques   :  0 ..  7  (As .. 8)
+ *   Trefles  :  8 .. 15
+ *   Carreaux : 16 .. 23
+ *   Coeurs   : 24 .. 31
+ *   Joker    : 32
+ * </pre>
+ * 
+ * <p>Le deck standard (As a 4) utilise les identifiants dont les trois
+ * bits de poids faible valent 0 a 3 ; l extension 5-8 ajoute les autres.
+ * Les cartes trophees et BM n ont pas d identifiant ({@link #NONE}).</p>
+ * 
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see CardTable
+ */
+public final class CardCodec {
+
+    /** Identifiant signifiant "aucune carte". */
+    public static final byte NONE = -1;
+
+    /** Identifiant du Joker. */
+    public static final byte JOKER = 32;
+
+    /** Nombre d identifiants possibles. */
+    public static final int CARD_COUNT = 33;
+
+    /** Nombre de couleurs classiques. */
+    public static final int SUIT_COUNT = 4;
+
+    /** Masque des cartes du deck standard de 17 cartes. */
+    public static final long STANDARD_DECK_MASK = 0x0F0F0F0FL | (1L << JOKER);
+
+    /** Masque des cartes du deck etendu de 33 cartes. */
+    public static final long EXTENDED_DECK_MASK = 0xFFFFFFFFL | (1L << JOKER);
+
+    /** Couleurs classiques indexees par indice de couleur. */
+    private static final Suits[] SUITS = {Suits.SPADES, Suits.CLUBS, Suits.DIAMONDS, Suits.HEARTS};
+
+    /** Rangs indexes par valeur - 1. */
+    private static final Rank[] RANKS = {Rank.ACE, Rank.TWO, Rank.THREE, Rank.FOUR,
+                                         Rank.FIVE, Rank.SIX, Rank.SEVEN, Rank.EIGHT};
+
+    private CardCodec() {}
+
+    /**
+     * Retourne l identifiant d une couleur et d un rang.
+     * 
+     * @param suit la couleur
+     * @param rank le rang
+     * @return l identifiant de la carte, ou NONE si la combinaison n existe pas
+     */
+    public static int id(Suits suit, Rank rank) {
+        if (suit == Suits.JOKER || rank == Rank.JOKER) {
+            return suit == Suits.JOKER && rank == Rank.JOKER ? JOKER : NONE;
+        }
+        return suit.ordinal() * 8 + rank.getValue() - 1;
+    }
+
+    /**
+     * Retourne l identifiant d une carte du modele.
+     * 
+     * @param card la carte
+     * @return l identifiant, ou NONE pour une carte trophee, BM ou null
+     */
+    public static int idOf(Card card) {
+        if (card instanceof SuitCard) {
+            return id(card.getSuit(), card.getRank());
+        }
+        if (card instanceof JokerCard) {
+            return JOKER;
+        }
+        return NONE;
+    }
+
+    /**
+     * Retourne l indice de couleur (0 = Piques .. 3 = Coeurs, 4 = Joker).
+     * 
+     * @param id l identifiant de la carte
+     * @return l indice de couleur
+     */
+    public static int suitIndex(int id) {
+        return id >> 3;
+    }
+
+    /**
+     * Retourne la couleur d une carte.
+     * 
+     * @param id l identifiant de la carte
+     * @return la couleur
+     */
+    public static Suits suitOf(int id) {
+        return id == JOKER ? Suits.JOKER : SUITS[id >> 3];
+    }
+
+    /**
+     * Retourne le rang d une carte.
+     * 
+     * @param id l identifiant de la carte
+     * @return le rang
+     */
+    public static Rank rankOf(int id) {
+        return id == JOKER ? Rank.JOKER : RANKS[id & 7];
+    }
+
+    /**
+     * Retourne la valeur faciale d une carte (0 pour le Joker).
+     * 
+     * @param id l identifiant de la carte
+     * @return la valeur faciale
+     */
+    public static int value(int id) {
+        return id == JOKER ? 0 : (id & 7) + 1;
+    }
+
+    /**
+     * Retourne la priorite d une carte pour les departages.
+     * 
+     * <p>Meme calcul que la priorite des offres visibles :
+     * valeur * 10 + priorite de couleur (Piques 4, Trefles 3,
+     * Carreaux 2, Coeurs 1). Le Joker vaut 0.</p>
+     * 
+     * @param id l identifiant de la carte
+     * @return la priorite
+     */
+    public static int priority(int id) {
+        return id == JOKER ? 0 : value(id) * 10 + (SUIT_COUNT - (id >> 3));
+    }
+
+    /**
+     * Verifie si un identifiant appartient au deck choisi.
+     * 
+     * @param id               l identifiant
+     * @param includeExtension true pour le deck de 33 cartes
+     * @return true si la carte fait partie du deck
+     */
+    public static boolean inDeck(int id, boolean includeExtension) {
+        long mask = includeExtension ? EXTENDED_DECK_MASK : STANDARD_DECK_MASK;
+        return id >= 0 && id < CARD_COUNT && (mask & (1L << id)) != 0;
+    }
+
+    /**
+     * Cree une nouvelle carte du modele a partir de son identifiant.
+     * 
+     * @param id l identifiant
+     * @return une nouvelle SuitCard ou JokerCard
+     * @throws IllegalArgumentException si l identifiant est invalide
+     */
+    public static Card toCard(int id) {
+        if (id < 0 || id >= CARD_COUNT) {
+            throw new IllegalArgumentException("Identifiant de carte invalide : " + id);
+        }
+        if (id == JOKER) {
+            return new JokerCard();
+        }
+        return new SuitCard(SUITS[id >> 3], RANKS[id & 7]);
+    }
+
+    /**
+     * Retourne une representation textuelle d un identifiant.
+     * 
+     * @param id l identifiant
+     * @return le rang et le symbole de la couleur, ou "-" pour NONE
+     */
+    public static String toString(int id) {
+        if (id == NONE) {
+            return "-";
+        }
+        if (id == JOKER) {
+            return "Joker ★";
+        }
+        return RANKS[id & 7].getDisplayName() + " " + SUITS[id >> 3].getSymbol();
+    }
+}
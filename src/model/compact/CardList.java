@@ -0,0 +1,194 @@
+package model.compact;
+
+import model.Card;
+import java.util.List;
+
+/**
+ * Liste de cartes encodees sur un tableau de bytes de taille fixe.
+ * 
+ * <p>Base de {@link CompactHand}. Aucune operation n alloue apres la construction.</p>
+ * 
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see CardCodec
+ */
+public class CardList {
+
+    /** Identifiants des cartes. */
+    protected final byte[] cards;
+
+    /** Nombre de cartes presentes. */
+    protected int size;
+
+    /**
+     * Constructeur d une liste vide.
+     * 
+     * @param capacity la capacite maximale
+     */
+    public CardList(int capacity) {
+        this.cards = new byte[capacity];
+    }
+
+    /**
+     * Ajoute une carte a la fin de la liste.
+     * 
+     * @param id l identifiant de la carte
+     * @throws IllegalStateException si la liste est pleine
+     */
+    public void add(int id) {
+        if (size == cards.length) {
+            throw new IllegalStateException("Liste de cartes pleine");
+        }
+        cards[size++] = (byte) id;
+    }
+
+    /**
+     * Retourne la carte a une position.
+     * 
+     * @param index la position
+     * @return l identifiant de la carte
+     */
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return cards[index];
+    }
+
+    /**
+     * Retire la carte a une position, en conservant l ordre des suivantes.
+     * 
+     * @param index la position
+     * @return l identifiant de la carte retiree
+     */
+    public int removeAt(int index) {
+        int id = get(index);
+        System.arraycopy(cards, index + 1, cards, index, size - index - 1);
+        size--;
+        return id;
+    }
+
+    /**
+     * Retire la derniere carte ajoutee.
+     * 
+     * @return l identifiant retire, ou NONE si la liste est vide
+     */
+    public int removeLast() {
+        return size == 0 ? CardCodec.NONE : cards[--size];
+    }
+
+    /**
+     * Retire une carte donnee.
+     * 
+     * @param id l identifiant de la carte
+     * @return true si la carte etait presente
+     */
+    public boolean remove(int id) {
+        int index = indexOf(id);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Retourne la position d une carte.
+     * 
+     * @param id l identifiant
+     * @return la position, ou -1 si absente
+     */
+    public int indexOf(int id) {
+        for (int i = 0; i < size; i++) {
+            if (cards[i] == id) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Verifie la presence d une carte.
+     * 
+     * @param id l identifiant
+     * @return true si la carte est presente
+     */
+    public boolean contains(int id) {
+        return indexOf(id) >= 0;
+    }
+
+    /**
+     * Retourne le nombre de cartes.
+     * 
+     * @return la taille
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Verifie si la liste est vide.
+     * 
+     * @return true si vide
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Vide la liste.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Copie le contenu d une autre liste (meme capacite ou plus).
+     * 
+     * @param other la liste source
+     */
+    public void copyFrom(CardList other) {
+        System.arraycopy(other.cards, 0, cards, 0, other.size);
+        size = other.size;
+    }
+
+    /**
+     * Remplace le contenu par les cartes encodables d une liste du modele.
+     * 
+     * @param list les cartes du modele (trophees et cartes BM ignores)
+     */
+    public void load(List<Card> list) {
+        size = 0;
+        for (Card c : list) {
+            int id = CardCodec.idOf(c);
+            if (id != CardCodec.NONE) add(id);
+        }
+    }
+
+    /**
+     * Retourne le masque de bits des cartes presentes.
+     * 
+     * @return un bit par identifiant present
+     */
+    public long mask() {
+        long mask = 0L;
+        for (int i = 0; i < size; i++) {
+            mask |= 1L << cards[i];
+        }
+        return mask;
+    }
+
+    /**
+     * Retourne une representation textuelle de la liste.
+     * 
+     * @return les cartes entre crochets
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(CardCodec.toString(cards[i]));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,121 @@
+package model.compact;
+
+import model.*;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Table de correspondance entre identifiants et instances de cartes.
+ * 
+ * <p>Le modele compare les cartes par identite ({@link Offer#contains(Card)}
+ * utilise ==). Pour revenir d une representation compacte vers le modele
+ * sans casser ces comparaisons, cette table retrouve l instance exacte
+ * de chaque carte d une partie a partir de son identifiant.</p>
+ * 
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see CardCodec
+ */
+public final class CardTable {
+
+    private final Card[] cards = new Card[CardCodec.CARD_COUNT];
+
+    /**
+     * Construit une table vide.
+     */
+    public CardTable() {
+    }
+
+    /**
+     * Construit une table contenant les cartes du jeu concernees par une partie.
+     * 
+     * <p>Les cartes sont recherchees dans le deck, les mains, les Jests
+     * (y compris les cartes originales des trophees) et les trophees.</p>
+     * 
+     * @param game la partie
+     * @return la table des cartes de la partie
+     */
+    public static CardTable of(Game game) {
+        CardTable table = new CardTable();
+        table.registerAll(game.getDeck().getCards());
+        for (Player p : game.getPlayers()) {
+            table.registerAll(p.getHand());
+            table.registerAll(p.getJest().getCards());
+        }
+        for (TrophyCard trophy : game.getTrophies()) {
+            table.register(trophy.getOriginalCard());
+        }
+        return table;
+    }
+
+    /**
+     * Enregistre une carte dans la table.
+     * 
+     * @param card la carte (ignoree si trophee, BM ou null)
+     */
+    public void register(Card card) {
+        if (card instanceof TrophyCard) {
+            register(((TrophyCard) card).getOriginalCard());
+            return;
+        }
+        int id = CardCodec.idOf(card);
+        if (id != CardCodec.NONE) {
+            cards[id] = card;
+        }
+    }
+
+    /**
+     * Enregistre plusieurs cartes.
+     * 
+     * @param list les cartes
+     */
+    public void registerAll(Collection<? extends Card> list) {
+        for (Card c : list) {
+            register(c);
+        }
+    }
+
+    /**
+     * Retourne l instance associee a un identifiant.
+     * 
+     * <p>Si aucune instance n a ete enregistree, une nouvelle carte est
+     * creee et memorisee pour que les appels suivants retournent la meme.</p>
+     * 
+     * @param id l identifiant
+     * @return la carte, ou null pour NONE
+     * @throws IllegalArgumentException si l identifiant n est pas celui d une carte
+     */
+    public Card card(int id) {
+        if (id == CardCodec.NONE) {
+            return null;
+        }
+        Card c = find(id);
+        if (c == null) {
+            c = CardCodec.toCard(id);
+            cards[id] = c;
+        }
+        return c;
+    }
+
+    /**
+     * Retourne l instance enregistree pour un identifiant, sans en creer.
+     *
+     * @param id l identifiant
+     * @return la carte enregistree, ou null
+     * @throws IllegalArgumentException si l identifiant n est pas celui d une carte
+     */
+    public Card find(int id) {
+        if (id < 0 || id >= cards.length) {
+            throw new IllegalArgumentException("Identifiant de carte invalide : " + id);
+        }
+        return cards[id];
+    }
+
+    /**
+     * Vide la table.
+     */
+    public void clear() {
+        Arrays.fill(cards, null);
+    }
+}
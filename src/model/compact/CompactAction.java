@@ -0,0 +1,126 @@
+package model.compact;
+
+/**
+ * Codage des actions de jeu sur un entier.
+ *
+ * <p>Une action tient sur 10 bits : le type dans les bits 8-9 et son
+ * argument dans l octet de poids faible. Ce codage permet de manipuler
+ * les actions sans allocation (tableaux d entiers, cles de noeuds).</p>
+ *
+ * <h2>Types d actions :</h2>
+ * <ul>
+ *   <li><b>OFFER</b> : le joueur courant cache la carte donnee en argument
+ *       et montre l autre carte de sa main</li>
+ *   <li><b>TAKE</b> : le joueur courant prend la carte visible ou cachee
+ *       de l offre d un joueur (argument = proprietaire * 2 + cachee)</li>
+ *   <li><b>DEAL</b> : distribution du tour suivant (evenement de hasard)</li>
+ * </ul>
+ *
+ * <p>Une action OFFER ou TAKE ne depend que d informations connues du
+ * joueur qui la joue : elle designe la meme decision quelle que soit la
+ * repartition des cartes cachees.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see CompactGame
+ */
+public final class CompactAction {
+
+    /** Absence d action. */
+    public static final int NONE = -1;
+
+    /** Type : creation d une offre. */
+    public static final int TYPE_OFFER = 1;
+
+    /** Type : prise d une carte. */
+    public static final int TYPE_TAKE = 2;
+
+    /** Type : distribution d un tour. */
+    public static final int TYPE_DEAL = 3;
+
+    /** Action de distribution. */
+    public static final int DEAL = TYPE_DEAL << 8;
+
+    /** Nombre maximal d actions legales dans une position. */
+    public static final int MAX_ACTIONS = 2 * (CompactGame.MAX_PLAYERS - 1);
+
+    private CompactAction() {
+    }
+
+    /**
+     * Code une offre.
+     *
+     * @param hiddenCard l identifiant de la carte cachee
+     * @return l action
+     */
+    public static int offer(int hiddenCard) {
+        return TYPE_OFFER << 8 | hiddenCard;
+    }
+
+    /**
+     * Code une prise.
+     *
+     * @param owner  l indice du proprietaire de l offre
+     * @param hidden true pour prendre la carte cachee
+     * @return l action
+     */
+    public static int take(int owner, boolean hidden) {
+        return TYPE_TAKE << 8 | owner << 1 | (hidden ? 1 : 0);
+    }
+
+    /**
+     * Retourne le type d une action.
+     *
+     * @param action l action
+     * @return TYPE_OFFER, TYPE_TAKE ou TYPE_DEAL
+     */
+    public static int type(int action) {
+        return action >>> 8;
+    }
+
+    /**
+     * Retourne la carte cachee d une offre.
+     *
+     * @param action une action OFFER
+     * @return l identifiant de la carte cachee
+     */
+    public static int hiddenCard(int action) {
+        return action & 0xFF;
+    }
+
+    /**
+     * Retourne le proprietaire de l offre visee par une prise.
+     *
+     * @param action une action TAKE
+     * @return l indice du proprietaire
+     */
+    public static int owner(int action) {
+        return (action & 0xFF) >>> 1;
+    }
+
+    /**
+     * Indique si une prise vise la carte cachee.
+     *
+     * @param action une action TAKE
+     * @return true pour la carte cachee, false pour la carte visible
+     */
+    public static boolean isHidden(int action) {
+        return (action & 1) != 0;
+    }
+
+    /**
+     * Retourne une representation textuelle d une action.
+     *
+     * @param action l action
+     * @return la description de l action
+     */
+    public static String toString(int action) {
+        switch (type(action)) {
+            case TYPE_OFFER: return "Offre (cache " + CardCodec.toString(hiddenCard(action)) + ")";
+            case TYPE_TAKE: return "Prise " + (isHidden(action) ? "cachee" : "visible") + " chez " + owner(action);
+            case TYPE_DEAL: return "Distribution";
+            default: return "?";
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package model.compact;
+
+import model.Card;
+import model.Deck;
+import java.util.random.RandomGenerator;
+
+/**
+ * Deck en representation compacte avec curseur de pioche.
+ * 
+ * <p>Les cartes sont stockees dans un tableau de bytes ; la pioche avance
+ * un curseur au lieu de decaler le tableau. Les cartes ajoutees (reports
+ * de fin de tour) sont placees apres la derniere carte.</p>
+ * 
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see Deck
+ * @see CardCodec
+ */
+public class CompactDeck {
+
+    private final byte[] cards = new byte[CardCodec.CARD_COUNT];
+    private int cursor;
+    private int end;
+    private boolean extendedDeck;
+
+    /**
+     * Constructeur d un deck vide.
+     */
+    public CompactDeck() {
+    }
+
+    /**
+     * Initialise le deck dans le meme ordre que {@link Deck#initialize(boolean)}.
+     * 
+     * @param includeExtension true pour inclure les cartes 5-8
+     */
+    public void initialize(boolean includeExtension) {
+        cursor = 0;
+        end = 0;
+        extendedDeck = includeExtension;
+        int ranks = includeExtension ? 8 : 4;
+        for (int suit = 0; suit < CardCodec.SUIT_COUNT; suit++) {
+            for (int r = 0; r < ranks; r++) {
+                cards[end++] = (byte) (suit * 8 + r);
+            }
+        }
+        cards[end++] = CardCodec.JOKER;
+    }
+
+    /**
+     * Remplace le contenu par les cartes restantes d un deck du modele.
+     * 
+     * @param deck le deck du modele
+     */
+    public void load(Deck deck) {
+        cursor = 0;
+        end = 0;
+        extendedDeck = deck.isExtended();
+        for (Card c : deck.getCards()) {
+            int id = CardCodec.idOf(c);
+            if (id != CardCodec.NONE) cards[end++] = (byte) id;
+        }
+    }
+
+    /**
+     * Melange les cartes restantes (Fisher-Yates).
+     * 
+     * @param rng le generateur aleatoire
+     */
+    public void shuffle(RandomGenerator rng) {
+        for (int i = end - 1; i > cursor; i--) {
+            int j = cursor + rng.nextInt(i - cursor + 1);
+            byte tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+    }
+
+    /**
+     * Pioche la carte suivante.
+     * 
+     * @return l identifiant de la carte, ou NONE si le deck est vide
+     */
+    public int draw() {
+        return cursor < end ? cards[cursor++] : CardCodec.NONE;
+    }
+
+    /**
+     * Remet la derniere carte piochee sur le dessus du deck.
+     */
+    public void undraw() {
+        if (cursor > 0) cursor--;
+    }
+
+    /**
+     * Ajoute une carte sous le deck.
+     * 
+     * @param id l identifiant de la carte
+     */
+    public void add(int id) {
+        if (end == cards.length) {
+            compact();
+        }
+        cards[end++] = (byte) id;
+    }
+
+    /**
+     * Retourne la carte a une position depuis le dessus du deck.
+     * 
+     * @param index la position (0 = prochaine carte piochee)
+     * @return l identifiant de la carte
+     */
+    public int peek(int index) {
+        return cards[cursor + index];
+    }
+
+    /**
+     * Remplace la carte a une position depuis le dessus du deck.
+     * 
+     * @param index la position
+     * @param id    le nouvel identifiant
+     */
+    public void set(int index, int id) {
+        cards[cursor + index] = (byte) id;
+    }
+
+    /**
+     * Retourne le nombre de cartes restantes.
+     * 
+     * @return la taille
+     */
+    public int size() {
+        return end - cursor;
+    }
+
+    /**
+     * Verifie si le deck est vide.
+     * 
+     * @return true si vide
+     */
+    public boolean isEmpty() {
+        return cursor == end;
+    }
+
+    /**
+     * Indique si le deck contient les cartes 5-8.
+     * 
+     * @return true si etendu
+     */
+    public boolean isExtended() {
+        return extendedDeck;
+    }
+
+    /**
+     * Retourne le masque de bits des cartes restantes.
+     * 
+     * @return un bit par identifiant present
+     */
+    public long mask() {
+        long mask = 0L;
+        for (int i = cursor; i < end; i++) {
+            mask |= 1L << cards[i];
+        }
+        return mask;
+    }
+
+    /**
+     * Copie un autre deck.
+     * 
+     * @param other le deck source
+     */
+    public void copyFrom(CompactDeck other) {
+        int n = other.size();
+        System.arraycopy(other.cards, other.cursor, cards, 0, n);
+        cursor = 0;
+        end = n;
+        extendedDeck = other.extendedDeck;
+    }
+
+    /**
+     * Ramene les cartes restantes en debut de tableau.
+     */
+    private void compact() {
+        int n = size();
+        System.arraycopy(cards, cursor, cards, 0, n);
+        cursor = 0;
+        end = n;
+    }
+
+    /**
+     * Retourne une representation textuelle du deck.
+     * 
+     * @return les cartes restantes entre crochets
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = cursor; i < end; i++) {
+            if (i > cursor) sb.append(", ");
+            sb.append(CardCodec.toString(cards[i]));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,899 @@
+package model.compact;
+
+import model.*;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Etat complet d une partie en representation compacte.
+ *
+ * <p>Cette classe rejoue les regles de {@link Game} et du moteur
+ * (offres, ordre de prise, prises, cartes reportees, fin de partie) sur
+ * des tableaux primitifs. Une position se copie en quelques centaines de
+ * nanosecondes ({@link #copyFrom(CompactGame)}) au lieu d une
+ * serialisation complete : elle sert de modele interne aux IA de recherche.</p>
+ *
+ * <h2>Phases :</h2>
+ * <ul>
+ *   <li><b>PHASE_DEAL</b> : le tour suivant doit etre distribue (action DEAL)</li>
+ *   <li><b>PHASE_OFFER</b> : les joueurs font leur offre dans l ordre des sieges</li>
+ *   <li><b>PHASE_TAKE</b> : les joueurs prennent une carte, de la carte visible
+ *       la plus forte a la plus faible</li>
+ *   <li><b>PHASE_OVER</b> : partie terminee, chaque joueur a recupere la carte
+ *       restante de sa propre offre</li>
+ * </ul>
+ *
+ * <h2>Jouer et annuler :</h2>
+ * <p>{@link #apply(int)} empile de quoi revenir en arriere et
+ * {@link #undo()} restaure exactement la position precedente, y compris
+ * l etat du flux aleatoire pour une distribution. Une recherche peut
+ * ainsi parcourir l arbre de jeu sur place, sans copie ni allocation.
+ * La pile est videe par {@link #load(Game)}, {@link #copyFrom(CompactGame)}
+ * et {@link #determinize}.</p>
+ *
+ * <h2>Cle de position :</h2>
+ * <p>La cle de Zobrist de la position ({@link #getHash()}) est mise a jour
+ * a chaque offre et a chaque prise par quelques ou exclusifs, recalculee
+ * apres une distribution et restauree par {@link #undo()}.</p>
+ *
+ * <h2>Fidelite au modele :</h2>
+ * <p>La distribution utilise le meme algorithme et le meme flux aleatoire
+ * que {@link Game#dealRound()} : une position chargee puis jouee avec les
+ * memes decisions redonne exactement les memes mains que la partie reelle.
+ * Le score est celui de {@link RuleSet#maskScorer()} ; le gagnant est le
+ * premier joueur de score maximal, comme dans {@link Game#winner()}.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see CompactAction
+ */
+public class CompactGame {
+
+    /** Le tour suivant doit etre distribue. */
+    public static final int PHASE_DEAL = 0;
+
+    /** Phase des offres. */
+    public static final int PHASE_OFFER = 1;
+
+    /** Phase des prises. */
+    public static final int PHASE_TAKE = 2;
+
+    /** Partie terminee. */
+    public static final int PHASE_OVER = 3;
+
+    /** Nombre maximal de joueurs. */
+    public static final int MAX_PLAYERS = 4;
+
+    /** Nombre maximal d actions dans une partie (moins de 64 avec le deck de 33 cartes). */
+    public static final int MAX_DEPTH = 128;
+
+    /** Nombre de mots par entree de la pile d annulation. */
+    private static final int FRAME = 7;
+
+    private final CompactDeck deck = new CompactDeck();
+    private final CardList carry = new CardList(2 * MAX_PLAYERS);
+    private final CompactHand[] hands = new CompactHand[MAX_PLAYERS];
+    private final CompactOffer[] offers = new CompactOffer[MAX_PLAYERS];
+    private final long[] jests = new long[MAX_PLAYERS];
+    private final int[] turnOrder = new int[MAX_PLAYERS];
+    private final int[] takenFrom = new int[MAX_PLAYERS];
+    private final GameRandom random = new GameRandom(0L);
+
+    private int playerCount;
+    private MaskScorer scorer;
+    private int phase;
+    private int current;
+    private int round;
+    private long hash;
+
+    /** Tampons de travail (distribution, determinisation, parties aleatoires). */
+    private final byte[] pool = new byte[CardCodec.CARD_COUNT];
+    private final int[] actions = new int[CompactAction.MAX_ACTIONS];
+
+    /**
+     * Pile d annulation, FRAME mots par action : en-tete (action, phase,
+     * joueur courant, tour), donnees propres au type d action, puis cle
+     * de la position.
+     */
+    private final long[] undoStack = new long[MAX_DEPTH * FRAME];
+    private int depth;
+
+    /**
+     * Constructeur d une position vide.
+     */
+    public CompactGame() {
+        for (int p = 0; p < MAX_PLAYERS; p++) {
+            hands[p] = new CompactHand();
+            offers[p] = new CompactOffer(p);
+        }
+    }
+
+    /**
+     * Charge la position courante d une partie du modele.
+     *
+     * <p>La phase est deduite des offres publiees par le moteur
+     * ({@link Game#getCurrentOffers()}) : offres incompletes, pas encore
+     * d offre pour le joueur suivant, ou tour termine.</p>
+     *
+     * @param game la partie
+     * @throws IllegalArgumentException si le nombre de joueurs ou les regles
+     *         ne sont pas supportes
+     */
+    public void load(Game game) {
+        loadPosition(game);
+        hash = computeHash();
+    }
+
+    /**
+     * Charge les tableaux de la position (voir {@link #load(Game)}).
+     */
+    private void loadPosition(Game game) {
+        List<Player> players = game.getPlayers();
+        int n = players.size();
+        if (n < 3 || n > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Une partie se joue a 3 ou 4 joueurs");
+        }
+        MaskScorer ruleScorer = game.getRuleSet() != null ? game.getRuleSet().maskScorer() : null;
+        if (ruleScorer == null) {
+            throw new IllegalArgumentException("Regles sans calcul de score binaire");
+        }
+
+        playerCount = n;
+        scorer = ruleScorer;
+        depth = 0;
+        round = game.getCurrentRound();
+        deck.load(game.getDeck());
+        GameRandom r = game.getRandom();
+        random.setState(r.getState0(), r.getState1());
+        carry.clear();
+
+        for (int p = 0; p < n; p++) {
+            Player player = players.get(p);
+            jests[p] = player.getJest().getCardMask();
+            hands[p].load(player);
+            offers[p].set(CardCodec.NONE, CardCodec.NONE);
+        }
+
+        List<Offer> made = game.getCurrentOffers();
+        for (Offer offer : made) {
+            int owner = players.indexOf(offer.getOwner());
+            offers[owner].load(offer, owner);
+            hands[owner].clear();
+        }
+
+        if (made.size() < n) {
+            if (hands[made.size()].size() == CompactHand.CAPACITY) {
+                phase = PHASE_OFFER;
+                current = made.size();
+            } else {
+                betweenRounds(game);
+            }
+            return;
+        }
+
+        List<Player> order = game.getTurnOrder();
+        if (order.size() == n) {
+            for (int t = 0; t < n; t++) {
+                turnOrder[t] = players.indexOf(order.get(t));
+            }
+        } else {
+            computeTurnOrder();
+        }
+
+        int taken = 0;
+        for (int p = 0; p < n; p++) {
+            if (!offers[p].isComplete()) taken++;
+        }
+        loadTakenFrom(game.getCarryOverCards(), taken);
+
+        if (taken < n) {
+            phase = PHASE_TAKE;
+            current = taken;
+        } else {
+            betweenRounds(game);
+        }
+    }
+
+    /**
+     * Retrouve l ordre des offres deja entamees a partir des cartes reportees.
+     */
+    private void loadTakenFrom(List<Card> carried, int taken) {
+        int k = 0;
+        for (int i = 0; i < carried.size() && k < taken; i++) {
+            int id = CardCodec.idOf(carried.get(i));
+            for (int p = 0; p < playerCount; p++) {
+                if (!offers[p].isComplete() && offers[p].getRemaining() == id) {
+                    takenFrom[k++] = p;
+                    break;
+                }
+            }
+        }
+        if (k < taken) {
+            // Cartes reportees inconnues : ordre des sieges
+            k = 0;
+            for (int p = 0; p < playerCount; p++) {
+                if (!offers[p].isComplete()) takenFrom[k++] = p;
+            }
+        }
+    }
+
+    /**
+     * Charge une position entre deux tours.
+     */
+    private void betweenRounds(Game game) {
+        carry.load(game.getCarryOverCards());
+        phase = game.isGameOver() ? PHASE_OVER : PHASE_DEAL;
+        current = 0;
+    }
+
+    /**
+     * Copie une autre position.
+     *
+     * @param other la position source
+     */
+    public void copyFrom(CompactGame other) {
+        playerCount = other.playerCount;
+        scorer = other.scorer;
+        depth = 0;
+        phase = other.phase;
+        current = other.current;
+        round = other.round;
+        hash = other.hash;
+        deck.copyFrom(other.deck);
+        carry.copyFrom(other.carry);
+        for (int p = 0; p < playerCount; p++) {
+            hands[p].copyFrom(other.hands[p]);
+            offers[p].copyFrom(other.offers[p]);
+            jests[p] = other.jests[p];
+            turnOrder[p] = other.turnOrder[p];
+            takenFrom[p] = other.takenFrom[p];
+        }
+        random.setState(other.random.getState0(), other.random.getState1());
+    }
+
+    /**
+     * Redistribue au hasard les cartes inconnues d un joueur.
+     *
+     * <p>Les cartes du deck, les mains des autres joueurs, les cartes
+     * cachees des offres adverses et les cartes cachees des Jests adverses
+     * (designees par {@code hiddenJestCards}) sont melangees puis remises
+     * dans les memes emplacements. La position obtenue est compatible avec
+     * tout ce que l observateur sait. Le flux aleatoire des distributions
+     * est egalement retire, l avenir etant inconnu.</p>
+     *
+     * <p>A appeler pendant les phases d offre et de prise.</p>
+     *
+     * @param observer        l indice du joueur observateur
+     * @param hiddenJestCards masque des cartes des Jests adverses inconnues de l observateur
+     * @param rng             le generateur
+     * @see #hiddenJestCards(Game, Player)
+     */
+    public void determinize(int observer, long hiddenJestCards, RandomGenerator rng) {
+        int count = unknownCards(observer, hiddenJestCards, pool);
+        shufflePool(count, rng);
+        assignUnknown(observer, hiddenJestCards, pool);
+        random.setSeed(rng.nextLong());
+    }
+
+    /**
+     * Ecrit les cartes inconnues d un joueur, emplacement par emplacement.
+     *
+     * <p>Ordre des emplacements : le deck, puis pour chaque adversaire dans
+     * l ordre des sieges sa main, la carte cachee de son offre et les cartes
+     * cachees de son Jest (par identifiant croissant).</p>
+     *
+     * @param observer        l indice du joueur observateur
+     * @param hiddenJestCards masque des cartes des Jests adverses inconnues de l observateur
+     * @param out             tableau recevant les cartes (au moins CARD_COUNT cases)
+     * @return le nombre de cartes inconnues
+     * @see #assignUnknown(int, long, byte[])
+     */
+    public int unknownCards(int observer, long hiddenJestCards, byte[] out) {
+        int count = 0;
+        for (int i = 0; i < deck.size(); i++) {
+            out[count++] = (byte) deck.peek(i);
+        }
+        for (int p = 0; p < playerCount; p++) {
+            if (p == observer) continue;
+            for (int i = 0; i < hands[p].size(); i++) {
+                out[count++] = (byte) hands[p].get(i);
+            }
+            if (offers[p].getFaceDown() != CardCodec.NONE) {
+                out[count++] = (byte) offers[p].getFaceDown();
+            }
+            for (long bits = jests[p] & hiddenJestCards; bits != 0; bits &= bits - 1) {
+                out[count++] = (byte) Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Remet des cartes dans les emplacements inconnus d un joueur.
+     *
+     * <p>Les cartes sont lues dans l ordre de {@link #unknownCards} ; une
+     * permutation de ses cartes donne une position compatible avec tout
+     * ce que l observateur sait. La pile d annulation est videe.</p>
+     *
+     * @param observer        l indice du joueur observateur
+     * @param hiddenJestCards masque des cartes des Jests adverses inconnues de l observateur
+     * @param cards           les cartes a placer
+     */
+    public void assignUnknown(int observer, long hiddenJestCards, byte[] cards) {
+        int k = 0;
+        for (int i = 0; i < deck.size(); i++) {
+            deck.set(i, cards[k++]);
+        }
+        for (int p = 0; p < playerCount; p++) {
+            if (p == observer) continue;
+            int size = hands[p].size();
+            hands[p].clear();
+            for (int i = 0; i < size; i++) {
+                hands[p].add(cards[k++]);
+            }
+            if (offers[p].getFaceDown() != CardCodec.NONE) {
+                offers[p].set(offers[p].getFaceUp(), cards[k++]);
+            }
+            int hidden = Long.bitCount(jests[p] & hiddenJestCards);
+            jests[p] &= ~hiddenJestCards;
+            for (int i = 0; i < hidden; i++) {
+                jests[p] |= 1L << cards[k++];
+            }
+        }
+        hash = computeHash();
+        depth = 0;
+    }
+
+    /**
+     * Calcule le masque des cartes des Jests adverses qu un joueur n a pas vues.
+     *
+     * <p>Une carte prise cachee n est connue que du joueur qui l a prise et
+     * du proprietaire de l offre d ou elle vient.</p>
+     *
+     * @param game     la partie
+     * @param observer le joueur observateur
+     * @return le masque des cartes inconnues
+     */
+    public static long hiddenJestCards(Game game, Player observer) {
+        long mask = 0L;
+        for (Player player : game.getPlayers()) {
+            if (player == observer) continue;
+            for (Card card : player.getJest().getCards()) {
+                int id = CardCodec.idOf(card);
+                if (id != CardCodec.NONE && card.wasTakenHidden() && card.getLastOfferOwner() != observer) {
+                    mask |= 1L << id;
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Ecrit les actions legales de la position.
+     *
+     * @param out tableau recevant les actions (au moins MAX_ACTIONS cases)
+     * @return le nombre d actions legales
+     * @see LegalMoves
+     */
+    public int legalActions(int[] out) {
+        switch (phase) {
+            case PHASE_DEAL:
+                out[0] = CompactAction.DEAL;
+                return 1;
+            case PHASE_OFFER:
+                return LegalMoves.offers(hands[current].get(0), hands[current].get(1), out);
+            case PHASE_TAKE: {
+                int complete = 0;
+                for (int o = 0; o < playerCount; o++) {
+                    if (offers[o].isComplete()) complete |= 1 << o;
+                }
+                return LegalMoves.takes(turnOrder[current], playerCount, complete, out);
+            }
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Joue une action legale et l empile pour {@link #undo()}.
+     *
+     * @param action l action (voir {@link CompactAction})
+     * @throws IllegalStateException si la pile d annulation est pleine
+     */
+    public void apply(int action) {
+        if (depth == MAX_DEPTH) {
+            throw new IllegalStateException("Pile d annulation pleine");
+        }
+        int frame = depth++ * FRAME;
+        undoStack[frame] = action | (long) phase << 12 | (long) current << 14 | (long) round << 17;
+        undoStack[frame + FRAME - 1] = hash;
+
+        switch (CompactAction.type(action)) {
+            case CompactAction.TYPE_OFFER: {
+                CompactHand hand = hands[current];
+                undoStack[frame + 1] = hand.get(0) | hand.get(1) << 8;
+                int hidden = CompactAction.hiddenCard(action);
+                int shown = hand.get(0) == hidden ? hand.get(1) : hand.get(0);
+                offers[current].set(shown, hidden);
+                hand.clear();
+                hash ^= Zobrist.card(Zobrist.hand(current), shown) ^ Zobrist.card(Zobrist.hand(current), hidden)
+                        ^ Zobrist.card(Zobrist.faceUp(current), shown) ^ Zobrist.card(Zobrist.faceDown(current), hidden);
+                if (++current == playerCount) {
+                    // L ordre et les prises du tour precedent seront necessaires pour y revenir
+                    undoStack[frame + 2] = packRound();
+                    computeTurnOrder();
+                    phase = PHASE_TAKE;
+                    current = 0;
+                    hash ^= Zobrist.phase(PHASE_OFFER) ^ Zobrist.phase(PHASE_TAKE);
+                    for (int t = 0; t < playerCount; t++) {
+                        hash ^= Zobrist.turn(t, turnOrder[t]);
+                    }
+                }
+                break;
+            }
+            case CompactAction.TYPE_TAKE: {
+                int player = turnOrder[current];
+                int owner = CompactAction.owner(action);
+                int card = CompactAction.isHidden(action) ? offers[owner].takeFaceDown() : offers[owner].takeFaceUp();
+                undoStack[frame + 1] = card;
+                jests[player] |= 1L << card;
+                takenFrom[current] = owner;
+                hash ^= Zobrist.card(CompactAction.isHidden(action) ? Zobrist.faceDown(owner) : Zobrist.faceUp(owner), card)
+                        ^ Zobrist.card(Zobrist.jest(player), card) ^ Zobrist.turn(current, player);
+                if (++current == playerCount) {
+                    endRound();
+                }
+                break;
+            }
+            case CompactAction.TYPE_DEAL:
+                saveBeforeDeal(frame);
+                deal();
+                hash = computeHash();
+                break;
+            default:
+                depth--;
+                throw new IllegalArgumentException("Action inconnue : " + action);
+        }
+    }
+
+    /**
+     * Annule la derniere action jouee.
+     *
+     * @return l action annulee
+     * @throws IllegalStateException si aucune action n est a annuler
+     */
+    public int undo() {
+        if (depth == 0) {
+            throw new IllegalStateException("Aucune action a annuler");
+        }
+        int frame = --depth * FRAME;
+        long header = undoStack[frame];
+        int action = (int) (header & 0x3FF);
+        int previousPhase = (int) (header >>> 12) & 0x3;
+        int previousCurrent = (int) (header >>> 14) & 0x7;
+
+        switch (CompactAction.type(action)) {
+            case CompactAction.TYPE_OFFER: {
+                long cards = undoStack[frame + 1];
+                CompactHand hand = hands[previousCurrent];
+                hand.clear();
+                hand.add((byte) cards);
+                hand.add((byte) (cards >>> 8));
+                offers[previousCurrent].clear();
+                if (phase == PHASE_TAKE) {
+                    unpackRound(undoStack[frame + 2]);
+                }
+                break;
+            }
+            case CompactAction.TYPE_TAKE: {
+                if (phase != PHASE_TAKE) {
+                    // Le tour s etait termine avec cette prise
+                    if (phase == PHASE_OVER) {
+                        for (int p = 0; p < playerCount; p++) {
+                            int remaining = offers[p].getRemaining();
+                            if (remaining != CardCodec.NONE) {
+                                jests[p] &= ~(1L << remaining);
+                            }
+                        }
+                    }
+                    carry.clear();
+                }
+                int card = (int) undoStack[frame + 1];
+                int owner = CompactAction.owner(action);
+                CompactOffer offer = offers[owner];
+                if (CompactAction.isHidden(action)) {
+                    offer.set(offer.getFaceUp(), card);
+                } else {
+                    offer.set(card, offer.getFaceDown());
+                }
+                jests[turnOrder[previousCurrent]] &= ~(1L << card);
+                break;
+            }
+            default:
+                restoreBeforeDeal(frame);
+                break;
+        }
+
+        phase = previousPhase;
+        current = previousCurrent;
+        round = (int) (header >>> 17) & 0xFF;
+        hash = undoStack[frame + FRAME - 1];
+        return action;
+    }
+
+    /**
+     * Retourne le nombre d actions pouvant etre annulees.
+     *
+     * @return la profondeur de la pile d annulation
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Retourne la cle de Zobrist de la position.
+     *
+     * <p>Deux positions de meme cle ont les memes cartes aux memes
+     * emplacements, la meme phase et les memes joueurs restant a prendre ;
+     * l ordre du deck et le flux aleatoire ne sont pas codes.</p>
+     *
+     * @return la cle de la position
+     * @see Zobrist
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Calcule la cle de la position a partir de ses tableaux.
+     */
+    private long computeHash() {
+        long h = Zobrist.phase(phase)
+                ^ Zobrist.mask(Zobrist.DECK, deck.mask())
+                ^ Zobrist.mask(Zobrist.CARRY, carry.mask());
+        for (int p = 0; p < playerCount; p++) {
+            h ^= Zobrist.mask(Zobrist.jest(p), jests[p])
+                    ^ Zobrist.mask(Zobrist.hand(p), hands[p].mask())
+                    ^ Zobrist.card(Zobrist.faceUp(p), offers[p].getFaceUp())
+                    ^ Zobrist.card(Zobrist.faceDown(p), offers[p].getFaceDown());
+        }
+        if (phase == PHASE_TAKE) {
+            for (int t = current; t < playerCount; t++) {
+                h ^= Zobrist.turn(t, turnOrder[t]);
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Regroupe l ordre de prise et les offres entamees du tour sur un mot.
+     */
+    private long packRound() {
+        long packed = 0L;
+        for (int k = 0; k < playerCount; k++) {
+            packed |= (long) turnOrder[k] << (8 * k) | (long) takenFrom[k] << (8 * k + 32);
+        }
+        return packed;
+    }
+
+    /**
+     * Restaure l ordre de prise et les offres entamees du tour.
+     */
+    private void unpackRound(long packed) {
+        for (int k = 0; k < playerCount; k++) {
+            turnOrder[k] = (int) (packed >>> (8 * k)) & 0xFF;
+            takenFrom[k] = (int) (packed >>> (8 * k + 32)) & 0xFF;
+        }
+    }
+
+    /**
+     * Sauvegarde les offres, les cartes reportees et le flux aleatoire avant une distribution.
+     */
+    private void saveBeforeDeal(int frame) {
+        long packedOffers = 0L;
+        for (int p = 0; p < playerCount; p++) {
+            packedOffers |= (long) (offers[p].getFaceUp() & 0xFF) << (16 * p)
+                    | (long) (offers[p].getFaceDown() & 0xFF) << (16 * p + 8);
+        }
+        long packedCarry = 0L;
+        for (int i = 0; i < carry.size(); i++) {
+            packedCarry |= (long) carry.get(i) << (8 * i);
+        }
+        int needed = 2 * playerCount;
+        int drawn = Math.min(Math.max(0, needed - carry.size()), deck.size());
+
+        undoStack[frame + 1] = packedOffers;
+        undoStack[frame + 2] = packedCarry;
+        undoStack[frame + 3] = carry.size() | drawn << 8;
+        undoStack[frame + 4] = random.getState0();
+        undoStack[frame + 5] = random.getState1();
+    }
+
+    /**
+     * Restaure la position d avant une distribution.
+     */
+    private void restoreBeforeDeal(int frame) {
+        long packedOffers = undoStack[frame + 1];
+        for (int p = 0; p < playerCount; p++) {
+            hands[p].clear();
+            offers[p].set((byte) (packedOffers >>> (16 * p)), (byte) (packedOffers >>> (16 * p + 8)));
+        }
+        long packedCarry = undoStack[frame + 2];
+        int sizes = (int) undoStack[frame + 3];
+        carry.clear();
+        for (int i = 0; i < (sizes & 0xFF); i++) {
+            carry.add((byte) (packedCarry >>> (8 * i)));
+        }
+        for (int i = 0; i < sizes >>> 8; i++) {
+            deck.undraw();
+        }
+        random.setState(undoStack[frame + 4], undoStack[frame + 5]);
+    }
+
+    /**
+     * Indique si le tour en cours est le dernier de la partie.
+     *
+     * <p>Le deck ne peut plus fournir de quoi completer les cartes
+     * reportees : la partie s arretera a la fin de ce tour, sans nouvelle
+     * distribution.</p>
+     *
+     * @return true pendant les offres ou les prises du dernier tour
+     */
+    public boolean isFinalRound() {
+        return (phase == PHASE_OFFER || phase == PHASE_TAKE) && deck.size() < playerCount;
+    }
+
+    /**
+     * Joue des actions aleatoires jusqu a la fin de la partie.
+     *
+     * @param rng le generateur
+     */
+    public void playRandom(RandomGenerator rng) {
+        while (phase != PHASE_OVER) {
+            int count = legalActions(actions);
+            apply(actions[count == 1 ? 0 : rng.nextInt(count)]);
+        }
+    }
+
+    /**
+     * Ordre de prise : carte visible de plus forte priorite en premier.
+     */
+    private void computeTurnOrder() {
+        for (int p = 0; p < playerCount; p++) {
+            int priority = CardCodec.priority(offers[p].getFaceUp());
+            int t = p;
+            while (t > 0 && CardCodec.priority(offers[turnOrder[t - 1]].getFaceUp()) < priority) {
+                turnOrder[t] = turnOrder[t - 1];
+                t--;
+            }
+            turnOrder[t] = p;
+        }
+    }
+
+    /**
+     * Termine un tour : reporte les cartes restantes et detecte la fin de partie.
+     */
+    private void endRound() {
+        carry.clear();
+        for (int k = 0; k < playerCount; k++) {
+            int remaining = offers[takenFrom[k]].getRemaining();
+            carry.add(remaining);
+            hash ^= Zobrist.card(Zobrist.CARRY, remaining);
+        }
+        round++;
+        current = 0;
+        if (deck.size() + carry.size() < 2 * playerCount) {
+            phase = PHASE_OVER;
+            for (int p = 0; p < playerCount; p++) {
+                int remaining = offers[p].getRemaining();
+                if (remaining != CardCodec.NONE) {
+                    jests[p] |= 1L << remaining;
+                    hash ^= Zobrist.card(Zobrist.jest(p), remaining);
+                }
+            }
+        } else {
+            phase = PHASE_DEAL;
+        }
+        hash ^= Zobrist.phase(PHASE_TAKE) ^ Zobrist.phase(phase);
+    }
+
+    /**
+     * Distribue un tour (meme algorithme que {@link Game#dealRound()}).
+     */
+    private void deal() {
+        int needed = 2 * playerCount;
+        int count = 0;
+        for (int i = 0; i < carry.size(); i++) {
+            pool[count++] = (byte) carry.get(i);
+        }
+        carry.clear();
+        while (count < needed && !deck.isEmpty()) {
+            pool[count++] = (byte) deck.draw();
+        }
+
+        shufflePool(count, random);
+
+        for (int p = 0; p < playerCount; p++) {
+            hands[p].clear();
+            hands[p].add(pool[2 * p]);
+            hands[p].add(pool[2 * p + 1]);
+            offers[p].clear();
+        }
+        phase = PHASE_OFFER;
+        current = 0;
+    }
+
+    /**
+     * Melange le debut du tampon (meme parcours que {@link GameRandom#shuffle}).
+     */
+    private void shufflePool(int count, RandomGenerator rng) {
+        for (int i = count - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            byte tmp = pool[i];
+            pool[i] = pool[j];
+            pool[j] = tmp;
+        }
+    }
+
+    /**
+     * Retourne le score d un joueur.
+     *
+     * @param player l indice du joueur
+     * @return le score de son Jest
+     */
+    public int score(int player) {
+        return scorer.score(jests[player]);
+    }
+
+    /**
+     * Retourne le gagnant : premier joueur de score maximal.
+     *
+     * @return l indice du gagnant
+     */
+    public int winner() {
+        int best = 0;
+        int bestScore = score(0);
+        for (int p = 1; p < playerCount; p++) {
+            int s = score(p);
+            if (s > bestScore) {
+                best = p;
+                bestScore = s;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Retourne le joueur qui doit jouer.
+     *
+     * @return l indice du joueur, ou -1 en phase de distribution ou de fin
+     */
+    public int getCurrentPlayer() {
+        switch (phase) {
+            case PHASE_OFFER: return current;
+            case PHASE_TAKE: return turnOrder[current];
+            default: return -1;
+        }
+    }
+
+    /**
+     * Retourne le joueur qui prend a un rang donne du tour.
+     *
+     * @param position le rang de prise (0 = premier)
+     * @return l indice du joueur (significatif en phase de prise)
+     */
+    public int getTurnOrder(int position) {
+        return turnOrder[position];
+    }
+
+    /**
+     * Retourne le nombre de decisions deja prises dans la phase courante.
+     *
+     * @return le nombre d offres faites ou de cartes prises
+     */
+    public int getPhaseProgress() {
+        return current;
+    }
+
+    /**
+     * Retourne la phase courante.
+     *
+     * @return PHASE_DEAL, PHASE_OFFER, PHASE_TAKE ou PHASE_OVER
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Indique si la partie est terminee.
+     *
+     * @return true en phase de fin
+     */
+    public boolean isOver() {
+        return phase == PHASE_OVER;
+    }
+
+    /**
+     * Retourne le numero du tour.
+     *
+     * @return le tour courant
+     */
+    public int getRound() {
+        return round;
+    }
+
+    /**
+     * Retourne le nombre de joueurs.
+     *
+     * @return le nombre de joueurs
+     */
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Retourne le masque du Jest d un joueur.
+     *
+     * @param player l indice du joueur
+     * @return le masque des cartes du Jest
+     */
+    public long getJestMask(int player) {
+        return jests[player];
+    }
+
+    /**
+     * Retourne la main d un joueur.
+     *
+     * @param player l indice du joueur
+     * @return la main (vide apres l offre)
+     */
+    public CompactHand getHand(int player) {
+        return hands[player];
+    }
+
+    /**
+     * Retourne l offre d un joueur.
+     *
+     * @param player l indice du joueur
+     * @return l offre du tour courant
+     */
+    public CompactOffer getOffer(int player) {
+        return offers[player];
+    }
+
+    /**
+     * Retourne le deck.
+     *
+     * @return les cartes restant a distribuer
+     */
+    public CompactDeck getDeck() {
+        return deck;
+    }
+
+    /**
+     * Retourne les cartes reportees au tour suivant.
+     *
+     * @return les cartes reportees (vide pendant un tour)
+     */
+    public CardList getCarry() {
+        return carry;
+    }
+
+    /**
+     * Retourne une representation textuelle de la position.
+     *
+     * @return description de la position
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Tour ").append(round).append(", phase ").append(phase);
+        for (int p = 0; p < playerCount; p++) {
+            sb.append(System.lineSeparator()).append("  J").append(p)
+              .append(" main ").append(hands[p])
+              .append(" offre ").append(offers[p])
+              .append(" jest ").append(new BitJest(jests[p]));
+        }
+        return sb.toString();
+    }
+}
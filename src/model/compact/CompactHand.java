@@ -0,0 +1,36 @@
+package model.compact;
+
+import model.Player;
+
+/**
+ * Main d un joueur en representation compacte.
+ * 
+ * <p>Equivalent primitif de {@link Player#getHand()} : la main ne
+ * contient jamais plus de deux cartes pendant un tour.</p>
+ * 
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see CardList
+ */
+public class CompactHand extends CardList {
+
+    /** Nombre de cartes recues a chaque tour. */
+    public static final int CAPACITY = 2;
+
+    /**
+     * Constructeur d une main vide.
+     */
+    public CompactHand() {
+        super(CAPACITY);
+    }
+
+    /**
+     * Remplace la main par celle d un joueur du modele.
+     * 
+     * @param player le joueur
+     */
+    public void load(Player player) {
+        load(player.getHand());
+    }
+}
@@ -0,0 +1,158 @@
+package model.compact;
+
+import model.Offer;
+
+/**
+ * Offre d un joueur en representation compacte.
+ * 
+ * <p>Equivalent primitif de {@link Offer} : deux identifiants de cartes
+ * (visible et cachee) et l indice du joueur proprietaire.</p>
+ * 
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see CardCodec
+ */
+public class CompactOffer {
+
+    private byte faceUp = CardCodec.NONE;
+    private byte faceDown = CardCodec.NONE;
+    private int owner;
+
+    /**
+     * Constructeur d une offre vide.
+     * 
+     * @param owner l indice du joueur proprietaire
+     */
+    public CompactOffer(int owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Definit les deux cartes de l offre.
+     * 
+     * @param up   la carte visible
+     * @param down la carte cachee
+     */
+    public void set(int up, int down) {
+        faceUp = (byte) up;
+        faceDown = (byte) down;
+    }
+
+    /**
+     * Remplace l offre par une offre du modele.
+     * 
+     * @param offer l offre du modele
+     * @param owner l indice de son proprietaire
+     */
+    public void load(Offer offer, int owner) {
+        this.owner = owner;
+        set(CardCodec.idOf(offer.getFaceUp()), CardCodec.idOf(offer.getFaceDown()));
+    }
+
+    /**
+     * Retourne l indice du proprietaire.
+     * 
+     * @return l indice du joueur
+     */
+    public int getOwner() {
+        return owner;
+    }
+
+    /**
+     * Retourne la carte visible.
+     * 
+     * @return l identifiant, ou NONE
+     */
+    public int getFaceUp() {
+        return faceUp;
+    }
+
+    /**
+     * Retourne la carte cachee.
+     * 
+     * @return l identifiant, ou NONE
+     */
+    public int getFaceDown() {
+        return faceDown;
+    }
+
+    /**
+     * Verifie si l offre est complete.
+     * 
+     * @return true si les deux cartes sont presentes
+     */
+    public boolean isComplete() {
+        return faceUp != CardCodec.NONE && faceDown != CardCodec.NONE;
+    }
+
+    /**
+     * Verifie si l offre contient une carte.
+     * 
+     * @param id l identifiant
+     * @return true si la carte est dans l offre
+     */
+    public boolean contains(int id) {
+        return id != CardCodec.NONE && (id == faceUp || id == faceDown);
+    }
+
+    /**
+     * Prend et retire la carte visible.
+     * 
+     * @return l identifiant de la carte prise
+     */
+    public int takeFaceUp() {
+        int id = faceUp;
+        faceUp = CardCodec.NONE;
+        return id;
+    }
+
+    /**
+     * Prend et retire la carte cachee.
+     * 
+     * @return l identifiant de la carte prise
+     */
+    public int takeFaceDown() {
+        int id = faceDown;
+        faceDown = CardCodec.NONE;
+        return id;
+    }
+
+    /**
+     * Retourne la carte restante apres une prise.
+     * 
+     * @return l identifiant de la carte restante, ou NONE
+     */
+    public int getRemaining() {
+        return faceUp != CardCodec.NONE ? faceUp : faceDown;
+    }
+
+    /**
+     * Vide l offre.
+     */
+    public void clear() {
+        faceUp = CardCodec.NONE;
+        faceDown = CardCodec.NONE;
+    }
+
+    /**
+     * Copie une autre offre.
+     * 
+     * @param other l offre source
+     */
+    public void copyFrom(CompactOffer other) {
+        faceUp = other.faceUp;
+        faceDown = other.faceDown;
+        owner = other.owner;
+    }
+
+    /**
+     * Retourne une representation textuelle de l offre.
+     * 
+     * @return description de l offre
+     */
+    @Override
+    public String toString() {
+        return "[Visible: " + CardCodec.toString(faceUp) + ", Cachee: " + (faceDown != CardCodec.NONE ? "X" : "?") + "]";
+    }
+}
@@ -0,0 +1,198 @@
+package model.compact;
+
+import model.*;
+import java.util.List;
+
+/**
+ * Generateur des actions legales, commun au moteur et aux IA.
+ *
+ * <p>Les regles de legalite sont ecrites une seule fois, sur des entiers,
+ * et servent aussi bien au modele compact ({@link CompactGame}) qu a une
+ * partie du modele ({@link Game}) : le moteur, les strategies de
+ * recherche et les solveurs s appuient donc sur la meme definition.
+ * Les actions sont ecrites dans un tableau fourni par l appelant
+ * (au moins {@link CompactAction#MAX_ACTIONS} cases) : aucune allocation.</p>
+ *
+ * <p>A l inverse, {@link #toOffer} et {@link #take} jouent une action dans
+ * une partie du modele : le moteur a etats et les strategies de recherche
+ * decodent ainsi leurs decisions de la meme facon.</p>
+ *
+ * <h2>Regles :</h2>
+ * <ul>
+ *   <li>Offre : le joueur cache l une ou l autre des deux cartes de sa main</li>
+ *   <li>Prise : carte visible ou cachee de toute offre complete d un autre
+ *       joueur ; a defaut, carte visible ou cachee de sa propre offre</li>
+ * </ul>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see CompactAction
+ */
+public final class LegalMoves {
+
+    private LegalMoves() {
+    }
+
+    /**
+     * Ecrit les actions legales d une position compacte.
+     *
+     * @param game la position
+     * @param out  tableau recevant les actions
+     * @return le nombre d actions legales (0 en fin de partie)
+     */
+    public static int generate(CompactGame game, int[] out) {
+        return game.legalActions(out);
+    }
+
+    /**
+     * Ecrit les offres possibles a partir d une main de deux cartes.
+     *
+     * @param card0 l identifiant de la premiere carte
+     * @param card1 l identifiant de la seconde carte
+     * @param out   tableau recevant les actions
+     * @return le nombre d offres (2)
+     */
+    public static int offers(int card0, int card1, int[] out) {
+        out[0] = CompactAction.offer(card0);
+        out[1] = CompactAction.offer(card1);
+        return 2;
+    }
+
+    /**
+     * Ecrit les offres possibles a partir de la main d un joueur du modele.
+     *
+     * @param hand la main (deux cartes)
+     * @param out  tableau recevant les actions
+     * @return le nombre d offres (2)
+     */
+    public static int offers(List<Card> hand, int[] out) {
+        return offers(CardCodec.idOf(hand.get(0)), CardCodec.idOf(hand.get(1)), out);
+    }
+
+    /**
+     * Ecrit les prises legales d un joueur.
+     *
+     * @param player         l indice du joueur qui prend
+     * @param playerCount    le nombre de joueurs
+     * @param completeOffers masque des proprietaires dont l offre est complete (bit = indice)
+     * @param out            tableau recevant les actions
+     * @return le nombre de prises legales
+     */
+    public static int takes(int player, int playerCount, int completeOffers, int[] out) {
+        int count = 0;
+        for (int owner = 0; owner < playerCount; owner++) {
+            if (owner != player && (completeOffers & (1 << owner)) != 0) {
+                out[count++] = CompactAction.take(owner, false);
+                out[count++] = CompactAction.take(owner, true);
+            }
+        }
+        if (count == 0 && (completeOffers & (1 << player)) != 0) {
+            out[count++] = CompactAction.take(player, false);
+            out[count++] = CompactAction.take(player, true);
+        }
+        return count;
+    }
+
+    /**
+     * Ecrit les prises legales d un joueur dans une partie du modele.
+     *
+     * @param game   la partie (offres du tour publiees par le moteur)
+     * @param player le joueur qui prend
+     * @param out    tableau recevant les actions
+     * @return le nombre de prises legales
+     */
+    public static int takes(Game game, Player player, int[] out) {
+        List<Player> players = game.getPlayers();
+        List<Offer> offers = game.getCurrentOffers();
+        int complete = 0;
+        for (int i = 0; i < offers.size(); i++) {
+            Offer offer = offers.get(i);
+            if (offer.isComplete()) {
+                complete |= 1 << players.indexOf(offer.getOwner());
+            }
+        }
+        return takes(players.indexOf(player), players.size(), complete, out);
+    }
+
+    /**
+     * Retourne l offre visee par une prise dans une partie du modele.
+     *
+     * @param game   la partie
+     * @param action une action TAKE
+     * @return l offre du proprietaire designe, ou null
+     */
+    public static Offer offerOf(Game game, int action) {
+        Player owner = game.getPlayers().get(CompactAction.owner(action));
+        List<Offer> offers = game.getCurrentOffers();
+        for (int i = 0; i < offers.size(); i++) {
+            if (offers.get(i).getOwner() == owner) {
+                return offers.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Cree l offre decrite par une action OFFER : la carte designee est cachee.
+     *
+     * @param player le joueur qui fait l offre
+     * @param hand   sa main de deux cartes
+     * @param action une action, ou {@link CompactAction#NONE}
+     * @return l offre, ou null si l action n est pas une offre de cette main
+     */
+    public static Offer toOffer(Player player, List<Card> hand, int action) {
+        if (action == CompactAction.NONE || CompactAction.type(action) != CompactAction.TYPE_OFFER) {
+            return null;
+        }
+        int hiddenId = CompactAction.hiddenCard(action);
+        int hiddenIndex = CardCodec.idOf(hand.get(0)) == hiddenId ? 0
+                : CardCodec.idOf(hand.get(1)) == hiddenId ? 1 : -1;
+        if (hiddenIndex < 0) {
+            return null;
+        }
+        Offer offer = new Offer(player);
+        offer.setFaceDown(hand.get(hiddenIndex));
+        offer.setFaceUp(hand.get(1 - hiddenIndex));
+        return offer;
+    }
+
+    /**
+     * Joue une action TAKE dans une partie du modele : la carte designee
+     * est retiree de son offre, l autre part dans le pool du tour suivant.
+     *
+     * @param game   la partie
+     * @param offers les offres ou le joueur peut prendre
+     * @param action une action, ou {@link CompactAction#NONE}
+     * @return la carte prise, ou null si l action ne vise aucune de ces offres
+     */
+    public static Card take(Game game, List<Offer> offers, int action) {
+        if (action == CompactAction.NONE || CompactAction.type(action) != CompactAction.TYPE_TAKE) {
+            return null;
+        }
+        Offer offer = offerOf(game, action);
+        if (offer == null || !offers.contains(offer)) {
+            return null;
+        }
+        boolean hidden = CompactAction.isHidden(action);
+        Card unchosen = offer.getUnchosen(hidden ? offer.getFaceDown() : offer.getFaceUp());
+        Card result = hidden ? offer.takeFaceDown() : offer.takeFaceUp();
+        game.addCarryOverCard(unchosen);
+        return result;
+    }
+
+    /**
+     * Verifie qu une action figure parmi des actions legales.
+     *
+     * @param action  l action
+     * @param actions les actions legales
+     * @param count   leur nombre
+     * @return true si l action est legale
+     */
+    public static boolean contains(int action, int[] actions, int count) {
+        for (int i = 0; i < count; i++) {
+            if (actions[i] == action) return true;
+        }
+        return false;
+    }
+}
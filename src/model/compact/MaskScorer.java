@@ -0,0 +1,74 @@
+package model.compact;
+
+import model.RuleSet;
+
+/**
+ * Calcul du score d un Jest represente par un masque de bits.
+ * 
+ * <p>Equivalent binaire des {@link model.ScoreVisitor} : chaque regle
+ * fournit un calcul donnant exactement le meme score que son visiteur,
+ * mais en quelques operations de masque et {@link Long#bitCount(long)}.</p>
+ * 
+ * <h2>Implementations disponibles :</h2>
+ * <ul>
+ *   <li>{@link #RULE1} - Regles officielles (aussi utilisees par Rule2)</li>
+ *   <li>{@link #RULE3} - Couleurs inversees</li>
+ * </ul>
+ * 
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see BitJest
+ * @see RuleSet#maskScorer()
+ */
+@FunctionalInterface
+public interface MaskScorer {
+
+    /**
+     * Regles officielles : Piques/Trefles positifs, Carreaux negatifs,
+     * paires noires, As isole et Joker selon les Coeurs.
+     */
+    MaskScorer RULE1 = mask -> {
+        int spades = BitJest.suitBits(mask, 0);
+        int clubs = BitJest.suitBits(mask, 1);
+        int diamonds = BitJest.suitBits(mask, 2);
+        int hearts = BitJest.suitBits(mask, 3);
+
+        int total = BitJest.byteValue(spades) + BitJest.byteValue(clubs) - BitJest.byteValue(diamonds);
+
+        // Paires noires : meme rang en Piques et en Trefles
+        total += 2 * Integer.bitCount(spades & clubs);
+
+        // As isole : l octet de la couleur ne contient que l As
+        if (spades == 1) total += 4;
+        if (clubs == 1) total += 4;
+        if (diamonds == 1) total += 4;
+        if (hearts == 1) total += 4;
+
+        if (BitJest.hasJoker(mask)) {
+            int count = Integer.bitCount(hearts);
+            if (count == 0) {
+                total += 4;
+            } else if (count == 4) {
+                total += BitJest.byteValue(hearts);
+            } else {
+                total -= BitJest.byteValue(hearts);
+            }
+        }
+        return total;
+    };
+
+    /**
+     * Couleurs inversees : Coeurs/Carreaux positifs, Piques nuls, Trefles negatifs.
+     */
+    MaskScorer RULE3 = mask -> BitJest.suitValue(mask, 3) + BitJest.suitValue(mask, 2)
+            - BitJest.suitValue(mask, 1);
+
+    /**
+     * Calcule le score d un Jest.
+     * 
+     * @param mask le masque des cartes du Jest
+     * @return le score, identique a celui du visiteur de la regle
+     */
+    int score(long mask);
+}
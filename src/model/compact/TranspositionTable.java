@@ -0,0 +1,236 @@
+package model.compact;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Table de transposition de taille fixe, partageable entre threads.
+ *
+ * <p>La table associe a une cle de position ({@link CompactGame#getHash()},
+ * eventuellement combinee avec {@link Zobrist#observer(int)}) une valeur de
+ * recherche : valeur, nature de la borne, profondeur restante et meilleure
+ * action. Elle ne prend aucun verrou : chaque entree tient sur deux mots,
+ * la donnee et la cle combinee par ou exclusif avec la donnee. Une lecture
+ * croisant une ecriture concurrente donne une cle incoherente et compte
+ * comme un echec, jamais comme un faux succes.</p>
+ *
+ * <h2>Remplacement :</h2>
+ * <ul>
+ *   <li>Chaque cle designe un seau de deux entrees</li>
+ *   <li>Une entree de meme cle est toujours mise a jour</li>
+ *   <li>La premiere entree garde le resultat le plus profond de la
+ *       recherche courante ; elle est remplacee par un resultat au moins
+ *       aussi profond ou si elle date d une recherche precedente</li>
+ *   <li>Sinon la seconde entree est remplacee sans condition</li>
+ * </ul>
+ *
+ * <p>Une table unique peut servir a toutes les strategies d une simulation
+ * ({@link #shared()}) : les valeurs ne sont valides que pour une meme cle,
+ * c est donc a la cle de distinguer les points de vue et les regles.</p>
+ *
+ * <h2>Partage entre recherches :</h2>
+ * <ul>
+ *   <li>La generation est commune a la table : chaque recherche l avance
+ *       une fois ({@link #newSearch()}, un increment atomique) au debut
+ *       d une decision</li>
+ *   <li>Les recherches concurrentes marquent leurs entrees de la
+ *       generation la plus recente ; une nouvelle recherche rend donc
+ *       remplacables les entrees de celles encore en cours, sans les
+ *       invalider</li>
+ * </ul>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see Zobrist
+ */
+public final class TranspositionTable {
+
+    /** Resultat d une consultation infructueuse. */
+    public static final long MISS = 0L;
+
+    /** Valeur exacte. */
+    public static final int EXACT = 1;
+
+    /** Borne inferieure (coupure beta). */
+    public static final int LOWER = 2;
+
+    /** Borne superieure (aucune action n a depasse alpha). */
+    public static final int UPPER = 3;
+
+    /** Taille de la table partagee (log2 du nombre d entrees, soit 4 Mo). */
+    public static final int SHARED_SIZE_BITS = 18;
+
+    private static final int BOUND_SHIFT = 32;
+    private static final int DEPTH_SHIFT = 34;
+    private static final int MOVE_SHIFT = 42;
+    private static final int GENERATION_SHIFT = 52;
+    private static final int NO_MOVE = 0x3FF;
+
+    private final AtomicLongArray slots;
+    private final int bucketMask;
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * Constructeur d une table de 2^sizeBits entrees.
+     *
+     * @param sizeBits log2 du nombre d entrees (entre 1 et 28)
+     * @throws IllegalArgumentException si la taille est hors limites
+     */
+    public TranspositionTable(int sizeBits) {
+        if (sizeBits < 1 || sizeBits > 28) {
+            throw new IllegalArgumentException("Taille de table invalide : " + sizeBits);
+        }
+        slots = new AtomicLongArray(2 << sizeBits);
+        bucketMask = (1 << (sizeBits - 1)) - 1;
+    }
+
+    /**
+     * Retourne la table partagee par les recherches de la machine virtuelle.
+     *
+     * @return la table partagee, creee au premier appel
+     */
+    public static TranspositionTable shared() {
+        return SharedHolder.TABLE;
+    }
+
+    /**
+     * Cherche une position.
+     *
+     * @param key la cle de la position
+     * @return la donnee stockee, ou {@link #MISS}
+     */
+    public long probe(long key) {
+        int first = 2 * ((int) key & bucketMask);
+        for (int e = first; e < first + 2; e++) {
+            long data = slots.getOpaque(2 * e + 1);
+            if (data != MISS && (slots.getOpaque(2 * e) ^ data) == key) {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Enregistre le resultat de la recherche d une position.
+     *
+     * @param key   la cle de la position
+     * @param value la valeur
+     * @param bound EXACT, LOWER ou UPPER
+     * @param depth la profondeur restante de la recherche (0 a 255)
+     * @param move  la meilleure action, ou {@link CompactAction#NONE}
+     */
+    public void store(long key, int value, int bound, int depth, int move) {
+        int current = generation.get() & 0xFF;
+        long data = (value & 0xFFFFFFFFL)
+                | (long) bound << BOUND_SHIFT
+                | (long) Math.min(depth, 0xFF) << DEPTH_SHIFT
+                | (long) (move == CompactAction.NONE ? NO_MOVE : move & NO_MOVE) << MOVE_SHIFT
+                | (long) current << GENERATION_SHIFT;
+
+        int first = 2 * ((int) key & bucketMask);
+        int second = first + 1;
+        long firstData = slots.getOpaque(2 * first + 1);
+        int target;
+        if (matches(first, key)) {
+            target = first;
+        } else if (matches(second, key)) {
+            target = second;
+        } else if (firstData == MISS || generation(firstData) != current || depth >= depth(firstData)) {
+            target = first;
+        } else {
+            target = second;
+        }
+        slots.setOpaque(2 * target, key ^ data);
+        slots.setOpaque(2 * target + 1, data);
+    }
+
+    /**
+     * Indique si une entree contient une cle.
+     */
+    private boolean matches(int entry, long key) {
+        long data = slots.getOpaque(2 * entry + 1);
+        return data != MISS && (slots.getOpaque(2 * entry) ^ data) == key;
+    }
+
+    /**
+     * Signale le debut d une nouvelle recherche : les entrees anciennes
+     * deviennent remplacables en priorite. Peut etre appelee par plusieurs
+     * threads a la fois.
+     */
+    public void newSearch() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Vide la table.
+     *
+     * <p>A n appeler que lorsqu aucune recherche ne l utilise.</p>
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.setOpaque(i, 0L);
+        }
+    }
+
+    /**
+     * Retourne le nombre d entrees.
+     *
+     * @return la capacite de la table
+     */
+    public int capacity() {
+        return slots.length() / 2;
+    }
+
+    /**
+     * Extrait la valeur d une donnee.
+     *
+     * @param data une donnee retournee par {@link #probe(long)}
+     * @return la valeur
+     */
+    public static int value(long data) {
+        return (int) data;
+    }
+
+    /**
+     * Extrait la nature de la borne d une donnee.
+     *
+     * @param data une donnee retournee par {@link #probe(long)}
+     * @return EXACT, LOWER ou UPPER
+     */
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    /**
+     * Extrait la profondeur restante d une donnee.
+     *
+     * @param data une donnee retournee par {@link #probe(long)}
+     * @return la profondeur
+     */
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    /**
+     * Extrait la meilleure action d une donnee.
+     *
+     * @param data une donnee retournee par {@link #probe(long)}
+     * @return l action, ou {@link CompactAction#NONE}
+     */
+    public static int move(long data) {
+        int move = (int) (data >>> MOVE_SHIFT) & NO_MOVE;
+        return move == NO_MOVE ? CompactAction.NONE : move;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & 0xFF;
+    }
+
+    /**
+     * Creation paresseuse de la table partagee.
+     */
+    private static final class SharedHolder {
+        static final TranspositionTable TABLE = new TranspositionTable(SHARED_SIZE_BITS);
+    }
+}
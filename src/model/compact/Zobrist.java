@@ -0,0 +1,182 @@
+package model.compact;
+
+import model.GameRandom;
+
+/**
+ * Cles de Zobrist des positions compactes.
+ *
+ * <p>Chaque couple (emplacement, carte) recoit une cle aleatoire de 64 bits ;
+ * la cle d une position est le ou exclusif des cles de toutes ses cartes.
+ * Deplacer une carte revient a deux ou exclusifs, ce qui permet a
+ * {@link CompactGame} de tenir sa cle a jour a chaque action
+ * ({@link CompactGame#getHash()}). Deux ordres de prise menant a la meme
+ * position donnent la meme cle.</p>
+ *
+ * <h2>Emplacements :</h2>
+ * <ul>
+ *   <li>Deck et cartes reportees (ensembles : l ordre n est pas code)</li>
+ *   <li>Jest, main, carte visible et carte cachee de l offre de chaque joueur</li>
+ * </ul>
+ *
+ * <p>La cle code aussi la phase et, pendant les prises, les joueurs
+ * restant a prendre dans leur ordre : la carte visible d une offre entamee
+ * a pu rejoindre n importe quel Jest, l ordre de prise ne se deduit donc
+ * plus des cartes. Le flux aleatoire des distributions n est pas code :
+ * une distribution est un evenement de hasard pour une recherche.</p>
+ *
+ * <p>Les cles sont tirees d une graine fixe : elles sont identiques d une
+ * execution a l autre et partagees par tous les threads.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see TranspositionTable
+ */
+public final class Zobrist {
+
+    /** Emplacement : deck. */
+    public static final int DECK = 0;
+
+    /** Emplacement : cartes reportees. */
+    public static final int CARRY = 1;
+
+    private static final int JEST = 2;
+    private static final int HAND = JEST + CompactGame.MAX_PLAYERS;
+    private static final int FACE_UP = HAND + CompactGame.MAX_PLAYERS;
+    private static final int FACE_DOWN = FACE_UP + CompactGame.MAX_PLAYERS;
+    private static final int LOCATIONS = FACE_DOWN + CompactGame.MAX_PLAYERS;
+
+    /** Masque des identifiants de cartes valides. */
+    private static final long ALL_CARDS = (1L << CardCodec.CARD_COUNT) - 1;
+
+    /**
+     * Largeur d une ligne de la table : 64 colonnes dont seules les
+     * CARD_COUNT premieres sont tirees. Les autres, dont celle ou tombe
+     * NONE une fois masque, valent 0 : la consultation se fait sans test.
+     */
+    private static final int ROW_BITS = 6;
+
+    /** Graine des cles. */
+    private static final long SEED = 0x4A455354L;
+
+    private static final long[] CARDS = new long[LOCATIONS << ROW_BITS];
+    private static final long[] TURNS = new long[CompactGame.MAX_PLAYERS * CompactGame.MAX_PLAYERS];
+    private static final long[] PHASES = new long[4];
+    private static final long[] OBSERVERS = new long[CompactGame.MAX_PLAYERS];
+
+    static {
+        GameRandom random = new GameRandom(SEED);
+        for (int location = 0; location < LOCATIONS; location++) {
+            for (int id = 0; id < CardCodec.CARD_COUNT; id++) {
+                CARDS[location << ROW_BITS | id] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < TURNS.length; i++) TURNS[i] = random.nextLong();
+        for (int i = 0; i < PHASES.length; i++) PHASES[i] = random.nextLong();
+        for (int i = 0; i < OBSERVERS.length; i++) OBSERVERS[i] = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Emplacement du Jest d un joueur.
+     *
+     * @param player l indice du joueur
+     * @return l emplacement
+     */
+    public static int jest(int player) {
+        return JEST + player;
+    }
+
+    /**
+     * Emplacement de la main d un joueur.
+     *
+     * @param player l indice du joueur
+     * @return l emplacement
+     */
+    public static int hand(int player) {
+        return HAND + player;
+    }
+
+    /**
+     * Emplacement de la carte visible de l offre d un joueur.
+     *
+     * @param player l indice du proprietaire
+     * @return l emplacement
+     */
+    public static int faceUp(int player) {
+        return FACE_UP + player;
+    }
+
+    /**
+     * Emplacement de la carte cachee de l offre d un joueur.
+     *
+     * @param player l indice du proprietaire
+     * @return l emplacement
+     */
+    public static int faceDown(int player) {
+        return FACE_DOWN + player;
+    }
+
+    /**
+     * Retourne la cle d une carte dans un emplacement.
+     *
+     * @param location l emplacement
+     * @param id       l identifiant de la carte
+     * @return la cle, 0 pour {@link CardCodec#NONE}
+     */
+    public static long card(int location, int id) {
+        return CARDS[location << ROW_BITS | (id & 63)];
+    }
+
+    /**
+     * Retourne la cle d un ensemble de cartes dans un emplacement.
+     *
+     * @param location l emplacement
+     * @param mask     le masque des cartes
+     * @return le ou exclusif des cles des cartes
+     */
+    public static long mask(int location, long mask) {
+        long key = 0L;
+        int base = location << ROW_BITS;
+        for (long bits = mask & ALL_CARDS; bits != 0; bits &= bits - 1) {
+            key ^= CARDS[base + Long.numberOfTrailingZeros(bits)];
+        }
+        return key;
+    }
+
+    /**
+     * Retourne la cle d un joueur restant a prendre a un rang du tour.
+     *
+     * @param position le rang de prise
+     * @param player   l indice du joueur
+     * @return la cle
+     */
+    public static long turn(int position, int player) {
+        return TURNS[position * CompactGame.MAX_PLAYERS + player];
+    }
+
+    /**
+     * Retourne la cle d une phase.
+     *
+     * @param phase la phase (voir {@link CompactGame#getPhase()})
+     * @return la cle
+     */
+    public static long phase(int phase) {
+        return PHASES[phase];
+    }
+
+    /**
+     * Retourne la cle du point de vue d un joueur.
+     *
+     * <p>Une recherche dont les valeurs dependent du joueur qui cherche
+     * l ajoute a la cle de position avant de consulter une table partagee.</p>
+     *
+     * @param player l indice du joueur
+     * @return la cle
+     */
+    public static long observer(int player) {
+        return OBSERVERS[player];
+    }
+}
@@ -1,6 +1,7 @@
 package model.rules;
 
 import model.*;
+import model.compact.MaskScorer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,6 +49,11 @@ public class Rule1 implements RuleSet {
         return playerCount == 4 ? 1 : 2;
     }
 
+    @Override
+    public MaskScorer maskScorer() {
+        return MaskScorer.RULE1;
+    }
+
     /**
      * Visitor pour le calcul du score selon les regles officielles.
      */
@@ -100,20 +106,7 @@ public class Rule1 implements RuleSet {
          * Calcule le bonus des paires noires (meme rang Pique+Trefle).
          */
         private int calculateBlackPairs(Jest jest) {
-            int bonus = 0;
-
-            for (Rank rank : new Rank[]{Rank.ACE, Rank.TWO, Rank.THREE, Rank.FOUR,
-                                        Rank.FIVE, Rank.SIX, Rank.SEVEN, Rank.EIGHT}) {
-                boolean hasSpade = jest.getCards().stream()
-                        .anyMatch(c -> c.getSuit() == Suits.SPADES && c.getRank() == rank);
-
-                boolean hasClub = jest.getCards().stream()
-                        .anyMatch(c -> c.getSuit() == Suits.CLUBS && c.getRank() == rank);
-
-                if (hasSpade && hasClub) bonus += 2;
-            }
-
-            return bonus;
+            return 2 * Integer.bitCount(jest.getBlackPairMask());
         }
 
         /**
@@ -123,18 +116,8 @@ public class Rule1 implements RuleSet {
             int bonus = 0;
 
             for (Suits suit : new Suits[]{Suits.SPADES, Suits.CLUBS, Suits.DIAMONDS, Suits.HEARTS}) {
-                long count = jest.getCards().stream()
-                        .filter(c -> c.getSuit() == suit && !(c instanceof TrophyCard))
-                        .count();
-
-                if (count == 1) {
-                    Card c = jest.getCards().stream()
-                            .filter(k -> k.getSuit() == suit && !(k instanceof TrophyCard))
-                            .findFirst().orElse(null);
-
-                    if (c != null && c.getRank() == Rank.ACE) {
-                        bonus += 4; // +4 car l As vaut deja 1, total = 5
-                    }
+                if (jest.countSuit(suit) == 1 && jest.getSuitValue(suit) == Rank.ACE.getValue()) {
+                    bonus += 4; // +4 car l As vaut deja 1, total = 5
                 }
             }
 
@@ -153,21 +136,15 @@ public class Rule1 implements RuleSet {
                 return 4; // +4 points bonus
             }
 
+            int totalHearts = jest.getSuitValue(Suits.HEARTS);
+
             if (hearts == 4) {
                 // Tous les Coeurs valent leur valeur positive
-                int totalHearts = jest.getCards().stream()
-                        .filter(c -> c.getSuit() == Suits.HEARTS)
-                        .mapToInt(c -> c.getRank().getValue())
-                        .sum();
-                return totalHearts; // Les coeurs valent leur valeur
+                return totalHearts;
             }
 
             // 1, 2 ou 3 Coeurs : le Joker ne vaut rien, les Coeurs sont negatifs
-            int malus = jest.getCards().stream()
-                    .filter(c -> c.getSuit() == Suits.HEARTS)
-                    .mapToInt(c -> c.getRank().getValue())
-                    .sum();
-            return -malus;
+            return -totalHearts;
         }
     }
 }
\ No newline at end of file
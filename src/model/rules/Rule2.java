@@ -1,6 +1,7 @@
 package model.rules;
 
 import model.*;
+import model.compact.MaskScorer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -31,4 +32,9 @@ public class Rule2 implements RuleSet {
     public int numberOfTrophies(int playerCount) {
         return playerCount == 4 ? 1 : 2;
     }
+
+    @Override
+    public MaskScorer maskScorer() {
+        return MaskScorer.RULE1;
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package model.rules;
 
 import model.*;
+import model.compact.MaskScorer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -36,6 +37,11 @@ public class Rule3 implements RuleSet {
         return playerCount == 4 ? 1 : 2;
     }
 
+    @Override
+    public MaskScorer maskScorer() {
+        return MaskScorer.RULE3;
+    }
+
     private static class InvertedVisitor implements ScoreVisitor {
         private static final long serialVersionUID = 1L;
 
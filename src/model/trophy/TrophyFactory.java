@@ -35,19 +35,6 @@ import java.util.List;
  */
 public class TrophyFactory {
     
-    /**
-     * Priorite des couleurs pour les departages.
-     */
-    private static int getSuitPriority(Suits suit) {
-        switch (suit) {
-            case SPADES: return 4;
-            case CLUBS: return 3;
-            case DIAMONDS: return 2;
-            case HEARTS: return 1;
-            default: return 0;
-        }
-    }
-
     /**
      * Cree un trophee Highest pour une couleur donnee.
      * 
@@ -79,7 +66,7 @@ public class TrophyFactory {
         
         TrophyEffect effect = (player, game) -> {};
         
-        return new TrophyCard(name, condition, effect);
+        return new TrophyCard(name, TrophyType.HIGHEST, suit, condition, effect);
     }
     
     /**
@@ -113,7 +100,7 @@ public class TrophyFactory {
         
         TrophyEffect effect = (player, game) -> {};
         
-        return new TrophyCard(name, condition, effect);
+        return new TrophyCard(name, TrophyType.LOWEST, suit, condition, effect);
     }
     
     /**
@@ -142,7 +129,7 @@ public class TrophyFactory {
         
         TrophyEffect effect = (player, game) -> {};
         
-        return new TrophyCard(name, condition, effect);
+        return new TrophyCard(name, TrophyType.MAJORITY, suit, condition, effect);
     }
     
     /**
@@ -166,7 +153,7 @@ public class TrophyFactory {
             return true;
         };
         TrophyEffect effect = (player, game) -> {};
-        return new TrophyCard(name, condition, effect);
+        return new TrophyCard(name, TrophyType.JOKER, null, condition, effect);
     }
     
     /**
@@ -188,7 +175,7 @@ public class TrophyFactory {
         };
         
         TrophyEffect effect = (player, game) -> {};
-        return new TrophyCard(name, condition, effect);
+        return new TrophyCard(name, TrophyType.BEST_JEST, null, condition, effect);
     }
     
     /**
@@ -214,7 +201,7 @@ public class TrophyFactory {
         };
         
         TrophyEffect effect = (player, game) -> {};
-        return new TrophyCard(name, condition, effect);
+        return new TrophyCard(name, TrophyType.BEST_JEST_NO_JOKE, null, condition, effect);
     }
     
     /**
@@ -262,10 +249,7 @@ public class TrophyFactory {
     }
     
     private static int getTotalSuitValue(Player player, Suits suit) {
-        return player.getJest().getCards().stream()
-                .filter(c -> c.getSuit() == suit && !(c instanceof TrophyCard))
-                .mapToInt(c -> c.getRank().getValue())
-                .sum();
+        return player.getJest().getSuitValue(suit);
     }
     
     private static boolean hasHigherPriorityCard(Player other, Player player) {
@@ -275,10 +259,6 @@ public class TrophyFactory {
     }
     
     private static int getMaxCardPriority(Player player) {
-        return player.getJest().getCards().stream()
-                .filter(c -> !(c instanceof TrophyCard))
-                .mapToInt(c -> c.getRank().getValue() * 10 + getSuitPriority(c.getSuit()))
-                .max()
-                .orElse(0);
+        return player.getJest().getMaxCardPriority();
     }
 }
\ No newline at end of file
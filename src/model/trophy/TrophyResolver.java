@@ -0,0 +1,252 @@
+package model.trophy;
+
+import model.*;
+import model.compact.BitJest;
+import java.util.List;
+
+/**
+ * Moteur de resolution des trophees en une seule passe.
+ *
+ * <p>Au lieu d evaluer la condition de chaque trophee pour chaque joueur
+ * (chaque condition re-parcourant les Jests des autres joueurs), ce moteur
+ * calcule une fois pour toutes une table de caracteristiques par joueur :</p>
+ * <ul>
+ *   <li>valeur totale et nombre de cartes de chaque couleur</li>
+ *   <li>priorite maximale des cartes (departage)</li>
+ *   <li>presence du Joker</li>
+ *   <li>score de base</li>
+ * </ul>
+ *
+ * <p>Chaque trophee type (voir {@link TrophyCard#getType()}) est ensuite
+ * resolu par un parcours lineaire de cette table. Le gagnant est
+ * exactement celui que donnerait {@link TrophyFactory} : en cas d egalite
+ * parfaite, le premier joueur dans l ordre de la partie l emporte.</p>
+ *
+ * <p>Une instance peut etre reutilisee d une partie a l autre sans
+ * allocation tant que le nombre de joueurs ne depasse pas sa capacite.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see TrophyFactory
+ * @see Game#winner()
+ */
+public class TrophyResolver {
+
+    /** Nombre de couleurs classiques. */
+    private static final int SUITS = 4;
+
+    private int playerCount;
+    private int[] suitTotals;
+    private int[] suitCounts;
+    private int[] maxPriorities;
+    private int[] baseScores;
+    private boolean[] jokers;
+
+    /**
+     * Constructeur d un moteur pour 4 joueurs au plus.
+     */
+    public TrophyResolver() {
+        ensureCapacity(4);
+    }
+
+    /**
+     * Indique si un trophee peut etre resolu par ce moteur.
+     *
+     * @param trophy le trophee
+     * @return true si le trophee est type
+     */
+    public static boolean supports(TrophyCard trophy) {
+        TrophyType type = trophy.getType();
+        if (type == null) {
+            return false;
+        }
+        switch (type) {
+            case HIGHEST:
+            case LOWEST:
+            case MAJORITY:
+                return trophy.getTrophySuit() != null && trophy.getTrophySuit() != Suits.JOKER;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Remplit la table a partir des joueurs d une partie.
+     *
+     * <p>Les scores de base doivent deja etre calcules.</p>
+     *
+     * @param players les joueurs, dans l ordre de la partie
+     */
+    public void load(List<Player> players) {
+        ensureCapacity(players.size());
+        playerCount = players.size();
+        for (int p = 0; p < playerCount; p++) {
+            Player player = players.get(p);
+            Jest jest = player.getJest();
+            for (int s = 0; s < SUITS; s++) {
+                Suits suit = Suits.values()[s];
+                suitTotals[p * SUITS + s] = jest.getSuitValue(suit);
+                suitCounts[p * SUITS + s] = jest.countSuit(suit);
+            }
+            maxPriorities[p] = jest.getMaxCardPriority();
+            baseScores[p] = player.getBaseScore();
+            jokers[p] = jest.hasJoker();
+        }
+    }
+
+    /**
+     * Remplit la table a partir de Jests en representation binaire.
+     *
+     * @param masks       le masque du Jest de chaque joueur
+     * @param scores      le score de base de chaque joueur
+     * @param count       le nombre de joueurs
+     */
+    public void load(long[] masks, int[] scores, int count) {
+        ensureCapacity(count);
+        playerCount = count;
+        for (int p = 0; p < count; p++) {
+            long mask = masks[p];
+            for (int s = 0; s < SUITS; s++) {
+                suitTotals[p * SUITS + s] = BitJest.suitValue(mask, s);
+                suitCounts[p * SUITS + s] = Integer.bitCount(BitJest.suitBits(mask, s));
+            }
+            maxPriorities[p] = BitJest.maxPriority(mask);
+            baseScores[p] = scores[p];
+            jokers[p] = BitJest.hasJoker(mask);
+        }
+    }
+
+    /**
+     * Determine le gagnant d un trophee type.
+     *
+     * @param trophy le trophee (doit etre supporte)
+     * @return l indice du joueur gagnant, ou -1 si personne ne le gagne
+     * @throws IllegalArgumentException si le trophee n est pas type
+     */
+    public int winnerOf(TrophyCard trophy) {
+        if (!supports(trophy)) {
+            throw new IllegalArgumentException("Trophee non type : " + trophy.getName());
+        }
+        Suits suit = trophy.getTrophySuit();
+        return winnerOf(trophy.getType(), suit == null ? -1 : suit.ordinal());
+    }
+
+    /**
+     * Determine le gagnant d un type de trophee.
+     *
+     * @param type      le type de trophee
+     * @param suitIndex l indice de couleur (0 = Piques .. 3 = Coeurs) pour
+     *                  HIGHEST, LOWEST et MAJORITY, ignore sinon
+     * @return l indice du joueur gagnant, ou -1 si personne ne le gagne
+     */
+    public int winnerOf(TrophyType type, int suitIndex) {
+        switch (type) {
+            case HIGHEST: return highest(suitIndex);
+            case LOWEST: return lowest(suitIndex);
+            case MAJORITY: return majority(suitIndex);
+            case JOKER: return joker();
+            case BEST_JEST: return bestJest(false);
+            case BEST_JEST_NO_JOKE: return bestJest(true);
+            default: return -1;
+        }
+    }
+
+    /**
+     * Resout une liste de trophees.
+     *
+     * @param trophies les trophees (tous supportes)
+     * @param winners  tableau recevant l indice du gagnant de chaque trophee (-1 si aucun)
+     */
+    public void resolveAll(List<TrophyCard> trophies, int[] winners) {
+        for (int t = 0; t < trophies.size(); t++) {
+            winners[t] = winnerOf(trophies.get(t));
+        }
+    }
+
+    /**
+     * Plus haute valeur, departage par la priorite maximale.
+     */
+    private int highest(int s) {
+        int best = -1;
+        for (int p = 0; p < playerCount; p++) {
+            int value = suitTotals[p * SUITS + s];
+            if (best < 0 || value > suitTotals[best * SUITS + s]
+                    || (value == suitTotals[best * SUITS + s] && maxPriorities[p] > maxPriorities[best])) {
+                best = p;
+            }
+        }
+        return best >= 0 && suitTotals[best * SUITS + s] != 0 ? best : -1;
+    }
+
+    /**
+     * Plus basse valeur non nulle, departage par la priorite maximale.
+     */
+    private int lowest(int s) {
+        int best = -1;
+        for (int p = 0; p < playerCount; p++) {
+            int value = suitTotals[p * SUITS + s];
+            if (value == 0) continue;
+            if (best < 0 || value < suitTotals[best * SUITS + s]
+                    || (value == suitTotals[best * SUITS + s] && maxPriorities[p] > maxPriorities[best])) {
+                best = p;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Plus grand nombre de cartes, sans departage (premier joueur).
+     */
+    private int majority(int s) {
+        int best = -1;
+        for (int p = 0; p < playerCount; p++) {
+            if (best < 0 || suitCounts[p * SUITS + s] > suitCounts[best * SUITS + s]) {
+                best = p;
+            }
+        }
+        return best >= 0 && suitCounts[best * SUITS + s] != 0 ? best : -1;
+    }
+
+    /**
+     * Seul detenteur du Joker.
+     */
+    private int joker() {
+        int holder = -1;
+        for (int p = 0; p < playerCount; p++) {
+            if (jokers[p]) {
+                if (holder >= 0) return -1;
+                holder = p;
+            }
+        }
+        return holder;
+    }
+
+    /**
+     * Meilleur score de base, eventuellement parmi les Jests sans Joker.
+     */
+    private int bestJest(boolean withoutJoker) {
+        int best = -1;
+        for (int p = 0; p < playerCount; p++) {
+            if (withoutJoker && jokers[p]) continue;
+            if (best < 0 || baseScores[p] > baseScores[best]) {
+                best = p;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Agrandit la table si necessaire.
+     */
+    private void ensureCapacity(int count) {
+        if (jokers != null && jokers.length >= count) {
+            return;
+        }
+        suitTotals = new int[count * SUITS];
+        suitCounts = new int[count * SUITS];
+        maxPriorities = new int[count];
+        baseScores = new int[count];
+        jokers = new boolean[count];
+    }
+}
@@ -0,0 +1,300 @@
+package observer;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Diffusion asynchrone des evenements de partie.
+ *
+ * <p>Le moteur publie des evenements figes ({@link GameEvent}) dans un
+ * tampon circulaire borne ; chaque observateur abonne les lit depuis son
+ * propre thread. Une vue lente (rafraichissement Swing) ne ralentit donc
+ * plus la boucle de jeu, tant qu elle a moins de {@code capacity}
+ * evenements de retard.</p>
+ *
+ * <h2>Garanties d ordre :</h2>
+ * <ul>
+ *   <li>Chaque observateur recoit chaque evenement publie exactement une
+ *       fois, dans l ordre de publication, toujours depuis le meme thread</li>
+ *   <li>Aucun ordre n est garanti entre deux observateurs, ni entre un
+ *       observateur du bus et les observateurs synchrones du moteur</li>
+ *   <li>Au retour de {@link #awaitDelivered()}, tous les evenements publies
+ *       avant l appel ont ete traites par tous les observateurs</li>
+ *   <li>Aucun evenement n est perdu : si un observateur a un tampon complet
+ *       de retard, {@link #publish(GameEvent)} attend qu il libere une place</li>
+ * </ul>
+ *
+ * <h2>Utilisation :</h2>
+ * <ul>
+ *   <li>Un seul thread publie (le thread de jeu)</li>
+ *   <li>Les observateurs sont abonnes avant {@link #start()}</li>
+ *   <li>Avec un lot de taille n, un observateur traite jusqu a n evenements
+ *       disponibles avant de signaler sa progression : moins de
+ *       synchronisation, au prix de places liberees par paquets</li>
+ *   <li>Une exception ou une erreur levee par un observateur est comptee
+ *       ({@link #getFailures()}) et n interrompt pas la diffusion ; un
+ *       observateur dont le thread s est arrete ne bloque plus
+ *       {@link #publish(GameEvent)}</li>
+ * </ul>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see GameEvent
+ * @see controller.GameEngine#setEventBus(AsyncEventBus)
+ */
+public final class AsyncEventBus implements Closeable {
+
+    /** Capacite par defaut du tampon. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /** Attente entre deux verifications lorsque le tampon est plein. */
+    private static final long WAIT_NANOS = 50_000;
+
+    private final GameEvent[] ring;
+    private final int mask;
+    private final int batchSize;
+    private final List<Consumer> consumers = new ArrayList<>();
+
+    /** Numero du dernier evenement publie (-1 si aucun). */
+    private final AtomicLong published = new AtomicLong(-1);
+
+    /** Plus petite progression des observateurs lue par le producteur. */
+    private long gatingSequence = -1;
+
+    private final AtomicLong failures = new AtomicLong();
+    private volatile Throwable lastFailure;
+    private volatile boolean running;
+    private boolean started;
+
+    /**
+     * Cree un bus avec la capacite par defaut, sans lots.
+     */
+    public AsyncEventBus() {
+        this(DEFAULT_CAPACITY, 1);
+    }
+
+    /**
+     * Cree un bus.
+     *
+     * @param capacity  la taille du tampon (puissance de 2)
+     * @param batchSize le nombre maximal d evenements traites par lot
+     * @throws IllegalArgumentException si la capacite n est pas une puissance de 2
+     *         ou si la taille des lots n est pas strictement positive
+     */
+    public AsyncEventBus(int capacity, int batchSize) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("La capacite doit etre une puissance de 2 : " + capacity);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Taille de lot invalide : " + batchSize);
+        }
+        this.ring = new GameEvent[capacity];
+        this.mask = capacity - 1;
+        this.batchSize = Math.min(batchSize, capacity);
+    }
+
+    /**
+     * Abonne un observateur, qui recevra les evenements sur son propre thread.
+     *
+     * @param observer l observateur
+     * @throws IllegalStateException si le bus est deja demarre
+     */
+    public synchronized void subscribe(GameObserver observer) {
+        if (started) {
+            throw new IllegalStateException("Bus deja demarre");
+        }
+        consumers.add(new Consumer(observer, "jest-events-" + consumers.size()));
+    }
+
+    /**
+     * Demarre les threads des observateurs.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        running = true;
+        for (Consumer consumer : consumers) {
+            consumer.thread.start();
+        }
+    }
+
+    /**
+     * Publie un evenement.
+     *
+     * <p>Retourne des que l evenement est dans le tampon. N attend que si
+     * un observateur a un tampon complet de retard.</p>
+     *
+     * @param event l evenement fige
+     */
+    public void publish(GameEvent event) {
+        long next = published.get() + 1;
+        long wrap = next - ring.length;
+        if (wrap > gatingSequence) {
+            gatingSequence = minSequence(next - 1);
+            while (wrap > gatingSequence) {
+                LockSupport.parkNanos(WAIT_NANOS);
+                gatingSequence = minSequence(next - 1);
+            }
+        }
+        ring[(int) next & mask] = event;
+        published.set(next);
+        for (Consumer consumer : consumers) {
+            if (consumer.waiting) {
+                LockSupport.unpark(consumer.thread);
+            }
+        }
+    }
+
+    /**
+     * Attend que tous les evenements deja publies aient ete traites.
+     *
+     * <p>Le moteur l appelle avant de solliciter un joueur humain, pour que
+     * la vue soit a jour au moment de la question.</p>
+     */
+    public void awaitDelivered() {
+        long target = published.get();
+        for (Consumer consumer : consumers) {
+            while (consumer.sequence.get() < target && consumer.thread.isAlive()) {
+                LockSupport.parkNanos(WAIT_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Termine la diffusion des evenements publies et arrete les threads.
+     */
+    @Override
+    public void close() {
+        if (!started) {
+            return;
+        }
+        awaitDelivered();
+        running = false;
+        for (Consumer consumer : consumers) {
+            LockSupport.unpark(consumer.thread);
+        }
+        for (Consumer consumer : consumers) {
+            try {
+                consumer.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Retourne le nombre d evenements publies.
+     *
+     * @return le nombre d evenements
+     */
+    public long getPublished() {
+        return published.get() + 1;
+    }
+
+    /**
+     * Retourne le nombre d exceptions et d erreurs levees par les observateurs.
+     *
+     * @return le nombre d echecs
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Retourne la derniere exception ou erreur levee par un observateur.
+     *
+     * @return l exception, ou null
+     */
+    public Throwable getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Retourne la plus petite progression des observateurs encore actifs.
+     */
+    private long minSequence(long max) {
+        long min = max;
+        for (Consumer consumer : consumers) {
+            // Un thread arrete ne liberera plus sa place : il ne retient pas le producteur
+            if (!consumer.stopped) {
+                min = Math.min(min, consumer.sequence.get());
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Lecteur du tampon pour un observateur.
+     */
+    private final class Consumer implements Runnable {
+
+        private final GameObserver observer;
+        private final Thread thread;
+
+        /** Numero du dernier evenement traite. */
+        private final AtomicLong sequence = new AtomicLong(-1);
+
+        /** Vrai si le thread est (ou va etre) suspendu faute d evenement. */
+        private volatile boolean waiting;
+
+        /** Vrai une fois le thread sorti de sa boucle. */
+        private volatile boolean stopped;
+
+        private Consumer(GameObserver observer, String name) {
+            this.observer = observer;
+            this.thread = new Thread(this, name);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                consume();
+            } finally {
+                stopped = true;
+            }
+        }
+
+        private void consume() {
+            long next = 0;
+            while (true) {
+                long available = published.get();
+                if (available < next) {
+                    if (!running) {
+                        return;
+                    }
+                    // Publication de waiting avant la relecture : le producteur
+                    // voit waiting ou le consommateur voit le nouvel evenement
+                    waiting = true;
+                    if (published.get() < next && running) {
+                        LockSupport.park(this);
+                    }
+                    waiting = false;
+                    continue;
+                }
+                long end = Math.min(available, next + batchSize - 1);
+                for (; next <= end; next++) {
+                    deliver(ring[(int) next & mask]);
+                }
+                sequence.set(end);
+            }
+        }
+
+        private void deliver(GameEvent event) {
+            try {
+                observer.onEvent(event);
+            } catch (Throwable e) {
+                // Une erreur non rattrapee arreterait le thread sans liberer sa place
+                failures.incrementAndGet();
+                lastFailure = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package observer;
+
+import model.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Evenement de partie fige au moment de sa publication.
+ *
+ * <p>Les observateurs asynchrones ({@link AsyncEventBus}) recoivent les
+ * evenements apres coup, pendant que le moteur continue la partie : un
+ * evenement ne reference donc aucune structure que le moteur modifie
+ * ensuite. Les offres sont des copies detachees et l etat des joueurs
+ * (nom, score, cartes du Jest) est recopie dans des {@link PlayerView}.</p>
+ *
+ * <p>Les objets {@link Player} transmis aux methodes de
+ * {@link GameObserver} restent ceux de la partie, pour conserver leur
+ * identite ; seuls leur nom et leur strategie peuvent y etre lus sans
+ * precaution depuis un autre thread.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see AsyncEventBus
+ */
+public final class GameEvent {
+
+    /**
+     * Types d evenements, un par methode de {@link GameObserver}.
+     */
+    public enum Type {
+        /** {@link GameObserver#onRoundStart(int)}. */
+        ROUND_START,
+        /** {@link GameObserver#onOffersCreated(List)}. */
+        OFFERS_CREATED,
+        /** {@link GameObserver#onCardTaken(Player, Card)}. */
+        CARD_TAKEN,
+        /** {@link GameObserver#onGameEnd(Player)}. */
+        GAME_END,
+        /** {@link GameObserver#onMessage(String)}. */
+        MESSAGE
+    }
+
+    /**
+     * Etat d un joueur au moment de l evenement.
+     */
+    public static final class PlayerView {
+
+        private final Player player;
+        private final String name;
+        private final int finalScore;
+        private final List<Card> jest;
+
+        private PlayerView(Player player) {
+            this.player = player;
+            this.name = player.getName();
+            this.finalScore = player.getFinalScore();
+            this.jest = Collections.unmodifiableList(player.getJest().getCards());
+        }
+
+        /**
+         * Retourne le joueur de la partie.
+         *
+         * @return le joueur
+         */
+        public Player getPlayer() {
+            return player;
+        }
+
+        /**
+         * Retourne le nom du joueur.
+         *
+         * @return le nom
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Retourne le score final du joueur au moment de l evenement.
+         *
+         * @return le score
+         */
+        public int getFinalScore() {
+            return finalScore;
+        }
+
+        /**
+         * Retourne les cartes et trophees du Jest au moment de l evenement.
+         *
+         * @return une liste non modifiable
+         */
+        public List<Card> getJest() {
+            return jest;
+        }
+    }
+
+    private final Type type;
+    private final int round;
+    private final Player player;
+    private final Card card;
+    private final List<Offer> offers;
+    private final String message;
+    private final List<PlayerView> players;
+
+    private GameEvent(Type type, int round, Player player, Card card, List<Offer> offers,
+                      String message, List<PlayerView> players) {
+        this.type = type;
+        this.round = round;
+        this.player = player;
+        this.card = card;
+        this.offers = offers;
+        this.message = message;
+        this.players = players;
+    }
+
+    /**
+     * Cree l evenement de debut de tour.
+     *
+     * @param round le numero du tour
+     * @return l evenement
+     */
+    public static GameEvent roundStart(int round) {
+        return new GameEvent(Type.ROUND_START, round, null, null, null, null, null);
+    }
+
+    /**
+     * Cree l evenement de creation des offres.
+     *
+     * @param game   la partie
+     * @param offers les offres du tour
+     * @return l evenement, avec une copie detachee des offres
+     */
+    public static GameEvent offersCreated(Game game, List<Offer> offers) {
+        List<Offer> copies = new ArrayList<>(offers.size());
+        for (Offer offer : offers) {
+            Offer copy = new Offer(offer.getOwner());
+            copy.setFaceUp(offer.getFaceUp());
+            copy.setFaceDown(offer.getFaceDown());
+            copies.add(copy);
+        }
+        return new GameEvent(Type.OFFERS_CREATED, game.getCurrentRound(), null, null,
+                Collections.unmodifiableList(copies), null, playerViews(game.getPlayers()));
+    }
+
+    /**
+     * Cree l evenement de prise d une carte.
+     *
+     * @param game   la partie
+     * @param player le preneur
+     * @param card   la carte prise
+     * @return l evenement
+     */
+    public static GameEvent cardTaken(Game game, Player player, Card card) {
+        return new GameEvent(Type.CARD_TAKEN, game.getCurrentRound(), player, card, null, null,
+                playerViews(game.getPlayers()));
+    }
+
+    /**
+     * Cree l evenement de fin de partie.
+     *
+     * @param game   la partie
+     * @param winner le gagnant, ou null
+     * @return l evenement
+     */
+    public static GameEvent gameEnd(Game game, Player winner) {
+        return new GameEvent(Type.GAME_END, game.getCurrentRound(), winner, null, null, null,
+                playerViews(game.getPlayers()));
+    }
+
+    /**
+     * Cree l evenement de message.
+     *
+     * @param message le message
+     * @return l evenement
+     */
+    public static GameEvent message(String message) {
+        return new GameEvent(Type.MESSAGE, 0, null, null, null, message, null);
+    }
+
+    /**
+     * Recopie l etat courant des joueurs.
+     *
+     * @param players les joueurs
+     * @return les etats, dans le meme ordre
+     */
+    public static List<PlayerView> playerViews(List<Player> players) {
+        List<PlayerView> views = new ArrayList<>(players.size());
+        for (Player p : players) {
+            views.add(new PlayerView(p));
+        }
+        return Collections.unmodifiableList(views);
+    }
+
+    /**
+     * Transmet l evenement a la methode correspondante d un observateur.
+     *
+     * @param observer l observateur
+     */
+    public void dispatch(GameObserver observer) {
+        switch (type) {
+            case ROUND_START:
+                observer.onRoundStart(round);
+                break;
+            case OFFERS_CREATED:
+                observer.onOffersCreated(offers);
+                break;
+            case CARD_TAKEN:
+                observer.onCardTaken(player, card);
+                break;
+            case GAME_END:
+                observer.onGameEnd(player);
+                break;
+            case MESSAGE:
+                observer.onMessage(message);
+                break;
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Retourne le numero du tour, 0 pour un message.
+     *
+     * @return le numero du tour
+     */
+    public int getRound() {
+        return round;
+    }
+
+    /**
+     * Retourne le preneur ({@link Type#CARD_TAKEN}) ou le gagnant ({@link Type#GAME_END}).
+     *
+     * @return le joueur, ou null
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    public Card getCard() {
+        return card;
+    }
+
+    public List<Offer> getOffers() {
+        return offers;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Retourne l etat des joueurs apres l evenement.
+     *
+     * @return les etats, ou null pour un debut de tour ou un message
+     */
+    public List<PlayerView> getPlayers() {
+        return players;
+    }
+
+    @Override
+    public String toString() {
+        return type + (round > 0 ? " (tour " + round + ")" : "");
+    }
+}
@@ -0,0 +1,228 @@
+package observer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Journal binaire des parties, en ajout seul.
+ *
+ * <p>Le journal est un fichier ou chaque partie est une suite
+ * d enregistrements : un en-tete (graine, regles, extensions, joueurs),
+ * un enregistrement par tour puis le resultat. La graine et les decisions
+ * des joueurs suffisent a reconstruire exactement la partie : le melange
+ * du deck et les distributions ne dependent que de la graine
+ * ({@link model.Game#getRandom()}).</p>
+ *
+ * <h2>Format :</h2>
+ * <ul>
+ *   <li>Fichier : {@link #MAGIC} puis {@link #VERSION} (4 + 1 octets), ecrits a la creation</li>
+ *   <li>Entiers positifs en varint (7 bits par octet, poids faibles d abord),
+ *       scores en zigzag, graine sur 8 octets</li>
+ *   <li>{@link #GAME} : graine, regles (1 a 3, 0 si aucunes), drapeaux
+ *       ({@link #FLAG_CARDS}, {@link #FLAG_BM}, {@link #FLAG_SAME_NAMES}),
+ *       nombre de joueurs, noms en UTF-8 sauf s ils sont ceux de la partie
+ *       precedente</li>
+ *   <li>{@link #ROUND} : numero du tour, carte cachee de chaque offre dans
+ *       l ordre des sieges, puis un octet par prise dans l ordre du tour :
+ *       siege du preneur sur les deux bits de poids fort
+ *       ({@link #TAKE_SEAT_SHIFT}), carte prise sur les autres</li>
+ *   <li>{@link #END} : siege du gagnant + 1 (0 si aucun), score final de chaque
+ *       siege, siege de la cible BM + 1 (0 si aucune) suivi du type et de la valeur</li>
+ * </ul>
+ *
+ * <p>La version 1, encore lue par {@link JournalReader}, ecrit les noms de
+ * chaque partie et separe le tour en trois enregistrements : {@link #ROUND}
+ * (numero), {@link #OFFERS} (cartes cachees) et un {@link #TAKE} (siege,
+ * carte) par prise. La version 2 ecrit pres de deux fois moins d octets.</p>
+ *
+ * <p>Les cartes sont codees par leur identifiant compact
+ * ({@link model.compact.CardCodec}). Les observateurs
+ * ({@link JournalObserver}) n ecrivent que des parties completes : plusieurs
+ * threads peuvent partager un meme journal sans entrelacer leurs parties.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see JournalObserver
+ */
+public final class GameJournal implements Closeable {
+
+    /** Signature du fichier ("JSTJ"). */
+    public static final int MAGIC = 0x4A53544A;
+
+    /** Version du format ecrit. */
+    public static final byte VERSION = 2;
+
+    /** Premiere version du format, lue mais plus ecrite. */
+    public static final byte VERSION_1 = 1;
+
+    /** Enregistrement : debut de partie. */
+    public static final byte GAME = 1;
+
+    /** Enregistrement : tour (en version 1, debut de tour). */
+    public static final byte ROUND = 2;
+
+    /** Enregistrement de la version 1 : offres du tour. */
+    public static final byte OFFERS = 3;
+
+    /** Enregistrement de la version 1 : carte prise. */
+    public static final byte TAKE = 4;
+
+    /** Enregistrement : fin de partie. */
+    public static final byte END = 5;
+
+    /** Drapeau de l en-tete : cartes 5-8. */
+    public static final int FLAG_CARDS = 1;
+
+    /** Drapeau de l en-tete : extension BM. */
+    public static final int FLAG_BM = 2;
+
+    /**
+     * Drapeau de l en-tete : noms omis, identiques a ceux de la partie
+     * precedente du journal. Jamais pose sur la premiere partie d un
+     * tampon ecrit ({@link #append}), qui peut suivre celle d un autre thread.
+     */
+    public static final int FLAG_SAME_NAMES = 4;
+
+    /** Position du siege dans l octet d une prise. */
+    public static final int TAKE_SEAT_SHIFT = 6;
+
+    /** Masque de la carte dans l octet d une prise. */
+    public static final int TAKE_CARD_MASK = (1 << TAKE_SEAT_SHIFT) - 1;
+
+    /** Nombre maximal de joueurs, borne par les deux bits de siege d une prise. */
+    public static final int MAX_PLAYERS = 4;
+
+    private final FileChannel channel;
+
+    private GameJournal(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Ouvre un journal en ajout, en le creant si besoin.
+     *
+     * @param file le fichier du journal
+     * @return le journal ouvert
+     * @throws IOException si le fichier ne peut etre ouvert, ou n est pas un journal
+     */
+    public static GameJournal open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(5);
+                header.putInt(MAGIC).put(VERSION).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(5);
+                channel.read(header, 0);
+                if (header.position() < 5 || header.getInt(0) != MAGIC) {
+                    throw new IOException("Fichier non reconnu comme journal : " + file);
+                }
+                if (header.get(4) != VERSION) {
+                    throw new IOException("Version de journal non supportee : " + header.get(4));
+                }
+                channel.position(channel.size());
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new GameJournal(channel);
+    }
+
+    /**
+     * Ajoute des enregistrements a la fin du journal.
+     *
+     * <p>Le contenu du tampon est ecrit d un seul tenant, meme si d autres
+     * threads ecrivent dans le meme journal. Un journal ne doit etre
+     * ouvert que par un seul processus a la fois.</p>
+     *
+     * @param records le tampon a ecrire, pret a etre lu
+     * @throws IOException en cas d erreur d ecriture
+     */
+    public synchronized void append(ByteBuffer records) throws IOException {
+        while (records.hasRemaining()) {
+            channel.write(records);
+        }
+    }
+
+    /**
+     * Force l ecriture du journal sur le disque.
+     *
+     * @throws IOException en cas d erreur d ecriture
+     */
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Ferme le journal. Les observateurs doivent avoir ete vides avant.
+     *
+     * @throws IOException en cas d erreur de fermeture
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Ecrit un entier positif en varint.
+     *
+     * @param buffer le tampon
+     * @param value  la valeur (interpretee comme non signee)
+     */
+    public static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Lit un entier positif en varint.
+     *
+     * @param buffer le tampon
+     * @return la valeur
+     * @throws IllegalArgumentException si le varint depasse 32 bits
+     */
+    public static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint invalide");
+    }
+
+    /**
+     * Code un entier signe en zigzag (petits entiers negatifs sur peu d octets).
+     *
+     * @param value la valeur
+     * @return la valeur codee
+     */
+    public static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Decode un entier code en zigzag.
+     *
+     * @param value la valeur codee
+     * @return la valeur
+     */
+    public static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
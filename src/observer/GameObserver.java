@@ -54,4 +54,17 @@ public interface GameObserver {
      * @param message le message
      */
     void onMessage(String message);
+
+    /**
+     * Recoit un evenement fige d un bus asynchrone ({@link AsyncEventBus}).
+     * 
+     * <p>Par defaut, l evenement est transmis a la methode correspondante.
+     * Une vue peut redefinir cette methode pour exploiter l etat des
+     * joueurs fige dans l evenement plutot que de lire la partie.</p>
+     * 
+     * @param event l evenement
+     */
+    default void onEvent(GameEvent event) {
+        event.dispatch(this);
+    }
 }
\ No newline at end of file
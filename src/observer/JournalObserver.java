@@ -0,0 +1,239 @@
+package observer;
+
+import model.*;
+import model.compact.CardCodec;
+import model.extension.BMCard;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Observateur enregistrant chaque evenement d une partie dans un journal.
+ *
+ * <p>Les enregistrements (voir {@link GameJournal} pour le format) sont
+ * codes dans un tableau d octets. Le tableau n est ecrit dans le journal
+ * qu a la fin d une partie, et seulement lorsqu il depasse
+ * {@link #FLUSH_THRESHOLD} : une simulation ne fait qu un appel systeme
+ * pour plusieurs centaines de parties, et le codage d un evenement se
+ * reduit a quelques affectations : une prise est un seul octet, sans
+ * etiquette, et les noms ne sont ecrits qu une fois par tampon tant
+ * qu ils ne changent pas.</p>
+ *
+ * <h2>Utilisation :</h2>
+ * <pre>
+ * try (GameJournal journal = GameJournal.open(path)) {
+ *     JournalObserver observer = new JournalObserver(journal);
+ *     observer.startGame(game);
+ *     engine.addObserver(observer);
+ *     engine.playGame();
+ *     observer.flush();
+ * }
+ * </pre>
+ *
+ * <p>Un observateur n est pas thread-safe : chaque thread utilise le sien,
+ * les observateurs de plusieurs threads pouvant partager le meme journal.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see GameJournal
+ */
+public class JournalObserver implements GameObserver {
+
+    /** Taille de tampon au-dela de laquelle il est ecrit en fin de partie. */
+    public static final int FLUSH_THRESHOLD = 32 * 1024;
+
+    private final GameJournal journal;
+    private byte[] records = new byte[2 * FLUSH_THRESHOLD];
+    private int size;
+    private Game game;
+
+    /** Joueurs de la partie en cours, par siege. */
+    private Player[] seats = new Player[0];
+
+    /** Noms de la partie precedente et leur codage, reutilises tant qu ils sont egaux. */
+    private String[] names = new String[0];
+    private byte[][] encodedNames = new byte[0][];
+
+    /** Vrai si le tampon contient deja une partie aux noms {@link #names}. */
+    private boolean namesWritten;
+
+    /**
+     * Constructeur.
+     *
+     * @param journal le journal ou ecrire les parties
+     */
+    public JournalObserver(GameJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Enregistre l en-tete d une nouvelle partie.
+     *
+     * <p>A appeler avant le premier tour, une fois la graine, les regles,
+     * les extensions et les joueurs de la partie definis.</p>
+     *
+     * @param game la partie qui commence
+     * @throws IllegalArgumentException si les regles sont inconnues
+     *         ({@link SaveCodec#rulesCode}) ou les joueurs plus de {@value GameJournal#MAX_PLAYERS}
+     */
+    public void startGame(Game game) {
+        List<Player> players = game.getPlayers();
+        if (players.size() > GameJournal.MAX_PLAYERS) {
+            throw new IllegalArgumentException("Trop de joueurs pour le journal : " + players.size());
+        }
+        int rules = SaveCodec.rulesCode(game.getRuleSet());
+        this.game = game;
+        if (seats.length != players.size()) {
+            seats = new Player[players.size()];
+            names = new String[players.size()];
+            encodedNames = new byte[players.size()][];
+            namesWritten = false;
+        }
+        boolean sameNames = namesWritten;
+        int bytes = 1 + 8 + 1 + 1 + 1;
+        for (int i = 0; i < seats.length; i++) {
+            seats[i] = players.get(i);
+            String name = seats[i].getName();
+            if (!name.equals(names[i])) {
+                names[i] = name;
+                encodedNames[i] = name.getBytes(StandardCharsets.UTF_8);
+                sameNames = false;
+            }
+            bytes += 5 + encodedNames[i].length;
+        }
+        ensure(bytes);
+
+        byte[] r = records;
+        int n = this.size;
+        r[n++] = GameJournal.GAME;
+        long seed = game.getSeed();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            r[n++] = (byte) (seed >>> shift);
+        }
+        r[n++] = (byte) rules;
+        r[n++] = (byte) ((game.isExtensionCards() ? GameJournal.FLAG_CARDS : 0)
+                | (game.isExtensionBM() ? GameJournal.FLAG_BM : 0)
+                | (sameNames ? GameJournal.FLAG_SAME_NAMES : 0));
+        r[n++] = (byte) seats.length;
+        if (!sameNames) {
+            for (byte[] name : encodedNames) {
+                n = putVarint(r, n, name.length);
+                System.arraycopy(name, 0, r, n, name.length);
+                n += name.length;
+            }
+        }
+        this.size = n;
+        namesWritten = true;
+    }
+
+    @Override
+    public void onRoundStart(int roundNumber) {
+        // Reserve la place du tour entier : offres et prises ne verifient plus
+        ensure(6 + 2 * seats.length);
+        records[size++] = GameJournal.ROUND;
+        size = putVarint(records, size, roundNumber);
+    }
+
+    @Override
+    public void onOffersCreated(List<Offer> offers) {
+        byte[] r = records;
+        int n = size;
+        for (int i = 0; i < offers.size(); i++) {
+            r[n++] = (byte) CardCodec.idOf(offers.get(i).getFaceDown());
+        }
+        size = n;
+    }
+
+    @Override
+    public void onCardTaken(Player player, Card card) {
+        records[size++] = (byte) (seatOf(player) << GameJournal.TAKE_SEAT_SHIFT | CardCodec.idOf(card));
+    }
+
+    @Override
+    public void onGameEnd(Player winner) {
+        ensure(1 + 1 + 5 * seats.length + 1 + 1 + 5);
+        byte[] r = records;
+        int n = size;
+        r[n++] = GameJournal.END;
+        r[n++] = (byte) (seatOf(winner) + 1);
+        for (Player seat : seats) {
+            n = putVarint(r, n, GameJournal.zigzag(seat.getFinalScore()));
+        }
+
+        BMCard bm = game.getLastAppliedBmCard();
+        Player target = bm != null ? game.getLastBmTarget() : null;
+        r[n++] = (byte) (target != null ? seatOf(target) + 1 : 0);
+        if (target != null) {
+            r[n++] = (byte) bm.getType().ordinal();
+            n = putVarint(r, n, GameJournal.zigzag(bm.getValue()));
+        }
+        size = n;
+        game = null;
+        Arrays.fill(seats, null);
+
+        if (size >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    @Override
+    public void onMessage(String message) {
+        // Les messages se deduisent des autres evenements
+    }
+
+    /**
+     * Ecrit dans le journal les parties en attente.
+     *
+     * <p>A appeler apres la derniere partie, avant de fermer le journal.</p>
+     *
+     * @throws UncheckedIOException en cas d erreur d ecriture
+     */
+    public void flush() {
+        try {
+            journal.append(ByteBuffer.wrap(records, 0, size));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erreur d ecriture du journal", e);
+        } finally {
+            size = 0;
+            namesWritten = false;
+        }
+    }
+
+    /**
+     * Retourne le siege d un joueur, -1 s il est absent.
+     */
+    private int seatOf(Player player) {
+        for (int i = 0; i < seats.length; i++) {
+            if (seats[i] == player) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Ecrit un entier positif en varint (voir {@link GameJournal#putVarint}).
+     *
+     * @return la position suivant le varint
+     */
+    private static int putVarint(byte[] r, int n, int value) {
+        while ((value & ~0x7F) != 0) {
+            r[n++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        r[n++] = (byte) value;
+        return n;
+    }
+
+    /**
+     * Agrandit le tableau pour accueillir des enregistrements : une partie
+     * n est jamais coupee entre deux ecritures.
+     */
+    private void ensure(int bytes) {
+        if (records.length - size < bytes) {
+            records = Arrays.copyOf(records, Math.max(2 * records.length, size + bytes));
+        }
+    }
+}
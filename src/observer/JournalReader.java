@@ -0,0 +1,320 @@
+package observer;
+
+import model.compact.CardCodec;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lecture sequentielle d un journal de parties.
+ *
+ * <p>Le journal est lu par blocs dans un tampon de taille fixe : un journal
+ * de plusieurs millions de parties se parcourt en memoire constante, une
+ * partie a la fois.</p>
+ *
+ * <h2>Exemple :</h2>
+ * <pre>
+ * try (JournalReader reader = JournalReader.open(path)) {
+ *     for (RecordedGame game = reader.next(); game != null; game = reader.next()) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see GameJournal
+ */
+public final class JournalReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Nombre maximal de tours d une partie (une carte par joueur et par tour). */
+    private static final int MAX_ROUNDS = CardCodec.CARD_COUNT;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private byte version;
+    private long games;
+    private boolean eof;
+
+    /** Noms de la partie precedente ({@link GameJournal#FLAG_SAME_NAMES}). */
+    private String[] lastNames;
+
+    private JournalReader(FileChannel channel) {
+        this.channel = channel;
+        buffer.flip();
+    }
+
+    /**
+     * Ouvre un journal en lecture, dans la version courante ou la version 1.
+     *
+     * @param file le fichier du journal
+     * @return le lecteur, place sur la premiere partie
+     * @throws IOException si le fichier ne peut etre lu ou n est pas un journal
+     */
+    public static JournalReader open(Path file) throws IOException {
+        JournalReader reader = new JournalReader(FileChannel.open(file, StandardOpenOption.READ));
+        try {
+            if (!reader.fill(5) || reader.buffer.getInt() != GameJournal.MAGIC) {
+                throw new IOException("Fichier non reconnu comme journal : " + file);
+            }
+            byte version = reader.buffer.get();
+            if (version != GameJournal.VERSION && version != GameJournal.VERSION_1) {
+                throw new IOException("Version de journal non supportee : " + version);
+            }
+            reader.version = version;
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+        return reader;
+    }
+
+    /**
+     * Lit la partie suivante.
+     *
+     * @return la partie, ou null a la fin du journal
+     * @throws IOException si le journal est tronque ou mal forme
+     */
+    public RecordedGame next() throws IOException {
+        if (!fill(1)) {
+            return null;
+        }
+        try {
+            return read();
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("Journal tronque apres " + games + " parties");
+        } catch (IllegalArgumentException e) {
+            throw corrupt(e.getMessage());
+        }
+    }
+
+    /**
+     * Decode une partie complete.
+     */
+    private RecordedGame read() throws IOException {
+        require(12);
+        if (buffer.get() != GameJournal.GAME) {
+            throw corrupt("en-tete de partie attendu");
+        }
+        long seed = buffer.getLong();
+        int rules = buffer.get();
+        int flags = buffer.get();
+        int players = buffer.get();
+        if (players < 1) {
+            throw corrupt("nombre de joueurs invalide");
+        }
+        String[] names;
+        if ((flags & GameJournal.FLAG_SAME_NAMES) != 0) {
+            if (lastNames == null || lastNames.length != players) {
+                throw corrupt("noms de la partie precedente absents");
+            }
+            names = lastNames;
+            flags &= ~GameJournal.FLAG_SAME_NAMES;
+        } else {
+            names = readNames(players);
+            lastNames = names;
+        }
+
+        byte[] hidden = new byte[MAX_ROUNDS * players];
+        byte[] takeSeats = new byte[MAX_ROUNDS * players];
+        byte[] takeCards = new byte[MAX_ROUNDS * players];
+        int rounds = version == GameJournal.VERSION_1
+                ? readRoundsV1(players, hidden, takeSeats, takeCards)
+                : readRounds(players, hidden, takeSeats, takeCards);
+
+        require(1 + 5 * players + 1);
+        int winner = buffer.get() - 1;
+        if (winner >= 0) seat(winner, players);
+        int[] scores = new int[players];
+        for (int i = 0; i < players; i++) {
+            scores[i] = GameJournal.unzigzag(GameJournal.getVarint(buffer));
+        }
+        int bmTarget = buffer.get() - 1;
+        int bmType = 0;
+        int bmValue = 0;
+        if (bmTarget >= 0) {
+            seat(bmTarget, players);
+            require(6);
+            bmType = buffer.get();
+            bmValue = GameJournal.unzigzag(GameJournal.getVarint(buffer));
+        }
+
+        int used = rounds * players;
+        return new RecordedGame(games++, seed, rules, flags, names, rounds,
+                Arrays.copyOf(hidden, used), Arrays.copyOf(takeSeats, used), Arrays.copyOf(takeCards, used),
+                winner, scores, bmTarget, bmType, bmValue);
+    }
+
+    /**
+     * Lit les noms des joueurs de l en-tete.
+     */
+    private String[] readNames(int players) throws IOException {
+        String[] names = new String[players];
+        for (int i = 0; i < players; i++) {
+            require(5);
+            int length = GameJournal.getVarint(buffer);
+            if (length > BUFFER_SIZE) {
+                throw corrupt("nom trop long");
+            }
+            require(length);
+            names[i] = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        }
+        return names;
+    }
+
+    /**
+     * Lit les tours jusqu a l enregistrement de fin, qui est consomme.
+     *
+     * @return le nombre de tours
+     */
+    private int readRounds(int players, byte[] hidden, byte[] takeSeats, byte[] takeCards) throws IOException {
+        int rounds = 0;
+        while (true) {
+            require(1);
+            byte tag = buffer.get();
+            if (tag == GameJournal.END) {
+                return rounds;
+            }
+            if (tag != GameJournal.ROUND) {
+                throw corrupt("enregistrement inconnu " + tag);
+            }
+            require(5);
+            int round = GameJournal.getVarint(buffer);
+            if (round != rounds + 1 || round > MAX_ROUNDS) {
+                throw corrupt("tour " + round + " inattendu");
+            }
+            int first = rounds * players;
+            rounds = round;
+            require(2 * players);
+            for (int i = 0; i < players; i++) {
+                hidden[first + i] = card(buffer.get());
+            }
+            for (int i = 0; i < players; i++) {
+                int take = buffer.get() & 0xFF;
+                takeSeats[first + i] = (byte) seat(take >>> GameJournal.TAKE_SEAT_SHIFT, players);
+                takeCards[first + i] = card((byte) (take & GameJournal.TAKE_CARD_MASK));
+            }
+        }
+    }
+
+    /**
+     * Lit les tours d une partie de la version 1 jusqu a l enregistrement de
+     * fin, qui est consomme.
+     *
+     * @return le nombre de tours
+     */
+    private int readRoundsV1(int players, byte[] hidden, byte[] takeSeats, byte[] takeCards) throws IOException {
+        int rounds = 0;
+        int takes = players;
+        while (true) {
+            require(1);
+            byte tag = buffer.get();
+            if (tag == GameJournal.ROUND) {
+                require(5);
+                int round = GameJournal.getVarint(buffer);
+                if (round != rounds + 1 || round > MAX_ROUNDS || takes != players) {
+                    throw corrupt("tour " + round + " inattendu");
+                }
+                rounds = round;
+                takes = 0;
+            } else if (tag == GameJournal.OFFERS) {
+                require(players);
+                if (rounds == 0) throw corrupt("offres hors d un tour");
+                for (int i = 0; i < players; i++) {
+                    hidden[(rounds - 1) * players + i] = card(buffer.get());
+                }
+            } else if (tag == GameJournal.TAKE) {
+                require(2);
+                if (rounds == 0 || takes == players) throw corrupt("prise hors d un tour");
+                takeSeats[(rounds - 1) * players + takes] = (byte) seat(buffer.get(), players);
+                takeCards[(rounds - 1) * players + takes] = card(buffer.get());
+                takes++;
+            } else if (tag == GameJournal.END) {
+                if (takes != players) throw corrupt("dernier tour incomplet");
+                return rounds;
+            } else {
+                throw corrupt("enregistrement inconnu " + tag);
+            }
+        }
+    }
+
+    /**
+     * Retourne le nombre de parties lues.
+     *
+     * @return le nombre de parties
+     */
+    public long getGamesRead() {
+        return games;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Garantit qu un enregistrement d au plus {@code bytes} octets est en
+     * memoire. Les varints sont bornes par leur taille maximale : seule la
+     * fin du journal peut en contenir moins.
+     */
+    private void require(int bytes) throws IOException {
+        if (!fill(bytes) && !buffer.hasRemaining()) {
+            throw new EOFException("Journal tronque apres " + games + " parties");
+        }
+    }
+
+    /**
+     * Complete le tampon jusqu a {@code bytes} octets si le fichier le permet.
+     *
+     * @return true si les octets sont disponibles
+     */
+    private boolean fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        buffer.compact();
+        while (!eof && buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                eof = true;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= bytes;
+    }
+
+    /**
+     * Verifie un identifiant de carte lu : le rejeu l utilise comme indice.
+     */
+    private byte card(byte id) throws IOException {
+        if (id < 0 || id >= CardCodec.CARD_COUNT) {
+            throw corrupt("carte " + id + " inconnue");
+        }
+        return id;
+    }
+
+    /**
+     * Verifie un numero de siege lu.
+     */
+    private int seat(int seat, int players) throws IOException {
+        if (seat < 0 || seat >= players) {
+            throw corrupt("siege " + seat + " hors de la table");
+        }
+        return seat;
+    }
+
+    private IOException corrupt(String reason) {
+        return new IOException("Journal mal forme (partie " + games + ") : " + reason);
+    }
+}
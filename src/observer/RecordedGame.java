@@ -0,0 +1,227 @@
+package observer;
+
+/**
+ * Partie lue dans un journal ({@link JournalReader}).
+ *
+ * <p>Contient l en-tete de la partie (graine, regles, extensions, joueurs),
+ * les decisions de chaque tour et le resultat enregistre. Les tours sont
+ * numerotes a partir de 1, comme {@link model.Game#getCurrentRound()} ;
+ * les sieges et les cartes sont ceux du format de {@link GameJournal}.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see JournalReader
+ */
+public final class RecordedGame {
+
+    private final long index;
+    private final long seed;
+    private final int rules;
+    private final int flags;
+    private final String[] names;
+    private final int rounds;
+    private final byte[] hidden;
+    private final byte[] takeSeats;
+    private final byte[] takeCards;
+    private final int winner;
+    private final int[] scores;
+    private final int bmTarget;
+    private final int bmType;
+    private final int bmValue;
+
+    /**
+     * Constructeur, appele par le lecteur de journal.
+     */
+    RecordedGame(long index, long seed, int rules, int flags, String[] names, int rounds,
+                 byte[] hidden, byte[] takeSeats, byte[] takeCards,
+                 int winner, int[] scores, int bmTarget, int bmType, int bmValue) {
+        this.index = index;
+        this.seed = seed;
+        this.rules = rules;
+        this.flags = flags;
+        this.names = names;
+        this.rounds = rounds;
+        this.hidden = hidden;
+        this.takeSeats = takeSeats;
+        this.takeCards = takeCards;
+        this.winner = winner;
+        this.scores = scores;
+        this.bmTarget = bmTarget;
+        this.bmType = bmType;
+        this.bmValue = bmValue;
+    }
+
+    /**
+     * Retourne le rang de la partie dans le journal.
+     *
+     * @return le rang, a partir de 0
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Retourne la graine de la partie.
+     *
+     * @return la graine
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retourne le code des regles ({@link model.SaveCodec#rulesCode}).
+     *
+     * @return 1, 2 ou 3, 0 si la partie n avait pas de regles
+     */
+    public int getRules() {
+        return rules;
+    }
+
+    /**
+     * Indique si la partie se joue avec les cartes 5-8.
+     *
+     * @return true si l extension est active
+     */
+    public boolean isExtensionCards() {
+        return (flags & GameJournal.FLAG_CARDS) != 0;
+    }
+
+    /**
+     * Indique si l extension BM est active.
+     *
+     * @return true si l extension est active
+     */
+    public boolean isExtensionBM() {
+        return (flags & GameJournal.FLAG_BM) != 0;
+    }
+
+    /**
+     * Retourne le nombre de joueurs.
+     *
+     * @return le nombre de joueurs
+     */
+    public int getPlayerCount() {
+        return names.length;
+    }
+
+    /**
+     * Retourne le nom d un joueur.
+     *
+     * @param seat le siege du joueur
+     * @return le nom
+     */
+    public String getName(int seat) {
+        return names[seat];
+    }
+
+    /**
+     * Retourne le nombre de tours joues.
+     *
+     * @return le nombre de tours
+     */
+    public int getRoundCount() {
+        return rounds;
+    }
+
+    /**
+     * Retourne la carte cachee de l offre d un joueur.
+     *
+     * @param round le numero du tour
+     * @param seat  le siege du joueur
+     * @return l identifiant de la carte
+     */
+    public int getHiddenCard(int round, int seat) {
+        return hidden[(round - 1) * names.length + seat];
+    }
+
+    /**
+     * Retourne le siege du joueur ayant fait une prise.
+     *
+     * @param round le numero du tour
+     * @param take  le rang de la prise dans le tour
+     * @return le siege du preneur
+     */
+    public int getTakeSeat(int round, int take) {
+        return takeSeats[(round - 1) * names.length + take];
+    }
+
+    /**
+     * Retourne la carte d une prise.
+     *
+     * @param round le numero du tour
+     * @param take  le rang de la prise dans le tour
+     * @return l identifiant de la carte prise
+     */
+    public int getTakeCard(int round, int take) {
+        return takeCards[(round - 1) * names.length + take];
+    }
+
+    /**
+     * Retourne la carte prise par un joueur dans un tour.
+     *
+     * @param round le numero du tour
+     * @param seat  le siege du joueur
+     * @return l identifiant de la carte, ou -1 si le joueur n a rien pris
+     */
+    public int getCardTakenBy(int round, int seat) {
+        int base = (round - 1) * names.length;
+        for (int take = 0; take < names.length; take++) {
+            if (takeSeats[base + take] == seat) return takeCards[base + take];
+        }
+        return -1;
+    }
+
+    /**
+     * Retourne le siege du gagnant enregistre.
+     *
+     * @return le siege, ou -1 si aucun
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Retourne le score final enregistre d un joueur.
+     *
+     * @param seat le siege du joueur
+     * @return le score final
+     */
+    public int getScore(int seat) {
+        return scores[seat];
+    }
+
+    /**
+     * Retourne le siege du joueur ayant recu la carte BM.
+     *
+     * @return le siege, ou -1 si aucune carte BM n a ete appliquee
+     */
+    public int getBmTarget() {
+        return bmTarget;
+    }
+
+    /**
+     * Retourne le type de la carte BM (rang dans {@link model.extension.BMCard.BMType}).
+     *
+     * @return le type, sans signification sans cible
+     */
+    public int getBmType() {
+        return bmType;
+    }
+
+    /**
+     * Retourne la valeur de la carte BM.
+     *
+     * @return la valeur, sans signification sans cible
+     */
+    public int getBmValue() {
+        return bmValue;
+    }
+
+    @Override
+    public String toString() {
+        return "Partie #" + index + " (graine " + seed + ", " + names.length + " joueurs, "
+                + rounds + " tours)";
+    }
+}
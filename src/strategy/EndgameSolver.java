@@ -0,0 +1,532 @@
+package strategy;
+
+import model.*;
+import model.compact.CardCodec;
+import model.compact.CompactAction;
+import model.compact.CompactGame;
+import model.compact.TranspositionTable;
+import model.compact.Zobrist;
+import model.rules.Rule1;
+import model.rules.Rule2;
+import model.rules.Rule3;
+import model.trophy.TrophyResolver;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Solveur exact du dernier tour d une partie.
+ *
+ * <p>Quand le deck ne peut plus completer les cartes reportees
+ * ({@link CompactGame#isFinalRound()}), la partie s arrete a la fin du tour
+ * en cours : il ne reste que quelques offres et prises a jouer, sans
+ * nouvelle distribution. Le solveur enumere alors toutes les repartitions
+ * des cartes inconnues du joueur ({@link CompactGame#unknownCards}) et,
+ * pour chacune, resout exactement la fin de partie.</p>
+ *
+ * <h2>Recherche :</h2>
+ * <ul>
+ *   <li>Esperance sur les repartitions : chaque repartition compatible
+ *       avec ce que le joueur a vu est equiprobable</li>
+ *   <li>Alpha-beta sur chaque repartition, a information complete : le
+ *       joueur maximise l ecart entre son score et le meilleur score
+ *       adverse, les adversaires le minimisent (hypothese pessimiste)</li>
+ *   <li>Table de transposition ({@link TranspositionTable}) indexee par
+ *       la cle de Zobrist de la position, du joueur et des regles : elle
+ *       sert a toutes les repartitions et peut etre partagee avec les
+ *       solveurs d autres threads</li>
+ *   <li>Les positions sont jouees et annulees sur place
+ *       ({@link CompactGame#apply(int)}, {@link CompactGame#undo()})</li>
+ * </ul>
+ *
+ * <p>Pour chaque action du joueur, le resultat donne le score final
+ * espere, l ecart espere, la probabilite de victoire et la probabilite de
+ * remporter chaque trophee (resolus par {@link TrophyResolver}), mesures
+ * sur la fin de partie principale de chaque repartition. Le score est
+ * celui de {@link RuleSet#maskScorer()} (Rule1, Rule2 ou Rule3).</p>
+ *
+ * <p>Une instance conserve ses tampons d une recherche a l autre ; elle
+ * n est pas partagee entre threads, contrairement a sa table.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see EndgameStrategy
+ */
+public class EndgameSolver {
+
+    /** Nombre maximal de repartitions enumerees par defaut. */
+    public static final int DEFAULT_MAX_DEALS = 20_000;
+
+    /** Periode de verification du temps ecoule (en noeuds). */
+    private static final int CLOCK_MASK = 1023;
+
+    /** Borne des valeurs de recherche. */
+    private static final int INFINITY = 1 << 20;
+
+    /** Profondeur maximale du dernier tour : une offre et une prise par joueur. */
+    private static final int MAX_PLY = 2 * CompactGame.MAX_PLAYERS + 1;
+
+    private final int maxDeals;
+    private final TranspositionTable table;
+
+    private final CompactGame root = new CompactGame();
+    private final CompactGame state = new CompactGame();
+    private final int[][] moves = new int[MAX_PLY][CompactAction.MAX_ACTIONS];
+    private final int[] rootActions = new int[CompactAction.MAX_ACTIONS];
+    private final byte[] pool = new byte[CardCodec.CARD_COUNT];
+    private final byte[] deal = new byte[CardCodec.CARD_COUNT];
+    private final int[] groupSizes = new int[1 + 3 * CompactGame.MAX_PLAYERS];
+    private final TrophyResolver resolver = new TrophyResolver();
+    private final long[] masks = new long[CompactGame.MAX_PLAYERS];
+    private final int[] scores = new int[CompactGame.MAX_PLAYERS];
+
+    // Etat de la recherche en cours
+    private int observer;
+    private long context;
+    private long hiddenJestCards;
+    private int groupCount;
+    private int rootCount;
+    private long deadline;
+    private long nodes;
+    private boolean aborted;
+    private List<TrophyCard> trophies;
+    private Result result;
+
+    /**
+     * Constructeur avec la limite de repartitions par defaut et la table partagee.
+     */
+    public EndgameSolver() {
+        this(DEFAULT_MAX_DEALS, TranspositionTable.shared());
+    }
+
+    /**
+     * Constructeur avec une limite de repartitions et une table donnees.
+     *
+     * @param maxDeals le nombre maximal de repartitions a enumerer
+     * @param table    la table de transposition (eventuellement partagee)
+     * @throws IllegalArgumentException si la limite n est pas positive ou la table absente
+     */
+    public EndgameSolver(int maxDeals, TranspositionTable table) {
+        if (maxDeals <= 0) {
+            throw new IllegalArgumentException("La limite de repartitions doit etre positive");
+        }
+        if (table == null) {
+            throw new IllegalArgumentException("Table de transposition absente");
+        }
+        this.maxDeals = maxDeals;
+        this.table = table;
+    }
+
+    /**
+     * Resout la decision courante d un joueur pendant le dernier tour.
+     *
+     * @param game             la partie
+     * @param player           le joueur qui doit jouer
+     * @param timeBudgetMillis la duree maximale en millisecondes (0 = sans limite)
+     * @return le resultat, ou null si la position n est pas un dernier tour,
+     *         si trop de repartitions sont possibles ou si le temps est depasse
+     */
+    public Result solve(Game game, Player player, long timeBudgetMillis) {
+        if (game.getRuleSet() == null || game.getRuleSet().maskScorer() == null) {
+            return null;
+        }
+
+        root.load(game);
+        observer = game.getPlayers().indexOf(player);
+        if (!root.isFinalRound() || root.getCurrentPlayer() != observer) {
+            return null;
+        }
+
+        hiddenJestCards = CompactGame.hiddenJestCards(game, player);
+        int unknown = root.unknownCards(observer, hiddenJestCards, pool);
+        long dealCount = countDeals(unknown);
+        if (dealCount > maxDeals) {
+            return null;
+        }
+
+        trophies = new ArrayList<>();
+        for (TrophyCard trophy : game.getTrophies()) {
+            if (TrophyResolver.supports(trophy)) trophies.add(trophy);
+        }
+
+        // Les valeurs dependent de l observateur et des regles : ils font partie de la cle,
+        // avec un code stable d une execution a l autre (pas l identite du scorer)
+        context = Zobrist.observer(observer) ^ GameRandom.mix(rulesContext(game.getRuleSet()));
+        table.newSearch();
+        rootCount = root.legalActions(rootActions);
+        result = new Result(rootActions, rootCount, trophies);
+        deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000L : Long.MAX_VALUE;
+        nodes = 0;
+        aborted = false;
+
+        long free = unknown == 64 ? -1L : (1L << unknown) - 1;
+        enumerate(0, 0, free);
+        return aborted ? null : result;
+    }
+
+    /**
+     * Code stable des regles pour la cle de la table de transposition :
+     * celui de la sauvegarde pour les trois variantes, le nom de la classe
+     * pour d autres regles.
+     */
+    private static long rulesContext(RuleSet ruleSet) {
+        if (ruleSet instanceof Rule1 || ruleSet instanceof Rule2 || ruleSet instanceof Rule3) {
+            return SaveCodec.rulesCode(ruleSet);
+        }
+        return ruleSet.getClass().getName().hashCode() & 0xFFFFFFFFL | 1L << 32;
+    }
+
+    /**
+     * Decoupe les cartes inconnues en emplacements et compte les repartitions
+     * distinctes (coefficient multinomial).
+     */
+    private long countDeals(int unknown) {
+        groupCount = 0;
+        addGroup(root.getDeck().size());
+        for (int p = 0; p < root.getPlayerCount(); p++) {
+            if (p == observer) continue;
+            addGroup(root.getHand(p).size());
+            addGroup(root.getOffer(p).getFaceDown() != CardCodec.NONE ? 1 : 0);
+            addGroup(Long.bitCount(root.getJestMask(p) & hiddenJestCards));
+        }
+
+        double count = 1.0;
+        int placed = 0;
+        for (int g = 0; g < groupCount; g++) {
+            for (int i = 1; i <= groupSizes[g]; i++) {
+                count = count * (placed + i) / i;
+            }
+            placed += groupSizes[g];
+        }
+        return placed == unknown ? Math.round(count) : Long.MAX_VALUE;
+    }
+
+    private void addGroup(int size) {
+        groupSizes[groupCount++] = size;
+    }
+
+    /**
+     * Enumere les repartitions emplacement par emplacement ; l ordre des
+     * cartes a l interieur d un emplacement est indifferent.
+     */
+    private void enumerate(int group, int offset, long free) {
+        if (aborted) {
+            return;
+        }
+        if (group == groupCount) {
+            solveDeal();
+            return;
+        }
+        choose(group, offset, free, free, groupSizes[group]);
+    }
+
+    /**
+     * Choisit les cartes d un emplacement parmi les candidates restantes.
+     */
+    private void choose(int group, int offset, long free, long candidates, int left) {
+        if (left == 0) {
+            enumerate(group + 1, offset, free);
+            return;
+        }
+        for (long c = candidates; Long.bitCount(c) >= left && !aborted; c &= c - 1) {
+            int i = Long.numberOfTrailingZeros(c);
+            deal[offset] = pool[i];
+            choose(group, offset + 1, free & ~(1L << i), c & (c - 1), left - 1);
+        }
+    }
+
+    /**
+     * Resout une repartition pour chaque action du joueur.
+     */
+    private void solveDeal() {
+        state.copyFrom(root);
+        state.assignUnknown(observer, hiddenJestCards, deal);
+
+        for (int a = 0; a < rootCount; a++) {
+            state.apply(rootActions[a]);
+            int value = search(-INFINITY, INFINITY, 1);
+            if (!aborted) {
+                recordPrincipalLeaf(a, value);
+            }
+            state.undo();
+            if (aborted) return;
+        }
+        result.deals++;
+    }
+
+    /**
+     * Alpha-beta du point de vue de l observateur.
+     *
+     * @return l ecart final entre l observateur et le meilleur adversaire
+     */
+    private int search(int alpha, int beta, int ply) {
+        if (state.isOver()) {
+            return margin();
+        }
+        if ((++nodes & CLOCK_MASK) == 0 && System.nanoTime() > deadline) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+
+        long key = state.getHash() ^ context;
+        long entry = table.probe(key);
+        int ttMove = CompactAction.NONE;
+        if (entry != TranspositionTable.MISS) {
+            int stored = TranspositionTable.value(entry);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT) return stored;
+            if (bound == TranspositionTable.LOWER && stored >= beta) return stored;
+            if (bound == TranspositionTable.UPPER && stored <= alpha) return stored;
+            ttMove = TranspositionTable.move(entry);
+        }
+
+        int alphaStart = alpha;
+        int betaStart = beta;
+        boolean maximizing = state.getCurrentPlayer() == observer;
+        int[] legal = moves[ply];
+        int count = state.legalActions(legal);
+        orderFirst(legal, count, ttMove);
+        int best = maximizing ? -INFINITY : INFINITY;
+        int bestMove = legal[0];
+
+        for (int i = 0; i < count && alpha < beta; i++) {
+            state.apply(legal[i]);
+            int value = search(alpha, beta, ply + 1);
+            state.undo();
+            if (maximizing ? value > best : value < best) {
+                best = value;
+                bestMove = legal[i];
+            }
+            if (maximizing) {
+                alpha = Math.max(alpha, value);
+            } else {
+                beta = Math.min(beta, value);
+            }
+        }
+        if (aborted) {
+            return 0;
+        }
+
+        int bound = best <= alphaStart ? TranspositionTable.UPPER
+                : best >= betaStart ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(key, best, bound, MAX_PLY - ply, bestMove);
+        return best;
+    }
+
+    /**
+     * Place l action conseillee par la table en tete des actions legales.
+     */
+    private static void orderFirst(int[] legal, int count, int move) {
+        for (int i = 1; i < count; i++) {
+            if (legal[i] == move) {
+                legal[i] = legal[0];
+                legal[0] = move;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Suit la variante principale jusqu a la fin de partie et compte son issue.
+     */
+    private void recordPrincipalLeaf(int index, int value) {
+        int ply = 1;
+        while (!state.isOver()) {
+            int[] legal = moves[ply];
+            int count = state.legalActions(legal);
+            int chosen = legal[0];
+            for (int i = 0; i < count; i++) {
+                state.apply(legal[i]);
+                int childValue = search(-INFINITY, INFINITY, ply + 1);
+                state.undo();
+                if (childValue == value) {
+                    chosen = legal[i];
+                    break;
+                }
+            }
+            state.apply(chosen);
+            ply++;
+        }
+
+        int n = state.getPlayerCount();
+        for (int p = 0; p < n; p++) {
+            masks[p] = state.getJestMask(p);
+            scores[p] = state.score(p);
+        }
+        result.scoreSums[index] += scores[observer];
+        result.marginSums[index] += value;
+        if (state.winner() == observer) {
+            result.wins[index]++;
+        }
+        if (!trophies.isEmpty()) {
+            resolver.load(masks, scores, n);
+            for (int t = 0; t < trophies.size(); t++) {
+                TrophyCard trophy = trophies.get(t);
+                Suits suit = trophy.getTrophySuit();
+                if (resolver.winnerOf(trophy.getType(), suit == null ? -1 : suit.ordinal()) == observer) {
+                    result.trophyWins[index][t]++;
+                }
+            }
+        }
+
+        while (--ply > 0) {
+            state.undo();
+        }
+    }
+
+    /**
+     * Ecart entre le score de l observateur et le meilleur score adverse.
+     */
+    private int margin() {
+        int best = Integer.MIN_VALUE;
+        for (int p = 0; p < state.getPlayerCount(); p++) {
+            if (p != observer) best = Math.max(best, state.score(p));
+        }
+        return state.score(observer) - best;
+    }
+
+    /**
+     * Resultat de la resolution d une decision.
+     *
+     * <p>Les valeurs sont des moyennes sur toutes les repartitions des
+     * cartes inconnues, pour chaque action legale du joueur.</p>
+     */
+    public static final class Result {
+        private final int[] actions;
+        private final List<TrophyCard> trophies;
+        private final long[] scoreSums;
+        private final long[] marginSums;
+        private final long[] wins;
+        private final long[][] trophyWins;
+        private long deals;
+
+        Result(int[] legal, int count, List<TrophyCard> trophies) {
+            this.actions = Arrays.copyOf(legal, count);
+            this.trophies = Collections.unmodifiableList(trophies);
+            this.scoreSums = new long[count];
+            this.marginSums = new long[count];
+            this.wins = new long[count];
+            this.trophyWins = new long[count][trophies.size()];
+        }
+
+        /**
+         * Retourne le nombre d actions evaluees.
+         *
+         * @return le nombre d actions legales du joueur
+         */
+        public int getActionCount() {
+            return actions.length;
+        }
+
+        /**
+         * Retourne une action evaluee.
+         *
+         * @param index l indice de l action
+         * @return l action (voir {@link CompactAction})
+         */
+        public int getAction(int index) {
+            return actions[index];
+        }
+
+        /**
+         * Retourne le nombre de repartitions resolues.
+         *
+         * @return le nombre de repartitions
+         */
+        public long getDealCount() {
+            return deals;
+        }
+
+        /**
+         * Retourne le score final espere du joueur apres une action.
+         *
+         * @param index l indice de l action
+         * @return le score moyen
+         */
+        public double getExpectedScore(int index) {
+            return (double) scoreSums[index] / deals;
+        }
+
+        /**
+         * Retourne l ecart espere avec le meilleur adversaire apres une action.
+         *
+         * @param index l indice de l action
+         * @return l ecart moyen
+         */
+        public double getExpectedMargin(int index) {
+            return (double) marginSums[index] / deals;
+        }
+
+        /**
+         * Retourne la probabilite de victoire apres une action.
+         *
+         * @param index l indice de l action
+         * @return la proportion de repartitions gagnees
+         */
+        public double getWinProbability(int index) {
+            return (double) wins[index] / deals;
+        }
+
+        /**
+         * Retourne les trophees resolus.
+         *
+         * @return les trophees de la partie supportes par {@link TrophyResolver}
+         */
+        public List<TrophyCard> getTrophies() {
+            return trophies;
+        }
+
+        /**
+         * Retourne la probabilite de remporter un trophee apres une action.
+         *
+         * @param index  l indice de l action
+         * @param trophy l indice du trophee dans {@link #getTrophies()}
+         * @return la proportion de repartitions ou le joueur le remporte
+         */
+        public double getTrophyProbability(int index, int trophy) {
+            return (double) trophyWins[index][trophy] / deals;
+        }
+
+        /**
+         * Retourne la meilleure action : plus grand ecart espere, puis plus
+         * grande probabilite de victoire.
+         *
+         * @return l action choisie
+         */
+        public int getBestAction() {
+            int best = 0;
+            for (int a = 1; a < actions.length; a++) {
+                if (marginSums[a] > marginSums[best]
+                        || (marginSums[a] == marginSums[best] && wins[a] > wins[best])) {
+                    best = a;
+                }
+            }
+            return actions[best];
+        }
+
+        /**
+         * Retourne une representation textuelle du resultat.
+         *
+         * @return une ligne par action
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("Fin de partie : ").append(deals).append(" repartitions");
+            for (int a = 0; a < actions.length; a++) {
+                sb.append(System.lineSeparator())
+                  .append(String.format("  %s : score %.2f, ecart %+.2f, victoire %.1f%%",
+                          CompactAction.toString(actions[a]), getExpectedScore(a),
+                          getExpectedMargin(a), 100 * getWinProbability(a)));
+                for (int t = 0; t < trophies.size(); t++) {
+                    sb.append(String.format(", %s %.1f%%", trophies.get(t).getName(),
+                            100 * getTrophyProbability(a, t)));
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package strategy;
+
+import model.*;
+import model.compact.CompactAction;
+import model.compact.LegalMoves;
+import model.compact.TranspositionTable;
+import java.util.List;
+
+/**
+ * Decorateur jouant le dernier tour d une partie avec le solveur exact.
+ *
+ * <p>Tant que la partie n est pas dans son dernier tour, ou si le solveur
+ * ne tient pas dans son budget (trop de repartitions possibles, temps
+ * depasse), la decision est deleguee a la strategie decoree. Dans le
+ * dernier tour, l offre et la prise sont celles de
+ * {@link EndgameSolver.Result#getBestAction()}.</p>
+ *
+ * <h2>Exemple :</h2>
+ * <pre>
+ * Strategy strategy = new EndgameStrategy(new MctsStrategy());
+ * </pre>
+ *
+ * <p>Les solveurs de toutes les instances partagent la table de
+ * transposition {@link TranspositionTable#shared()} : les strategies
+ * jouant en parallele dans une simulation profitent des positions deja
+ * resolues par les autres.</p>
+ *
+ * <p>Une strategie humaine n est jamais remplacee : le decorateur
+ * delegue alors toutes les decisions.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see EndgameSolver
+ */
+public class EndgameStrategy implements Strategy {
+    private static final long serialVersionUID = 1L;
+
+    /** Duree maximale de resolution par defaut (en millisecondes). */
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 200;
+
+    private final Strategy delegate;
+    private final long timeBudgetMillis;
+    private final int maxDeals;
+
+    /** Solveur recree apres une restauration de partie. */
+    private transient EndgameSolver solver;
+
+    /**
+     * Constructeur avec le budget par defaut.
+     *
+     * @param delegate la strategie utilisee hors du dernier tour
+     */
+    public EndgameStrategy(Strategy delegate) {
+        this(delegate, DEFAULT_TIME_BUDGET_MILLIS, EndgameSolver.DEFAULT_MAX_DEALS);
+    }
+
+    /**
+     * Constructeur avec un budget donne.
+     *
+     * @param delegate         la strategie utilisee hors du dernier tour
+     * @param timeBudgetMillis la duree maximale de resolution en millisecondes (0 = sans limite)
+     * @param maxDeals         le nombre maximal de repartitions a enumerer
+     * @throws IllegalArgumentException si la strategie decoree est absente
+     */
+    public EndgameStrategy(Strategy delegate, long timeBudgetMillis, int maxDeals) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Strategie decoree absente");
+        }
+        this.delegate = delegate;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.maxDeals = maxDeals;
+    }
+
+    @Override
+    public Offer chooseOffer(Player player, List<Card> hand, Game game) {
+        Offer offer = LegalMoves.toOffer(player, hand, solve(player, game));
+        return offer != null ? offer : delegate.chooseOffer(player, hand, game);
+    }
+
+    @Override
+    public Card chooseTake(Player player, List<Offer> offers, Game game) {
+        Card card = LegalMoves.take(game, offers, solve(player, game));
+        return card != null ? card : delegate.chooseTake(player, offers, game);
+    }
+
+    @Override
+    public boolean isHuman() {
+        return delegate.isHuman();
+    }
+
+    /**
+     * Retourne la strategie decoree.
+     *
+     * @return la strategie utilisee hors du dernier tour
+     */
+    public Strategy getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Retourne la duree maximale de resolution.
+     *
+     * @return la duree en millisecondes (0 = sans limite)
+     */
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    /**
+     * Retourne le nombre maximal de repartitions enumerees.
+     *
+     * @return le nombre de repartitions
+     */
+    public int getMaxDeals() {
+        return maxDeals;
+    }
+
+    /**
+     * Resout la decision si la position s y prete.
+     *
+     * @return l action du solveur, ou NONE pour deleguer
+     */
+    private int solve(Player player, Game game) {
+        if (delegate.isHuman()) {
+            return CompactAction.NONE;
+        }
+        if (solver == null) {
+            solver = new EndgameSolver(maxDeals, TranspositionTable.shared());
+        }
+        EndgameSolver.Result result = solver.solve(game, player, timeBudgetMillis);
+        return result != null ? result.getBestAction() : CompactAction.NONE;
+    }
+}
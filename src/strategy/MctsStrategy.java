@@ -0,0 +1,531 @@
+package strategy;
+
+import model.*;
+import model.compact.CompactAction;
+import model.compact.CompactGame;
+import model.compact.LegalMoves;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Strategie IA par recherche arborescente Monte Carlo a ensembles
+ * d information (ISMCTS, variante a observateur unique).
+ *
+ * <p>Le joueur ne connait ni les cartes cachees des offres adverses, ni
+ * les mains adverses, ni l ordre du deck. A chaque iteration, la position
+ * est <i>determinisee</i> : les cartes inconnues sont redistribuees au
+ * hasard de facon compatible avec ce que le joueur a vu
+ * ({@link CompactGame#determinize}). L iteration descend ensuite dans un
+ * arbre commun a toutes les determinisations, puis termine la partie au
+ * hasard et remonte le resultat (victoire ou non de chaque joueur).</p>
+ *
+ * <h2>Details de la recherche :</h2>
+ * <ul>
+ *   <li>Les noeuds sont indexes par action ({@link CompactAction}) :
+ *       une meme action regroupe toutes les determinisations</li>
+ *   <li>Une offre adverse est indexee par sa carte visible, seule connue
+ *       du joueur : l arbre ne se divise pas selon une carte cachee, et
+ *       les statistiques des decisions suivantes n en dependent pas</li>
+ *   <li>Selection UCB ponderee par la disponibilite de chaque action
+ *       (une action n est pas legale dans toutes les determinisations)</li>
+ *   <li>Les distributions de cartes sont des evenements de hasard joues
+ *       directement, sans noeud</li>
+ *   <li>Chaque noeud est evalue du point de vue du joueur qui y a joue</li>
+ * </ul>
+ *
+ * <h2>Budget :</h2>
+ * <p>La recherche s arrete apres un nombre d iterations et/ou une duree
+ * donnes (le premier atteint). Avec un budget en iterations seulement,
+ * la decision ne depend que de la graine de la partie.</p>
+ *
+ * <h2>Recherche parallele :</h2>
+ * <p>Avec plusieurs threads, le budget en iterations est reparti entre
+ * eux selon l un des deux modes de {@link Parallelism} :</p>
+ * <ul>
+ *   <li><b>ROOT</b> : chaque thread construit son propre arbre avec son
+ *       propre flux aleatoire ; les visites des actions racines sont
+ *       additionnees a la fin. La decision reste reproductible.</li>
+ *   <li><b>TREE</b> : tous les threads partagent un seul arbre. Les
+ *       statistiques des noeuds sont mises a jour sans verrou (operations
+ *       atomiques) et une visite est comptee des la descente, comme une
+ *       defaite tant que le resultat n est pas connu (perte virtuelle) :
+ *       les threads s ecartent ainsi des chemins deja explores par les
+ *       autres. La decision depend de l ordonnancement des threads.</li>
+ * </ul>
+ * <p>Un seul thread donne exactement la recherche sequentielle.</p>
+ *
+ * <p>Si les regles ne fournissent pas de score binaire
+ * ({@link RuleSet#maskScorer()}), la strategie se comporte comme
+ * {@link Strategy1}.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see CompactGame
+ */
+public class MctsStrategy extends AIStrategy {
+    private static final long serialVersionUID = 1L;
+
+    /** Nombre d iterations par defaut. */
+    public static final int DEFAULT_ITERATIONS = 2000;
+
+    /** Constante d exploration UCB. */
+    private static final double EXPLORATION = 0.7;
+
+    /** Periode de verification du temps ecoule (en iterations). */
+    private static final int CLOCK_MASK = 63;
+
+    /** Marque des cles d offres adverses (hors des 10 bits d une action). */
+    private static final int FACE_UP_OFFER = 1 << 10;
+
+    /**
+     * Mode de recherche parallele.
+     */
+    public enum Parallelism {
+        /** Un arbre par thread, fusionnes a la racine. */
+        ROOT,
+        /** Un arbre partage, avec perte virtuelle. */
+        TREE
+    }
+
+    private final int iterations;
+    private final long timeBudgetMillis;
+    /** Non finals pour la normalisation des anciennes sauvegardes ({@link #readObject}). */
+    private int threads;
+    private Parallelism parallelism;
+    private final Strategy fallback = new Strategy1();
+
+    /**
+     * Constructeur avec le budget par defaut.
+     */
+    public MctsStrategy() {
+        this(DEFAULT_ITERATIONS, 0);
+    }
+
+    /**
+     * Constructeur avec un budget donne.
+     *
+     * @param iterations       le nombre maximal d iterations (0 = sans limite)
+     * @param timeBudgetMillis la duree maximale par decision en millisecondes (0 = sans limite)
+     * @throws IllegalArgumentException si aucun budget n est donne
+     */
+    public MctsStrategy(int iterations, long timeBudgetMillis) {
+        this(iterations, timeBudgetMillis, 1, Parallelism.ROOT);
+    }
+
+    /**
+     * Constructeur d une recherche parallele.
+     *
+     * @param iterations       le nombre maximal d iterations, tous threads confondus (0 = sans limite)
+     * @param timeBudgetMillis la duree maximale par decision en millisecondes (0 = sans limite)
+     * @param threads          le nombre de threads de recherche
+     * @param parallelism      le mode de parallelisation
+     * @throws IllegalArgumentException si aucun budget n est donne ou si les
+     *         parametres de parallelisation sont invalides
+     */
+    public MctsStrategy(int iterations, long timeBudgetMillis, int threads, Parallelism parallelism) {
+        if (iterations <= 0 && timeBudgetMillis <= 0) {
+            throw new IllegalArgumentException("Il faut un budget en iterations ou en temps");
+        }
+        if (threads < 1 || parallelism == null) {
+            throw new IllegalArgumentException("Parallelisation invalide : " + threads + " threads, mode " + parallelism);
+        }
+        this.iterations = iterations;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.threads = threads;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public Offer chooseOffer(Player player, List<Card> hand, Game game) {
+        Offer offer = LegalMoves.toOffer(player, hand, search(player, game));
+        return offer != null ? offer : fallback.chooseOffer(player, hand, game);
+    }
+
+    @Override
+    public Card chooseTake(Player player, List<Offer> offers, Game game) {
+        Card card = LegalMoves.take(game, offers, search(player, game));
+        return card != null ? card : fallback.chooseTake(player, offers, game);
+    }
+
+    /**
+     * Complete une strategie serialisee avant la recherche parallele : ni
+     * nombre de threads ni mode n y figurent.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        threads = Math.max(1, threads);
+        if (parallelism == null) {
+            parallelism = Parallelism.ROOT;
+        }
+    }
+
+    /**
+     * Retourne le nombre maximal d iterations par decision.
+     *
+     * @return le nombre d iterations (0 = sans limite)
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Retourne la duree maximale par decision.
+     *
+     * @return la duree en millisecondes (0 = sans limite)
+     */
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    /**
+     * Retourne le nombre de threads de recherche.
+     *
+     * @return le nombre de threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Retourne le mode de parallelisation.
+     *
+     * @return le mode
+     */
+    public Parallelism getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Cherche la meilleure action du joueur dans la position courante.
+     *
+     * @return l action choisie, ou NONE si la position n est pas supportee
+     */
+    private int search(Player player, Game game) {
+        if (game.getRuleSet() == null || game.getRuleSet().maskScorer() == null) {
+            return CompactAction.NONE;
+        }
+
+        CompactGame root = new CompactGame();
+        root.load(game);
+        int observer = game.getPlayers().indexOf(player);
+        if (root.getCurrentPlayer() != observer) {
+            return CompactAction.NONE;
+        }
+
+        int[] legal = new int[CompactAction.MAX_ACTIONS];
+        int rootCount = root.legalActions(legal);
+        if (rootCount == 1) {
+            return legal[0];
+        }
+
+        long hiddenJestCards = CompactGame.hiddenJestCards(game, player);
+        long deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000L : Long.MAX_VALUE;
+
+        // Un seul thread, ou strategie restauree d une sauvegarde anterieure au mode parallele
+        if (threads <= 1) {
+            Node tree = new Node(CompactAction.NONE, -1, null);
+            Budget budget = new Budget(iterations, deadline);
+            iterate(tree, root, observer, hiddenJestCards, game.getStrategyRandom().split(), budget, false);
+            return Node.mostVisited(new Node[] {tree}, legal, rootCount);
+        }
+
+        boolean shared = parallelism == Parallelism.TREE;
+        Node[] trees = new Node[shared ? 1 : threads];
+        for (int t = 0; t < trees.length; t++) {
+            trees[t] = new Node(CompactAction.NONE, -1, null);
+        }
+        Budget sharedBudget = new Budget(iterations, deadline);
+        GameRandom base = game.getStrategyRandom().split();
+
+        List<Future<?>> pending = new ArrayList<>(threads - 1);
+        Runnable first = null;
+        for (int t = 0; t < threads; t++) {
+            Node tree = trees[shared ? 0 : t];
+            GameRandom rng = base.split();
+            // Mode ROOT : parts fixes du budget, pour une decision reproductible
+            Budget budget = shared ? sharedBudget
+                    : new Budget(iterations <= 0 ? 0 : Math.max(1, (iterations + threads - 1 - t) / threads), deadline);
+            Runnable task = () -> iterate(tree, root, observer, hiddenJestCards, rng, budget, shared);
+            if (first == null) {
+                first = task;
+            } else {
+                pending.add(Workers.POOL.submit(task));
+            }
+        }
+
+        first.run();
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Echec d un thread de recherche", e.getCause());
+            }
+        }
+        return Node.mostVisited(trees, legal, rootCount);
+    }
+
+    /**
+     * Boucle de recherche d un thread.
+     *
+     * @param tree   l arbre a enrichir
+     * @param root   la position de depart (lue seulement)
+     * @param shared true si l arbre est partage avec d autres threads
+     */
+    private static void iterate(Node tree, CompactGame root, int observer, long hiddenJestCards,
+                                GameRandom rng, Budget budget, boolean shared) {
+        CompactGame state = new CompactGame();
+        int[] buffer = new int[CompactAction.MAX_ACTIONS];
+        int[] keys = new int[CompactAction.MAX_ACTIONS];
+
+        for (int i = 0; budget.acquire(i); i++) {
+            state.copyFrom(root);
+            state.determinize(observer, hiddenJestCards, rng);
+            tree.visit(shared);
+            Node node = select(tree, state, observer, buffer, keys, rng, shared);
+            state.playRandom(rng);
+
+            int winner = state.winner();
+            for (Node n = node; n != null; n = n.parent) {
+                if (n.mover == winner) n.win(shared);
+            }
+        }
+    }
+
+    /**
+     * Descend dans l arbre jusqu a un noeud a developper ou a la fin de partie.
+     *
+     * @return le dernier noeud atteint
+     */
+    private static Node select(Node node, CompactGame state, int observer, int[] legal, int[] keys,
+                               GameRandom rng, boolean shared) {
+        while (!state.isOver()) {
+            if (state.getPhase() == CompactGame.PHASE_DEAL) {
+                state.apply(CompactAction.DEAL);
+                continue;
+            }
+
+            int count = state.legalActions(legal);
+            int mover = state.getCurrentPlayer();
+            keys(legal, count, mover != observer, keys);
+
+            // Actions legales sans noeud : on en developpe une au hasard
+            int untried = 0;
+            for (int a = 0; a < count; a++) {
+                Node child = node.child(keys[a]);
+                if (child == null) {
+                    legal[untried] = legal[a];
+                    keys[untried++] = keys[a];
+                } else {
+                    child.offered(shared);
+                }
+            }
+            if (untried > 0) {
+                int chosen = rng.nextInt(untried);
+                Node child = node.addChild(keys[chosen], mover, shared);
+                state.apply(legal[chosen]);
+                return child;
+            }
+
+            Node best = null;
+            int bestAction = CompactAction.NONE;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int a = 0; a < count; a++) {
+                Node child = node.child(keys[a]);
+                double value = child.ucb();
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                    bestAction = legal[a];
+                }
+            }
+            best.visit(shared);
+            state.apply(bestAction);
+            node = best;
+        }
+        return node;
+    }
+
+    /**
+     * Ecrit la cle de noeud de chaque action legale.
+     *
+     * <p>L offre d un adversaire est designee par sa carte visible : la
+     * carte cachee est l autre carte de sa main, inconnue de l observateur.
+     * Les cles ne sont que des identifiants de noeuds, jamais jouees.</p>
+     */
+    private static void keys(int[] legal, int count, boolean opponent, int[] keys) {
+        boolean offers = opponent && count == 2 && CompactAction.type(legal[0]) == CompactAction.TYPE_OFFER;
+        for (int a = 0; a < count; a++) {
+            keys[a] = offers
+                    ? FACE_UP_OFFER | CompactAction.hiddenCard(legal[1 - a])
+                    : legal[a];
+        }
+    }
+
+    /**
+     * Budget d iterations d un ou plusieurs threads.
+     */
+    private static final class Budget {
+        private final AtomicInteger remaining;
+        private final long deadline;
+
+        Budget(int iterations, long deadline) {
+            this.remaining = iterations > 0 ? new AtomicInteger(iterations) : null;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Reserve une iteration.
+         *
+         * @param done le nombre d iterations deja faites par le thread
+         * @return false si le budget est epuise
+         */
+        boolean acquire(int done) {
+            if ((done & CLOCK_MASK) == 0 && System.nanoTime() > deadline) {
+                return false;
+            }
+            return remaining == null || remaining.getAndDecrement() > 0;
+        }
+    }
+
+    /**
+     * Noeud de l arbre de recherche.
+     *
+     * <p>Les enfants forment un tableau remplace en entier a chaque ajout
+     * (compare-and-set) et les compteurs sont modifies par des operations
+     * atomiques lorsque l arbre est partage : aucun verrou n est pris.
+     * Une visite est comptee des la descente, la victoire eventuelle a la
+     * remontee.</p>
+     */
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final VarHandle CHILDREN;
+        private static final VarHandle VISITS;
+        private static final VarHandle WINS;
+        private static final VarHandle AVAILABILITY;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                CHILDREN = lookup.findVarHandle(Node.class, "children", Node[].class);
+                VISITS = lookup.findVarHandle(Node.class, "visits", int.class);
+                WINS = lookup.findVarHandle(Node.class, "wins", int.class);
+                AVAILABILITY = lookup.findVarHandle(Node.class, "availability", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        final int action;
+        final int mover;
+        final Node parent;
+        volatile Node[] children = NO_CHILDREN;
+        int visits;
+        int wins;
+        int availability = 1;
+
+        /**
+         * Cree un noeud avec la visite du thread qui le developpe.
+         */
+        Node(int action, int mover, Node parent) {
+            this.action = action;
+            this.mover = mover;
+            this.parent = parent;
+            this.visits = parent != null ? 1 : 0;
+        }
+
+        Node child(int action) {
+            Node[] current = children;
+            for (int c = 0; c < current.length; c++) {
+                if (current[c].action == action) return current[c];
+            }
+            return null;
+        }
+
+        /**
+         * Ajoute un enfant, ou retourne celui qu un autre thread vient d ajouter.
+         */
+        Node addChild(int action, int mover, boolean shared) {
+            Node child = new Node(action, mover, this);
+            while (true) {
+                Node[] current = children;
+                for (int c = 0; c < current.length; c++) {
+                    if (current[c].action == action) {
+                        current[c].visit(shared);
+                        return current[c];
+                    }
+                }
+                Node[] next = Arrays.copyOf(current, current.length + 1);
+                next[current.length] = child;
+                if (CHILDREN.compareAndSet(this, current, next)) {
+                    return child;
+                }
+            }
+        }
+
+        void visit(boolean shared) {
+            if (shared) VISITS.getAndAdd(this, 1); else visits++;
+        }
+
+        void win(boolean shared) {
+            if (shared) WINS.getAndAdd(this, 1); else wins++;
+        }
+
+        void offered(boolean shared) {
+            if (shared) AVAILABILITY.getAndAdd(this, 1); else availability++;
+        }
+
+        double ucb() {
+            int n = visits;
+            return (double) wins / n + EXPLORATION * Math.sqrt(Math.log(availability) / n);
+        }
+
+        /**
+         * Action racine la plus visitee, visites additionnees sur plusieurs arbres.
+         */
+        static int mostVisited(Node[] trees, int[] legal, int count) {
+            int best = legal[0];
+            long bestVisits = -1;
+            for (int a = 0; a < count; a++) {
+                long total = 0;
+                boolean seen = false;
+                for (Node tree : trees) {
+                    Node child = tree.child(legal[a]);
+                    if (child != null) {
+                        total += child.visits;
+                        seen = true;
+                    }
+                }
+                if (seen && total > bestVisits) {
+                    bestVisits = total;
+                    best = legal[a];
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Threads de recherche partages par toutes les strategies (crees a la demande).
+     */
+    private static final class Workers {
+        static final ExecutorService POOL = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "mcts-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
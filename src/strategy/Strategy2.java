@@ -2,7 +2,6 @@ package strategy;
 
 import model.*;
 import java.util.List;
-import java.util.Random;
 
 /**
  * Strategie IA bluff : privilegie les cartes cachees.
@@ -14,6 +13,9 @@ import java.util.Random;
  *   <li>Comporte une part d aleatoire</li>
  * </ul>
  * 
+ * <p>L aleatoire provient de {@link Game#getStrategyRandom()} : une partie
+ * rejouee avec la meme graine reproduit les memes choix.</p>
+ * 
  * @author Projet LO02 - UTT
  * @version 2.0
  * @since 1.0
@@ -21,7 +23,6 @@ import java.util.Random;
  */
 public class Strategy2 extends AIStrategy {
     private static final long serialVersionUID = 1L;
-    private Random random = new Random();
 
     @Override
     public Offer chooseOffer(Player player, List<Card> hand, Game game) {
@@ -47,7 +48,7 @@ public class Strategy2 extends AIStrategy {
 
         Offer chosenOffer;
         if (!completeOffers.isEmpty()) {
-            chosenOffer = completeOffers.get(random.nextInt(completeOffers.size()));
+            chosenOffer = completeOffers.get(game.getStrategyRandom().nextInt(completeOffers.size()));
         } else {
             chosenOffer = offers.get(0);
         }
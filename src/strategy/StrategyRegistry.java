@@ -0,0 +1,202 @@
+package strategy;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre des strategies identifiees par un numero.
+ *
+ * <p>Une sauvegarde ({@link model.SaveCodec}) ne stocke pas l objet
+ * strategie de chaque joueur mais son numero suivi de ses parametres.
+ * Les numeros des strategies IA sont ceux des options des simulations
+ * ({@code --strategies}).</p>
+ *
+ * <h2>Strategies enregistrees :</h2>
+ * <ul>
+ *   <li>{@link #HUMAN} : {@link HumanStrategy}</li>
+ *   <li>{@link #CONSERVATIVE} : {@link Strategy1}</li>
+ *   <li>{@link #BLUFF} : {@link Strategy2}</li>
+ *   <li>{@link #MCTS} : {@link MctsStrategy} (iterations, duree, threads, mode)</li>
+ *   <li>{@link #ENDGAME} : {@link EndgameStrategy} (duree, repartitions, strategie decoree)</li>
+ * </ul>
+ *
+ * <p>Une nouvelle strategie s ajoute avec {@link #register}, sous un
+ * numero libre, avant de sauvegarder ou de charger une partie qui
+ * l utilise.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ */
+public final class StrategyRegistry {
+
+    /** Numero de la strategie humaine. */
+    public static final int HUMAN = 0;
+
+    /** Numero de l IA conservatrice. */
+    public static final int CONSERVATIVE = 1;
+
+    /** Numero de l IA bluff. */
+    public static final int BLUFF = 2;
+
+    /** Numero de l IA MCTS. */
+    public static final int MCTS = 3;
+
+    /** Numero du decorateur de fin de partie. */
+    public static final int ENDGAME = 4;
+
+    /** Nombre maximal de numeros (un octet). */
+    private static final int MAX_IDS = 256;
+
+    /**
+     * Codage des parametres d une strategie.
+     *
+     * @param <S> le type de strategie
+     */
+    public interface Codec<S extends Strategy> {
+
+        /**
+         * Ecrit les parametres d une strategie.
+         *
+         * @param strategy la strategie
+         * @param out      le tampon de sortie
+         */
+        void write(S strategy, ByteBuffer out);
+
+        /**
+         * Recree une strategie a partir de ses parametres.
+         *
+         * @param in le tampon d entree
+         * @return la strategie
+         */
+        S read(ByteBuffer in);
+    }
+
+    private static final Codec<?>[] BY_ID = new Codec<?>[MAX_IDS];
+    private static final Map<Class<?>, Integer> IDS = new ConcurrentHashMap<>();
+
+    static {
+        register(HUMAN, HumanStrategy.class, stateless(HumanStrategy::new));
+        register(CONSERVATIVE, Strategy1.class, stateless(Strategy1::new));
+        register(BLUFF, Strategy2.class, stateless(Strategy2::new));
+        register(MCTS, MctsStrategy.class, new Codec<MctsStrategy>() {
+            @Override
+            public void write(MctsStrategy strategy, ByteBuffer out) {
+                out.putInt(strategy.getIterations());
+                out.putLong(strategy.getTimeBudgetMillis());
+                out.put((byte) strategy.getThreads());
+                out.put((byte) strategy.getParallelism().ordinal());
+            }
+
+            @Override
+            public MctsStrategy read(ByteBuffer in) {
+                int iterations = in.getInt();
+                long timeBudgetMillis = in.getLong();
+                int threads = in.get() & 0xFF;
+                MctsStrategy.Parallelism parallelism = MctsStrategy.Parallelism.values()[in.get()];
+                return new MctsStrategy(iterations, timeBudgetMillis, threads, parallelism);
+            }
+        });
+        register(ENDGAME, EndgameStrategy.class, new Codec<EndgameStrategy>() {
+            @Override
+            public void write(EndgameStrategy strategy, ByteBuffer out) {
+                out.putLong(strategy.getTimeBudgetMillis());
+                out.putInt(strategy.getMaxDeals());
+                StrategyRegistry.write(strategy.getDelegate(), out);
+            }
+
+            @Override
+            public EndgameStrategy read(ByteBuffer in) {
+                long timeBudgetMillis = in.getLong();
+                int maxDeals = in.getInt();
+                return new EndgameStrategy(StrategyRegistry.read(in), timeBudgetMillis, maxDeals);
+            }
+        });
+    }
+
+    private StrategyRegistry() {
+    }
+
+    /**
+     * Enregistre une strategie sous un numero.
+     *
+     * @param id    le numero (0 a 255)
+     * @param type  la classe exacte de la strategie
+     * @param codec le codage de ses parametres
+     * @param <S>   le type de strategie
+     * @throws IllegalArgumentException si le numero est invalide ou deja pris par une autre classe
+     */
+    public static synchronized <S extends Strategy> void register(int id, Class<S> type, Codec<S> codec) {
+        if (id < 0 || id >= MAX_IDS) {
+            throw new IllegalArgumentException("Numero de strategie invalide : " + id);
+        }
+        Integer previous = IDS.get(type);
+        if (BY_ID[id] != null && (previous == null || previous != id)) {
+            throw new IllegalArgumentException("Numero de strategie deja utilise : " + id);
+        }
+        BY_ID[id] = codec;
+        IDS.put(type, id);
+    }
+
+    /**
+     * Retourne le numero d une strategie.
+     *
+     * @param strategy la strategie
+     * @return son numero
+     * @throws IllegalArgumentException si sa classe n est pas enregistree
+     */
+    public static int idOf(Strategy strategy) {
+        Integer id = IDS.get(strategy.getClass());
+        if (id == null) {
+            throw new IllegalArgumentException("Strategie non enregistree : " + strategy.getClass().getName());
+        }
+        return id;
+    }
+
+    /**
+     * Ecrit le numero d une strategie puis ses parametres.
+     *
+     * @param strategy la strategie
+     * @param out      le tampon de sortie
+     * @throws IllegalArgumentException si sa classe n est pas enregistree
+     */
+    @SuppressWarnings("unchecked")
+    public static void write(Strategy strategy, ByteBuffer out) {
+        int id = idOf(strategy);
+        out.put((byte) id);
+        ((Codec<Strategy>) BY_ID[id]).write(strategy, out);
+    }
+
+    /**
+     * Lit une strategie ecrite par {@link #write(Strategy, ByteBuffer)}.
+     *
+     * @param in le tampon d entree
+     * @return la strategie recreee
+     * @throws IllegalArgumentException si le numero n est pas enregistre
+     */
+    public static Strategy read(ByteBuffer in) {
+        int id = in.get() & 0xFF;
+        Codec<?> codec = BY_ID[id];
+        if (codec == null) {
+            throw new IllegalArgumentException("Numero de strategie inconnu : " + id);
+        }
+        return codec.read(in);
+    }
+
+    /**
+     * Codage d une strategie sans parametre.
+     */
+    private static <S extends Strategy> Codec<S> stateless(java.util.function.Supplier<S> factory) {
+        return new Codec<S>() {
+            @Override
+            public void write(S strategy, ByteBuffer out) {
+            }
+
+            @Override
+            public S read(ByteBuffer in) {
+                return factory.get();
+            }
+        };
+    }
+}
@@ -82,7 +82,7 @@ public class ConsoleView implements GameObserver {
         if (guiHelper != null) {
             guiHelper.promptPlayerType(name);
         }
-        int type = SafeInput.readIntInRange("Type (1: Humain, 2: IA Simple, 3: IA Bluff) : ", 1, 3);
+        int type = SafeInput.readIntInRange("Type (1: Humain, 2: IA Simple, 3: IA Bluff, 4: IA MCTS) : ", 1, 4);
 
         switch (type) {
             case 1:
@@ -91,6 +91,8 @@ public class ConsoleView implements GameObserver {
                 return new Player(name, new Strategy1());
             case 3:
                 return new Player(name, new Strategy2());
+            case 4:
+                return new Player(name, new MctsStrategy());
             default:
                 throw new IllegalStateException("Type invalide");
         }
@@ -350,7 +352,7 @@ public class ConsoleView implements GameObserver {
             return result;
 
         } else {
-            boolean takeVisible = new Random().nextBoolean();
+            boolean takeVisible = game.getStrategyRandom().nextBoolean();
             Card chosen;
             Card unchosen;
             Card result;
@@ -0,0 +1,192 @@
+package view.gui;
+
+import model.Rank;
+import model.Suits;
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BaseMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Planches des images de cartes, redimensionnees une fois pour toutes.
+ *
+ * <p>Les images sources (environ 1250 x 1760 pixels) sont decodees en
+ * parallele puis reduites par moities successives jusqu a la taille
+ * d affichage, en 1x et en 2x pour les ecrans HiDPI. Les cartes reduites
+ * sont regroupees dans une planche par resolution ; chaque icone est une
+ * image multi-resolution dont les variantes sont des zones de ces
+ * planches. Swing choisit la variante adaptee a l echelle de l ecran.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ * @see CardImages
+ */
+final class CardAtlas {
+
+    /** Largeur d affichage d une carte (1x). */
+    static final int CARD_WIDTH = 80;
+
+    /** Hauteur d affichage d une carte (1x). */
+    static final int CARD_HEIGHT = 120;
+
+    /** Echelles preparees. */
+    private static final int[] SCALES = {1, 2};
+
+    /** Nombre de cartes par ligne d une planche. */
+    private static final int COLUMNS = 8;
+
+    private CardAtlas() {
+    }
+
+    /**
+     * Retourne les cles de toutes les images de cartes.
+     *
+     * @return dos, Joker puis cartes de chaque couleur, de l As au 8
+     */
+    static List<String> keys() {
+        List<String> keys = new ArrayList<>();
+        keys.add("BACK_CARD");
+        keys.add("JOKER");
+        for (Suits suit : Suits.values()) {
+            if (suit == Suits.JOKER) continue;
+            for (Rank rank : Rank.values()) {
+                if (rank == Rank.JOKER) continue;
+                keys.add(suit.name() + "_" + rank.name());
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Decode et reduit toutes les images de cartes.
+     *
+     * @return les icones, par cle ; les images absentes sont omises
+     */
+    static Map<String, ImageIcon> load() {
+        List<String> keys = keys();
+        BufferedImage[][] scaled = new BufferedImage[keys.size()][];
+        IntStream.range(0, keys.size()).parallel().forEach(i -> {
+            BufferedImage source = read(keys.get(i));
+            if (source != null) {
+                scaled[i] = scaleAll(source);
+            }
+        });
+
+        int rows = (keys.size() + COLUMNS - 1) / COLUMNS;
+        BufferedImage[] sheets = new BufferedImage[SCALES.length];
+        for (int s = 0; s < SCALES.length; s++) {
+            sheets[s] = new BufferedImage(COLUMNS * CARD_WIDTH * SCALES[s], rows * CARD_HEIGHT * SCALES[s],
+                    BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = sheets[s].createGraphics();
+            for (int i = 0; i < keys.size(); i++) {
+                if (scaled[i] != null) {
+                    g.drawImage(scaled[i][s], cellX(i, s), cellY(i, s), null);
+                }
+            }
+            g.dispose();
+        }
+
+        Map<String, ImageIcon> icons = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (scaled[i] == null) continue;
+            Image[] variants = new Image[SCALES.length];
+            for (int s = 0; s < SCALES.length; s++) {
+                variants[s] = sheets[s].getSubimage(cellX(i, s), cellY(i, s),
+                        CARD_WIDTH * SCALES[s], CARD_HEIGHT * SCALES[s]);
+            }
+            icons.put(keys.get(i), new ImageIcon(new BaseMultiResolutionImage(variants)));
+        }
+        return icons;
+    }
+
+    /**
+     * Decode et reduit une seule image, hors planche.
+     *
+     * @param key la cle de l image
+     * @return l icone, ou null si l image n existe pas
+     */
+    static ImageIcon loadIcon(String key) {
+        BufferedImage source = read(key);
+        if (source == null) {
+            return null;
+        }
+        return new ImageIcon(new BaseMultiResolutionImage(scaleAll(source)));
+    }
+
+    private static int cellX(int index, int scale) {
+        return (index % COLUMNS) * CARD_WIDTH * SCALES[scale];
+    }
+
+    private static int cellY(int index, int scale) {
+        return (index / COLUMNS) * CARD_HEIGHT * SCALES[scale];
+    }
+
+    /**
+     * Lit une image de carte dans les ressources.
+     */
+    private static BufferedImage read(String key) {
+        // D'abord, essayer dans le dossier principal des cartes
+        URL url = CardAtlas.class.getResource("/CARD_IMAGES/" + key + ".png");
+
+        // Si non trouvé, tenter dans le dossier des cartes d'extension (5-8)
+        if (url == null) {
+            url = CardAtlas.class.getResource("/CARD_EXTENSION/" + key + ".png");
+        }
+
+        if (url == null) {
+            return null;
+        }
+        try {
+            return ImageIO.read(url);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reduit une image a chaque echelle, de la plus grande a la plus petite.
+     */
+    private static BufferedImage[] scaleAll(BufferedImage source) {
+        BufferedImage[] result = new BufferedImage[SCALES.length];
+        BufferedImage current = source;
+        for (int s = SCALES.length - 1; s >= 0; s--) {
+            current = scale(current, CARD_WIDTH * SCALES[s], CARD_HEIGHT * SCALES[s]);
+            result[s] = current;
+        }
+        return result;
+    }
+
+    /**
+     * Reduit une image par moities successives (interpolation bilineaire),
+     * puis a la taille exacte : qualite proche de SCALE_SMOOTH, en
+     * quelques millisecondes et sans chargement asynchrone.
+     */
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+}
@@ -4,22 +4,39 @@ import model.Card;
 import model.Rank;
 import model.Suits;
 import javax.swing.*;
-import java.awt.*;
-import java.net.URL;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Utilitaire charge de fournir les icones des cartes.
+ *
+ * <p>{@link #preload()} prepare toutes les icones en arriere-plan au
+ * lancement de la GUI ({@link CardAtlas}). Une icone demandee avant la
+ * fin du prechargement est preparee immediatement. Le cache peut etre lu
+ * depuis n importe quel thread.</p>
  */
 public final class CardImages {
 
-    private static final Map<String, ImageIcon> CACHE = new HashMap<>();
-    private static final int CARD_WIDTH = 80;
-    private static final int CARD_HEIGHT = 120;
+    private static final Map<String, ImageIcon> CACHE = new ConcurrentHashMap<>();
+    private static final AtomicBoolean PRELOADING = new AtomicBoolean();
 
     private CardImages() {}
 
+    /**
+     * Lance le prechargement de toutes les icones sur un thread dedie.
+     * Les appels suivants sont sans effet.
+     */
+    public static void preload() {
+        if (!PRELOADING.compareAndSet(false, true)) {
+            return;
+        }
+        Thread loader = new Thread(() -> CardAtlas.load().forEach(CACHE::putIfAbsent), "jest-card-atlas");
+        loader.setDaemon(true);
+        loader.setPriority(Thread.MIN_PRIORITY);
+        loader.start();
+    }
+
     /**
      * Retourne l'icone correspondant a la carte.
      *
@@ -37,24 +54,17 @@ public final class CardImages {
         } else {
             key = card.getSuit().name() + "_" + card.getRank().name();
         }
-        return CACHE.computeIfAbsent(key, CardImages::loadIcon);
-    }
-
-    private static ImageIcon loadIcon(String key) {
-        // D'abord, essayer dans le dossier principal des cartes
-        URL url = CardImages.class.getResource("/CARD_IMAGES/" + key + ".png");
-
-        // Si non trouvé, tenter dans le dossier des cartes d'extension (6-8)
-        if (url == null) {
-            url = CardImages.class.getResource("/CARD_EXTENSION/" + key + ".png");
+        ImageIcon icon = CACHE.get(key);
+        if (icon == null) {
+            // Pas encore prechargee : preparee ici, sans bloquer les autres cles
+            icon = CardAtlas.loadIcon(key);
+            if (icon != null) {
+                ImageIcon previous = CACHE.putIfAbsent(key, icon);
+                if (previous != null) {
+                    icon = previous;
+                }
+            }
         }
-
-        if (url == null) {
-            return null;
-        }
-
-        ImageIcon base = new ImageIcon(url);
-        Image scaled = base.getImage().getScaledInstance(CARD_WIDTH, CARD_HEIGHT, Image.SCALE_SMOOTH);
-        return new ImageIcon(scaled);
+        return icon;
     }
 }
@@ -0,0 +1,245 @@
+package view.gui;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Historique de la partie, borne, affiche par une {@link JList}.
+ *
+ * <p>Les messages sont conserves dans un tampon circulaire : au-dela de
+ * la capacite, les plus anciens sont oublies. La liste n affiche que les
+ * lignes visibles, quelle que soit la taille de l historique.</p>
+ *
+ * <h2>Threads :</h2>
+ * <ul>
+ *   <li>{@link #append(String)} peut etre appele depuis n importe quel
+ *       thread : les messages sont ajoutes sur l EDT, par lots, au plus
+ *       une fois par image ({@link GameStateRenderer#FRAME_MILLIS})</li>
+ *   <li>{@link #setFilter(String)} parcourt l historique sur un thread
+ *       d arriere-plan ; le resultat n est applique que s il correspond
+ *       toujours au dernier filtre demande</li>
+ *   <li>Les autres methodes sont appelees sur l EDT</li>
+ * </ul>
+ *
+ * <p>Chaque message a un numero croissant ; le message {@code n} occupe la
+ * case {@code n % capacite} du tampon.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ */
+final class GameLogModel extends AbstractListModel<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Nombre de messages conserves par defaut. */
+    static final int DEFAULT_CAPACITY = 10_000;
+
+    private final String[] ring;
+
+    /** Numero du prochain message. */
+    private long next;
+
+    private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Timer timer;
+    private long lastFlush;
+
+    /** Filtre applique (en minuscules), null pour tout afficher. */
+    private String filter;
+
+    /** Numeros des messages retenus par le filtre, de matchStart (inclus) a matchEnd (exclu). */
+    private long[] matches = new long[16];
+    private int matchStart;
+    private int matchEnd;
+
+    /** Numero du dernier filtre demande : les recherches obsoletes sont ignorees. */
+    private int filterGeneration;
+
+    /**
+     * Cree un historique.
+     *
+     * @param capacity le nombre maximal de messages conserves
+     */
+    GameLogModel(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacite invalide : " + capacity);
+        }
+        this.ring = new String[capacity];
+        this.timer = new Timer(GameStateRenderer.FRAME_MILLIS, e -> flush());
+        timer.setRepeats(false);
+    }
+
+    /**
+     * Ajoute un message, sans attendre son affichage.
+     *
+     * @param message le message
+     */
+    void append(String message) {
+        pending.add(message);
+        if (scheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::schedule);
+        }
+    }
+
+    /**
+     * Retourne le nombre de messages conserves.
+     *
+     * @return le nombre de messages, filtre ou non
+     */
+    int getRetained() {
+        return (int) Math.min(next, ring.length);
+    }
+
+    @Override
+    public int getSize() {
+        return filter == null ? getRetained() : matchEnd - matchStart;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        long seq = filter == null ? first() + index : matches[matchStart + index];
+        return ring[(int) (seq % ring.length)];
+    }
+
+    /**
+     * Filtre l historique affiche.
+     *
+     * @param text le texte recherche (sans distinction de casse), vide pour tout afficher
+     */
+    void setFilter(String text) {
+        int generation = ++filterGeneration;
+        String wanted = text == null || text.isBlank() ? null : text.toLowerCase(Locale.ROOT);
+        if (wanted == null) {
+            applyFilter(null, new long[0], 0, next);
+            return;
+        }
+        // Copie des messages sur l EDT, recherche en arriere-plan
+        long from = first();
+        long to = next;
+        String[] snapshot = new String[(int) (to - from)];
+        for (long seq = from; seq < to; seq++) {
+            snapshot[(int) (seq - from)] = ring[(int) (seq % ring.length)];
+        }
+        new SwingWorker<long[], Void>() {
+            @Override
+            protected long[] doInBackground() {
+                long[] found = new long[16];
+                int count = 0;
+                for (int i = 0; i < snapshot.length; i++) {
+                    if (snapshot[i].toLowerCase(Locale.ROOT).contains(wanted)) {
+                        if (count == found.length) found = Arrays.copyOf(found, count * 2);
+                        found[count++] = from + i;
+                    }
+                }
+                return Arrays.copyOf(found, count);
+            }
+
+            @Override
+            protected void done() {
+                if (generation != filterGeneration) {
+                    return;
+                }
+                try {
+                    applyFilter(wanted, get(), from, to);
+                } catch (InterruptedException | ExecutionException e) {
+                    applyFilter(null, new long[0], 0, next);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Applique le resultat d une recherche, en completant les messages
+     * ajoutes pendant celle-ci.
+     */
+    private void applyFilter(String wanted, long[] found, long from, long to) {
+        filter = wanted;
+        matches = found.length > 0 ? found : new long[16];
+        matchStart = 0;
+        matchEnd = found.length;
+        if (wanted != null) {
+            long first = first();
+            while (matchStart < matchEnd && matches[matchStart] < first) {
+                matchStart++;
+            }
+            for (long seq = Math.max(to, first); seq < next; seq++) {
+                addMatch(seq);
+            }
+        }
+        fireContentsChanged(this, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Programme l ajout des messages en attente, sur l EDT.
+     */
+    private void schedule() {
+        long elapsed = (System.nanoTime() - lastFlush) / 1_000_000;
+        if (elapsed >= GameStateRenderer.FRAME_MILLIS) {
+            flush();
+        } else {
+            timer.setInitialDelay((int) (GameStateRenderer.FRAME_MILLIS - elapsed));
+            timer.restart();
+        }
+    }
+
+    /**
+     * Ajoute les messages en attente et previent la liste en un seul lot.
+     */
+    private void flush() {
+        scheduled.set(false);
+        lastFlush = System.nanoTime();
+        int sizeBefore = getSize();
+        long firstBefore = first();
+        int evictedMatches = 0;
+        String message;
+        while ((message = pending.poll()) != null) {
+            long seq = next++;
+            ring[(int) (seq % ring.length)] = message;
+            if (filter != null) {
+                if (message.toLowerCase(Locale.ROOT).contains(filter)) {
+                    addMatch(seq);
+                }
+                long first = first();
+                while (matchStart < matchEnd && matches[matchStart] < first) {
+                    matchStart++;
+                    evictedMatches++;
+                }
+            }
+        }
+        // Les plus anciens partent d abord : au-dela de sizeBefore, tout l affichage precedent est oublie
+        int removed = filter == null ? (int) (first() - firstBefore) : evictedMatches;
+        removed = Math.min(removed, sizeBefore);
+        if (removed > 0) {
+            fireIntervalRemoved(this, 0, removed - 1);
+        }
+        int kept = sizeBefore - removed;
+        if (getSize() > kept) {
+            fireIntervalAdded(this, kept, getSize() - 1);
+        }
+    }
+
+    private void addMatch(long seq) {
+        if (matchEnd == matches.length) {
+            // Compacte avant d agrandir : les numeros oublies sont en tete
+            int count = matchEnd - matchStart;
+            long[] grown = count * 2 > matches.length ? new long[matches.length * 2] : matches;
+            System.arraycopy(matches, matchStart, grown, 0, count);
+            matches = grown;
+            matchStart = 0;
+            matchEnd = count;
+        }
+        matches[matchEnd++] = seq;
+    }
+
+    /**
+     * Numero du plus ancien message conserve.
+     */
+    private long first() {
+        return Math.max(0, next - ring.length);
+    }
+}
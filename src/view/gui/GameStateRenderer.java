@@ -0,0 +1,301 @@
+package view.gui;
+
+import model.Card;
+import model.TrophyCard;
+import observer.GameEvent;
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Affichage de l etat des joueurs dans le panneau de droite de la GUI.
+ *
+ * <p>Les composants d un joueur (nom, score, cartes, trophees) sont crees
+ * une fois puis mis a jour : seuls les scores modifies et les cartes
+ * ajoutees ou retirees du Jest touchent l arbre Swing.</p>
+ *
+ * <h2>Rafraichissement :</h2>
+ * <p>{@link #submit(List)} peut etre appele depuis n importe quel thread et
+ * ne bloque jamais : seul le dernier etat soumis est conserve, et il est
+ * applique sur l EDT au plus une fois par image ({@link #FRAME_MILLIS}).
+ * Une rafale d evenements (partie IA contre IA) donne donc un seul
+ * rafraichissement par image.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ */
+final class GameStateRenderer {
+
+    /** Duree minimale entre deux rafraichissements (environ 60 images par seconde). */
+    static final int FRAME_MILLIS = 16;
+
+    private final JPanel container;
+    private final List<PlayerPanel> panels = new ArrayList<>();
+    private final AtomicReference<List<GameEvent.PlayerView>> pending = new AtomicReference<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Timer timer;
+    private long lastFrame;
+    private volatile long frames;
+
+    /**
+     * Cree le renderer.
+     *
+     * @param container le panneau d etat ; les panneaux des joueurs sont ajoutes a sa suite
+     */
+    GameStateRenderer(JPanel container) {
+        this.container = container;
+        this.timer = new Timer(FRAME_MILLIS, e -> render());
+        timer.setRepeats(false);
+    }
+
+    /**
+     * Soumet l etat des joueurs a afficher.
+     *
+     * @param players l etat fige des joueurs
+     */
+    void submit(List<GameEvent.PlayerView> players) {
+        pending.set(players);
+        if (scheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::schedule);
+        }
+    }
+
+    /**
+     * Retourne le nombre de rafraichissements effectues.
+     *
+     * @return le nombre d images
+     */
+    long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Programme le prochain rafraichissement, sur l EDT.
+     */
+    private void schedule() {
+        long elapsed = (System.nanoTime() - lastFrame) / 1_000_000;
+        if (elapsed >= FRAME_MILLIS) {
+            render();
+        } else {
+            timer.setInitialDelay((int) (FRAME_MILLIS - elapsed));
+            timer.restart();
+        }
+    }
+
+    /**
+     * Applique le dernier etat soumis, sur l EDT.
+     */
+    private void render() {
+        // Liberer le drapeau avant de lire l etat : une soumission concurrente programme une nouvelle image
+        scheduled.set(false);
+        List<GameEvent.PlayerView> players = pending.getAndSet(null);
+        if (players == null) {
+            return;
+        }
+        lastFrame = System.nanoTime();
+        frames++;
+
+        boolean layout = false;
+        while (panels.size() > players.size()) {
+            PlayerPanel removed = panels.remove(panels.size() - 1);
+            container.remove(removed.spacer);
+            container.remove(removed);
+            layout = true;
+        }
+        while (panels.size() < players.size()) {
+            PlayerPanel added = new PlayerPanel();
+            panels.add(added);
+            container.add(added);
+            container.add(added.spacer);
+            layout = true;
+        }
+        for (int i = 0; i < players.size(); i++) {
+            layout |= panels.get(i).update(players.get(i));
+        }
+        if (layout) {
+            container.revalidate();
+        }
+        container.repaint();
+    }
+
+    /**
+     * Composants d un joueur.
+     */
+    private static final class PlayerPanel extends JPanel {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Component spacer = Box.createVerticalStrut(10);
+        private final JLabel nameLabel = new JLabel();
+        private final JLabel scoreLabel = new JLabel();
+        private final JPanel cardsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 3, 3));
+        private final JLabel trophiesTitle = new JLabel("Trophées gagnés:");
+        private final Component trophiesStrut = Box.createVerticalStrut(8);
+        private final Component trophiesTitleStrut = Box.createVerticalStrut(3);
+        private final JPanel trophiesPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 3));
+
+        /** Cartes affichees, dans l ordre des composants. */
+        private final List<Card> cards = new ArrayList<>();
+        private final List<TrophyCard> trophies = new ArrayList<>();
+        private String name;
+        private int score = Integer.MIN_VALUE;
+
+        PlayerPanel() {
+            setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+            setBackground(JestGUI.BG_SECONDARY);
+            setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(JestGUI.ACCENT, 1),
+                BorderFactory.createEmptyBorder(12, 12, 12, 12)
+            ));
+
+            nameLabel.setFont(new Font("SansSerif", Font.BOLD, 14));
+            nameLabel.setForeground(JestGUI.ACCENT);
+            nameLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+            add(nameLabel);
+            add(Box.createVerticalStrut(5));
+
+            scoreLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
+            scoreLabel.setForeground(JestGUI.TEXT_PRIMARY);
+            scoreLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+            add(scoreLabel);
+            add(Box.createVerticalStrut(8));
+
+            JLabel cardsTitle = new JLabel("Cartes:");
+            cardsTitle.setFont(new Font("SansSerif", Font.BOLD, 11));
+            cardsTitle.setForeground(JestGUI.ACCENT);
+            cardsTitle.setAlignmentX(Component.LEFT_ALIGNMENT);
+            add(cardsTitle);
+            add(Box.createVerticalStrut(3));
+
+            cardsPanel.setBackground(JestGUI.BG_SECONDARY);
+            cardsPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+            JScrollPane cardsScroll = new JScrollPane(cardsPanel);
+            cardsScroll.setPreferredSize(new Dimension(0, 180));
+            cardsScroll.getViewport().setBackground(JestGUI.BG_SECONDARY);
+            cardsScroll.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
+            cardsScroll.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+            cardsScroll.setBorder(BorderFactory.createLineBorder(JestGUI.BORDER, 1));
+            cardsScroll.setAlignmentX(Component.LEFT_ALIGNMENT);
+            add(cardsScroll);
+
+            trophiesTitle.setFont(new Font("SansSerif", Font.PLAIN, 11));
+            trophiesTitle.setForeground(JestGUI.ACCENT);
+            trophiesTitle.setAlignmentX(Component.LEFT_ALIGNMENT);
+            trophiesPanel.setBackground(JestGUI.BG_SECONDARY);
+            trophiesPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        }
+
+        /**
+         * Met a jour les composants qui different de l etat affiche.
+         *
+         * @param view l etat du joueur
+         * @return true si la disposition doit etre recalculee
+         */
+        boolean update(GameEvent.PlayerView view) {
+            if (!view.getName().equals(name)) {
+                name = view.getName();
+                nameLabel.setText(name);
+            }
+            if (view.getFinalScore() != score) {
+                score = view.getFinalScore();
+                scoreLabel.setText("Score: " + score + " pts");
+            }
+
+            List<Card> newCards = new ArrayList<>();
+            List<TrophyCard> newTrophies = new ArrayList<>();
+            for (Card card : view.getJest()) {
+                if (card instanceof TrophyCard) {
+                    newTrophies.add((TrophyCard) card);
+                } else {
+                    newCards.add(card);
+                }
+            }
+
+            boolean changed = sync(cardsPanel, cards, newCards, PlayerPanel::cardLabel);
+            boolean hadTrophies = !trophies.isEmpty();
+            changed |= sync(trophiesPanel, trophies, newTrophies, PlayerPanel::trophyItem);
+            if (hadTrophies != !trophies.isEmpty()) {
+                if (hadTrophies) {
+                    remove(trophiesStrut);
+                    remove(trophiesTitle);
+                    remove(trophiesTitleStrut);
+                    remove(trophiesPanel);
+                } else {
+                    add(trophiesStrut);
+                    add(trophiesTitle);
+                    add(trophiesTitleStrut);
+                    add(trophiesPanel);
+                }
+            }
+            if (changed) {
+                cardsPanel.revalidate();
+            }
+            return changed;
+        }
+
+        @Override
+        public Dimension getMaximumSize() {
+            // Hauteur naturelle dans le BoxLayout du panneau d etat
+            return new Dimension(Integer.MAX_VALUE, getPreferredSize().height);
+        }
+
+        /**
+         * Aligne les composants d un panneau sur une nouvelle liste de cartes :
+         * le debut commun est conserve, la suite est remplacee.
+         */
+        private static <C extends Card> boolean sync(JPanel panel, List<C> shown, List<C> wanted,
+                                                     java.util.function.Function<C, Component> factory) {
+            int common = 0;
+            int limit = Math.min(shown.size(), wanted.size());
+            while (common < limit && shown.get(common) == wanted.get(common)) {
+                common++;
+            }
+            if (common == shown.size() && common == wanted.size()) {
+                return false;
+            }
+            for (int i = shown.size() - 1; i >= common; i--) {
+                panel.remove(i);
+                shown.remove(i);
+            }
+            for (int i = common; i < wanted.size(); i++) {
+                C card = wanted.get(i);
+                panel.add(factory.apply(card));
+                shown.add(card);
+            }
+            return true;
+        }
+
+        private static Component cardLabel(Card card) {
+            JLabel cardLabel = new JLabel();
+            ImageIcon icon = CardImages.get(card, true);
+            if (icon != null) {
+                cardLabel.setIcon(icon);
+            } else {
+                cardLabel.setText(card.toString());
+                cardLabel.setFont(new Font("SansSerif", Font.PLAIN, 9));
+                cardLabel.setForeground(JestGUI.TEXT_SECONDARY);
+            }
+            return cardLabel;
+        }
+
+        private static Component trophyItem(TrophyCard trophy) {
+            JPanel trophyItem = new JPanel(new BorderLayout(3, 3));
+            trophyItem.setBackground(JestGUI.BG_SECONDARY);
+            trophyItem.setBorder(BorderFactory.createLineBorder(JestGUI.ACCENT, 1));
+
+            // Afficher la carte originale du trophée
+            Card originalCard = trophy.getOriginalCard();
+            if (originalCard != null && !(originalCard instanceof TrophyCard)) {
+                ImageIcon icon = CardImages.get(originalCard, true);
+                if (icon != null) {
+                    trophyItem.add(new JLabel(icon), BorderLayout.CENTER);
+                }
+            }
+            return trophyItem;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package view.gui;
 import model.*;
 import model.extension.BMCard;
 import model.rules.*;
+import observer.GameEvent;
 import observer.GameObserver;
 import strategy.*;
 import view.ConsoleView;
@@ -35,6 +36,9 @@ import java.util.ArrayList;
 public class JestGUI extends JFrame implements GameObserver {
     
     private static final long serialVersionUID = 1L;
+
+    /** Largeur d une ligne de l historique, en caracteres. */
+    private static final int LOG_LINE_CHARS = 110;
     
     private JPanel mainPanel;
     private JPanel infoPanel;
@@ -42,12 +46,17 @@ public class JestGUI extends JFrame implements GameObserver {
     private JPanel gameStatePanel;
     private JLabel promptLabel;
     private JPanel promptOptions;
-    private JTextArea logArea;
+    private GameLogModel logModel;
+    private JList<String> logList;
     private JLabel statusLabel;
     private JPanel trophiesPanel;
+    private GameStateRenderer stateRenderer;
     private JButton saveButton;
     
     private Game game;
+
+    /** Etat des joueurs de l evenement en cours de traitement (bus asynchrone). */
+    private volatile List<GameEvent.PlayerView> eventPlayers;
     private List<Offer> currentOffers;
     private List<TrophyCard> currentTrophies;
 
@@ -55,19 +64,31 @@ public class JestGUI extends JFrame implements GameObserver {
      * Constructeur de l interface graphique.
      */
     public JestGUI() {
+        this(GameLogModel.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructeur de l interface graphique.
+     *
+     * @param logCapacity le nombre de messages conserves dans l historique
+     */
+    public JestGUI(int logCapacity) {
         super("Jest - Jeu de Cartes");
+        logModel = new GameLogModel(logCapacity);
+        // Les cartes sont pretes avant la premiere partie affichee
+        CardImages.preload();
         initComponents();
         currentOffers = new ArrayList<>();
     }
 
     // Palette de couleurs - Orange Jest symbolique
-    private static final Color BG_PRIMARY = new Color(245, 245, 250);    // Fond principal (bleu très clair)
-    private static final Color BG_SECONDARY = new Color(255, 255, 255); // Fond cartes (blanc pur)
-    private static final Color ACCENT = new Color(255, 140, 0);          // Orange Jest
-    private static final Color ACCENT_DARK = new Color(230, 110, 0);     // Orange foncé
-    private static final Color TEXT_PRIMARY = new Color(30, 30, 40);     // Texte principal (noir bleuté)
-    private static final Color TEXT_SECONDARY = new Color(110, 120, 140); // Texte secondaire
-    private static final Color BORDER = new Color(220, 225, 235);        // Bordures (bleu très clair)
+    static final Color BG_PRIMARY = new Color(245, 245, 250);    // Fond principal (bleu très clair)
+    static final Color BG_SECONDARY = new Color(255, 255, 255); // Fond cartes (blanc pur)
+    static final Color ACCENT = new Color(255, 140, 0);          // Orange Jest
+    static final Color ACCENT_DARK = new Color(230, 110, 0);     // Orange foncé
+    static final Color TEXT_PRIMARY = new Color(30, 30, 40);     // Texte principal (noir bleuté)
+    static final Color TEXT_SECONDARY = new Color(110, 120, 140); // Texte secondaire
+    static final Color BORDER = new Color(220, 225, 235);        // Bordures (bleu très clair)
 
     /**
      * Initialise les composants de l interface.
@@ -115,18 +136,75 @@ public class JestGUI extends JFrame implements GameObserver {
         promptPanel.add(promptLabel, BorderLayout.NORTH);
         promptPanel.add(promptOptions, BorderLayout.CENTER);
 
-        // Zone de log - Réduite
-        logArea = new JTextArea(8, 50);
-        logArea.setEditable(false);
-        logArea.setFont(new Font("SansSerif", Font.PLAIN, 12));
-        logArea.setBackground(BG_SECONDARY);
-        logArea.setForeground(TEXT_PRIMARY);
-        logArea.setLineWrap(true);
-        logArea.setWrapStyleWord(true);
-        logArea.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        JScrollPane scrollPane = new JScrollPane(logArea);
+        // Zone de log - Réduite : seules les lignes visibles sont dessinees
+        logList = new JList<String>(logModel) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public String getToolTipText(MouseEvent e) {
+                // Texte complet d une ligne plus large que la liste
+                int index = locationToIndex(e.getPoint());
+                Rectangle cell = index >= 0 ? getCellBounds(index, index) : null;
+                return cell != null && cell.contains(e.getPoint()) ? getModel().getElementAt(index) : null;
+            }
+        };
+        ToolTipManager.sharedInstance().registerComponent(logList);
+        logList.setFont(new Font("SansSerif", Font.PLAIN, 12));
+        logList.setBackground(BG_SECONDARY);
+        logList.setForeground(TEXT_PRIMARY);
+        logList.setSelectionBackground(BORDER);
+        logList.setSelectionForeground(TEXT_PRIMARY);
+        logList.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        // Taille de ligne fixe : la liste ne mesure pas chaque message. La
+        // largeur couvre les messages du jeu, la barre horizontale le reste
+        FontMetrics metrics = logList.getFontMetrics(logList.getFont());
+        logList.setFixedCellHeight(metrics.getHeight() + 2);
+        logList.setFixedCellWidth(metrics.charWidth('m') * LOG_LINE_CHARS);
+        logList.setVisibleRowCount(8);
+        JScrollPane scrollPane = new JScrollPane(logList);
+        scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
         scrollPane.getViewport().setBackground(BG_SECONDARY);
         scrollPane.setBorder(BorderFactory.createLineBorder(ACCENT, 1));
+        logModel.addListDataListener(new javax.swing.event.ListDataListener() {
+            @Override
+            public void intervalAdded(javax.swing.event.ListDataEvent e) {
+                // Suit la fin de l historique, sauf si l utilisateur est remonte
+                JScrollBar bar = scrollPane.getVerticalScrollBar();
+                if (bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - logList.getFixedCellHeight()) {
+                    SwingUtilities.invokeLater(() -> {
+                        scrollPane.validate();
+                        logList.ensureIndexIsVisible(logModel.getSize() - 1);
+                    });
+                }
+            }
+
+            @Override
+            public void intervalRemoved(javax.swing.event.ListDataEvent e) {
+            }
+
+            @Override
+            public void contentsChanged(javax.swing.event.ListDataEvent e) {
+            }
+        });
+
+        JTextField logSearch = new JTextField(15);
+        logSearch.setFont(new Font("SansSerif", Font.PLAIN, 12));
+        logSearch.setToolTipText("Filtrer l'historique");
+        logSearch.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                logModel.setFilter(logSearch.getText());
+            }
+
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                logModel.setFilter(logSearch.getText());
+            }
+
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+            }
+        });
 
         JPanel logPanel = new JPanel(new BorderLayout());
         logPanel.setBackground(BG_PRIMARY);
@@ -134,7 +212,11 @@ public class JestGUI extends JFrame implements GameObserver {
         logTitle.setFont(new Font("SansSerif", Font.BOLD, 13));
         logTitle.setForeground(ACCENT);
         logTitle.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
-        logPanel.add(logTitle, BorderLayout.NORTH);
+        JPanel logHeader = new JPanel(new BorderLayout());
+        logHeader.setBackground(BG_PRIMARY);
+        logHeader.add(logTitle, BorderLayout.WEST);
+        logHeader.add(logSearch, BorderLayout.EAST);
+        logPanel.add(logHeader, BorderLayout.NORTH);
         logPanel.add(scrollPane, BorderLayout.CENTER);
         logPanel.setPreferredSize(new Dimension(0, 150));
 
@@ -169,6 +251,7 @@ public class JestGUI extends JFrame implements GameObserver {
         
         gameStatePanel.add(trophiesPanel);
         gameStatePanel.add(Box.createVerticalStrut(10));
+        stateRenderer = new GameStateRenderer(gameStatePanel);
         
         JScrollPane stateScroll = new JScrollPane(gameStatePanel);
         stateScroll.setPreferredSize(new Dimension(600, 0));
@@ -465,7 +548,7 @@ public class JestGUI extends JFrame implements GameObserver {
         // Dialogue pour le type
         JDialog dialog = new JDialog(this, "Type de joueur", true);
         dialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
-        dialog.setSize(450, 250);
+        dialog.setSize(450, 300);
         dialog.setLocationRelativeTo(null);
         
         JPanel panel = new JPanel(new BorderLayout(20, 20));
@@ -478,7 +561,7 @@ public class JestGUI extends JFrame implements GameObserver {
         titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
         panel.add(titleLabel, BorderLayout.NORTH);
         
-        JPanel buttonsPanel = new JPanel(new GridLayout(3, 1, 10, 10));
+        JPanel buttonsPanel = new JPanel(new GridLayout(4, 1, 10, 10));
         buttonsPanel.setBackground(BG_PRIMARY);
         
         final int[] choice = {1};
@@ -501,9 +584,16 @@ public class JestGUI extends JFrame implements GameObserver {
             dialog.dispose();
         });
         
+        JButton btnIA3 = createStyledButton("IA MCTS");
+        btnIA3.addActionListener(e -> {
+            choice[0] = 4;
+            dialog.dispose();
+        });
+        
         buttonsPanel.add(btnHuman);
         buttonsPanel.add(btnIA1);
         buttonsPanel.add(btnIA2);
+        buttonsPanel.add(btnIA3);
         panel.add(buttonsPanel, BorderLayout.CENTER);
         
         dialog.add(panel);
@@ -516,6 +606,8 @@ public class JestGUI extends JFrame implements GameObserver {
                 return new Player(name, new Strategy1());
             case 3:
                 return new Player(name, new Strategy2());
+            case 4:
+                return new Player(name, new MctsStrategy());
             default:
                 return new Player(name, new HumanStrategy());
         }
@@ -909,136 +1001,12 @@ public class JestGUI extends JFrame implements GameObserver {
     }
 
     private void updateGameState() {
-        if (game == null) return;
-        runSync(() -> {
-            // Garder le panneau des trophées, supprimer seulement les panneaux des joueurs
-            for (int i = gameStatePanel.getComponentCount() - 1; i >= 0; i--) {
-                Component comp = gameStatePanel.getComponent(i);
-                if (comp != trophiesPanel) {
-                    gameStatePanel.remove(i);
-                }
-            }
-            
-            int playerIndex = 0;
-            for (Player player : game.getPlayers()) {
-                JPanel playerPanel = new JPanel();
-                playerPanel.setLayout(new BoxLayout(playerPanel, BoxLayout.Y_AXIS));
-                playerPanel.setBackground(BG_SECONDARY);
-                playerPanel.setBorder(BorderFactory.createCompoundBorder(
-                    BorderFactory.createLineBorder(ACCENT, 1),
-                    BorderFactory.createEmptyBorder(12, 12, 12, 12)
-                ));
-                
-                // Nom du joueur
-                JLabel nameLabel = new JLabel(player.getName());
-                nameLabel.setFont(new Font("SansSerif", Font.BOLD, 14));
-                nameLabel.setForeground(ACCENT);
-                nameLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-                playerPanel.add(nameLabel);
-                
-                playerPanel.add(Box.createVerticalStrut(5));
-                
-                // Score
-                JLabel scoreLabel = new JLabel("Score: " + player.getFinalScore() + " pts");
-                scoreLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
-                scoreLabel.setForeground(TEXT_PRIMARY);
-                scoreLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-                playerPanel.add(scoreLabel);
-                
-                playerPanel.add(Box.createVerticalStrut(8));
-                
-                // Cartes
-                JLabel cardsTitle = new JLabel("Cartes:");
-                cardsTitle.setFont(new Font("SansSerif", Font.BOLD, 11));
-                cardsTitle.setForeground(ACCENT);
-                cardsTitle.setAlignmentX(Component.LEFT_ALIGNMENT);
-                playerPanel.add(cardsTitle);
-                
-                playerPanel.add(Box.createVerticalStrut(3));
-
-                JPanel cardsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 3, 3));
-                cardsPanel.setBackground(BG_SECONDARY);
-                cardsPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
-                
-                // Afficher les cartes normales
-                for (Card card : player.getJest().getCards()) {
-                    if (card instanceof TrophyCard) {
-                        continue;
-                    }
-                    
-                    JLabel cardLabel = new JLabel();
-                    ImageIcon icon = CardImages.get(card, true);
-                    if (icon != null) {
-                        cardLabel.setIcon(icon);
-                    } else {
-                        cardLabel.setText(card.toString());
-                        cardLabel.setFont(new Font("SansSerif", Font.PLAIN, 9));
-                        cardLabel.setForeground(TEXT_SECONDARY);
-                    }
-                    cardsPanel.add(cardLabel);
-                }
-
-                JScrollPane cardsScroll = new JScrollPane(cardsPanel);
-                cardsScroll.setPreferredSize(new Dimension(0, 180));
-                cardsScroll.getViewport().setBackground(BG_SECONDARY);
-                cardsScroll.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
-                cardsScroll.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
-                cardsScroll.setBorder(BorderFactory.createLineBorder(BORDER, 1));
-                cardsScroll.setAlignmentX(Component.LEFT_ALIGNMENT);
-                playerPanel.add(cardsScroll);
-                
-                // Afficher les trophées gagnés à la fin
-                List<TrophyCard> playerTrophies = new ArrayList<>();
-                for (Card card : player.getJest().getCards()) {
-                    if (card instanceof TrophyCard) {
-                        playerTrophies.add((TrophyCard) card);
-                    }
-                }
-                
-                if (!playerTrophies.isEmpty()) {
-                    playerPanel.add(Box.createVerticalStrut(8));
-                    
-                    JLabel trophiesTitle = new JLabel("Trophées gagnés:");
-                    trophiesTitle.setFont(new Font("SansSerif", Font.PLAIN, 11));
-                    trophiesTitle.setForeground(ACCENT);
-                    trophiesTitle.setAlignmentX(Component.LEFT_ALIGNMENT);
-                    playerPanel.add(trophiesTitle);
-                    
-                    playerPanel.add(Box.createVerticalStrut(3));
-                    
-                    JPanel trophiesPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 3));
-                    trophiesPanel.setBackground(BG_SECONDARY);
-                    trophiesPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
-                    
-                    for (TrophyCard trophy : playerTrophies) {
-                        JPanel trophyItem = new JPanel(new BorderLayout(3, 3));
-                        trophyItem.setBackground(BG_SECONDARY);
-                        trophyItem.setBorder(BorderFactory.createLineBorder(ACCENT, 1));
-                        
-                        // Afficher la carte originale du trophée
-                        Card originalCard = trophy.getOriginalCard();
-                        if (originalCard != null && !(originalCard instanceof TrophyCard)) {
-                            ImageIcon icon = CardImages.get(originalCard, true);
-                            if (icon != null) {
-                                JLabel cardLabel = new JLabel(icon);
-                                trophyItem.add(cardLabel, BorderLayout.CENTER);
-                            }
-                        }
-                        
-                        trophiesPanel.add(trophyItem);
-                    }
-                    
-                    playerPanel.add(trophiesPanel);
-                }
-                playerPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, playerPanel.getPreferredSize().height));
-                gameStatePanel.add(playerPanel);
-                gameStatePanel.add(Box.createVerticalStrut(10));
-                
-                playerIndex++;
-            }
-            gameStatePanel.revalidate();
-            gameStatePanel.repaint();
-        });
+        List<GameEvent.PlayerView> players = eventPlayers;
+        if (players == null) {
+            if (game == null) return;
+            players = GameEvent.playerViews(game.getPlayers());
+        }
+        stateRenderer.submit(players);
     }
 
     /**
@@ -1137,12 +1105,12 @@ public class JestGUI extends JFrame implements GameObserver {
 
     /**
      * Ajoute un message au log.
+     *
+     * <p>Les messages sont affiches par lots, au plus une fois par image ;
+     * seuls les {@code logCapacity} derniers sont conserves.</p>
      */
     public void log(String message) {
-        SwingUtilities.invokeLater(() -> {
-            logArea.append(message + "\n");
-            logArea.setCaretPosition(logArea.getDocument().getLength());
-        });
+        logModel.append(message);
     }
 
     /**
@@ -1153,6 +1121,20 @@ public class JestGUI extends JFrame implements GameObserver {
     }
 
     // Implementation GameObserver
+
+    /**
+     * Recoit un evenement du bus asynchrone : l etat des joueurs affiche
+     * est celui fige dans l evenement, la partie continuant pendant ce temps.
+     */
+    @Override
+    public void onEvent(GameEvent event) {
+        eventPlayers = event.getPlayers();
+        try {
+            GameObserver.super.onEvent(event);
+        } finally {
+            eventPlayers = null;
+        }
+    }
     
     @Override
     public void onRoundStart(int roundNumber) {
@@ -1246,11 +1228,7 @@ public class JestGUI extends JFrame implements GameObserver {
                     filePath += ".jest";
                 }
                 
-                java.io.ObjectOutputStream oos = new java.io.ObjectOutputStream(
-                    new java.io.FileOutputStream(filePath)
-                );
-                oos.writeObject(game);
-                oos.close();
+                model.SaveCodec.save(game, java.nio.file.Paths.get(filePath));
                 
                 log("Partie sauvegardée : " + filePath);
                 JOptionPane.showMessageDialog(this, "Partie sauvegardée avec succès !", "Sauvegarde", JOptionPane.INFORMATION_MESSAGE);
@@ -1371,6 +1349,19 @@ public class JestGUI extends JFrame implements GameObserver {
         return choice[0];
     }
 
+    /**
+     * Propose de reprendre une partie interrompue.
+     * @param round le tour auquel la partie reprend
+     * @return true pour reprendre la partie
+     */
+    public boolean askResumeGame(int round) {
+        int answer = JOptionPane.showConfirmDialog(this,
+            "Une partie interrompue a ete trouvee (tour " + round + ").\nReprendre cette partie ?",
+            "Reprendre une partie",
+            JOptionPane.YES_NO_OPTION);
+        return answer == JOptionPane.YES_OPTION;
+    }
+
     /**
      * Demande le nom du fichier a charger.
      * @return le nom du fichier
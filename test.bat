@@ -0,0 +1,31 @@
+@echo off
+REM Script des tests pour Windows
+REM Chaque classe *Test de test\src est un programme autonome : son code de
+REM sortie est non nul si un test echoue.
+
+echo Compilation des tests...
+if not exist classes-test mkdir classes-test
+dir /s /B src\*.java test\src\*.java > sources-test.txt
+javac -encoding UTF-8 -d classes-test @sources-test.txt
+
+if %ERRORLEVEL% NEQ 0 (
+    echo Erreur de compilation.
+    del sources-test.txt
+    exit /b 1
+)
+del sources-test.txt
+
+set FAILED=0
+java -cp classes-test model.compact.CompactGameTest
+if %ERRORLEVEL% NEQ 0 set FAILED=1
+java -cp classes-test controller.GameStateMachineTest
+if %ERRORLEVEL% NEQ 0 set FAILED=1
+java -cp classes-test model.SaveCodecTest
+if %ERRORLEVEL% NEQ 0 set FAILED=1
+java -cp classes-test observer.AsyncEventBusTest
+if %ERRORLEVEL% NEQ 0 set FAILED=1
+
+if %FAILED% NEQ 0 (
+    echo Des tests ont echoue.
+    exit /b 1
+)
@@ -0,0 +1,34 @@
+#!/bin/bash
+# Script des tests pour Linux/Mac
+#
+# Chaque classe *Test de test/src est un programme autonome : son code de
+# sortie est non nul si un test echoue. Les options sont des noms de classes
+# a lancer, par exemple :
+#   ./test.sh observer.AsyncEventBusTest
+
+echo "Compilation des tests..."
+rm -rf classes-test
+mkdir -p classes-test
+find src test/src -name "*.java" > sources-test.txt
+javac -encoding UTF-8 -d classes-test @sources-test.txt
+status=$?
+rm sources-test.txt
+if [ $status -ne 0 ]; then
+    echo "Erreur de compilation."
+    exit 1
+fi
+
+if [ $# -gt 0 ]; then
+    tests="$*"
+else
+    tests=$(cd test/src && find . -name "*Test.java" | sed -e 's|^\./||' -e 's|\.java$||' -e 's|/|.|g' | sort)
+fi
+
+failed=0
+for test in $tests; do
+    java -cp classes-test "$test" || failed=1
+done
+if [ $failed -ne 0 ]; then
+    echo "Des tests ont echoue."
+    exit 1
+fi
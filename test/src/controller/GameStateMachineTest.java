@@ -0,0 +1,226 @@
+package controller;
+
+import model.*;
+import model.compact.CompactAction;
+import model.rules.Rule1;
+import strategy.HumanStrategy;
+import strategy.Strategy;
+import strategy.Strategy1;
+import strategy.Strategy2;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests de {@link GameStateMachine} et {@link TableScheduler}.
+ *
+ * <h2>Verifications :</h2>
+ * <ul>
+ *   <li>Sans joueur humain, la machine a etats joue exactement la partie
+ *       de {@link GameEngine#playGame()} : memes Jests, scores et gagnant</li>
+ *   <li>Une decision externe illegale est refusee sans changer l etat,
+ *       une decision legale fait avancer la partie jusqu a sa fin</li>
+ *   <li>Un seul planificateur mene des milliers de tables dont les
+ *       decisions arrivent d un autre thread ; les reponses illegales
+ *       sont comptees et la question est reposee</li>
+ * </ul>
+ *
+ * <p>Lance par {@code ./test.sh} ; le code de sortie est non nul en cas d echec.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ */
+public final class GameStateMachineTest {
+
+    /** Nombre de parties comparees au moteur bloquant. */
+    private static final int GAMES = 2000;
+
+    /** Nombre de tables menees par le planificateur. */
+    private static final int TABLES = 2000;
+
+    /** Une decision sur ce nombre est d abord repondue par une action illegale. */
+    private static final int ILLEGAL_EVERY = 100;
+
+    /** Action qu aucune table ne propose. */
+    private static final int ILLEGAL = 12345;
+
+    /** Duree maximale d un test avant de le declarer bloque. */
+    private static final long TIMEOUT_SECONDS = 120;
+
+    private static int failures;
+
+    private GameStateMachineTest() {}
+
+    public static void main(String[] args) throws InterruptedException {
+        run("meme partie que le moteur sur " + GAMES + " parties", GameStateMachineTest::sameAsEngine);
+        run("decisions externes legales et illegales", GameStateMachineTest::externalDecisions);
+        run("planificateur de " + TABLES + " tables", GameStateMachineTest::scheduler);
+        if (failures > 0) {
+            System.out.println(failures + " test(s) en echec");
+            System.exit(1);
+        }
+        System.out.println("GameStateMachineTest : tous les tests passent");
+    }
+
+    /**
+     * Joue chaque partie avec le moteur puis avec la machine a etats.
+     */
+    private static void sameAsEngine() {
+        for (int i = 0; i < GAMES; i++) {
+            boolean extension = (i & 2) != 0;
+            List<Strategy> strategies = new ArrayList<>();
+            for (int p = 0; p < 3 + (i & 1); p++) {
+                strategies.add(p % 2 == 0 ? new Strategy1() : new Strategy2());
+            }
+
+            GameEngine engine = GameEngine.headless(newGame(strategies, i, extension));
+            engine.playGame();
+            GameStateMachine table = new GameStateMachine(newGame(strategies, i, extension));
+            check(table.advance() == GameStateMachine.State.FINISHED, "partie " + i + " : decision attendue");
+
+            check(signature(engine.getGame()).equals(signature(table.getGame())), "partie " + i + " : Jests ou scores differents");
+            check(engine.getWinner().getName().equals(table.getWinner().getName()), "partie " + i + " : gagnant different");
+        }
+    }
+
+    /**
+     * Mene une table de joueurs humains en repondant au hasard, apres une
+     * reponse illegale a chaque question.
+     */
+    private static void externalDecisions() {
+        Random random = new Random(3);
+        int[] legal = new int[CompactAction.MAX_ACTIONS];
+        for (int i = 0; i < 200; i++) {
+            List<Strategy> strategies = new ArrayList<>();
+            for (int p = 0; p < 3 + (i & 1); p++) {
+                strategies.add(new HumanStrategy());
+            }
+            GameStateMachine table = new GameStateMachine(newGame(strategies, i, (i & 2) != 0));
+            while (table.advance() != GameStateMachine.State.FINISHED) {
+                check(table.isWaiting(), "partie " + i + " : ni finie ni en attente");
+                GameStateMachine.State state = table.getState();
+                Player waiting = table.getWaitingPlayer();
+                try {
+                    table.submit(ILLEGAL);
+                    throw new AssertionError("partie " + i + " : action illegale acceptee");
+                } catch (IllegalArgumentException e) {
+                    check(table.getState() == state && table.getWaitingPlayer() == waiting,
+                            "partie " + i + " : etat modifie par une action illegale");
+                }
+                int count = table.getLegalActions(legal);
+                table.submit(legal[random.nextInt(count)]);
+            }
+            check(table.getWinner() != null, "partie " + i + " : pas de gagnant");
+            for (Player player : table.getGame().getPlayers()) {
+                check(!player.getJest().getCards().isEmpty(), "partie " + i + " : Jest vide pour " + player.getName());
+            }
+        }
+    }
+
+    /**
+     * Un planificateur, des tables a deux humains et une IA, les reponses
+     * envoyees depuis un autre thread.
+     */
+    private static void scheduler() {
+        ExecutorService answers = Executors.newSingleThreadExecutor();
+        CountDownLatch done = new CountDownLatch(TABLES);
+        AtomicLong decisions = new AtomicLong();
+        AtomicLong illegal = new AtomicLong();
+        Random random = new Random(1);
+        TableScheduler[] holder = new TableScheduler[1];
+        holder[0] = new TableScheduler(new TableScheduler.DecisionHandler() {
+            @Override
+            public void onDecision(GameStateMachine table, Player player, int[] actions, int count) {
+                int action = decisions.incrementAndGet() % ILLEGAL_EVERY == 0 ? ILLEGAL : actions[random.nextInt(count)];
+                if (action == ILLEGAL) {
+                    illegal.incrementAndGet();
+                }
+                answers.execute(() -> holder[0].submit(table, action));
+            }
+
+            @Override
+            public void onFinished(GameStateMachine table) {
+                done.countDown();
+            }
+        });
+        try {
+            for (int i = 0; i < TABLES; i++) {
+                List<Strategy> strategies = List.of(new HumanStrategy(), new Strategy1(), new HumanStrategy());
+                holder[0].add(new GameStateMachine(newGame(strategies, i, false)));
+            }
+            check(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "tables non terminees : " + done.getCount());
+            check(holder[0].getFinished() == TABLES, "tables terminees : " + holder[0].getFinished());
+            check(holder[0].getFailed() == 0, "tables abandonnees : " + holder[0].getLastFailure());
+            check(holder[0].getRejected() == illegal.get(),
+                    "refus : " + holder[0].getRejected() + " au lieu de " + illegal.get());
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        } finally {
+            holder[0].close();
+            answers.shutdown();
+        }
+    }
+
+    private static Game newGame(List<Strategy> strategies, long seed, boolean extension) {
+        Game game = new Game();
+        game.setSeed(seed);
+        for (int i = 0; i < strategies.size(); i++) {
+            game.addPlayer(new Player("Joueur " + i, strategies.get(i)));
+        }
+        game.setRuleSet(new Rule1());
+        game.setExtensionCards(extension);
+        game.getDeck().initialize(extension);
+        game.start();
+        return game;
+    }
+
+    /**
+     * Resume une partie terminee : score et Jest de chaque joueur.
+     */
+    private static String signature(Game game) {
+        StringBuilder s = new StringBuilder();
+        for (Player p : game.getPlayers()) {
+            s.append(p.getFinalScore()).append(p.getJest().getCards()).append(';');
+        }
+        return s.toString();
+    }
+
+    /**
+     * Lance un test dans un thread et le declare en echec s il ne se
+     * termine pas a temps.
+     */
+    private static void run(String name, Runnable test) throws InterruptedException {
+        Throwable[] error = new Throwable[1];
+        Thread thread = new Thread(() -> {
+            try {
+                test.run();
+            } catch (Throwable e) {
+                error[0] = e;
+            }
+        }, "test");
+        thread.setDaemon(true);
+        thread.start();
+        thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        if (thread.isAlive()) {
+            error[0] = new AssertionError("bloque depuis " + TIMEOUT_SECONDS + " s");
+        }
+        if (error[0] == null) {
+            System.out.println("OK     " + name);
+        } else {
+            failures++;
+            System.out.println("ECHEC  " + name + " : " + error[0]);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
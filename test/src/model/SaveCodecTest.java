@@ -0,0 +1,268 @@
+package model;
+
+import controller.AutosaveService;
+import controller.GameEngine;
+import model.rules.Rule1;
+import model.rules.Rule2;
+import model.rules.Rule3;
+import strategy.EndgameStrategy;
+import strategy.MctsStrategy;
+import strategy.Strategy;
+import strategy.Strategy1;
+import strategy.Strategy2;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests de {@link SaveCodec}.
+ *
+ * <p>Les parties sont interrompues a un tour tire au hasard, avec 3 ou 4
+ * joueurs, les trois variantes de regles, avec ou sans cartes 5-8 et des
+ * strategies de tous les types enregistres.</p>
+ *
+ * <h2>Verifications :</h2>
+ * <ul>
+ *   <li>Une partie decodee se recode a l identique, a le meme etat et se
+ *       termine comme l originale</li>
+ *   <li>Une ancienne sauvegarde (serialisation Java, joueur MCTS d avant la
+ *       recherche parallele) se charge, se recode et se joue</li>
+ *   <li>Une partie que le codage rejette ne fait pas echouer la sauvegarde
+ *       automatique : l erreur est conservee</li>
+ * </ul>
+ *
+ * <p>Lance par {@code ./test.sh} ; le code de sortie est non nul en cas d echec.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ */
+public final class SaveCodecTest {
+
+    /** Nombre de parties sauvegardees en cours de jeu. */
+    private static final int GAMES = 500;
+
+    /** Iterations des joueurs MCTS, reduites pour la duree du test. */
+    private static final int MCTS_ITERATIONS = 16;
+
+    /** Duree maximale d un test avant de le declarer bloque. */
+    private static final long TIMEOUT_SECONDS = 120;
+
+    private static int failures;
+
+    private SaveCodecTest() {}
+
+    public static void main(String[] args) throws InterruptedException {
+        run("aller-retour de parties en cours", SaveCodecTest::roundTrip);
+        run("ancienne sauvegarde avec un joueur MCTS", SaveCodecTest::legacyMcts);
+        run("sauvegarde automatique d une partie non codable", SaveCodecTest::autosaveFailure);
+        if (failures > 0) {
+            System.out.println(failures + " test(s) en echec");
+            System.exit(1);
+        }
+        System.out.println("SaveCodecTest : tous les tests passent");
+    }
+
+    /**
+     * Code, decode et recode des parties interrompues, puis termine
+     * l originale et la copie decodee.
+     */
+    private static void roundTrip() {
+        Random random = new Random(7);
+        for (int i = 0; i < GAMES; i++) {
+            Game game = newGame(random.nextLong(), random, null);
+            GameEngine engine = GameEngine.headless(game);
+            boolean more = engine.playUntil(1 + random.nextInt(8));
+
+            byte[] data = SaveCodec.encode(game);
+            Game decoded = decode(data);
+            check(Arrays.equals(data, SaveCodec.encode(decoded)), "partie " + i + " recodee differemment");
+            check(signature(game).equals(signature(decoded)), "partie " + i + " decodee differente");
+
+            // A egalite, le choix du solveur de fin de partie depend de sa table de
+            // transposition partagee, donc des recherches precedentes : seules les
+            // parties sans ce joueur sont rejouees
+            if (more && !hasEndgamePlayer(game)) {
+                engine.playGame();
+                GameEngine.headless(decoded).playGame();
+                check(signature(game).equals(signature(decoded)), "partie " + i + " terminee differemment");
+            }
+        }
+    }
+
+    /**
+     * Les joueurs MCTS serialises avant la recherche parallele n ont ni
+     * nombre de threads (0) ni mode (null).
+     */
+    private static void legacyMcts() {
+        Game game = newGame(42, new Random(42), legacyMctsStrategy());
+        GameEngine.headless(game).playUntil(3);
+
+        try {
+            Path file = Files.createTempFile("jest-legacy", ".jest");
+            try {
+                try (OutputStream out = Files.newOutputStream(file);
+                     ObjectOutputStream objects = new ObjectOutputStream(out)) {
+                    objects.writeObject(game);
+                }
+                Game loaded = SaveCodec.load(file);
+                MctsStrategy mcts = (MctsStrategy) loaded.getPlayers().get(0).getStrategy();
+                check(mcts.getThreads() == 1, "threads : " + mcts.getThreads());
+                check(mcts.getParallelism() == MctsStrategy.Parallelism.ROOT, "mode : " + mcts.getParallelism());
+                check(signature(game).equals(signature(loaded)), "ancienne sauvegarde chargee differente");
+
+                byte[] data = SaveCodec.encode(loaded);
+                check(Arrays.equals(data, SaveCodec.encode(decode(data))), "ancienne sauvegarde recodee differemment");
+                GameEngine.headless(loaded).playGame();
+                check(loaded.getPlayers().get(0).getJest().getCards().size() > 0, "partie chargee non jouee");
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Un joueur MCTS dont le mode est absent fait echouer le codage : la
+     * partie continue et l erreur est conservee.
+     */
+    private static void autosaveFailure() {
+        Game game = newGame(43, new Random(43), legacyMctsStrategy());
+        try {
+            Path file = Files.createTempFile("jest-autosave", ".jest");
+            AutosaveService autosave = new AutosaveService(file);
+            try {
+                autosave.checkpoint(game);
+                check(autosave.getLastError() != null, "erreur de codage non conservee");
+                check(autosave.getLastError().getCause() instanceof NullPointerException,
+                        "erreur conservee : " + autosave.getLastError());
+            } finally {
+                try {
+                    autosave.close();
+                } catch (IOException e) {
+                    // L erreur conservee est signalee a la fermeture
+                }
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Retourne une strategie MCTS dans l etat d une ancienne sauvegarde.
+     */
+    private static MctsStrategy legacyMctsStrategy() {
+        MctsStrategy strategy = new MctsStrategy(MCTS_ITERATIONS, 0);
+        try {
+            Field threads = MctsStrategy.class.getDeclaredField("threads");
+            Field parallelism = MctsStrategy.class.getDeclaredField("parallelism");
+            threads.setAccessible(true);
+            parallelism.setAccessible(true);
+            threads.setInt(strategy, 0);
+            parallelism.set(strategy, null);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+        return strategy;
+    }
+
+    /**
+     * Cree une partie aux strategies tirees au hasard, sauf celle du
+     * premier joueur si elle est donnee.
+     */
+    private static Game newGame(long seed, Random random, Strategy first) {
+        Game game = new Game();
+        game.setSeed(seed);
+        int players = 3 + random.nextInt(2);
+        for (int i = 0; i < players; i++) {
+            Strategy strategy = i == 0 && first != null ? first : strategy(random.nextInt(4));
+            game.addPlayer(new Player("Joueur " + i, strategy));
+        }
+        RuleSet[] rules = {new Rule1(), new Rule2(), new Rule3()};
+        game.setRuleSet(rules[random.nextInt(rules.length)]);
+        boolean extension = random.nextBoolean();
+        game.setExtensionCards(extension);
+        game.getDeck().initialize(extension);
+        game.start();
+        return game;
+    }
+
+    private static Strategy strategy(int kind) {
+        switch (kind) {
+            case 0: return new Strategy1();
+            case 1: return new Strategy2();
+            case 2: return new EndgameStrategy(new Strategy1(), 50, 200);
+            default: return new MctsStrategy(MCTS_ITERATIONS, 0);
+        }
+    }
+
+    private static boolean hasEndgamePlayer(Game game) {
+        for (Player p : game.getPlayers()) {
+            if (p.getStrategy() instanceof EndgameStrategy) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resume l etat visible d une partie : scores, Jests, mains et tour.
+     */
+    private static String signature(Game game) {
+        StringBuilder s = new StringBuilder();
+        for (Player p : game.getPlayers()) {
+            s.append(p.getName()).append(p.getFinalScore()).append(p.getJest().getCards())
+                    .append(p.getHand()).append(';');
+        }
+        return s.append(game.getCurrentRound()).toString();
+    }
+
+    private static Game decode(byte[] data) {
+        try {
+            return SaveCodec.decode(data);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Lance un test dans un thread et le declare en echec s il ne se
+     * termine pas a temps.
+     */
+    private static void run(String name, Runnable test) throws InterruptedException {
+        Throwable[] error = new Throwable[1];
+        Thread thread = new Thread(() -> {
+            try {
+                test.run();
+            } catch (Throwable e) {
+                error[0] = e;
+            }
+        }, "test");
+        thread.setDaemon(true);
+        thread.start();
+        thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        if (thread.isAlive()) {
+            error[0] = new AssertionError("bloque depuis " + TIMEOUT_SECONDS + " s");
+        }
+        if (error[0] == null) {
+            System.out.println("OK     " + name);
+        } else {
+            failures++;
+            System.out.println("ECHEC  " + name + " : " + error[0]);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
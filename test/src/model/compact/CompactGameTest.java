@@ -0,0 +1,258 @@
+package model.compact;
+
+import controller.GameEngine;
+import model.*;
+import model.rules.Rule1;
+import strategy.AIStrategy;
+import strategy.Strategy;
+import strategy.Strategy1;
+import strategy.Strategy2;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests de {@link CompactGame}.
+ *
+ * <p>Les parties sont jouees au hasard parmi les actions legales, a 3 et
+ * 4 joueurs, avec et sans cartes 5-8.</p>
+ *
+ * <h2>Verifications :</h2>
+ * <ul>
+ *   <li>Chaque action annulee aussitot ({@link CompactGame#undo()}) rend
+ *       l etat d avant, et la rejouer rend celui d apres</li>
+ *   <li>Une partie entiere annulee action par action repasse par tous ses
+ *       etats, retrouve la profondeur 0, et se rejoue a l identique</li>
+ *   <li>Une partie compacte qui suit une partie du moteur decision par
+ *       decision reste identique a son chargement ({@link CompactGame#load}),
+ *       ne propose que des prises legales, et finit avec les memes Jests,
+ *       scores et gagnant</li>
+ * </ul>
+ *
+ * <p>Lance par {@code ./test.sh} ; le code de sortie est non nul en cas d echec.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ */
+public final class CompactGameTest {
+
+    /** Nombre de parties jouees puis annulees. */
+    private static final int UNDO_GAMES = 5000;
+
+    /** Nombre de parties du moteur suivies par le modele compact. */
+    private static final int REPLAY_GAMES = 3000;
+
+    /** Duree maximale d un test avant de le declarer bloque. */
+    private static final long TIMEOUT_SECONDS = 120;
+
+    private static int failures;
+
+    private CompactGameTest() {}
+
+    public static void main(String[] args) throws InterruptedException {
+        run("apply et undo sur " + UNDO_GAMES + " parties", CompactGameTest::applyUndo);
+        run("parties du moteur rejouees sur " + REPLAY_GAMES + " parties", CompactGameTest::replay);
+        if (failures > 0) {
+            System.out.println(failures + " test(s) en echec");
+            System.exit(1);
+        }
+        System.out.println("CompactGameTest : tous les tests passent");
+    }
+
+    /**
+     * Joue chaque partie en annulant et rejouant chaque action, puis
+     * l annule entierement et la rejoue.
+     */
+    private static void applyUndo() {
+        GameRandom random = new GameRandom(1);
+        int[] legal = new int[CompactAction.MAX_ACTIONS];
+        for (int i = 0; i < UNDO_GAMES; i++) {
+            CompactGame game = new CompactGame();
+            game.load(newGame(i, 3 + (i & 1), (i & 2) != 0));
+
+            List<String> states = new ArrayList<>();
+            List<Integer> actions = new ArrayList<>();
+            while (true) {
+                String before = state(game);
+                states.add(before);
+                if (game.isOver()) {
+                    break;
+                }
+                int count = game.legalActions(legal);
+                int action = legal[random.nextInt(count)];
+                actions.add(action);
+                game.apply(action);
+                String after = state(game);
+
+                game.undo();
+                check(state(game).equals(before), "partie " + i + " : undo de " + CompactAction.toString(action));
+                game.apply(action);
+                check(state(game).equals(after), "partie " + i + " : apply apres undo de " + CompactAction.toString(action));
+            }
+
+            int score = game.score(0);
+            for (int j = actions.size() - 1; j >= 0; j--) {
+                int undone = game.undo();
+                check(undone == actions.get(j), "partie " + i + " : action annulee " + CompactAction.toString(undone));
+                check(state(game).equals(states.get(j)), "partie " + i + " : etat apres " + (actions.size() - j) + " annulations");
+            }
+            check(game.getDepth() == 0, "partie " + i + " : profondeur " + game.getDepth());
+
+            for (int action : actions) {
+                game.apply(action);
+            }
+            check(game.isOver() && game.score(0) == score, "partie " + i + " : partie rejouee differente");
+        }
+    }
+
+    /**
+     * Joue chaque partie avec le moteur ; a chaque decision, la partie
+     * compacte qui la suit est comparee au chargement de la partie du modele.
+     */
+    private static void replay() {
+        for (int i = 0; i < REPLAY_GAMES; i++) {
+            int players = 3 + (i & 1);
+            CompactGame shadow = new CompactGame();
+            List<Strategy> strategies = new ArrayList<>();
+            for (int p = 0; p < players; p++) {
+                strategies.add(new Follower(shadow, i));
+            }
+            Game game = newGame(i, strategies, (i & 2) != 0);
+            shadow.load(game);
+            GameEngine engine = GameEngine.headless(game);
+            engine.playGame();
+
+            check(shadow.isOver(), "partie " + i + " : partie compacte non terminee");
+            for (int p = 0; p < players; p++) {
+                Player player = game.getPlayers().get(p);
+                check(shadow.getJestMask(p) == player.getJest().getCardMask(), "partie " + i + " : Jest de " + player.getName());
+                check(shadow.score(p) == player.getFinalScore(), "partie " + i + " : score de " + player.getName());
+            }
+            check(game.getPlayers().get(shadow.winner()) == engine.getWinner(), "partie " + i + " : gagnant different");
+        }
+    }
+
+    /**
+     * Joue comme {@link Strategy2} et reporte chaque decision sur la partie
+     * compacte suivie, apres l avoir comparee a la partie du modele.
+     */
+    private static final class Follower extends AIStrategy {
+
+        private final Strategy inner = new Strategy2();
+        private final CompactGame shadow;
+        private final int index;
+        private final int[] legal = new int[CompactAction.MAX_ACTIONS];
+
+        Follower(CompactGame shadow, int index) {
+            this.shadow = shadow;
+            this.index = index;
+        }
+
+        @Override
+        public Offer chooseOffer(Player player, List<Card> hand, Game game) {
+            compare(game);
+            Offer offer = inner.chooseOffer(player, hand, game);
+            shadow.apply(CompactAction.offer(CardCodec.idOf(offer.getFaceDown())));
+            return offer;
+        }
+
+        @Override
+        public Card chooseTake(Player player, List<Offer> offers, Game game) {
+            compare(game);
+            int count = shadow.legalActions(legal);
+            Card card = inner.chooseTake(player, offers, game);
+            int action = CompactAction.take(game.getPlayers().indexOf(card.getLastOfferOwner()), card.wasTakenHidden());
+            boolean found = false;
+            for (int i = 0; i < count; i++) {
+                found |= legal[i] == action;
+            }
+            check(found, "partie " + index + " : prise illegale " + CompactAction.toString(action));
+            shadow.apply(action);
+            return card;
+        }
+
+        private void compare(Game game) {
+            if (shadow.getPhase() == CompactGame.PHASE_DEAL) {
+                shadow.apply(CompactAction.DEAL);
+            }
+            CompactGame loaded = new CompactGame();
+            loaded.load(game);
+            check(summary(loaded).equals(summary(shadow)), "partie " + index + " : etat different avant la decision");
+        }
+
+        private static String summary(CompactGame game) {
+            return game.toString() + game.getDeck() + game.getCurrentPlayer();
+        }
+    }
+
+    /**
+     * Cree une partie du modele prete pour le premier tour.
+     */
+    private static Game newGame(long seed, int players, boolean extension) {
+        List<Strategy> strategies = new ArrayList<>();
+        for (int p = 0; p < players; p++) {
+            strategies.add(new Strategy1());
+        }
+        return newGame(seed, strategies, extension);
+    }
+
+    private static Game newGame(long seed, List<Strategy> strategies, boolean extension) {
+        Game game = new Game();
+        game.setSeed(seed);
+        for (int p = 0; p < strategies.size(); p++) {
+            game.addPlayer(new Player("Joueur " + p, strategies.get(p)));
+        }
+        game.setRuleSet(new Rule1());
+        game.setExtensionCards(extension);
+        game.getDeck().initialize(extension);
+        game.start();
+        return game;
+    }
+
+    /**
+     * Resume l etat complet d une partie compacte.
+     */
+    private static String state(CompactGame game) {
+        StringBuilder s = new StringBuilder(game.toString())
+                .append(game.getDeck()).append(game.getCarry())
+                .append(game.getCurrentPlayer()).append(game.getPhase()).append(game.getRound());
+        for (int p = 0; p < game.getPlayerCount(); p++) {
+            s.append(game.getJestMask(p)).append(game.getOffer(p).getFaceUp()).append(game.getOffer(p).getFaceDown());
+        }
+        return s.toString();
+    }
+
+    /**
+     * Lance un test dans un thread et le declare en echec s il ne se
+     * termine pas a temps.
+     */
+    private static void run(String name, Runnable test) throws InterruptedException {
+        Throwable[] error = new Throwable[1];
+        Thread thread = new Thread(() -> {
+            try {
+                test.run();
+            } catch (Throwable e) {
+                error[0] = e;
+            }
+        }, "test");
+        thread.setDaemon(true);
+        thread.start();
+        thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        if (thread.isAlive()) {
+            error[0] = new AssertionError("bloque depuis " + TIMEOUT_SECONDS + " s");
+        }
+        if (error[0] == null) {
+            System.out.println("OK     " + name);
+        } else {
+            failures++;
+            System.out.println("ECHEC  " + name + " : " + error[0]);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
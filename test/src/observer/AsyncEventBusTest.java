@@ -0,0 +1,217 @@
+package observer;
+
+import model.Card;
+import model.Offer;
+import model.Player;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tests de {@link AsyncEventBus}.
+ *
+ * <p>Un seul producteur publie des evenements numerotes (le numero de tour
+ * sert de numero de sequence) vers plusieurs observateurs de vitesses
+ * differentes, avec un tampon bien plus petit que le nombre d evenements
+ * pour que le tampon fasse de nombreux tours.</p>
+ *
+ * <h2>Verifications :</h2>
+ * <ul>
+ *   <li>Chaque observateur recoit tous les evenements, dans l ordre, depuis un seul thread</li>
+ *   <li>Au retour de {@link AsyncEventBus#awaitDelivered()}, tout ce qui a ete publie est traite</li>
+ *   <li>Un observateur qui leve une erreur ne bloque pas le producteur</li>
+ * </ul>
+ *
+ * <p>Lance par {@code ./test.sh} ; le code de sortie est non nul en cas d echec.</p>
+ *
+ * @author Projet LO02 - UTT
+ * @version 2.0
+ * @since 2.0
+ */
+public final class AsyncEventBusTest {
+
+    /** Nombre d evenements publies par test. */
+    private static final int EVENTS = 20_000;
+
+    /** Publication par paquets entre deux appels a awaitDelivered. */
+    private static final int CHECKPOINT = 1_000;
+
+    /** Duree maximale d un test avant de le declarer bloque. */
+    private static final long TIMEOUT_SECONDS = 60;
+
+    private static int failures;
+
+    private AsyncEventBusTest() {}
+
+    public static void main(String[] args) throws InterruptedException {
+        run("ordre par observateur, sans lots", () -> orderAndDelivery(8, 1));
+        run("ordre par observateur, lots de 4", () -> orderAndDelivery(8, 4));
+        run("observateur levant une erreur", AsyncEventBusTest::failingObserver);
+        if (failures > 0) {
+            System.out.println(failures + " test(s) en echec");
+            System.exit(1);
+        }
+        System.out.println("AsyncEventBusTest : tous les tests passent");
+    }
+
+    /**
+     * Un producteur, trois observateurs (rapide, lent, tres lent).
+     */
+    private static void orderAndDelivery(int capacity, int batchSize) {
+        AsyncEventBus bus = new AsyncEventBus(capacity, batchSize);
+        List<Recorder> recorders = new ArrayList<>();
+        recorders.add(new Recorder(0));
+        recorders.add(new Recorder(2_000));
+        recorders.add(new Recorder(20_000));
+        for (Recorder recorder : recorders) {
+            bus.subscribe(recorder);
+        }
+        bus.start();
+
+        for (int i = 0; i < EVENTS; i++) {
+            bus.publish(GameEvent.roundStart(i));
+            if ((i + 1) % CHECKPOINT == 0) {
+                bus.awaitDelivered();
+                for (Recorder recorder : recorders) {
+                    check(recorder.count() == i + 1, "awaitDelivered apres " + (i + 1)
+                            + " evenements, observateur a " + recorder.count());
+                }
+            }
+        }
+        bus.close();
+
+        check(bus.getPublished() == EVENTS, "publies : " + bus.getPublished());
+        check(bus.getFailures() == 0, "echecs : " + bus.getFailures());
+        for (Recorder recorder : recorders) {
+            recorder.checkComplete(EVENTS);
+        }
+    }
+
+    /**
+     * Un observateur leve une erreur a chaque evenement : le tampon fait
+     * de nombreux tours sans que le producteur reste bloque.
+     */
+    private static void failingObserver() {
+        AsyncEventBus bus = new AsyncEventBus(8, 1);
+        Recorder healthy = new Recorder(0);
+        bus.subscribe(new GameObserverAdapter() {
+            @Override
+            public void onRoundStart(int roundNumber) {
+                throw new AssertionError("erreur d observateur " + roundNumber);
+            }
+        });
+        bus.subscribe(healthy);
+        bus.start();
+
+        for (int i = 0; i < EVENTS; i++) {
+            bus.publish(GameEvent.roundStart(i));
+        }
+        bus.close();
+
+        check(bus.getFailures() == EVENTS, "echecs comptes : " + bus.getFailures());
+        check(bus.getLastFailure() instanceof AssertionError, "derniere erreur : " + bus.getLastFailure());
+        healthy.checkComplete(EVENTS);
+    }
+
+    /**
+     * Lance un test dans un thread et le declare en echec s il ne se
+     * termine pas a temps.
+     */
+    private static void run(String name, Runnable test) throws InterruptedException {
+        Throwable[] error = new Throwable[1];
+        Thread thread = new Thread(() -> {
+            try {
+                test.run();
+            } catch (Throwable e) {
+                error[0] = e;
+            }
+        }, "test");
+        thread.setDaemon(true);
+        thread.start();
+        thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        if (thread.isAlive()) {
+            error[0] = new AssertionError("bloque depuis " + TIMEOUT_SECONDS + " s");
+        }
+        if (error[0] == null) {
+            System.out.println("OK     " + name);
+        } else {
+            failures++;
+            System.out.println("ECHEC  " + name + " : " + error[0]);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Observateur qui memorise les numeros recus et le thread qui les livre.
+     */
+    private static final class Recorder extends GameObserverAdapter {
+
+        private final long pauseNanos;
+        private final int[] received = new int[EVENTS];
+        private volatile int count;
+        private Thread thread;
+        private boolean otherThread;
+
+        private Recorder(long pauseNanos) {
+            this.pauseNanos = pauseNanos;
+        }
+
+        @Override
+        public void onRoundStart(int roundNumber) {
+            if (thread == null) {
+                thread = Thread.currentThread();
+            } else if (thread != Thread.currentThread()) {
+                otherThread = true;
+            }
+            received[count] = roundNumber;
+            count++;
+            if (pauseNanos > 0) {
+                LockSupport.parkNanos(pauseNanos);
+            }
+        }
+
+        private int count() {
+            return count;
+        }
+
+        private void checkComplete(int expected) {
+            check(count == expected, "recus : " + count + " au lieu de " + expected);
+            check(!otherThread, "evenements livres depuis plusieurs threads");
+            for (int i = 0; i < expected; i++) {
+                check(received[i] == i, "evenement " + received[i] + " recu en position " + i);
+            }
+        }
+    }
+
+    /**
+     * Observateur sans effet, a completer par les tests.
+     */
+    private static class GameObserverAdapter implements GameObserver {
+
+        @Override
+        public void onRoundStart(int roundNumber) {
+        }
+
+        @Override
+        public void onOffersCreated(List<Offer> offers) {
+        }
+
+        @Override
+        public void onCardTaken(Player player, Card card) {
+        }
+
+        @Override
+        public void onGameEnd(Player winner) {
+        }
+
+        @Override
+        public void onMessage(String message) {
+        }
+    }
+}